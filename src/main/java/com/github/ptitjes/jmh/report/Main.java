@@ -1,6 +1,22 @@
 package com.github.ptitjes.jmh.report;
 
+import com.github.ptitjes.jmh.report.adaptive.AdaptiveConfiguration;
+import com.github.ptitjes.jmh.report.adaptive.AdaptiveRunner;
+import com.github.ptitjes.jmh.report.budget.BudgetViolation;
+import com.github.ptitjes.jmh.report.checkpoint.Checkpoint;
+import com.github.ptitjes.jmh.report.checkpoint.CheckpointingOutputFormat;
+import com.github.ptitjes.jmh.report.checkpoint.RunPlanner;
+import com.github.ptitjes.jmh.report.data.ResultParsers;
+import com.github.ptitjes.jmh.report.data.RunResultData;
+import com.github.ptitjes.jmh.report.env.Environment;
+import com.github.ptitjes.jmh.report.env.EnvironmentProbe;
+import com.github.ptitjes.jmh.report.env.NoiseMonitor;
+import com.github.ptitjes.jmh.report.options.JvmConfiguration;
+import com.github.ptitjes.jmh.report.options.JvmConfigurationFileReader;
 import com.github.ptitjes.jmh.report.options.ReportCommandLineOptions;
+import com.github.ptitjes.jmh.report.server.ReportServer;
+import com.github.ptitjes.jmh.report.stats.LatinHypercubeSampler;
+import org.openjdk.jmh.infra.BenchmarkParams;
 import org.openjdk.jmh.results.RunResult;
 import org.openjdk.jmh.results.format.ResultFormatType;
 import org.openjdk.jmh.runner.Defaults;
@@ -11,7 +27,14 @@ import org.openjdk.jmh.runner.RunnerException;
 import org.openjdk.jmh.runner.options.*;
 import org.openjdk.jmh.util.Optional;
 
+import java.io.File;
+import java.net.InetAddress;
+import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.Set;
 
 /**
  * @author Didier Villevalois
@@ -24,13 +47,40 @@ public class Main {
 
 			Optional<String> regenReport = reportCmdOptions.getRegenReport();
 			if (regenReport.hasValue()) {
-				new ReportGenerator().makeReportFromResultFile(regenReport.get());
+				List<BudgetViolation> violations =
+						new ReportGenerator(reportCmdOptions).makeReportFromResultFile(regenReport.get());
+				exitOnViolations(violations);
 				return;
 			}
 
-			CommandLineOptions cmdOptions = new CommandLineOptions(args);
+			Optional<Integer> serve = reportCmdOptions.getServe();
+			if (serve.hasValue()) {
+				Optional<Integer> serveCache = reportCmdOptions.getServeCache();
+				long cacheSize = serveCache.hasValue() ? serveCache.get() * 1024L * 1024L : ReportServer.DEFAULT_CACHE_SIZE;
+				Optional<String> serveAddress = reportCmdOptions.getServeAddress();
+				InetAddress address = serveAddress.hasValue() ?
+						InetAddress.getByName(serveAddress.get()) : InetAddress.getLoopbackAddress();
+				new ReportServer(new File("results"), cacheSize).start(address, serve.get());
+				System.out.println("Serving reports of results/ on http://" + address.getHostAddress() + ":" + serve.get() + "/");
+				return;
+			}
 
-			String date = ReportGenerator.reportDate();
+			CommandLineOptions cmdOptions = new CommandLineOptions(reportCmdOptions.getJmhArgs());
+
+			Optional<String> resume = reportCmdOptions.getResume();
+			String date;
+			File checkpointFile;
+			if (resume.hasValue()) {
+				checkpointFile = resume.get().isEmpty() ? Checkpoint.latestIn(new File("results")) : new File(resume.get());
+				if (checkpointFile == null || !checkpointFile.exists()) {
+					System.err.println("No checkpoint to resume from.");
+					System.exit(1);
+				}
+				date = ResultParsers.baseName(checkpointFile.getName());
+			} else {
+				date = ReportGenerator.reportDate();
+				checkpointFile = new File("results/" + date + Checkpoint.EXTENSION);
+			}
 
 			Options options = new OptionsBuilder()
 					.parent(cmdOptions)
@@ -65,9 +115,128 @@ public class Main {
 				return;
 			}
 
+			// Checkpoints do not tell distributions apart, so they could not be resumed nor completed adaptively
+			Optional<List<int[]>> threadGroups = reportCmdOptions.getThreadGroups();
+			if (threadGroups.hasValue() && (resume.hasValue() || reportCmdOptions.getSample().hasValue() ||
+					reportCmdOptions.getAdaptive().hasValue())) {
+				System.err.println("-threadGroups cannot be combined with -resume, -sample nor -adaptive.");
+				System.exit(1);
+			}
+
+			List<JvmConfiguration> jvmConfigurations = null;
+			Optional<String> jvmConfigs = reportCmdOptions.getJvmConfigs();
+			if (jvmConfigs.hasValue()) {
+				if (resume.hasValue() || reportCmdOptions.getSample().hasValue() ||
+						reportCmdOptions.getAdaptive().hasValue() || threadGroups.hasValue()) {
+					System.err.println("-jvmConfigs cannot be combined with -resume, -sample, -adaptive nor -threadGroups.");
+					System.exit(1);
+				}
+				jvmConfigurations = new JvmConfigurationFileReader().readFrom(new File(jvmConfigs.get()));
+			}
+
+			Checkpoint checkpoint = new Checkpoint(checkpointFile);
 			try {
-				Collection<RunResult> runResults = runner.run();
-				new ReportGenerator().makeReport("results/" + date + ".pdf", runResults);
+				EnvironmentProbe environmentProbe = new EnvironmentProbe();
+				Environment environment = environmentProbe.capture(date);
+
+				LatinHypercubeSampler sampler = null;
+				Optional<Integer> sample = reportCmdOptions.getSample();
+				if (sample.hasValue()) {
+					Optional<Long> sampleSeed = reportCmdOptions.getSampleSeed();
+					sampler = new LatinHypercubeSampler(sample.get(), sampleSeed.hasValue() ? sampleSeed.get() : 0L);
+					environment.put("sampling", "latin hypercube, " + sampler.getSampleSize() + " per benchmark, seed " + sampler.getSeed());
+				}
+				RunPlanner planner = new RunPlanner(cmdOptions, checkpoint, sampler);
+
+				NoiseMonitor noiseMonitor = null;
+				Optional<Integer> noiseInterval = reportCmdOptions.getNoiseInterval();
+				long interval = noiseInterval.hasValue() ? noiseInterval.get() : NoiseMonitor.DEFAULT_INTERVAL;
+				if (interval > 0) {
+					noiseMonitor = new NoiseMonitor(new File("/"), interval);
+					if (noiseMonitor.isSupported()) {
+						environment.put("noise.monitor", "every " + interval + " ms");
+						noiseMonitor.start();
+					} else {
+						noiseMonitor = null;
+					}
+				}
+
+				// Resumed results may be measured on another host than the one the run was started on
+				File environmentFile = Environment.fileFor(checkpointFile.getPath());
+				File runEnvironmentFile = null;
+				Environment startEnvironment = checkpoint.getEnvironment();
+				if (startEnvironment == null) {
+					checkpoint.recordEnvironment(environment);
+					runEnvironmentFile = environmentFile;
+					environment.writeTo(runEnvironmentFile);
+				} else {
+					if (!environmentFile.exists()) startEnvironment.writeTo(environmentFile);
+					Set<String> differingKeys = Environment.differingKeys(Arrays.asList(startEnvironment, environment));
+					if (!differingKeys.isEmpty()) {
+						System.err.println("Resuming in another environment than the run was started in, differing by " +
+								differingKeys + ".");
+						runEnvironmentFile = Environment.resumedFileFor(checkpointFile.getPath());
+						environment.writeTo(runEnvironmentFile);
+					}
+				}
+
+				Optional<Double> adaptive = reportCmdOptions.getAdaptive();
+				BenchmarkParams firstParams = null;
+				Collection<RunResult> runResults = new ArrayList<>();
+				try {
+					if (adaptive.hasValue()) {
+						AdaptiveConfiguration adaptiveConfiguration = new AdaptiveConfiguration();
+						adaptiveConfiguration.targetRelativeError = adaptive.get();
+						Optional<Integer> adaptiveBudget = reportCmdOptions.getAdaptiveBudget();
+						if (adaptiveBudget.hasValue()) adaptiveConfiguration.timeBudget = adaptiveBudget.get() * 1000L;
+
+						List<RunResultData> adaptiveResults =
+								new AdaptiveRunner(cmdOptions, planner, checkpoint, adaptiveConfiguration, noiseMonitor).run();
+						if (!adaptiveResults.isEmpty()) firstParams = adaptiveResults.get(0).params;
+					} else if (resume.hasValue() || sampler != null) {
+						// Each pending run would overwrite the JMH result file, the checkpoint holds all the results instead
+						for (RunPlanner.PlannedRun run : planner.plan(CheckpointingOutputFormat.create(cmdOptions, checkpoint), false)) {
+							runResults.addAll(new Runner(run.options, CheckpointingOutputFormat.create(run.options, checkpoint, noiseMonitor)).run());
+						}
+					} else if (threadGroups.hasValue()) {
+						// The checkpoint holds the results of all the distributions
+						for (int[] distribution : threadGroups.get()) {
+							Options distributionOptions = new OptionsBuilder().parent(options).threadGroups(distribution).build();
+							runResults.addAll(new Runner(distributionOptions,
+									CheckpointingOutputFormat.create(distributionOptions, checkpoint, noiseMonitor)).run());
+						}
+					} else if (jvmConfigurations != null) {
+						// The checkpoint holds the results of all the configurations, tagged with their names
+						for (JvmConfiguration jvmConfiguration : jvmConfigurations) {
+							List<String> jvmArgsAppend = new ArrayList<>(cmdOptions.getJvmArgsAppend().orElse(Collections.<String>emptyList()));
+							jvmArgsAppend.addAll(jvmConfiguration.jvmArgs);
+							Options configurationOptions = new OptionsBuilder().parent(options)
+									.jvmArgsAppend(jvmArgsAppend.toArray(new String[jvmArgsAppend.size()])).build();
+							Collection<RunResult> configurationResults = new Runner(configurationOptions,
+									CheckpointingOutputFormat.create(configurationOptions, checkpoint, noiseMonitor, jvmConfiguration.name)).run();
+							if (!configurationResults.isEmpty()) {
+								environmentProbe.addForkedJvm(environment, configurationResults.iterator().next().getParams(),
+										"fork." + jvmConfiguration.name);
+							}
+							runResults.addAll(configurationResults);
+						}
+					} else {
+						runResults = new Runner(options, CheckpointingOutputFormat.create(options, checkpoint, noiseMonitor)).run();
+					}
+				} finally {
+					if (noiseMonitor != null) noiseMonitor.stop();
+				}
+
+				if (!runResults.isEmpty()) firstParams = runResults.iterator().next().getParams();
+				// Matrix runs record the forked JVM of each configuration instead
+				if (firstParams != null && jvmConfigurations == null) environmentProbe.addForkedJvm(environment, firstParams);
+				if (runEnvironmentFile != null) environment.writeTo(runEnvironmentFile);
+
+				ReportGenerator reportGenerator = new ReportGenerator(reportCmdOptions);
+				String reportFilename = "results/" + date + ".pdf";
+				// The checkpoint holds the warmup scores that JMH results do not keep
+				List<BudgetViolation> violations = reportGenerator.makeReport(reportFilename, checkpoint.readAll());
+				exitOnViolations(violations);
 			} catch (NoBenchmarksException e) {
 				System.err.println("No matching benchmarks. Miss-spelled regexp?");
 
@@ -85,6 +254,8 @@ public class Main {
 				System.err.print("ERROR: ");
 				e.printStackTrace(System.err);
 				System.exit(1);
+			} finally {
+				checkpoint.close();
 			}
 
 		} catch (CommandLineOptionException e) {
@@ -93,4 +264,14 @@ public class Main {
 			System.exit(1);
 		}
 	}
+
+	private static void exitOnViolations(List<BudgetViolation> violations) {
+		if (violations.isEmpty()) return;
+
+		System.err.println("Budget violations:");
+		for (BudgetViolation violation : violations) {
+			System.err.println(" " + violation);
+		}
+		System.exit(2);
+	}
 }
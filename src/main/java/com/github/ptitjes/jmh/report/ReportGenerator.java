@@ -1,15 +1,25 @@
 package com.github.ptitjes.jmh.report;
 
+import com.github.ptitjes.jmh.report.budget.BudgetChecker;
+import com.github.ptitjes.jmh.report.budget.BudgetConfiguration;
+import com.github.ptitjes.jmh.report.budget.BudgetViolation;
+import com.github.ptitjes.jmh.report.data.BenchmarkParamsFactory;
 import com.github.ptitjes.jmh.report.data.BenchmarkResultData;
-import com.github.ptitjes.jmh.report.data.JSONResultParser;
+import com.github.ptitjes.jmh.report.data.ResultParsers;
 import com.github.ptitjes.jmh.report.data.RunResultData;
-import com.github.ptitjes.jmh.report.format.PdfFormat;
+import com.github.ptitjes.jmh.report.env.Environment;
+import com.github.ptitjes.jmh.report.format.ReportBuilder;
+import com.github.ptitjes.jmh.report.format.ReportFormats;
+import com.github.ptitjes.jmh.report.format.ReportWriter;
 import com.github.ptitjes.jmh.report.format.RenderingConfiguration;
+import com.github.ptitjes.jmh.report.model.Report;
+import com.github.ptitjes.jmh.report.options.AnnotationReader;
+import com.github.ptitjes.jmh.report.options.BudgetFileReader;
+import com.github.ptitjes.jmh.report.options.ReportOptions;
+import com.github.ptitjes.jmh.report.stats.GridInterpolator;
+import com.github.ptitjes.jmh.report.stats.OutlierDetector;
 import org.openjdk.jmh.infra.BenchmarkParams;
-import org.openjdk.jmh.results.BenchmarkResult;
-import org.openjdk.jmh.results.IterationResult;
-import org.openjdk.jmh.results.Result;
-import org.openjdk.jmh.results.RunResult;
+import org.openjdk.jmh.util.Optional;
 
 import java.io.File;
 import java.io.IOException;
@@ -22,68 +32,98 @@ import java.util.*;
  */
 public class ReportGenerator {
 
-	public void makeReportFromResultFile(String resultFilename) throws IOException {
-		String outputFilename = resultFilename.substring(0, resultFilename.length() - ".json".length()) + ".pdf";
-		List<RunResultData> allRunResultData = new JSONResultParser().parseFrom(new File(resultFilename));
-		new ReportGenerator().makeReport(outputFilename, allRunResultData);
+	private final ReportOptions options;
+
+	public ReportGenerator() {
+		this(null);
+	}
+
+	public ReportGenerator(ReportOptions options) {
+		this.options = options;
+	}
+
+	public List<BudgetViolation> makeReportFromResultFile(String resultFilename) throws IOException {
+		String outputFilename = ResultParsers.baseName(resultFilename) + ".pdf";
+		File resultFile = new File(resultFilename);
+		List<RunResultData> allRunResultData = ResultParsers.forFile(resultFile).parseFrom(resultFile);
+		return makeReport(outputFilename, allRunResultData);
 	}
 
-	public void makeReport(String filename, Collection<RunResult> runResults) throws IOException {
-		List<RunResultData> allResults = new ArrayList<>();
+	public List<BudgetViolation> makeReport(String filename, List<RunResultData> allRunResultData) throws IOException {
+		List<BenchmarkResultData> benchmarkResults = makeBenchmarkResults(allRunResultData);
+		List<Environment> environments = readEnvironments(filename);
+		if (isSampled(environments)) interpolate(benchmarkResults);
 
-		for (RunResult runResult : runResults) {
-			BenchmarkParams params = runResult.getParams();
-			allResults.add(new RunResultData(params, makeResults(params, runResult)));
+		List<BudgetViolation> allViolations = new ArrayList<>();
+		for (BenchmarkResultData benchmarkResult : benchmarkResults) {
+			allViolations.addAll(benchmarkResult.budgetViolations);
 		}
 
-		makeReport(filename, allResults);
+		RenderingConfiguration renderingConfiguration = new RenderingConfiguration();
+		Optional<String> formats = options != null ? options.getFormats() : Optional.<String>none();
+		Report report = new ReportBuilder(renderingConfiguration).build(benchmarkResults, environments);
+		new ReportWriter(ReportFormats.forNames(formats.orElse(ReportFormats.DEFAULT_FORMATS), renderingConfiguration))
+				.write(report, ResultParsers.baseName(filename));
+
+		return allViolations;
 	}
 
-	private RunResultData.Results makeResults(BenchmarkParams params, RunResult runResult) {
-		int forks = params.getForks();
-		int iterations = params.getMeasurement().getCount();
-
-		List<BenchmarkResult> benchmarkResults = new ArrayList<>(runResult.getBenchmarkResults());
-		double[][] rawData = new double[forks][iterations];
-		for (int i = 0; i < forks; i++) {
-			BenchmarkResult benchmarkResult = benchmarkResults.get(i);
-			List<IterationResult> iterationResults = new ArrayList<>(benchmarkResult.getIterationResults());
-			for (int j = 0; j < iterations; j++) {
-				rawData[i][j] = iterationResults.get(j).getPrimaryResult().getScore();
-			}
-		}
+	public static boolean isSampled(List<Environment> environments) {
+		return !environments.isEmpty() && "Current".equals(environments.get(0).label) && environments.get(0).get("sampling") != null;
+	}
 
-		Result primaryResult = runResult.getPrimaryResult();
-		return new RunResultData.Results(
-				primaryResult.getScore(),
-				primaryResult.getScoreError(),
-				primaryResult.getScoreConfidence()[0],
-				primaryResult.getScoreConfidence()[1],
-				primaryResult.getScoreUnit(),
-				rawData
-		);
+	public void interpolate(List<BenchmarkResultData> benchmarkResults) {
+		GridInterpolator interpolator = new GridInterpolator();
+		for (BenchmarkResultData benchmarkResult : benchmarkResults) {
+			benchmarkResult.interpolatedResults = interpolator.interpolate(benchmarkResult.perParamsResults);
+		}
 	}
 
-	public void makeReport(String filename, List<RunResultData> allRunResultData) throws IOException {
-		Map<String, Map<BenchmarkParams, RunResultData>> perNameParamsResults = new LinkedHashMap<>();
+	public List<BenchmarkResultData> makeBenchmarkResults(List<RunResultData> allRunResultData) throws IOException {
+		Map<String, List<RunResultData>> perNameParamsResults = new LinkedHashMap<>();
+		Map<String, OutlierDetector> perNameOutlierDetectors = new HashMap<>();
+		AnnotationReader annotationReader = new AnnotationReader();
 
 		for (RunResultData resultData : allRunResultData) {
 			BenchmarkParams benchmarkParams = resultData.params;
 			String benchmarkName = benchmarkParams.getBenchmark();
 
-			Map<BenchmarkParams, RunResultData> results = perNameParamsResults.get(benchmarkName);
+			OutlierDetector outlierDetector = perNameOutlierDetectors.get(benchmarkName);
+			if (outlierDetector == null) {
+				outlierDetector = new OutlierDetector(annotationReader.makeOutlierConfigurationFor(benchmarkName));
+				perNameOutlierDetectors.put(benchmarkName, outlierDetector);
+			}
+			// Configurations are reported like params, so that they split tables, charts and analyses alike
+			if (resultData.configuration != null) {
+				benchmarkParams = BenchmarkParamsFactory.withConfiguration(benchmarkParams, resultData.configuration);
+			}
+			// Subgroup scores are shown next to the primary one, so they are screened alike
+			SortedMap<String, RunResultData.Results> subgroupResults = null;
+			if (resultData.subgroupResults != null) {
+				subgroupResults = new TreeMap<>();
+				for (Map.Entry<String, RunResultData.Results> results : resultData.subgroupResults.entrySet()) {
+					subgroupResults.put(results.getKey(), outlierDetector.analyze(results.getValue()));
+				}
+			}
+			resultData = new RunResultData(benchmarkParams, outlierDetector.analyze(resultData.primaryResults),
+					resultData.warmupData, resultData.noiseData, subgroupResults, resultData.configuration,
+					resultData.partialParams);
+
+			List<RunResultData> results = perNameParamsResults.get(benchmarkName);
 			if (results == null) {
-				results = new LinkedHashMap<>();
+				results = new ArrayList<>();
 				perNameParamsResults.put(benchmarkName, results);
 			}
 
-			results.put(benchmarkParams, resultData);
+			results.add(resultData);
 		}
 
+		BudgetChecker budgetChecker = makeBudgetChecker();
+
 		List<BenchmarkResultData> benchmarkResults = new ArrayList<>();
-		for (Map.Entry<String, Map<BenchmarkParams, RunResultData>> results : perNameParamsResults.entrySet()) {
+		for (Map.Entry<String, List<RunResultData>> results : perNameParamsResults.entrySet()) {
 			String benchmarkName = results.getKey();
-			Map<BenchmarkParams, RunResultData> perParamsResults = results.getValue();
+			List<RunResultData> perParamsResults = results.getValue();
 
 			BenchmarkResultData benchmarkResult = new BenchmarkResultData();
 			benchmarkResult.longName = benchmarkName;
@@ -91,11 +131,19 @@ public class ReportGenerator {
 
 			String timeUnit = null;
 			Set<String> paramKeys = new LinkedHashSet<>();
-			for (Map.Entry<BenchmarkParams, RunResultData> entry : perParamsResults.entrySet()) {
-				BenchmarkParams benchmarkParams = entry.getKey();
-				RunResultData resultData = entry.getValue();
+			SortedSet<Integer> threads = new TreeSet<>();
+			Set<String> configurations = new LinkedHashSet<>();
+			for (RunResultData resultData : perParamsResults) {
+				if (resultData.configuration != null) configurations.add(resultData.configuration);
+			}
+			// The configuration comes first so that it makes the series of charts rather than their axis
+			if (!configurations.isEmpty()) paramKeys.add(RunResultData.CONFIGURATION_PARAM);
+
+			for (RunResultData resultData : perParamsResults) {
+				BenchmarkParams benchmarkParams = resultData.params;
 
 				paramKeys.addAll(benchmarkParams.getParamsKeys());
+				threads.add(benchmarkParams.getThreads());
 
 				if (timeUnit != null) assert timeUnit == resultData.primaryResults.scoreUnit;
 				else timeUnit = resultData.primaryResults.scoreUnit;
@@ -103,12 +151,50 @@ public class ReportGenerator {
 
 			benchmarkResult.paramKeys = paramKeys;
 			benchmarkResult.timeUnit = timeUnit;
+			benchmarkResult.threads = threads;
+			benchmarkResult.configurations = configurations.isEmpty() ? null : new ArrayList<>(configurations);
+			benchmarkResult.budgetViolations = budgetChecker.check(benchmarkName, perParamsResults);
 
 			benchmarkResults.add(benchmarkResult);
 		}
+		return benchmarkResults;
+	}
+
+	public List<Environment> readEnvironments(String filename) throws IOException {
+		List<Environment> environments = new ArrayList<>();
+
+		Environment current = Environment.readFor(filename, "Current");
+		if (current != null) environments.add(current);
+
+		File resumedFile = Environment.resumedFileFor(filename);
+		if (resumedFile.exists()) environments.add(Environment.readFrom(resumedFile, "Resumed"));
+
+		if (options != null) {
+			Optional<String> baseline = options.getBaseline();
+			if (baseline.hasValue()) {
+				Environment baselineEnvironment = Environment.readFor(baseline.get(), "Baseline");
+				if (baselineEnvironment != null) environments.add(baselineEnvironment);
+			}
+		}
+		return environments;
+	}
+
+	private BudgetChecker makeBudgetChecker() throws IOException {
+		List<BudgetConfiguration> externalBudgets = new ArrayList<>();
+		List<RunResultData> baselineResults = null;
+
+		if (options != null) {
+			Optional<String> budgets = options.getBudgets();
+			if (budgets.hasValue()) externalBudgets = new BudgetFileReader().readFrom(new File(budgets.get()));
+
+			Optional<String> baseline = options.getBaseline();
+			if (baseline.hasValue()) {
+				File baselineFile = new File(baseline.get());
+				baselineResults = ResultParsers.forFile(baselineFile).parseFrom(baselineFile);
+			}
+		}
 
-		new PdfFormat(new RenderingConfiguration())
-				.makeReport(filename, benchmarkResults);
+		return new BudgetChecker(externalBudgets, baselineResults);
 	}
 
 	public static String reportDate() {
@@ -0,0 +1,22 @@
+package com.github.ptitjes.jmh.report.adaptive;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * @author Didier Villevalois
+ */
+public class AdaptiveConfiguration {
+
+	/**
+	 * The targeted half-width of the confidence interval, relative to the score.
+	 */
+	public double targetRelativeError = 0.01;
+	public double confidence = 0.999;
+
+	/**
+	 * The time after which a benchmark is stopped even if the targeted precision is not reached.
+	 */
+	public long timeBudget = TimeUnit.MINUTES.toMillis(5);
+	public int minForks = 2;
+	public int maxForks = 30;
+}
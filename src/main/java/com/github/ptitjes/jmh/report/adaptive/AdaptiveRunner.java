@@ -0,0 +1,161 @@
+package com.github.ptitjes.jmh.report.adaptive;
+
+import com.github.ptitjes.jmh.report.checkpoint.Checkpoint;
+import com.github.ptitjes.jmh.report.checkpoint.CheckpointingOutputFormat;
+import com.github.ptitjes.jmh.report.checkpoint.RunPlanner;
+import com.github.ptitjes.jmh.report.data.BenchmarkParamsFactory;
+import com.github.ptitjes.jmh.report.data.NoiseData;
+import com.github.ptitjes.jmh.report.data.RunResultData;
+import com.github.ptitjes.jmh.report.env.NoiseMonitor;
+import com.github.ptitjes.jmh.report.stats.SequentialStoppingRule;
+import org.openjdk.jmh.infra.BenchmarkParams;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.format.OutputFormat;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.openjdk.jmh.util.ListStatistics;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.SortedMap;
+import java.util.TreeMap;
+
+/**
+ * Runs each param combination one fork at a time until a {@link SequentialStoppingRule} decides its score is precise
+ * enough, or its time budget is exhausted. The forks of a combination are merged into a single result that is
+ * recorded in the checkpoint.
+ *
+ * @author Didier Villevalois
+ */
+public class AdaptiveRunner {
+
+	private final Options options;
+	private final RunPlanner planner;
+	private final Checkpoint checkpoint;
+	private final AdaptiveConfiguration configuration;
+	private final NoiseMonitor noiseMonitor;
+	private final SequentialStoppingRule stoppingRule;
+
+	public AdaptiveRunner(Options options, RunPlanner planner, Checkpoint checkpoint, AdaptiveConfiguration configuration) {
+		this(options, planner, checkpoint, configuration, null);
+	}
+
+	public AdaptiveRunner(Options options, RunPlanner planner, Checkpoint checkpoint, AdaptiveConfiguration configuration,
+	                      NoiseMonitor noiseMonitor) {
+		this.options = options;
+		this.planner = planner;
+		this.checkpoint = checkpoint;
+		this.configuration = configuration;
+		this.noiseMonitor = noiseMonitor;
+		this.stoppingRule = new SequentialStoppingRule(configuration.targetRelativeError, configuration.confidence,
+				configuration.timeBudget, configuration.minForks, configuration.maxForks);
+	}
+
+	public List<RunResultData> run() throws RunnerException, IOException {
+		List<RunResultData> results = new ArrayList<>();
+
+		for (RunPlanner.PlannedRun plannedRun : planner.plan(CheckpointingOutputFormat.createConsole(options), true)) {
+			RunResultData resultData = runAdaptively(plannedRun);
+			if (resultData == null) continue;
+
+			checkpoint.record(resultData);
+			results.add(resultData);
+		}
+		return results;
+	}
+
+	private RunResultData runAdaptively(RunPlanner.PlannedRun plannedRun) throws RunnerException, IOException {
+		long start = System.currentTimeMillis();
+
+		List<double[]> forkData = new ArrayList<>();
+		List<double[]> forkWarmupData = new ArrayList<>();
+		List<NoiseData> forkNoiseData = new ArrayList<>();
+		SortedMap<String, List<double[]>> forkSubgroupData = new TreeMap<>();
+		Map<String, String> subgroupScoreUnits = new HashMap<>();
+		BenchmarkParams firstParams = null;
+		String scoreUnit = null;
+
+		SequentialStoppingRule.Decision decision = SequentialStoppingRule.Decision.CONTINUE;
+		while (decision == SequentialStoppingRule.Decision.CONTINUE) {
+			// Warmup forks are only worth running once
+			OptionsBuilder builder = new OptionsBuilder();
+			builder.parent(plannedRun.options).forks(1);
+			if (!forkData.isEmpty()) builder.warmupForks(0);
+			Options forkOptions = builder.build();
+
+			// Only used to collect the fork scores, merged results are recorded once the combination is done
+			CheckpointingOutputFormat out = new CheckpointingOutputFormat(CheckpointingOutputFormat.createConsole(forkOptions), null, noiseMonitor);
+			new Runner(forkOptions, out).run();
+
+			RunResultData resultData = out.getLastResultData();
+			if (resultData == null) return null;
+
+			if (firstParams == null) firstParams = resultData.params;
+			scoreUnit = resultData.primaryResults.scoreUnit;
+			forkData.addAll(Arrays.asList(resultData.primaryResults.rawData));
+			if (resultData.warmupData != null) forkWarmupData.addAll(Arrays.asList(resultData.warmupData));
+			if (resultData.noiseData != null) forkNoiseData.add(resultData.noiseData);
+			if (resultData.subgroupResults != null) {
+				for (Map.Entry<String, RunResultData.Results> subgroupResults : resultData.subgroupResults.entrySet()) {
+					String label = subgroupResults.getKey();
+					if (!forkSubgroupData.containsKey(label)) forkSubgroupData.put(label, new ArrayList<double[]>());
+					forkSubgroupData.get(label).addAll(Arrays.asList(subgroupResults.getValue().rawData));
+					subgroupScoreUnits.put(label, subgroupResults.getValue().scoreUnit);
+				}
+			}
+
+			decision = stoppingRule.decide(forkData, System.currentTimeMillis() - start);
+		}
+
+		// Goes to the same output as JMH, which may be a file
+		OutputFormat out = CheckpointingOutputFormat.createConsole(options);
+		out.println(String.format("# Adaptive: %s, %d forks in %d s, +/-%.2f%% (%s)", plannedRun,
+				forkData.size(), (System.currentTimeMillis() - start) / 1000,
+				stoppingRule.relativeError(forkData) * 100, decision.label));
+		out.flush();
+		out.close();
+
+		// Subgroups are all kept or none, so that they still match the thread groups
+		SortedMap<String, RunResultData.Results> subgroupResults = null;
+		for (String label : RunResultData.subgroupLabels(firstParams, forkSubgroupData.keySet())) {
+			List<double[]> subgroupData = forkSubgroupData.get(label);
+			if (subgroupData.size() != forkData.size()) {
+				subgroupResults = null;
+				break;
+			}
+			if (subgroupResults == null) subgroupResults = new TreeMap<>();
+			subgroupResults.put(label, merge(subgroupScoreUnits.get(label), subgroupData));
+		}
+
+		int iterations = Integer.MAX_VALUE;
+		for (double[] values : forkData) iterations = Math.min(iterations, values.length);
+		BenchmarkParams mergedParams = BenchmarkParamsFactory.withMeasurement(firstParams, forkData.size(), iterations);
+
+		return new RunResultData(mergedParams, merge(scoreUnit, forkData),
+				forkWarmupData.size() == forkData.size() ? forkWarmupData.toArray(new double[forkWarmupData.size()][]) : null,
+				forkNoiseData.size() == forkData.size() ? NoiseData.concat(forkNoiseData) : null,
+				subgroupResults, null, false);
+	}
+
+	private RunResultData.Results merge(String scoreUnit, List<double[]> forkData) {
+		ListStatistics statistics = new ListStatistics();
+		for (double[] values : forkData) {
+			for (double value : values) statistics.addValue(value);
+		}
+
+		double[] confidenceInterval = statistics.getConfidenceIntervalAt(configuration.confidence);
+		return new RunResultData.Results(
+				statistics.getMean(),
+				statistics.getMeanErrorAt(configuration.confidence),
+				confidenceInterval[0],
+				confidenceInterval[1],
+				scoreUnit,
+				forkData.toArray(new double[forkData.size()][])
+		);
+	}
+}
@@ -0,0 +1,29 @@
+package com.github.ptitjes.jmh.report.annotations;
+
+/**
+ * @author Didier Villevalois
+ */
+public @interface Budget {
+
+	Filter[] filters() default {};
+
+	/**
+	 * The maximum score allowed, in the benchmark's score unit.
+	 */
+	double max() default Double.NaN;
+
+	/**
+	 * The minimum score allowed, in the benchmark's score unit.
+	 */
+	double min() default Double.NaN;
+
+	/**
+	 * The maximum regression allowed relatively to the baseline results, in percents.
+	 */
+	double maxRegression() default Double.NaN;
+
+	/**
+	 * The confidence required to report a regression over {@link #maxRegression()}.
+	 */
+	double confidence() default 0.95;
+}
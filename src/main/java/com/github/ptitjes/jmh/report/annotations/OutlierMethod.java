@@ -0,0 +1,10 @@
+package com.github.ptitjes.jmh.report.annotations;
+
+/**
+ * @author Didier Villevalois
+ */
+public enum OutlierMethod {
+	NONE,
+	TUKEY,
+	MAD,
+}
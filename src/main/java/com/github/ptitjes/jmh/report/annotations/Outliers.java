@@ -0,0 +1,17 @@
+package com.github.ptitjes.jmh.report.annotations;
+
+/**
+ * @author Didier Villevalois
+ */
+public @interface Outliers {
+
+	OutlierMethod method() default OutlierMethod.MAD;
+
+	/**
+	 * The fence factor for {@link OutlierMethod#TUKEY} (defaults to 1.5) or the modified z-score limit for
+	 * {@link OutlierMethod#MAD} (defaults to 3.5). Any non-positive value selects the method's default.
+	 */
+	double threshold() default 0;
+
+	boolean exclude() default false;
+}
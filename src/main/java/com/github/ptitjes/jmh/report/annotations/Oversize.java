@@ -0,0 +1,42 @@
+package com.github.ptitjes.jmh.report.annotations;
+
+/**
+ * What to chart of a plot that has more series or categories than its limits allow. The results table always has
+ * all the results. Categories beyond the limits are split across several charts whatever the choice.
+ *
+ * @author Didier Villevalois
+ */
+public enum Oversize {
+	/**
+	 * Charts all the series, split across several charts.
+	 */
+	SPLIT,
+	/**
+	 * Charts the best series, and the median of the others as a single series.
+	 */
+	OTHERS,
+	/**
+	 * Charts the best series only, by the geometric mean of their scores.
+	 */
+	TOP,
+	/**
+	 * Charts the worst series only, by the geometric mean of their scores.
+	 */
+	BOTTOM,
+	/**
+	 * Charts the series whose scores change the most along the axis only.
+	 */
+	CHANGE,
+	/**
+	 * Charts the median of the series that only differ by the aggregated param.
+	 */
+	MEDIAN,
+	/**
+	 * Charts the minimum of the series that only differ by the aggregated param.
+	 */
+	MIN,
+	/**
+	 * Charts the maximum of the series that only differ by the aggregated param.
+	 */
+	MAX,
+}
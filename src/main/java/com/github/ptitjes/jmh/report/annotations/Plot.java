@@ -11,9 +11,44 @@ public @interface Plot {
 
 	String axisParam() default "";
 
+	String yAxisParam() default "";
+
+	/**
+	 * A 'param=value' baseline against which heatmap cells are coloured relatively.
+	 */
+	String baseline() default "";
+
 	PlotType type() default PlotType.BARS;
 
 	Orientation orientation() default Orientation.VERTICAL;
 
 	boolean logScale() default false;
+
+	boolean numericAxis() default true;
+
+	/**
+	 * What to chart when the plot has more series or categories than allowed.
+	 */
+	Oversize oversize() default Oversize.SPLIT;
+
+	/**
+	 * The maximum count of series of a chart, or 0 for the one of the rendering configuration.
+	 */
+	int maxSeries() default 0;
+
+	/**
+	 * The maximum count of categories of a chart, or 0 for the one of the rendering configuration.
+	 */
+	int maxCategories() default 0;
+
+	/**
+	 * The param whose values are aggregated by {@link Oversize#MEDIAN}, {@link Oversize#MIN} and {@link Oversize#MAX},
+	 * by default the series param with the most values.
+	 */
+	String aggregateParam() default "";
+
+	/**
+	 * The significance level of the tests that rank the series of each category into tiers, or 0 to leave tiers out.
+	 */
+	double tierSignificance() default 0.05;
 }
@@ -6,4 +6,5 @@ package com.github.ptitjes.jmh.report.annotations;
 public enum PlotType {
 	BARS,
 	LINES,
+	HEATMAP,
 }
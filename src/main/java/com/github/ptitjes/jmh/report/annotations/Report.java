@@ -8,9 +8,17 @@ import java.lang.annotation.Target;
 /**
  * @author Didier Villevalois
  */
-@Target(ElementType.TYPE)
+@Target({ElementType.TYPE, ElementType.METHOD})
 @Retention(RetentionPolicy.RUNTIME)
 public @interface Report {
 
-	Plot[] plots();
+	Plot[] plots() default {};
+
+	/**
+	 * The outlier detection, at most one. On a method, it overrides the one of its class, even with
+	 * {@link OutlierMethod#NONE}.
+	 */
+	Outliers[] outliers() default {};
+
+	Budget[] budgets() default {};
 }
@@ -0,0 +1,114 @@
+package com.github.ptitjes.jmh.report.budget;
+
+import com.github.ptitjes.jmh.report.data.RunResultData;
+import com.github.ptitjes.jmh.report.options.AnnotationReader;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.infra.BenchmarkParams;
+import org.openjdk.jmh.util.ListStatistics;
+
+import java.util.*;
+import java.util.regex.Pattern;
+
+/**
+ * Checks results against absolute budgets and, when baseline results are available, against relative regression
+ * budgets. Relative budgets are checked with a one-sided Welch t-test over the raw iteration scores.
+ *
+ * @author Didier Villevalois
+ */
+public class BudgetChecker {
+
+	private final List<BudgetConfiguration> externalBudgets;
+	private final Map<String, RunResultData> baselineResults = new HashMap<>();
+	private final AnnotationReader annotationReader = new AnnotationReader();
+
+	public BudgetChecker(List<BudgetConfiguration> externalBudgets, List<RunResultData> baselineResults) {
+		this.externalBudgets = externalBudgets;
+		if (baselineResults != null) {
+			for (RunResultData resultData : baselineResults) {
+				this.baselineResults.put(keyFor(resultData.params), resultData);
+			}
+		}
+	}
+
+	public List<BudgetViolation> check(String benchmarkName, List<RunResultData> results) {
+		List<BudgetConfiguration> budgets = new ArrayList<>(annotationReader.makeBudgetConfigurationsFor(benchmarkName));
+		for (BudgetConfiguration budget : externalBudgets) {
+			if (budget.benchmarkPattern.matcher(benchmarkName).matches()) budgets.add(budget);
+		}
+
+		List<BudgetViolation> violations = new ArrayList<>();
+		if (budgets.isEmpty()) return violations;
+
+		for (RunResultData resultData : results) {
+			for (BudgetConfiguration budget : budgets) {
+				if (!acceptedByFilters(budget, resultData.params)) continue;
+				check(resultData, budget, violations);
+			}
+		}
+		return violations;
+	}
+
+	private void check(RunResultData resultData, BudgetConfiguration budget, List<BudgetViolation> violations) {
+		RunResultData.Results results = resultData.primaryResults;
+		String unit = results.scoreUnit;
+
+		if (!Double.isNaN(budget.max) && results.score > budget.max) {
+			violations.add(new BudgetViolation(resultData, budget,
+					String.format("score %.3f %s is over the maximum of %s %s", results.score, unit, budget.max, unit)));
+		}
+		if (!Double.isNaN(budget.min) && results.score < budget.min) {
+			violations.add(new BudgetViolation(resultData, budget,
+					String.format("score %.3f %s is under the minimum of %s %s", results.score, unit, budget.min, unit)));
+		}
+
+		if (Double.isNaN(budget.maxRegression)) return;
+
+		RunResultData baselineData = baselineResults.get(keyFor(resultData.params));
+		if (baselineData == null) return;
+
+		boolean lessIsBetter = resultData.params.getMode() != Mode.Throughput;
+		double factor = lessIsBetter ? 1 + budget.maxRegression / 100 : 1 / (1 + budget.maxRegression / 100);
+
+		RunResultData.Results baseline = baselineData.primaryResults;
+		double threshold = baseline.score * factor;
+		boolean worse = lessIsBetter ? results.score > threshold : results.score < threshold;
+		if (!worse) return;
+
+		ListStatistics current = statisticsOf(results.rawData, 1);
+		ListStatistics limit = statisticsOf(baseline.rawData, factor);
+		if (current.getN() >= 2 && limit.getN() >= 2) {
+			// A two-sided test at 2c - 1 is a one-sided test at c
+			if (!current.isDifferent(limit, 2 * budget.confidence - 1)) return;
+		}
+
+		double change = (lessIsBetter ? results.score / baseline.score : baseline.score / results.score) - 1;
+		violations.add(new BudgetViolation(resultData, budget,
+				String.format("regressed by %.1f%% against baseline (%.3f %s), over the maximum of %s%%",
+						change * 100, baseline.score, unit, budget.maxRegression)));
+	}
+
+	private static ListStatistics statisticsOf(double[][] rawData, double factor) {
+		ListStatistics statistics = new ListStatistics();
+		for (double[] forkData : rawData) {
+			for (double value : forkData) statistics.addValue(value * factor);
+		}
+		return statistics;
+	}
+
+	private static boolean acceptedByFilters(BudgetConfiguration budget, BenchmarkParams params) {
+		for (Map.Entry<String, Pattern> filter : budget.paramFilters.entrySet()) {
+			String value = params.getParam(filter.getKey());
+			if (value == null || !filter.getValue().matcher(value).matches()) return false;
+		}
+		return true;
+	}
+
+	private static String keyFor(BenchmarkParams params) {
+		StringBuilder key = new StringBuilder(params.getBenchmark());
+		key.append('|').append(params.getMode()).append('|').append(params.getThreads());
+		for (String paramKey : params.getParamsKeys()) {
+			key.append('|').append(paramKey).append('=').append(params.getParam(paramKey));
+		}
+		return key.toString();
+	}
+}
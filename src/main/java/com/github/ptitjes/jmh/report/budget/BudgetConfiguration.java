@@ -0,0 +1,32 @@
+package com.github.ptitjes.jmh.report.budget;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.regex.Pattern;
+
+/**
+ * @author Didier Villevalois
+ */
+public class BudgetConfiguration {
+
+	public Pattern benchmarkPattern = null;
+	public Map<String, Pattern> paramFilters = new HashMap<>();
+	public double max = Double.NaN;
+	public double min = Double.NaN;
+	public double maxRegression = Double.NaN;
+	public double confidence = 0.95;
+
+	public String describe() {
+		StringBuilder description = new StringBuilder();
+		if (!Double.isNaN(max)) description.append("<= ").append(max);
+		if (!Double.isNaN(min)) {
+			if (description.length() > 0) description.append(", ");
+			description.append(">= ").append(min);
+		}
+		if (!Double.isNaN(maxRegression)) {
+			if (description.length() > 0) description.append(", ");
+			description.append("+").append(maxRegression).append("% at ").append(confidence * 100).append("% confidence");
+		}
+		return description.toString();
+	}
+}
@@ -0,0 +1,33 @@
+package com.github.ptitjes.jmh.report.budget;
+
+import com.github.ptitjes.jmh.report.data.RunResultData;
+
+/**
+ * @author Didier Villevalois
+ */
+public class BudgetViolation {
+
+	public final RunResultData resultData;
+	public final BudgetConfiguration budget;
+	public final String message;
+
+	public BudgetViolation(RunResultData resultData, BudgetConfiguration budget, String message) {
+		this.resultData = resultData;
+		this.budget = budget;
+		this.message = message;
+	}
+
+	@Override
+	public String toString() {
+		return resultData.params.getBenchmark() + " " + describeParams() + ": " + message;
+	}
+
+	public String describeParams() {
+		StringBuilder description = new StringBuilder("(");
+		for (String paramKey : resultData.params.getParamsKeys()) {
+			description.append(paramKey).append("=").append(resultData.params.getParam(paramKey)).append(", ");
+		}
+		description.append("threads=").append(resultData.params.getThreads());
+		return description.append(")").toString();
+	}
+}
@@ -1,33 +1,21 @@
 package com.github.ptitjes.jmh.report.chart;
 
 import com.github.ptitjes.jmh.report.annotations.Orientation;
+import com.github.ptitjes.jmh.report.annotations.Oversize;
 import com.github.ptitjes.jmh.report.annotations.PlotType;
 import com.github.ptitjes.jmh.report.data.BenchmarkResultData;
+import com.github.ptitjes.jmh.report.data.PartitionIndex;
 import com.github.ptitjes.jmh.report.data.RunResultData;
 import com.github.ptitjes.jmh.report.format.RenderingConfiguration;
-import org.jfree.chart.ChartFactory;
-import org.jfree.chart.JFreeChart;
-import org.jfree.chart.axis.*;
-import org.jfree.chart.labels.ItemLabelAnchor;
-import org.jfree.chart.labels.ItemLabelPosition;
-import org.jfree.chart.labels.StandardCategoryItemLabelGenerator;
-import org.jfree.chart.plot.CategoryPlot;
-import org.jfree.chart.plot.DefaultDrawingSupplier;
-import org.jfree.chart.plot.PlotOrientation;
-import org.jfree.chart.renderer.category.StatisticalBarRenderer;
-import org.jfree.chart.renderer.category.StatisticalLineAndShapeRenderer;
-import org.jfree.data.statistics.DefaultStatisticalCategoryDataset;
-import org.jfree.data.statistics.StatisticalCategoryDataset;
-import org.jfree.ui.RectangleInsets;
-import org.jfree.ui.TextAnchor;
+import com.github.ptitjes.jmh.report.model.ChartData;
+import com.github.ptitjes.jmh.report.stats.ConfigurationComparison;
+import com.github.ptitjes.jmh.report.stats.TierRanking;
 import org.openjdk.jmh.annotations.Mode;
 import org.openjdk.jmh.infra.BenchmarkParams;
 
-import java.awt.*;
 import java.text.NumberFormat;
 import java.util.*;
 import java.util.List;
-import java.util.regex.Pattern;
 
 /**
  * @author Didier Villevalois
@@ -36,207 +24,290 @@ public class ChartGenerator {
 
 	private final RenderingConfiguration renderingConfiguration;
 	private final PlotConfiguration plotConfiguration;
+	private final String partitionValue;
 
 	public ChartGenerator(RenderingConfiguration renderingConfiguration, PlotConfiguration plotConfiguration) {
+		this(renderingConfiguration, plotConfiguration, null);
+	}
+
+	/**
+	 * @param partitionValue the value of the {@code perParam} of the plot to chart, or {@code null} for all values
+	 */
+	public ChartGenerator(RenderingConfiguration renderingConfiguration, PlotConfiguration plotConfiguration, String partitionValue) {
 		this.renderingConfiguration = renderingConfiguration;
 		this.plotConfiguration = plotConfiguration;
+		this.partitionValue = partitionValue;
 	}
 
 	private static final NumberFormat MEAN_FORMAT = NumberFormat.getInstance();
+	private static final String OUTLIER_MARK = "†";
+	private static final String TIER_MARK = "T";
+
+	/**
+	 * Returns the first chart of the plot, see {@link #generateCharts(String, BenchmarkResultData)}.
+	 */
+	public ChartData generateChart(String title, BenchmarkResultData benchmarkResult) {
+		return generateCharts(title, benchmarkResult).get(0);
+	}
 
-	public JFreeChart generateChart(String title, BenchmarkResultData benchmarkResult) {
+	/**
+	 * Returns the charts of the plot, as many as its planner splits it into. Each chart but those of plots that fit
+	 * their limits has a description of the part of the plot it shows.
+	 */
+	public List<ChartData> generateCharts(String title, BenchmarkResultData benchmarkResult) {
 
 		String axisParamKey = plotConfiguration.axisParam;
-
-		List<String> seriesParamKeys = new ArrayList<>(benchmarkResult.paramKeys);
-		if (axisParamKey == null) axisParamKey = seriesParamKeys.size() > 1 ? seriesParamKeys.get(1) : "";
-		if (axisParamKey != null) seriesParamKeys.remove(axisParamKey);
+		if (axisParamKey == null) axisParamKey = defaultAxisParam(benchmarkResult.paramKeys, "");
 
 		String timeUnit = benchmarkResult.timeUnit;
 
-		Mode mode = benchmarkResult.perParamsResults.entrySet().iterator().next().getKey().getMode();
-		String readingHelp = mode == Mode.AverageTime ? "(◀ Less is better)" : "(More is better ▶)";
-
-		StatisticalCategoryDataset dataset = makeDataset(benchmarkResult);
-
-		final JFreeChart chart = ChartFactory.createBarChart(
-				title != null ? title : "", // title
-				axisParamKey, // category axis label
-				timeUnit, // value axis label
-				dataset, // data
-				plotConfiguration.orientation == Orientation.HORIZONTAL ?
-						PlotOrientation.HORIZONTAL : PlotOrientation.VERTICAL, // orientation
-				true, // include legend
-				true, // tooltips
-				false // urls
-		);
-
-		chart.setBackgroundPaint(Color.white);
-		chart.setPadding(RectangleInsets.ZERO_INSETS);
-
-		final CategoryPlot plot = chart.getCategoryPlot();
-		plot.setBackgroundPaint(new Color(220, 220, 220));
-		plot.setRangeAxisLocation(AxisLocation.BOTTOM_OR_LEFT);
-
-		if (plotConfiguration.type == PlotType.BARS) {
-			StatisticalBarRenderer renderer = new StatisticalBarRenderer();
-			renderer.setBaseItemLabelGenerator(new StandardCategoryItemLabelGenerator("{2}", MEAN_FORMAT));
-
-			if (plotConfiguration.orientation == Orientation.HORIZONTAL) {
-				renderer.setBasePositiveItemLabelPosition(new ItemLabelPosition(ItemLabelAnchor.OUTSIDE9, TextAnchor.CENTER_LEFT));
-				renderer.setItemLabelAnchorOffset(-5);
-			} else {
-				renderer.setBasePositiveItemLabelPosition(new ItemLabelPosition(ItemLabelAnchor.OUTSIDE6, TextAnchor.CENTER_LEFT, TextAnchor.CENTER_LEFT, -Math.PI / 2));
-				renderer.setItemLabelAnchorOffset(-5);
-			}
+		Mode mode = benchmarkResult.perParamsResults.get(0).params.getMode();
+		String readingHelp = mode == Mode.AverageTime ? "(← Less is better)" : "(More is better →)";
 
-			renderer.setBaseItemLabelsVisible(true);
-			renderer.setBaseItemLabelFont(new Font(renderingConfiguration.font, Font.PLAIN, renderingConfiguration.baseFontSize));
-			renderer.setBaseItemLabelPaint(Color.white);
-			renderer.setErrorIndicatorStroke(new BasicStroke(0));
-			renderer.setItemMargin(0);
-			plot.setRenderer(renderer);
+		if (plotConfiguration.type == PlotType.HEATMAP) {
+			return Collections.singletonList(new HeatmapChartGenerator(renderingConfiguration, plotConfiguration, partitionValue)
+					.generateChart(title, benchmarkResult));
+		}
 
-			renderer.setBaseLegendTextFont(new Font(renderingConfiguration.font, Font.PLAIN, renderingConfiguration.baseFontSize));
-		} else {
-			StatisticalLineAndShapeRenderer renderer = new StatisticalLineAndShapeRenderer();
-			renderer.setBaseShapesVisible(true);
-			renderer.setErrorIndicatorStroke(new BasicStroke(0));
-			plot.setRenderer(renderer);
+		boolean xy = plotConfiguration.type == PlotType.LINES && plotConfiguration.numericAxis &&
+				isNumericAxis(benchmarkResult, axisParamKey);
 
-			renderer.setBaseLegendTextFont(new Font(renderingConfiguration.font, Font.PLAIN, renderingConfiguration.baseFontSize));
-		}
+		// Results with no axis param have a null category rather than an empty one
+		String cellsAxisParamKey = axisParamKey != null && axisParamKey.isEmpty() ? null : axisParamKey;
+
+		PartitionIndex index = PartitionIndex.of(benchmarkResult);
+		String aggregateParam = aggregateParam(benchmarkResult, index, cellsAxisParamKey);
+		List<ChartPlanner.Cell> cells = makeCells(benchmarkResult, cellsAxisParamKey, aggregateParam, !xy);
 
-		populateColors(plot);
+		boolean lessIsBetter = mode != Mode.Throughput;
+		List<ChartPlanner.Page> pages = new ChartPlanner(plotConfiguration, renderingConfiguration, lessIsBetter, aggregateParam)
+				.plan(cells, axisParamKey == null || axisParamKey.isEmpty() ? "categories" : axisParamKey, xy);
 
-		CategoryAxis domainAxis = plot.getDomainAxis();
-		configureAxis(domainAxis);
+		List<ChartData> charts = new ArrayList<>();
+		for (ChartPlanner.Page page : pages) {
+			ChartData.Options options = new ChartData.Options();
+			options.logScale = plotConfiguration.logScale;
+			options.horizontal = plotConfiguration.orientation == Orientation.HORIZONTAL;
+			options.description = page.description;
+
+			charts.add(xy ?
+					generateXYChart(title, page.cells, axisParamKey, timeUnit + " " + readingHelp, options) :
+					generateCategoryChart(title, page.cells, axisParamKey, timeUnit + " " + readingHelp, options));
+		}
+		return charts;
+	}
 
-		domainAxis.setLabel(axisParamKey);
-		domainAxis.setCategoryLabelPositions(CategoryLabelPositions.UP_45);
+	private ChartData generateCategoryChart(String title, List<ChartPlanner.Cell> cells, String axisParamKey,
+	                                        String rangeLabel, ChartData.Options options) {
+		boolean bars = plotConfiguration.type == PlotType.BARS;
+
+		// Series and categories come in order of appearance, and series have an item per category
+		Map<String, Integer> seriesIndexes = new LinkedHashMap<>();
+		Map<String, Integer> categoryIndexes = new LinkedHashMap<>();
+		for (ChartPlanner.Cell cell : cells) {
+			if (!seriesIndexes.containsKey(cell.series)) seriesIndexes.put(cell.series, seriesIndexes.size());
+			String category = categoryOf(cell);
+			if (!categoryIndexes.containsKey(category)) categoryIndexes.put(category, categoryIndexes.size());
+		}
 
-		domainAxis.setCategoryMargin(0.05);
-		domainAxis.setUpperMargin(0.01);
-		domainAxis.setLowerMargin(0.01);
+		int seriesCount = seriesIndexes.size(), categoryCount = categoryIndexes.size();
+		double[][] y = new double[seriesCount][categoryCount];
+		double[][] low = new double[seriesCount][categoryCount];
+		double[][] high = new double[seriesCount][categoryCount];
+		String[][] labels = new String[seriesCount][categoryCount];
+		for (int series = 0; series < seriesCount; series++) {
+			Arrays.fill(y[series], Double.NaN);
+			Arrays.fill(low[series], Double.NaN);
+			Arrays.fill(high[series], Double.NaN);
+		}
 
-		if (plotConfiguration.logScale) {
-			LogarithmicAxis rangeAxis = new LogarithmicAxis(timeUnit);
-			configureAxis(rangeAxis);
+		for (ChartPlanner.Cell cell : cells) {
+			int series = seriesIndexes.get(cell.series), category = categoryIndexes.get(categoryOf(cell));
+			y[series][category] = cell.score;
+			low[series][category] = cell.score - cell.error;
+			high[series][category] = cell.score + cell.error;
+			labels[series][category] = makeLabel(bars ? MEAN_FORMAT.format(cell.score) : "", cell);
+		}
 
-			rangeAxis.setLabel(timeUnit + " " + readingHelp);
-			rangeAxis.setLabelInsets(RectangleInsets.ZERO_INSETS);
-			rangeAxis.setMinorTickMarksVisible(true);
-			rangeAxis.setAutoRange(true);
-			rangeAxis.setAutoRangeIncludesZero(false);
-			rangeAxis.setAllowNegativesFlag(true);
-			plot.setRangeAxis(rangeAxis);
-		} else {
-			ValueAxis rangeAxis = plot.getRangeAxis();
-			configureAxis(rangeAxis);
+		double[] x = new double[categoryCount];
+		for (int category = 0; category < categoryCount; category++) x[category] = category;
 
-			rangeAxis.setLabel(timeUnit + " " + readingHelp);
-			rangeAxis.setLabelInsets(RectangleInsets.ZERO_INSETS);
-			rangeAxis.setAutoRange(true);
-			configureAxis(rangeAxis);
+		List<ChartData.Series> series = new ArrayList<>();
+		for (Map.Entry<String, Integer> seriesIndex : seriesIndexes.entrySet()) {
+			int index = seriesIndex.getValue();
+			series.add(new ChartData.Series(seriesIndex.getKey(), x, y[index], low[index], high[index], labels[index]));
 		}
 
-		RenderingHints renderingHints = chart.getRenderingHints();
-		if (plotConfiguration.type == PlotType.BARS && plotConfiguration.orientation == Orientation.HORIZONTAL) {
+		if (bars && options.horizontal) {
 			// Stranger computations to estimates the height of the chart
-			renderingHints.put(MIN_HEIGHT,
-					dataset.getColumnCount() * dataset.getRowCount() * (renderingConfiguration.baseFontSize + 5) +
-							dataset.getRowCount() / 4 * (renderingConfiguration.baseFontSize + 15) +
-							(renderingConfiguration.bigFontSize + 20)
-			);
+			options.minHeight = categoryCount * seriesCount * (renderingConfiguration.baseFontSize + 5) +
+					seriesCount / 4 * (renderingConfiguration.baseFontSize + 15) +
+					(renderingConfiguration.bigFontSize + 20);
 		}
 
-		return chart;
+		if (hasTiers(cells)) {
+			String category = axisParamKey == null || axisParamKey.isEmpty() ? "category" : axisParamKey;
+			options.notes.add(TIER_MARK + "n: tier of the statistically tied series of each " + category +
+					", from " + TIER_MARK + "1 the best");
+		}
+
+		return new ChartData(bars ? ChartData.Kind.BARS : ChartData.Kind.LINES, title, axisParamKey, rangeLabel,
+				new ArrayList<>(categoryIndexes.keySet()), Collections.<String>emptyList(), series, options);
+	}
+
+	private static String categoryOf(ChartPlanner.Cell cell) {
+		return cell.category == null ? "null" : cell.category;
+	}
+
+	/**
+	 * Marks the cells with outliers and appends the delta to the reference JVM configuration and the tier.
+	 */
+	private static String makeLabel(String label, ChartPlanner.Cell cell) {
+		if (!Double.isNaN(cell.delta)) label = append(label, String.format(label.isEmpty() ? "%+.1f%%" : "(%+.1f%%)", cell.delta * 100));
+		if (cell.outliers) label = append(label, OUTLIER_MARK);
+		if (cell.tier > 0) label = append(label, TIER_MARK + cell.tier);
+		return label.isEmpty() ? null : label;
 	}
 
-	public static final Object MIN_HEIGHT = new RenderingHints.Key(1000000) {
-		@Override
-		public boolean isCompatibleValue(Object val) {
-			return val instanceof Integer && ((Integer) val) >= 0;
+	private static String append(String label, String suffix) {
+		return label.isEmpty() ? suffix : label + " " + suffix;
+	}
+
+	private ChartData generateXYChart(String title, List<ChartPlanner.Cell> cells, String axisParamKey,
+	                                  String rangeLabel, ChartData.Options options) {
+		Map<String, List<ChartPlanner.Cell>> perKeyCells = new LinkedHashMap<>();
+		for (ChartPlanner.Cell cell : cells) {
+			List<ChartPlanner.Cell> seriesCells = perKeyCells.get(cell.series);
+			if (seriesCells == null) {
+				seriesCells = new ArrayList<>();
+				perKeyCells.put(cell.series, seriesCells);
+			}
+			seriesCells.add(cell);
 		}
-	};
 
-	private DefaultStatisticalCategoryDataset makeDataset(BenchmarkResultData result) {
-		String axisParamKey = plotConfiguration.axisParam;
+		// Points are only marked with their outliers
+		List<ChartData.Series> series = new ArrayList<>();
+		for (Map.Entry<String, List<ChartPlanner.Cell>> seriesCells : perKeyCells.entrySet()) {
+			int count = seriesCells.getValue().size();
+			double[] x = new double[count], y = new double[count], low = new double[count], high = new double[count];
+			String[] labels = new String[count];
+			for (int item = 0; item < count; item++) {
+				ChartPlanner.Cell cell = seriesCells.getValue().get(item);
+				x[item] = Double.parseDouble(cell.category);
+				y[item] = cell.score;
+				low[item] = cell.score - cell.error;
+				high[item] = cell.score + cell.error;
+				labels[item] = cell.outliers ? OUTLIER_MARK : null;
+			}
+			series.add(new ChartData.Series(seriesCells.getKey(), x, y, low, high, labels));
+		}
 
+		return new ChartData(ChartData.Kind.XY, title, axisParamKey, rangeLabel, Collections.<String>emptyList(),
+				Collections.<String>emptyList(), series, options);
+	}
+
+	private List<ChartPlanner.Cell> makeCells(BenchmarkResultData result, String axisParamKey, String aggregateParam,
+	                                          boolean withTiers) {
 		List<String> seriesParamKeys = new ArrayList<>(result.paramKeys);
-		if (axisParamKey == null) axisParamKey = seriesParamKeys.size() > 1 ? seriesParamKeys.get(1) : null;
 		if (axisParamKey != null) seriesParamKeys.remove(axisParamKey);
 
-		DefaultStatisticalCategoryDataset dataset = new DefaultStatisticalCategoryDataset();
-		collectResults:
-		for (Map.Entry<BenchmarkParams, RunResultData> perParamsResult : result.perParamsResults.entrySet()) {
-			BenchmarkParams params = perParamsResult.getKey();
-			RunResultData.Results primaryResults = perParamsResult.getValue().primaryResults;
+		PartitionIndex index = PartitionIndex.of(result);
+		String[] seriesKeys = index.seriesKeys(seriesParamKeys);
+		String[] groupKeys = null;
+		if (aggregateParam != null) {
+			List<String> groupParamKeys = new ArrayList<>(seriesParamKeys);
+			groupParamKeys.remove(aggregateParam);
+			groupKeys = index.seriesKeys(groupParamKeys);
+		}
+		double[] deltas = new ConfigurationComparison().relativeDeltas(result);
+		int[] tiers = withTiers && plotConfiguration.tierSignificance > 0 ?
+				new TierRanking(plotConfiguration.tierSignificance).rank(index.getResults(),
+						competitionKeys(result, plotConfiguration, partitionValue)) :
+				new int[index.getResults().size()];
+
+		List<ChartPlanner.Cell> cells = new ArrayList<>();
+		for (int resultIndex : index.order(select(index), axisParamKey)) {
+			RunResultData perParamsResult = index.getResults().get(resultIndex);
+			RunResultData.Results primaryResults = perParamsResult.primaryResults;
+
+			cells.add(new ChartPlanner.Cell(seriesKeys[resultIndex], groupKeys != null ? groupKeys[resultIndex] : null,
+					perParamsResult.params.getParam(axisParamKey), primaryResults.score, primaryResults.scoreError,
+					primaryResults.outlierCount > 0, deltas[resultIndex], tiers[resultIndex]));
+		}
+		return cells;
+	}
 
-			for (Map.Entry<String, Pattern> filter : plotConfiguration.paramFilters.entrySet()) {
-				String paramKey = filter.getKey();
-				Pattern pattern = filter.getValue();
-				if (!pattern.matcher(params.getParam(paramKey)).matches()) continue collectResults;
-			}
+	/**
+	 * Returns the key of the chart category each result of a plot competes in, that is its values of the axis param
+	 * and of the {@code perParam}, or {@code null} for the results the plot leaves out.
+	 *
+	 * @param partitionValue the value of the {@code perParam} of the plot to chart, or {@code null} for all values
+	 */
+	public static String[] competitionKeys(BenchmarkResultData result, PlotConfiguration plotConfiguration,
+	                                       String partitionValue) {
+		String axisParamKey = plotConfiguration.axisParam;
+		if (axisParamKey == null) axisParamKey = defaultAxisParam(result.paramKeys, null);
+
+		PartitionIndex index = PartitionIndex.of(result);
+		BitSet selection = select(index, plotConfiguration, partitionValue);
+		String[] keys = new String[index.getResults().size()];
+		for (int resultIndex = selection.nextSetBit(0); resultIndex >= 0; resultIndex = selection.nextSetBit(resultIndex + 1)) {
+			BenchmarkParams params = index.getResults().get(resultIndex).params;
+			keys[resultIndex] = (plotConfiguration.perParam == null ? "" : params.getParam(plotConfiguration.perParam)) +
+					"\u0000" + (axisParamKey == null ? "" : params.getParam(axisParamKey));
+		}
+		return keys;
+	}
 
-			String axisParam = params.getParam(axisParamKey);
+	private static boolean hasTiers(List<ChartPlanner.Cell> cells) {
+		for (ChartPlanner.Cell cell : cells) {
+			if (cell.tier > 0) return true;
+		}
+		return false;
+	}
 
-			StringBuilder seriesParams = new StringBuilder();
-			boolean first = true;
-			for (String seriesParamKey : seriesParamKeys) {
-				if (first) first = false;
-				else seriesParams.append(" - ");
-				seriesParams.append(params.getParam(seriesParamKey));
+	/**
+	 * Returns the param the plot aggregates, by default the series param with the most values, or {@code null} if the
+	 * plot does not aggregate.
+	 */
+	private String aggregateParam(BenchmarkResultData result, PartitionIndex index, String axisParamKey) {
+		Oversize oversize = plotConfiguration.oversize;
+		if (oversize != Oversize.MEDIAN && oversize != Oversize.MIN && oversize != Oversize.MAX) return null;
+		if (plotConfiguration.aggregateParam != null) return plotConfiguration.aggregateParam;
+
+		String aggregateParam = null;
+		for (String paramKey : result.paramKeys) {
+			if (paramKey.equals(axisParamKey) || paramKey.equals(plotConfiguration.perParam)) continue;
+			if (aggregateParam == null || index.valuesOf(paramKey).size() > index.valuesOf(aggregateParam).size()) {
+				aggregateParam = paramKey;
 			}
+		}
+		return aggregateParam;
+	}
+
+	/**
+	 * Charts the second param along the axis. The JVM configuration is rather kept as a series as long as there is
+	 * another param to chart along the axis.
+	 */
+	private static String defaultAxisParam(Set<String> paramKeys, String none) {
+		List<String> keys = new ArrayList<>(paramKeys);
+		if (keys.remove(RunResultData.CONFIGURATION_PARAM) && keys.size() <= 1) {
+			return keys.isEmpty() ? RunResultData.CONFIGURATION_PARAM : keys.get(0);
+		}
+		return keys.size() > 1 ? keys.get(1) : none;
+	}
+
+	private BitSet select(PartitionIndex index) {
+		return select(index, plotConfiguration, partitionValue);
+	}
+
+	static BitSet select(PartitionIndex index, PlotConfiguration plotConfiguration, String partitionValue) {
+		return partitionValue == null ?
+				index.select(plotConfiguration.paramFilters) :
+				index.select(plotConfiguration.paramFilters, plotConfiguration.perParam, partitionValue);
+	}
 
-			dataset.add(primaryResults.score, primaryResults.scoreError, seriesParams.toString(), axisParam);
-		}
-		return dataset;
-	}
-
-	private void configureAxis(Axis axis) {
-		axis.setLabelFont(new Font(renderingConfiguration.font, Font.BOLD, renderingConfiguration.bigFontSize));
-		axis.setLabelInsets(RectangleInsets.ZERO_INSETS);
-		axis.setTickLabelFont(new Font(renderingConfiguration.font, Font.PLAIN, renderingConfiguration.baseFontSize));
-	}
-
-	private static final Paint[] PAINTS = new Paint[]{
-			new Color(196, 160, 0),
-			new Color(206, 92, 0),
-			new Color(143, 89, 2),
-			new Color(78, 154, 6),
-			new Color(32, 74, 135),
-			new Color(92, 53, 102),
-			new Color(164, 0, 0),
-			new Color(85, 87, 83),
-	};
-
-	private static final Paint[] PAINTS_MOD2 = new Paint[]{
-			new Color(196, 160, 0),
-			new Color(252, 233, 79),
-			new Color(206, 92, 0),
-			new Color(245, 121, 0),
-			new Color(143, 89, 2),
-			new Color(233, 185, 110),
-			new Color(78, 154, 6),
-			new Color(138, 226, 52),
-			new Color(32, 74, 135),
-			new Color(114, 159, 207),
-			new Color(92, 53, 102),
-			new Color(173, 127, 168),
-			new Color(164, 0, 0),
-			new Color(239, 41, 41),
-			new Color(85, 87, 83),
-			new Color(186, 189, 182),
-	};
-
-	private static void populateColors(CategoryPlot plot) {
-		plot.setDrawingSupplier(
-				new DefaultDrawingSupplier(PAINTS,
-						DefaultDrawingSupplier.DEFAULT_FILL_PAINT_SEQUENCE,
-						DefaultDrawingSupplier.DEFAULT_OUTLINE_PAINT_SEQUENCE,
-						DefaultDrawingSupplier.DEFAULT_STROKE_SEQUENCE,
-						DefaultDrawingSupplier.DEFAULT_OUTLINE_STROKE_SEQUENCE,
-						DefaultDrawingSupplier.DEFAULT_SHAPE_SEQUENCE));
+	public static boolean isNumericAxis(BenchmarkResultData result, String axisParamKey) {
+		return PartitionIndex.of(result).isNumeric(axisParamKey);
 	}
 }
@@ -0,0 +1,305 @@
+package com.github.ptitjes.jmh.report.chart;
+
+import com.github.ptitjes.jmh.report.annotations.Oversize;
+import com.github.ptitjes.jmh.report.format.RenderingConfiguration;
+
+import java.util.*;
+
+/**
+ * Plans the charts of a plot so that each of them stays within the limits of series, categories and cells, which
+ * bound the time to lay out and draw it. Oversized plots are split, reduced to some of their series, or aggregated,
+ * as their {@link Oversize} tells, and their categories are then split across as many charts as needed.
+ *
+ * @author Didier Villevalois
+ */
+public class ChartPlanner {
+
+	public static class Cell {
+		public final String series;
+		/**
+		 * The series of the cell once the aggregated param is left out, or {@code null} if there is none.
+		 */
+		public final String group;
+		public final String category;
+		public final double score;
+		public final double error;
+		public final boolean outliers;
+		/**
+		 * The relative delta to the reference JVM configuration, or {@code NaN} if there is none.
+		 */
+		public final double delta;
+		/**
+		 * The tier of the cell among the series of its category, or {@code 0} if it has none.
+		 */
+		public final int tier;
+
+		public Cell(String series, String group, String category, double score, double error, boolean outliers,
+		            double delta, int tier) {
+			this.series = series;
+			this.group = group;
+			this.category = category;
+			this.score = score;
+			this.error = error;
+			this.outliers = outliers;
+			this.delta = delta;
+			this.tier = tier;
+		}
+	}
+
+	public static class Page {
+		public final List<Cell> cells;
+		/**
+		 * What part of the plot the chart shows, or {@code null} if it shows all of it.
+		 */
+		public final String description;
+
+		public Page(List<Cell> cells, String description) {
+			this.cells = cells;
+			this.description = description;
+		}
+	}
+
+	private final Oversize oversize;
+	private final int maxSeries;
+	private final int maxCategories;
+	private final int maxCells;
+	private final int maxPages;
+	private final boolean lessIsBetter;
+	private final String aggregateParam;
+
+	/**
+	 * @param lessIsBetter whether the best series have the lowest scores
+	 * @param aggregateParam the param left out of the groups of cells, or {@code null} if there is none
+	 */
+	public ChartPlanner(PlotConfiguration plotConfiguration, RenderingConfiguration renderingConfiguration,
+	                    boolean lessIsBetter, String aggregateParam) {
+		this.oversize = plotConfiguration.oversize;
+		this.maxSeries = Math.max(1, plotConfiguration.maxSeries > 0 ?
+				plotConfiguration.maxSeries : renderingConfiguration.maxChartSeries);
+		this.maxCategories = Math.max(1, plotConfiguration.maxCategories > 0 ?
+				plotConfiguration.maxCategories : renderingConfiguration.maxChartCategories);
+		this.maxCells = Math.max(1, renderingConfiguration.maxChartCells);
+		this.maxPages = Math.max(1, renderingConfiguration.maxChartPages);
+		this.lessIsBetter = lessIsBetter;
+		this.aggregateParam = aggregateParam;
+	}
+
+	/**
+	 * Plans the charts of the cells of a plot, in the order of their series and categories.
+	 *
+	 * @param axisLabel the name of the categories in descriptions
+	 * @param numericAxis whether the categories are points along a numeric axis, which only the series are limited of
+	 */
+	public List<Page> plan(List<Cell> cells, String axisLabel, boolean numericAxis) {
+		Map<String, List<Cell>> perSeriesCells = perSeriesCells(cells);
+		int categoryCount = categoriesOf(cells).size();
+		if (perSeriesCells.size() <= maxSeries &&
+				(numericAxis || categoryCount <= maxCategories && cells.size() <= maxCells)) {
+			return Collections.singletonList(new Page(cells, null));
+		}
+
+		String note = null;
+		int seriesCount = perSeriesCells.size();
+		if (seriesCount > maxSeries) {
+			switch (oversize) {
+				case OTHERS:
+					cells = collapseOthers(perSeriesCells, maxSeries - 1);
+					note = "best " + (maxSeries - 1) + " of " + seriesCount + " series, others as their median";
+					break;
+				case TOP:
+				case BOTTOM:
+				case CHANGE:
+					cells = keepSeries(perSeriesCells, maxSeries);
+					note = (oversize == Oversize.TOP ? "best " : oversize == Oversize.BOTTOM ? "worst " : "") +
+							maxSeries + " of " + seriesCount + " series" +
+							(oversize == Oversize.CHANGE ? " changing most along " + axisLabel : "");
+					break;
+				case MEDIAN:
+				case MIN:
+				case MAX:
+					if (aggregateParam == null) break;
+					cells = aggregate(cells);
+					note = oversize.name().toLowerCase() + " over " + aggregateParam;
+					break;
+			}
+		}
+		return paginate(cells, note, axisLabel, numericAxis);
+	}
+
+	private List<Page> paginate(List<Cell> cells, String note, String axisLabel, boolean numericAxis) {
+		List<String> series = new ArrayList<>(perSeriesCells(cells).keySet());
+		List<String> categories = new ArrayList<>(categoriesOf(cells));
+
+		// Balances the series of the charts rather than leaving the last one almost empty
+		int seriesChunkCount = (series.size() + maxSeries - 1) / maxSeries;
+		int seriesChunk = (series.size() + seriesChunkCount - 1) / seriesChunkCount;
+		int categoryChunk = numericAxis ? Math.max(1, categories.size()) :
+				Math.max(1, Math.min(maxCategories, maxCells / seriesChunk));
+		int categoryChunkCount = (categories.size() + categoryChunk - 1) / categoryChunk;
+		categoryChunk = (categories.size() + categoryChunkCount - 1) / categoryChunkCount;
+
+		int total = seriesChunkCount * categoryChunkCount;
+		List<Page> pages = new ArrayList<>();
+		for (int s = 0; s < seriesChunkCount && pages.size() < maxPages; s++) {
+			int seriesFrom = s * seriesChunk, seriesTo = Math.min(series.size(), seriesFrom + seriesChunk);
+			Set<String> pageSeries = new HashSet<>(series.subList(seriesFrom, seriesTo));
+
+			for (int c = 0; c < categoryChunkCount && pages.size() < maxPages; c++) {
+				int categoryFrom = c * categoryChunk, categoryTo = Math.min(categories.size(), categoryFrom + categoryChunk);
+				Set<String> pageCategories = new HashSet<>(categories.subList(categoryFrom, categoryTo));
+
+				List<Cell> pageCells = new ArrayList<>();
+				for (Cell cell : cells) {
+					if (pageSeries.contains(cell.series) && pageCategories.contains(cell.category)) pageCells.add(cell);
+				}
+
+				StringBuilder description = new StringBuilder(note != null ? note : "");
+				if (seriesChunkCount > 1) {
+					append(description, "series " + range(seriesFrom, seriesTo, series.size()));
+				}
+				if (categoryChunkCount > 1) {
+					append(description, axisLabel + " " + range(categoryFrom, categoryTo, categories.size()));
+				}
+				if (pages.size() == maxPages - 1 && total > maxPages) {
+					append(description, (total - maxPages) + " more charts left out, see the table");
+				}
+				pages.add(new Page(pageCells, description.length() == 0 ? null : description.toString()));
+			}
+		}
+		return pages;
+	}
+
+	private static String range(int from, int to, int count) {
+		return (to - from == 1 ? "" + to : (from + 1) + "–" + to) + " of " + count;
+	}
+
+	private static void append(StringBuilder builder, String part) {
+		if (builder.length() > 0) builder.append(", ");
+		builder.append(part);
+	}
+
+	/**
+	 * Keeps the best, worst or most changing series, in their order.
+	 */
+	private List<Cell> keepSeries(Map<String, List<Cell>> perSeriesCells, int count) {
+		Set<String> kept = new HashSet<>(rankSeries(perSeriesCells).subList(0, count));
+		List<Cell> cells = new ArrayList<>();
+		for (Map.Entry<String, List<Cell>> seriesCells : perSeriesCells.entrySet()) {
+			if (kept.contains(seriesCells.getKey())) cells.addAll(seriesCells.getValue());
+		}
+		return cells;
+	}
+
+	private List<Cell> collapseOthers(Map<String, List<Cell>> perSeriesCells, int count) {
+		List<String> ranked = rankSeries(perSeriesCells);
+		Set<String> kept = new HashSet<>(ranked.subList(0, count));
+		String others = "others (" + (ranked.size() - count) + ")";
+
+		List<Cell> cells = new ArrayList<>();
+		Map<String, List<Cell>> perCategoryOthers = new LinkedHashMap<>();
+		for (Map.Entry<String, List<Cell>> seriesCells : perSeriesCells.entrySet()) {
+			if (kept.contains(seriesCells.getKey())) {
+				cells.addAll(seriesCells.getValue());
+				continue;
+			}
+			for (Cell cell : seriesCells.getValue()) add(perCategoryOthers, cell.category, cell);
+		}
+		for (Map.Entry<String, List<Cell>> categoryOthers : perCategoryOthers.entrySet()) {
+			Cell median = pick(categoryOthers.getValue(), Oversize.MEDIAN);
+			cells.add(new Cell(others, null, categoryOthers.getKey(), median.score, 0, false, Double.NaN, 0));
+		}
+		return cells;
+	}
+
+	private List<Cell> aggregate(List<Cell> cells) {
+		Map<String, List<Cell>> perGroupCells = new LinkedHashMap<>();
+		for (Cell cell : cells) add(perGroupCells, cell.group + "\u0000" + cell.category, cell);
+
+		List<Cell> aggregated = new ArrayList<>();
+		for (List<Cell> groupCells : perGroupCells.values()) {
+			Cell first = groupCells.get(0);
+			Cell picked = pick(groupCells, oversize);
+			aggregated.add(new Cell(first.group.isEmpty() ? oversize.name().toLowerCase() : first.group, null,
+					first.category, picked.score, picked.error, picked.outliers, Double.NaN, 0));
+		}
+		return aggregated;
+	}
+
+	/**
+	 * Returns the cell of the median, minimum or maximum score. The median of an even count of cells is their mean.
+	 */
+	private static Cell pick(List<Cell> cells, Oversize aggregation) {
+		List<Cell> sorted = new ArrayList<>(cells);
+		Collections.sort(sorted, new Comparator<Cell>() {
+			@Override
+			public int compare(Cell cell1, Cell cell2) {
+				return Double.compare(cell1.score, cell2.score);
+			}
+		});
+
+		if (aggregation == Oversize.MIN) return sorted.get(0);
+		if (aggregation == Oversize.MAX) return sorted.get(sorted.size() - 1);
+
+		Cell upper = sorted.get(sorted.size() / 2);
+		if (sorted.size() % 2 == 1) return upper;
+		Cell lower = sorted.get(sorted.size() / 2 - 1);
+		return new Cell(upper.series, upper.group, upper.category, (lower.score + upper.score) / 2,
+				Math.max(lower.error, upper.error), lower.outliers || upper.outliers, Double.NaN, 0);
+	}
+
+	/**
+	 * Ranks the series by the geometric mean of their scores, best first, or by the ratio of their highest to their
+	 * lowest score for {@link Oversize#CHANGE}.
+	 */
+	private List<String> rankSeries(Map<String, List<Cell>> perSeriesCells) {
+		final List<String> series = new ArrayList<>(perSeriesCells.keySet());
+		final double[] ranks = new double[series.size()];
+		for (int i = 0; i < ranks.length; i++) {
+			double logSum = 0, logMin = Double.POSITIVE_INFINITY, logMax = Double.NEGATIVE_INFINITY;
+			List<Cell> cells = perSeriesCells.get(series.get(i));
+			for (Cell cell : cells) {
+				double log = Math.log(Math.max(cell.score, Double.MIN_NORMAL));
+				logSum += log;
+				logMin = Math.min(logMin, log);
+				logMax = Math.max(logMax, log);
+			}
+
+			if (oversize == Oversize.CHANGE) ranks[i] = -(logMax - logMin);
+			else ranks[i] = (lessIsBetter ^ oversize == Oversize.BOTTOM ? 1 : -1) * logSum / cells.size();
+		}
+
+		Integer[] order = new Integer[ranks.length];
+		for (int i = 0; i < order.length; i++) order[i] = i;
+		Arrays.sort(order, new Comparator<Integer>() {
+			@Override
+			public int compare(Integer i1, Integer i2) {
+				return Double.compare(ranks[i1], ranks[i2]);
+			}
+		});
+
+		List<String> ranked = new ArrayList<>();
+		for (int i : order) ranked.add(series.get(i));
+		return ranked;
+	}
+
+	private static Map<String, List<Cell>> perSeriesCells(List<Cell> cells) {
+		Map<String, List<Cell>> perSeriesCells = new LinkedHashMap<>();
+		for (Cell cell : cells) add(perSeriesCells, cell.series, cell);
+		return perSeriesCells;
+	}
+
+	private static Set<String> categoriesOf(List<Cell> cells) {
+		Set<String> categories = new LinkedHashSet<>();
+		for (Cell cell : cells) categories.add(cell.category);
+		return categories;
+	}
+
+	private static void add(Map<String, List<Cell>> perKeyCells, String key, Cell cell) {
+		List<Cell> cells = perKeyCells.get(key);
+		if (cells == null) {
+			cells = new ArrayList<>();
+			perKeyCells.put(key, cells);
+		}
+		cells.add(cell);
+	}
+}
@@ -0,0 +1,429 @@
+package com.github.ptitjes.jmh.report.chart;
+
+import com.github.ptitjes.jmh.report.format.FontRegistry;
+import com.github.ptitjes.jmh.report.format.RenderingConfiguration;
+import com.github.ptitjes.jmh.report.model.ChartData;
+import org.jfree.chart.ChartFactory;
+import org.jfree.chart.JFreeChart;
+import org.jfree.chart.annotations.XYTextAnnotation;
+import org.jfree.chart.axis.*;
+import org.jfree.chart.block.BlockBorder;
+import org.jfree.chart.labels.CategoryItemLabelGenerator;
+import org.jfree.chart.labels.ItemLabelAnchor;
+import org.jfree.chart.labels.ItemLabelPosition;
+import org.jfree.chart.labels.XYItemLabelGenerator;
+import org.jfree.chart.plot.CategoryPlot;
+import org.jfree.chart.plot.DefaultDrawingSupplier;
+import org.jfree.chart.plot.PlotOrientation;
+import org.jfree.chart.plot.ValueMarker;
+import org.jfree.chart.plot.XYPlot;
+import org.jfree.chart.renderer.PaintScale;
+import org.jfree.chart.renderer.category.AbstractCategoryItemRenderer;
+import org.jfree.chart.renderer.category.StatisticalBarRenderer;
+import org.jfree.chart.renderer.category.StatisticalLineAndShapeRenderer;
+import org.jfree.chart.renderer.xy.XYBlockRenderer;
+import org.jfree.chart.renderer.xy.XYErrorRenderer;
+import org.jfree.chart.renderer.xy.XYLineAndShapeRenderer;
+import org.jfree.chart.title.PaintScaleLegend;
+import org.jfree.chart.title.TextTitle;
+import org.jfree.data.category.CategoryDataset;
+import org.jfree.data.statistics.DefaultStatisticalCategoryDataset;
+import org.jfree.data.xy.*;
+import org.jfree.ui.RectangleAnchor;
+import org.jfree.ui.RectangleEdge;
+import org.jfree.ui.RectangleInsets;
+import org.jfree.ui.TextAnchor;
+
+import java.awt.*;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Builds a JFreeChart from the data of a chart, for the formats that draw charts with it. Charts are built anew for
+ * each drawing, as JFreeChart updates them while drawing.
+ *
+ * @author Didier Villevalois
+ */
+public class ChartRenderer {
+
+	// Heatmap columns beyond which their labels are turned not to overlap
+	private static final int MAX_HORIZONTAL_TICK_LABELS = 8;
+
+	private static final Paint[] PAINTS = new Paint[]{
+			new Color(196, 160, 0),
+			new Color(206, 92, 0),
+			new Color(143, 89, 2),
+			new Color(78, 154, 6),
+			new Color(32, 74, 135),
+			new Color(92, 53, 102),
+			new Color(164, 0, 0),
+			new Color(85, 87, 83),
+	};
+
+	private final RenderingConfiguration renderingConfiguration;
+
+	public ChartRenderer(RenderingConfiguration renderingConfiguration) {
+		this.renderingConfiguration = renderingConfiguration;
+	}
+
+	public JFreeChart render(ChartData data) {
+		JFreeChart chart;
+		switch (data.kind) {
+			case BARS:
+			case LINES:
+				chart = renderCategoryChart(data);
+				break;
+			case XY:
+				chart = renderXYChart(data);
+				break;
+			default:
+				chart = renderHeatmap(data);
+				break;
+		}
+
+		chart.setBackgroundPaint(Color.white);
+		chart.setPadding(RectangleInsets.ZERO_INSETS);
+
+		for (String note : data.notes) {
+			TextTitle noteTitle = new TextTitle(note, baseFont());
+			noteTitle.setPosition(RectangleEdge.BOTTOM);
+			chart.addSubtitle(noteTitle);
+		}
+		if (data.description != null) chart.addSubtitle(new TextTitle(data.description, baseFont()));
+		return chart;
+	}
+
+	private JFreeChart renderCategoryChart(ChartData data) {
+		final Map<String, Integer> seriesIndexes = new HashMap<>();
+		final Map<String, Integer> categoryIndexes = new HashMap<>();
+		for (int i = 0; i < data.categories.size(); i++) categoryIndexes.put(data.categories.get(i), i);
+
+		// Missing values are added as null ones so that categories keep their order
+		DefaultStatisticalCategoryDataset dataset = new DefaultStatisticalCategoryDataset();
+		final String[][] labels = new String[data.series.size()][data.categories.size()];
+		for (int index = 0; index < data.series.size(); index++) {
+			ChartData.Series series = data.series.get(index);
+			seriesIndexes.put(series.name, index);
+			for (int item = 0; item < series.x.length; item++) {
+				String category = data.categories.get((int) series.x[item]);
+				if (Double.isNaN(series.y[item])) {
+					dataset.add(null, null, series.name, category);
+				} else {
+					dataset.add(series.y[item], series.high[item] - series.y[item], series.name, category);
+				}
+				if (series.labels != null) labels[index][(int) series.x[item]] = series.labels[item];
+			}
+		}
+
+		JFreeChart chart = ChartFactory.createBarChart(
+				data.title, // title
+				data.xLabel, // category axis label
+				data.yLabel, // value axis label
+				dataset, // data
+				data.horizontal ? PlotOrientation.HORIZONTAL : PlotOrientation.VERTICAL, // orientation
+				data.legend, // include legend
+				true, // tooltips
+				false // urls
+		);
+
+		CategoryPlot plot = chart.getCategoryPlot();
+		plot.setBackgroundPaint(new Color(220, 220, 220));
+		plot.setRangeAxisLocation(AxisLocation.BOTTOM_OR_LEFT);
+		plot.setDrawingSupplier(makeDrawingSupplier());
+
+		AbstractCategoryItemRenderer renderer;
+		if (data.kind == ChartData.Kind.BARS) {
+			StatisticalBarRenderer barRenderer = new StatisticalBarRenderer();
+			if (data.horizontal) {
+				barRenderer.setBasePositiveItemLabelPosition(new ItemLabelPosition(ItemLabelAnchor.OUTSIDE9, TextAnchor.CENTER_LEFT));
+			} else {
+				barRenderer.setBasePositiveItemLabelPosition(new ItemLabelPosition(ItemLabelAnchor.OUTSIDE6, TextAnchor.CENTER_LEFT, TextAnchor.CENTER_LEFT, -Math.PI / 2));
+			}
+			barRenderer.setItemLabelAnchorOffset(-5);
+			barRenderer.setBaseItemLabelPaint(Color.white);
+			barRenderer.setErrorIndicatorStroke(new BasicStroke(0));
+			barRenderer.setItemMargin(0);
+			renderer = barRenderer;
+		} else {
+			StatisticalLineAndShapeRenderer lineRenderer = new StatisticalLineAndShapeRenderer();
+			lineRenderer.setBaseShapesVisible(true);
+			lineRenderer.setErrorIndicatorStroke(new BasicStroke(0));
+			renderer = lineRenderer;
+		}
+		renderer.setBaseItemLabelGenerator(new CategoryItemLabelGenerator() {
+			@Override
+			public String generateRowLabel(CategoryDataset dataset, int row) {
+				return dataset.getRowKey(row).toString();
+			}
+
+			@Override
+			public String generateColumnLabel(CategoryDataset dataset, int column) {
+				return dataset.getColumnKey(column).toString();
+			}
+
+			@Override
+			public String generateLabel(CategoryDataset dataset, int row, int column) {
+				Integer seriesIndex = seriesIndexes.get(dataset.getRowKey(row));
+				Integer categoryIndex = categoryIndexes.get(dataset.getColumnKey(column));
+				return seriesIndex == null || categoryIndex == null ? null : labels[seriesIndex][categoryIndex];
+			}
+		});
+		renderer.setBaseItemLabelFont(baseFont());
+		renderer.setBaseItemLabelsVisible(true);
+		renderer.setBaseLegendTextFont(baseFont());
+		plot.setRenderer(renderer);
+
+		CategoryAxis domainAxis = plot.getDomainAxis();
+		configureAxis(domainAxis);
+		domainAxis.setCategoryLabelPositions(CategoryLabelPositions.UP_45);
+		domainAxis.setCategoryMargin(0.05);
+		domainAxis.setUpperMargin(0.01);
+		domainAxis.setLowerMargin(0.01);
+
+		if (data.logScale) {
+			plot.setRangeAxis(makeLogarithmicAxis(data.yLabel));
+		} else {
+			NumberAxis rangeAxis = (NumberAxis) plot.getRangeAxis();
+			configureAxis(rangeAxis);
+			rangeAxis.setAutoRangeIncludesZero(data.rangeIncludesZero);
+			rangeAxis.setAutoRange(true);
+		}
+		return chart;
+	}
+
+	private JFreeChart renderXYChart(ChartData data) {
+		boolean errors = false;
+		for (ChartData.Series series : data.series) errors |= series.hasErrors();
+
+		XYDataset dataset;
+		if (errors) {
+			YIntervalSeriesCollection intervalDataset = new YIntervalSeriesCollection();
+			for (ChartData.Series series : data.series) {
+				YIntervalSeries intervalSeries = new YIntervalSeries(series.name);
+				for (int item = 0; item < series.x.length; item++) {
+					intervalSeries.add(series.x[item], series.y[item], series.low[item], series.high[item]);
+				}
+				intervalDataset.addSeries(intervalSeries);
+			}
+			dataset = intervalDataset;
+		} else {
+			XYSeriesCollection seriesDataset = new XYSeriesCollection();
+			for (ChartData.Series series : data.series) {
+				XYSeries xySeries = new XYSeries(series.name);
+				for (int item = 0; item < series.x.length; item++) xySeries.add(series.x[item], series.y[item]);
+				seriesDataset.addSeries(xySeries);
+			}
+			dataset = seriesDataset;
+		}
+
+		JFreeChart chart = ChartFactory.createXYLineChart(
+				data.title, // title
+				data.xLabel, // x axis label
+				data.yLabel, // y axis label
+				dataset, // data
+				data.horizontal ? PlotOrientation.HORIZONTAL : PlotOrientation.VERTICAL, // orientation
+				data.legend, // include legend
+				true, // tooltips
+				false // urls
+		);
+
+		XYPlot plot = chart.getXYPlot();
+		plot.setBackgroundPaint(new Color(220, 220, 220));
+		plot.setRangeAxisLocation(AxisLocation.BOTTOM_OR_LEFT);
+		plot.setDrawingSupplier(makeDrawingSupplier());
+
+		XYLineAndShapeRenderer renderer;
+		if (errors) {
+			XYErrorRenderer errorRenderer = new XYErrorRenderer();
+			errorRenderer.setDrawXError(false);
+			errorRenderer.setErrorStroke(new BasicStroke(0));
+			renderer = errorRenderer;
+		} else {
+			renderer = new XYLineAndShapeRenderer();
+		}
+
+		// Series sort their items by x, so labels are found by x rather than by item
+		final List<Map<Double, String>> labels = new ArrayList<>();
+		for (int index = 0; index < data.series.size(); index++) {
+			ChartData.Series series = data.series.get(index);
+			renderer.setSeriesLinesVisible(index, series.lines);
+			renderer.setSeriesShapesVisible(index, series.shapes);
+			if (series.color != null) renderer.setSeriesPaint(index, series.color);
+			if (series.dashed) renderer.setSeriesStroke(index, makeDashedStroke());
+
+			Map<Double, String> seriesLabels = new HashMap<>();
+			if (series.labels != null) {
+				for (int item = 0; item < series.x.length; item++) {
+					if (series.labels[item] != null) seriesLabels.put(series.x[item], series.labels[item]);
+				}
+			}
+			labels.add(seriesLabels);
+		}
+		renderer.setBaseItemLabelGenerator(new XYItemLabelGenerator() {
+			@Override
+			public String generateLabel(XYDataset dataset, int series, int item) {
+				return labels.get(series).get(dataset.getXValue(series, item));
+			}
+		});
+		renderer.setBaseItemLabelFont(baseFont());
+		renderer.setBaseItemLabelsVisible(true);
+		renderer.setBaseLegendTextFont(baseFont());
+		plot.setRenderer(renderer);
+
+		for (ChartData.Marker marker : data.markers) {
+			plot.addDomainMarker(makeMarker(marker));
+		}
+
+		if (data.logScale) {
+			plot.setDomainAxis(makeLogarithmicAxis(data.xLabel));
+			plot.setRangeAxis(makeLogarithmicAxis(data.yLabel));
+		} else {
+			NumberAxis domainAxis = (NumberAxis) plot.getDomainAxis();
+			configureAxis(domainAxis);
+			domainAxis.setAutoRangeIncludesZero(data.domainIncludesZero);
+			if (data.integerDomain) domainAxis.setStandardTickUnits(NumberAxis.createIntegerTickUnits());
+
+			NumberAxis rangeAxis = (NumberAxis) plot.getRangeAxis();
+			configureAxis(rangeAxis);
+			rangeAxis.setAutoRangeIncludesZero(data.rangeIncludesZero);
+			rangeAxis.setAutoRange(true);
+		}
+		return chart;
+	}
+
+	private JFreeChart renderHeatmap(ChartData data) {
+		ChartData.Series cells = data.series.get(0);
+		DefaultXYZDataset dataset = new DefaultXYZDataset();
+		dataset.addSeries(cells.name, new double[][]{cells.x, cells.y, cells.z});
+
+		SymbolAxis xAxis = new SymbolAxis(data.xLabel, data.categories.toArray(new String[data.categories.size()]));
+		configureAxis(xAxis);
+		xAxis.setGridBandsVisible(false);
+		xAxis.setVerticalTickLabels(data.categories.size() > MAX_HORIZONTAL_TICK_LABELS);
+		SymbolAxis yAxis = new SymbolAxis(data.yLabel, data.rows.toArray(new String[data.rows.size()]));
+		configureAxis(yAxis);
+		yAxis.setGridBandsVisible(false);
+
+		ChartData.Scale scale = data.scale;
+		PaintScale paintScale = new GradientPaintScale(scale.lowerBound, scale.upperBound, scale.low, scale.middle, scale.high);
+
+		XYBlockRenderer renderer = new XYBlockRenderer();
+		renderer.setPaintScale(paintScale);
+
+		XYPlot plot = new XYPlot(dataset, xAxis, yAxis, renderer);
+		plot.setBackgroundPaint(new Color(220, 220, 220));
+		plot.setDomainGridlinesVisible(false);
+		plot.setRangeGridlinesVisible(false);
+
+		if (cells.labels != null) {
+			Font font = FontRegistry.awtFont(renderingConfiguration, Font.PLAIN, renderingConfiguration.baseFontSize - 2);
+			for (int item = 0; item < cells.x.length; item++) {
+				if (cells.labels[item] == null) continue;
+				XYTextAnnotation annotation = new XYTextAnnotation(cells.labels[item], cells.x[item], cells.y[item]);
+				annotation.setFont(font);
+				plot.addAnnotation(annotation);
+			}
+		}
+
+		JFreeChart chart = new JFreeChart(data.title, JFreeChart.DEFAULT_TITLE_FONT, plot, false);
+
+		NumberAxis scaleAxis = new NumberAxis(scale.label);
+		configureAxis(scaleAxis);
+		scaleAxis.setRange(paintScale.getLowerBound(), paintScale.getUpperBound());
+		PaintScaleLegend legend = new PaintScaleLegend(paintScale, scaleAxis);
+		legend.setPosition(RectangleEdge.RIGHT);
+		legend.setMargin(4, 4, 4, 4);
+		legend.setFrame(new BlockBorder(Color.white));
+		chart.addSubtitle(legend);
+		return chart;
+	}
+
+	private LogarithmicAxis makeLogarithmicAxis(String label) {
+		LogarithmicAxis axis = new LogarithmicAxis(label);
+		configureAxis(axis);
+		axis.setMinorTickMarksVisible(true);
+		axis.setAutoRange(true);
+		axis.setAutoRangeIncludesZero(false);
+		axis.setAllowNegativesFlag(true);
+		return axis;
+	}
+
+	private ValueMarker makeMarker(ChartData.Marker data) {
+		ValueMarker marker = new ValueMarker(data.value);
+		marker.setPaint(data.color);
+		marker.setStroke(data.dashed ? makeDashedStroke() : new BasicStroke(1));
+		marker.setLabel(data.label);
+		marker.setLabelFont(baseFont());
+		marker.setLabelPaint(data.color);
+		marker.setLabelAnchor(RectangleAnchor.TOP_RIGHT);
+		marker.setLabelTextAnchor(TextAnchor.TOP_LEFT);
+		return marker;
+	}
+
+	private static Stroke makeDashedStroke() {
+		return new BasicStroke(1, BasicStroke.CAP_BUTT, BasicStroke.JOIN_MITER, 1, new float[]{4, 4}, 0);
+	}
+
+	private static DefaultDrawingSupplier makeDrawingSupplier() {
+		return new DefaultDrawingSupplier(PAINTS,
+				DefaultDrawingSupplier.DEFAULT_FILL_PAINT_SEQUENCE,
+				DefaultDrawingSupplier.DEFAULT_OUTLINE_PAINT_SEQUENCE,
+				DefaultDrawingSupplier.DEFAULT_STROKE_SEQUENCE,
+				DefaultDrawingSupplier.DEFAULT_OUTLINE_STROKE_SEQUENCE,
+				DefaultDrawingSupplier.DEFAULT_SHAPE_SEQUENCE);
+	}
+
+	private Font baseFont() {
+		return FontRegistry.awtFont(renderingConfiguration, Font.PLAIN, renderingConfiguration.baseFontSize);
+	}
+
+	private void configureAxis(Axis axis) {
+		axis.setLabelFont(FontRegistry.awtFont(renderingConfiguration, Font.BOLD, renderingConfiguration.bigFontSize));
+		axis.setLabelInsets(RectangleInsets.ZERO_INSETS);
+		axis.setTickLabelFont(FontRegistry.awtFont(renderingConfiguration, Font.PLAIN, renderingConfiguration.baseFontSize));
+	}
+
+	private static class GradientPaintScale implements PaintScale {
+
+		private final double lowerBound;
+		private final double upperBound;
+		private final Color low;
+		private final Color middle;
+		private final Color high;
+
+		GradientPaintScale(double lowerBound, double upperBound, Color low, Color middle, Color high) {
+			this.lowerBound = lowerBound;
+			this.upperBound = upperBound;
+			this.low = low;
+			this.middle = middle;
+			this.high = high;
+		}
+
+		@Override
+		public double getLowerBound() {
+			return lowerBound;
+		}
+
+		@Override
+		public double getUpperBound() {
+			return upperBound;
+		}
+
+		@Override
+		public Paint getPaint(double value) {
+			double ratio = (value - lowerBound) / (upperBound - lowerBound);
+			ratio = Math.max(0, Math.min(1, ratio));
+			return ratio < 0.5 ? interpolate(low, middle, ratio * 2) : interpolate(middle, high, ratio * 2 - 1);
+		}
+
+		private static Color interpolate(Color from, Color to, double ratio) {
+			return new Color(
+					(int) Math.round(from.getRed() + (to.getRed() - from.getRed()) * ratio),
+					(int) Math.round(from.getGreen() + (to.getGreen() - from.getGreen()) * ratio),
+					(int) Math.round(from.getBlue() + (to.getBlue() - from.getBlue()) * ratio)
+			);
+		}
+	}
+}
@@ -0,0 +1,205 @@
+package com.github.ptitjes.jmh.report.chart;
+
+import com.github.ptitjes.jmh.report.data.BenchmarkResultData;
+import com.github.ptitjes.jmh.report.data.PartitionIndex;
+import com.github.ptitjes.jmh.report.data.RunResultData;
+import com.github.ptitjes.jmh.report.format.RenderingConfiguration;
+import com.github.ptitjes.jmh.report.model.ChartData;
+import com.github.ptitjes.jmh.report.stats.Selection;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.infra.BenchmarkParams;
+
+import java.awt.Color;
+import java.text.NumberFormat;
+import java.util.*;
+import java.util.List;
+
+/**
+ * Maps two params to the axes of a grid whose cells are coloured by score, or by the ratio of their score to the
+ * one of a baseline. Rows are split per thread count when it varies. The other params should be fixed with
+ * {@code perParam} or filters, otherwise each cell shows the median of the results that fall in it.
+ *
+ * @author Didier Villevalois
+ */
+public class HeatmapChartGenerator {
+
+	// Cell values are only printed when they can be read
+	private static final int MAX_ANNOTATED_CELLS = 400;
+
+	private static final NumberFormat CELL_FORMAT = NumberFormat.getInstance();
+
+	private static final Color LOW = new Color(32, 74, 135);
+	private static final Color MIDDLE = new Color(252, 233, 79);
+	private static final Color HIGH = new Color(164, 0, 0);
+	private static final Color BETTER = new Color(78, 154, 6);
+	private static final Color NEUTRAL = new Color(238, 238, 236);
+	private static final Color WORSE = new Color(164, 0, 0);
+
+	private final RenderingConfiguration renderingConfiguration;
+	private final PlotConfiguration plotConfiguration;
+	private final String partitionValue;
+
+	public HeatmapChartGenerator(RenderingConfiguration renderingConfiguration, PlotConfiguration plotConfiguration,
+	                             String partitionValue) {
+		this.renderingConfiguration = renderingConfiguration;
+		this.plotConfiguration = plotConfiguration;
+		this.partitionValue = partitionValue;
+	}
+
+	public ChartData generateChart(String title, BenchmarkResultData benchmarkResult) {
+		List<String> paramKeys = new ArrayList<>(benchmarkResult.paramKeys);
+		paramKeys.remove(plotConfiguration.perParam);
+
+		String xParamKey = plotConfiguration.axisParam;
+		if (xParamKey == null) xParamKey = paramKeys.isEmpty() ? null : paramKeys.get(0);
+		paramKeys.remove(xParamKey);
+
+		String yParamKey = plotConfiguration.yAxisParam;
+		if (yParamKey == null) yParamKey = paramKeys.isEmpty() ? null : paramKeys.get(0);
+
+		PartitionIndex partitionIndex = PartitionIndex.of(benchmarkResult);
+		List<RunResultData> indexedResults = partitionIndex.getResults();
+		BitSet selection = ChartGenerator.select(partitionIndex, plotConfiguration, partitionValue);
+
+		Map<String, Integer> xIndices = new LinkedHashMap<>();
+		for (int resultIndex : partitionIndex.order(selection, xParamKey)) {
+			String xValue = paramOf(indexedResults.get(resultIndex).params, xParamKey);
+			if (!xIndices.containsKey(xValue)) xIndices.put(xValue, xIndices.size());
+		}
+
+		// Rows follow the order of the y values, then of the thread counts
+		List<String> yParamKeys = yParamKey == null ? Collections.<String>emptyList() : Collections.singletonList(yParamKey);
+		String[] rowKeys = partitionIndex.seriesKeys(yParamKeys);
+		int[] resultIndices = partitionIndex.order(selection, yParamKey);
+		Map<String, SortedMap<Integer, String>> perYValueRows = new LinkedHashMap<>();
+		for (int resultIndex : resultIndices) {
+			BenchmarkParams params = indexedResults.get(resultIndex).params;
+			String yValue = paramOf(params, yParamKey);
+			SortedMap<Integer, String> rows = perYValueRows.get(yValue);
+			if (rows == null) {
+				rows = new TreeMap<>();
+				perYValueRows.put(yValue, rows);
+			}
+			rows.put(params.getThreads(), rowKeys[resultIndex]);
+		}
+		Map<String, Integer> yIndices = new LinkedHashMap<>();
+		for (SortedMap<Integer, String> rows : perYValueRows.values()) {
+			for (String rowKey : rows.values()) yIndices.put(rowKey, yIndices.size());
+		}
+
+		Map<String, Double> baselineScores = null;
+		if (plotConfiguration.baselineParam != null) {
+			baselineScores = new HashMap<>();
+			for (RunResultData resultData : benchmarkResult.perParamsResults) {
+				BenchmarkParams params = resultData.params;
+				if (plotConfiguration.baselineValue.equals(params.getParam(plotConfiguration.baselineParam))) {
+					baselineScores.put(coordinatesKey(params, null), resultData.primaryResults.score);
+				}
+			}
+		}
+
+		// Results that differ by other params than the axes fall in the same cell
+		Map<Integer, List<Double>> perCellValues = new LinkedHashMap<>();
+		Map<Integer, List<Double>> perCellScores = new HashMap<>();
+		for (int resultIndex : resultIndices) {
+			RunResultData resultData = indexedResults.get(resultIndex);
+			BenchmarkParams params = resultData.params;
+			double score = resultData.primaryResults.score;
+
+			double value;
+			if (baselineScores != null) {
+				Double baselineScore = baselineScores.get(coordinatesKey(params, plotConfiguration.baselineParam));
+				if (baselineScore == null) continue;
+				value = Math.log(score / baselineScore) / Math.log(2);
+			} else {
+				value = plotConfiguration.logScale ? Math.log10(score) : score;
+			}
+
+			int cell = xIndices.get(paramOf(params, xParamKey)) * yIndices.size() + yIndices.get(rowKeys[resultIndex]);
+			List<Double> values = perCellValues.get(cell);
+			if (values == null) {
+				values = new ArrayList<>();
+				perCellValues.put(cell, values);
+				perCellScores.put(cell, new ArrayList<Double>());
+			}
+			values.add(value);
+			perCellScores.get(cell).add(score);
+		}
+
+		int cellCount = perCellValues.size();
+		double[] x = new double[cellCount], y = new double[cellCount], z = new double[cellCount];
+		double[] scores = new double[cellCount];
+		int index = 0, maxCellResults = 0;
+		double min = Double.POSITIVE_INFINITY, max = Double.NEGATIVE_INFINITY;
+		for (Map.Entry<Integer, List<Double>> cellValues : perCellValues.entrySet()) {
+			int cell = cellValues.getKey();
+			double value = median(cellValues.getValue());
+
+			x[index] = cell / yIndices.size();
+			y[index] = cell % yIndices.size();
+			z[index] = value;
+			scores[index] = median(perCellScores.get(cell));
+			min = Math.min(min, value);
+			max = Math.max(max, value);
+			maxCellResults = Math.max(maxCellResults, cellValues.getValue().size());
+			index++;
+		}
+
+		ChartData.Options options = new ChartData.Options();
+		options.legend = false;
+		if (baselineScores != null) {
+			// Ratios are symmetric around the baseline in log space
+			double bound = Math.max(Math.max(Math.abs(min), Math.abs(max)), 0.1);
+			boolean lessIsBetter = benchmarkResult.perParamsResults.get(0).params.getMode() != Mode.Throughput;
+			String scaleLabel = "log2(score / " + plotConfiguration.baselineParam + "=" + plotConfiguration.baselineValue + ")";
+			options.scale = lessIsBetter ?
+					new ChartData.Scale(scaleLabel, -bound, bound, BETTER, NEUTRAL, WORSE) :
+					new ChartData.Scale(scaleLabel, -bound, bound, WORSE, NEUTRAL, BETTER);
+		} else {
+			if (!(max > min)) max = min + 1;
+			String scaleLabel = plotConfiguration.logScale ? "log10(" + benchmarkResult.timeUnit + ")" : benchmarkResult.timeUnit;
+			options.scale = new ChartData.Scale(scaleLabel, min, max, LOW, MIDDLE, HIGH);
+		}
+
+		String[] labels = null;
+		if (cellCount <= MAX_ANNOTATED_CELLS) {
+			labels = new String[cellCount];
+			for (int i = 0; i < cellCount; i++) labels[i] = CELL_FORMAT.format(scores[i]);
+		}
+
+		if (maxCellResults > 1) {
+			options.notes.add("cells show the median of up to " + maxCellResults +
+					" results differing by other params than " + xParamKey + (yParamKey != null ? " and " + yParamKey : ""));
+		}
+
+		// Keeps the chart compact instead of taking a whole page
+		options.minHeight = yIndices.size() * (renderingConfiguration.baseFontSize + 12) + 6 * renderingConfiguration.bigFontSize + 40;
+
+		ChartData.Series cells = new ChartData.Series("scores", x, y, y, y, z, labels, false, false, null, false);
+		return new ChartData(ChartData.Kind.HEATMAP, title, xParamKey, yParamKey,
+				new ArrayList<>(xIndices.keySet()), new ArrayList<>(yIndices.keySet()),
+				Collections.singletonList(cells), options);
+	}
+
+	private String coordinatesKey(BenchmarkParams params, String replacedParamKey) {
+		StringBuilder key = new StringBuilder();
+		for (String paramKey : params.getParamsKeys()) {
+			String value = paramKey.equals(replacedParamKey) ? plotConfiguration.baselineValue : params.getParam(paramKey);
+			key.append(paramKey).append('=').append(value).append('|');
+		}
+		return key.append(params.getThreads()).toString();
+	}
+
+	private static double median(List<Double> values) {
+		double[] scratch = new double[values.size()];
+		for (int i = 0; i < scratch.length; i++) scratch[i] = values.get(i);
+		return Selection.median(scratch, scratch.length);
+	}
+
+	/**
+	 * Returns the value of a param, or {@code null} for the missing param of a heatmap with a single axis.
+	 */
+	private static String paramOf(BenchmarkParams params, String paramKey) {
+		return paramKey == null ? null : params.getParam(paramKey);
+	}
+}
@@ -1,7 +1,9 @@
 package com.github.ptitjes.jmh.report.chart;
 
 import com.github.ptitjes.jmh.report.annotations.Orientation;
+import com.github.ptitjes.jmh.report.annotations.Oversize;
 import com.github.ptitjes.jmh.report.annotations.PlotType;
+import com.github.ptitjes.jmh.report.stats.TierRanking;
 
 import java.util.HashMap;
 import java.util.Map;
@@ -15,7 +17,19 @@ public class PlotConfiguration {
 	public String perParam = null;
 	public Map<String, Pattern> paramFilters = new HashMap<>();
 	public String axisParam = null;
+	public String yAxisParam = null;
+	public String baselineParam = null;
+	public String baselineValue = null;
 	public PlotType type = PlotType.BARS;
 	public Orientation orientation = Orientation.VERTICAL;
 	public boolean logScale = false;
+	public boolean numericAxis = true;
+	public Oversize oversize = Oversize.SPLIT;
+	/**
+	 * The limits of a chart, or 0 for those of the rendering configuration.
+	 */
+	public int maxSeries = 0;
+	public int maxCategories = 0;
+	public String aggregateParam = null;
+	public double tierSignificance = TierRanking.DEFAULT_SIGNIFICANCE;
 }
@@ -0,0 +1,59 @@
+package com.github.ptitjes.jmh.report.chart;
+
+import com.github.ptitjes.jmh.report.format.RenderingConfiguration;
+import com.github.ptitjes.jmh.report.model.ChartData;
+import com.github.ptitjes.jmh.report.stats.ScalingAnalysis;
+
+import java.awt.Color;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * @author Didier Villevalois
+ */
+public class ScalingChartGenerator {
+
+	private static final int CURVE_STEPS = 64;
+
+	private final RenderingConfiguration renderingConfiguration;
+
+	public ScalingChartGenerator(RenderingConfiguration renderingConfiguration) {
+		this.renderingConfiguration = renderingConfiguration;
+	}
+
+	public ChartData generateChart(String title, ScalingAnalysis.Group group) {
+		int maxThreads = group.threads[group.threads.length - 1];
+
+		List<ChartData.Series> series = new ArrayList<>();
+		double[] threads = new double[group.threads.length];
+		for (int i = 0; i < group.threads.length; i++) threads[i] = group.threads[i];
+		series.add(makeSeries("Measured", threads, group.speedups, false, true, new Color(32, 74, 135), false));
+		series.add(makeSeries("Linear", new double[]{1, maxThreads}, new double[]{1, maxThreads},
+				true, false, new Color(85, 87, 83), true));
+
+		if (!Double.isNaN(group.amdahlSigma)) {
+			double[] n = new double[CURVE_STEPS + 1];
+			double[] amdahl = new double[CURVE_STEPS + 1];
+			double[] usl = new double[CURVE_STEPS + 1];
+			for (int i = 0; i <= CURVE_STEPS; i++) {
+				n[i] = 1 + (maxThreads - 1) * (double) i / CURVE_STEPS;
+				amdahl[i] = group.amdahlSpeedup(n[i]);
+				usl[i] = group.uslSpeedup(n[i]);
+			}
+			series.add(makeSeries("Amdahl", n, amdahl, true, false, new Color(206, 92, 0), false));
+			if (!Double.isNaN(group.uslSigma)) series.add(makeSeries("USL", n, usl, true, false, new Color(78, 154, 6), false));
+		}
+
+		ChartData.Options options = new ChartData.Options();
+		options.integerDomain = true;
+		options.domainIncludesZero = true;
+		return new ChartData(ChartData.Kind.XY, title, "threads", "speedup", Collections.<String>emptyList(),
+				Collections.<String>emptyList(), series, options);
+	}
+
+	private static ChartData.Series makeSeries(String name, double[] x, double[] y, boolean lines, boolean shapes,
+	                                           Color color, boolean dashed) {
+		return new ChartData.Series(name, x, y, y, y, null, null, lines, shapes, color, dashed);
+	}
+}
@@ -0,0 +1,109 @@
+package com.github.ptitjes.jmh.report.chart;
+
+import com.github.ptitjes.jmh.report.format.RenderingConfiguration;
+import com.github.ptitjes.jmh.report.model.ChartData;
+import com.github.ptitjes.jmh.report.stats.ThreadGroupAnalysis;
+import org.openjdk.jmh.annotations.Mode;
+
+import java.util.*;
+import java.util.List;
+
+/**
+ * Charts the results of {@code @Group} benchmarks per thread role: side by side for each run, and per thread as the
+ * distribution of threads among roles changes.
+ *
+ * @author Didier Villevalois
+ */
+public class ThreadGroupChartGenerator {
+
+	private final RenderingConfiguration renderingConfiguration;
+
+	public ThreadGroupChartGenerator(RenderingConfiguration renderingConfiguration) {
+		this.renderingConfiguration = renderingConfiguration;
+	}
+
+	public ChartData generateRolesChart(String title, List<ThreadGroupAnalysis.GroupRun> groupRuns, String timeUnit) {
+		boolean withDistributions = false;
+		for (ThreadGroupAnalysis.GroupRun groupRun : groupRuns) {
+			if (!groupRun.distribution.equals(groupRuns.get(0).distribution)) withDistributions = true;
+		}
+
+		CategoryValues values = new CategoryValues();
+		for (ThreadGroupAnalysis.GroupRun groupRun : groupRuns) {
+			String category = groupRun.label;
+			if (withDistributions) category = (category.isEmpty() ? "" : category + " - ") + groupRun.distribution;
+			if (category.isEmpty()) category = " ";
+
+			for (ThreadGroupAnalysis.Role role : groupRun.roles) {
+				values.add(role.name, category, role.results.score, role.results.scoreError,
+						String.format("%.3f", role.results.score));
+			}
+		}
+		return values.toChartData(ChartData.Kind.BARS, title, "", timeUnit);
+	}
+
+	public ChartData generateContentionChart(String title, ThreadGroupAnalysis.Contention contention, Mode mode, String timeUnit) {
+		CategoryValues values = new CategoryValues();
+		for (ThreadGroupAnalysis.GroupRun groupRun : contention.runs) {
+			for (ThreadGroupAnalysis.Role role : groupRun.roles) {
+				double perThreadScore = role.perThreadScore(mode);
+				double scale = role.results.score == 0 ? 0 : perThreadScore / role.results.score;
+				values.add(role.name, groupRun.distribution, perThreadScore, role.results.scoreError * scale, null);
+			}
+		}
+		return values.toChartData(ChartData.Kind.LINES, title, join(contention.roleNames) + " threads",
+				timeUnit + (mode == Mode.Throughput ? " per thread" : ""));
+	}
+
+	/**
+	 * Collects the values of series per category, in order of appearance.
+	 */
+	private static class CategoryValues {
+		final List<String> series = new ArrayList<>();
+		final List<String> categories = new ArrayList<>();
+		final Map<String, Map<String, double[]>> perSeriesValues = new HashMap<>();
+		final Map<String, Map<String, String>> perSeriesLabels = new HashMap<>();
+
+		void add(String seriesName, String category, double value, double error, String label) {
+			if (!series.contains(seriesName)) {
+				series.add(seriesName);
+				perSeriesValues.put(seriesName, new HashMap<String, double[]>());
+				perSeriesLabels.put(seriesName, new HashMap<String, String>());
+			}
+			if (!categories.contains(category)) categories.add(category);
+			perSeriesValues.get(seriesName).put(category, new double[]{value, error});
+			perSeriesLabels.get(seriesName).put(category, label);
+		}
+
+		ChartData toChartData(ChartData.Kind kind, String title, String xLabel, String yLabel) {
+			int count = categories.size();
+			double[] x = new double[count];
+			for (int category = 0; category < count; category++) x[category] = category;
+
+			List<ChartData.Series> chartSeries = new ArrayList<>();
+			for (String seriesName : series) {
+				double[] y = new double[count], low = new double[count], high = new double[count];
+				String[] labels = new String[count];
+				for (int category = 0; category < count; category++) {
+					double[] value = perSeriesValues.get(seriesName).get(categories.get(category));
+					y[category] = value == null ? Double.NaN : value[0];
+					low[category] = value == null ? Double.NaN : value[0] - value[1];
+					high[category] = value == null ? Double.NaN : value[0] + value[1];
+					labels[category] = perSeriesLabels.get(seriesName).get(categories.get(category));
+				}
+				chartSeries.add(new ChartData.Series(seriesName, x, y, low, high, labels));
+			}
+			return new ChartData(kind, title, xLabel, yLabel, categories, Collections.<String>emptyList(), chartSeries,
+					new ChartData.Options());
+		}
+	}
+
+	private static String join(List<String> values) {
+		StringBuilder builder = new StringBuilder();
+		for (String value : values) {
+			if (builder.length() > 0) builder.append(":");
+			builder.append(value);
+		}
+		return builder.toString();
+	}
+}
@@ -0,0 +1,56 @@
+package com.github.ptitjes.jmh.report.chart;
+
+import com.github.ptitjes.jmh.report.format.RenderingConfiguration;
+import com.github.ptitjes.jmh.report.model.ChartData;
+import com.github.ptitjes.jmh.report.stats.SteadyStateDetector;
+
+import java.awt.Color;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Plots the warmup and measurement scores of each fork, with markers where measurement began and where the steady
+ * state was detected.
+ *
+ * @author Didier Villevalois
+ */
+public class WarmupChartGenerator {
+
+	private final RenderingConfiguration renderingConfiguration;
+
+	public WarmupChartGenerator(RenderingConfiguration renderingConfiguration) {
+		this.renderingConfiguration = renderingConfiguration;
+	}
+
+	public ChartData generateChart(String title, SteadyStateDetector.SteadyState steadyState) {
+		double[][] warmupData = steadyState.resultData.warmupData;
+		double[][] rawData = steadyState.resultData.primaryResults.rawData;
+		boolean shapes = rawData[0].length + warmupData[0].length <= 50;
+
+		List<ChartData.Series> series = new ArrayList<>();
+		for (int i = 0; i < rawData.length; i++) {
+			int count = warmupData[i].length + rawData[i].length;
+			double[] x = new double[count], y = new double[count];
+			for (int item = 0; item < count; item++) {
+				x[item] = item + 1;
+				y[item] = item < warmupData[i].length ? warmupData[i][item] : rawData[i][item - warmupData[i].length];
+			}
+			series.add(new ChartData.Series("Fork " + (i + 1), x, y, y, y, null, null, true, shapes, null, false));
+		}
+
+		ChartData.Options options = new ChartData.Options();
+		options.legend = rawData.length <= 10;
+		options.integerDomain = true;
+		options.domainIncludesZero = true;
+		options.rangeIncludesZero = false;
+		options.markers.add(new ChartData.Marker(steadyState.warmupIterations + .5, "measurement", new Color(46, 52, 54), false));
+		if (steadyState.steadyStart != steadyState.warmupIterations) {
+			options.markers.add(new ChartData.Marker(steadyState.steadyStart + .5, "steady",
+					steadyState.stillWarming ? new Color(164, 0, 0) : new Color(78, 154, 6), true));
+		}
+
+		return new ChartData(ChartData.Kind.XY, title, "iteration", steadyState.resultData.primaryResults.scoreUnit,
+				Collections.<String>emptyList(), Collections.<String>emptyList(), series, options);
+	}
+}
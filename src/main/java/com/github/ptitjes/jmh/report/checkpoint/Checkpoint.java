@@ -0,0 +1,179 @@
+package com.github.ptitjes.jmh.report.checkpoint;
+
+import com.github.ptitjes.jmh.report.data.JSONLinesResultParser;
+import com.github.ptitjes.jmh.report.data.JSONResultWriter;
+import com.github.ptitjes.jmh.report.data.RunResultData;
+import com.github.ptitjes.jmh.report.env.Environment;
+import org.json.JSONArray;
+import org.json.JSONException;
+import org.json.JSONObject;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.infra.BenchmarkParams;
+
+import java.io.*;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.StandardOpenOption;
+import java.util.*;
+
+/**
+ * An append-only file of completed benchmark results, one JSON object per line. Each record is forced to disk before
+ * the next benchmark starts, so that an interrupted run loses at most the benchmark in progress. The first record holds
+ * the fingerprint of the environment the run was started in, which resumed runs are compared against.
+ *
+ * @author Didier Villevalois
+ */
+public class Checkpoint implements Closeable {
+
+	public static final String EXTENSION = ".jsonl";
+
+	private final File file;
+	private final List<RunResultData> previousResults;
+	private Environment environment;
+	private final Set<String> completedKeys = new HashSet<>();
+	private final JSONResultWriter writer = new JSONResultWriter();
+	private final FileChannel channel;
+
+	public Checkpoint(File file) throws IOException {
+		this.file = file;
+		file.getAbsoluteFile().getParentFile().mkdirs();
+
+		previousResults = file.exists() ? new JSONLinesResultParser().parseFrom(file) : Collections.<RunResultData>emptyList();
+		environment = file.exists() ? readEnvironment(file) : null;
+		for (RunResultData resultData : previousResults) {
+			completedKeys.add(keyOf(resultData.params));
+		}
+
+		channel = FileChannel.open(file.toPath(), StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+		truncateIncompleteRecord();
+	}
+
+	/*
+	 * Drops what follows the last complete line so that the next record does not get appended to a partial one.
+	 */
+	private void truncateIncompleteRecord() throws IOException {
+		long size = channel.size();
+		ByteBuffer buffer = ByteBuffer.allocate(1);
+		long end = size;
+		while (end > 0) {
+			buffer.clear();
+			channel.read(buffer, end - 1);
+			if (buffer.get(0) == '\n') break;
+			end--;
+		}
+		if (end < size) channel.truncate(end);
+		channel.position(end);
+	}
+
+	public File getFile() {
+		return file;
+	}
+
+	public List<RunResultData> getPreviousResults() {
+		return previousResults;
+	}
+
+	/**
+	 * Returns the environment the run was started in, or {@code null} if none was recorded.
+	 */
+	public synchronized Environment getEnvironment() {
+		return environment;
+	}
+
+	public synchronized void recordEnvironment(Environment environment) throws IOException {
+		JSONArray properties = new JSONArray();
+		for (Map.Entry<String, String> property : environment.properties.entrySet()) {
+			properties.put(new JSONArray().put(property.getKey()).put(property.getValue()));
+		}
+		write(new JSONObject().put(JSONLinesResultParser.ENVIRONMENT_KEY, properties));
+		this.environment = environment;
+	}
+
+	public synchronized boolean isCompleted(String key) {
+		return completedKeys.contains(key);
+	}
+
+	public synchronized void record(RunResultData resultData) throws IOException {
+		write(writer.toJSON(resultData));
+		completedKeys.add(keyOf(resultData.params));
+	}
+
+	private void write(JSONObject record) throws IOException {
+		byte[] line = (record.toString() + "\n").getBytes(StandardCharsets.UTF_8);
+		ByteBuffer buffer = ByteBuffer.wrap(line);
+		while (buffer.hasRemaining()) channel.write(buffer);
+		channel.force(true);
+	}
+
+	private static Environment readEnvironment(File file) throws IOException {
+		BufferedReader reader = new BufferedReader(new InputStreamReader(new FileInputStream(file), StandardCharsets.UTF_8));
+		try {
+			String line;
+			while ((line = reader.readLine()) != null) {
+				if (line.trim().isEmpty()) continue;
+
+				JSONObject jsonObject = new JSONObject(line);
+				JSONArray properties = jsonObject.optJSONArray(JSONLinesResultParser.ENVIRONMENT_KEY);
+				if (properties == null) return null;
+
+				Environment environment = new Environment("Current");
+				for (int i = 0; i < properties.length(); i++) {
+					JSONArray property = properties.getJSONArray(i);
+					environment.properties.put(property.getString(0), property.getString(1));
+				}
+				return environment;
+			}
+			return null;
+		} catch (JSONException e) {
+			// A checkpoint interrupted while writing its environment has no complete record
+			return null;
+		} finally {
+			reader.close();
+		}
+	}
+
+	public synchronized List<RunResultData> readAll() throws IOException {
+		return new JSONLinesResultParser().parseFrom(file);
+	}
+
+	@Override
+	public void close() throws IOException {
+		channel.close();
+	}
+
+	public static String keyOf(BenchmarkParams params) {
+		Map<String, String> paramValues = new HashMap<>();
+		for (String paramKey : params.getParamsKeys()) {
+			paramValues.put(paramKey, params.getParam(paramKey));
+		}
+		return keyOf(params.getBenchmark(), params.getMode(), paramValues);
+	}
+
+	public static String keyOf(String benchmark, Mode mode, Map<String, String> paramValues) {
+		StringBuilder key = new StringBuilder(benchmark).append(' ').append(mode.shortLabel());
+		for (Map.Entry<String, String> paramValue : new TreeMap<>(paramValues).entrySet()) {
+			key.append(' ').append(paramValue.getKey()).append('=').append(paramValue.getValue());
+		}
+		return key.toString();
+	}
+
+	/**
+	 * Returns the most recently modified checkpoint of the given directory, or {@code null} if there is none.
+	 */
+	public static File latestIn(File directory) {
+		File[] files = directory.listFiles(new FilenameFilter() {
+			@Override
+			public boolean accept(File dir, String name) {
+				return name.endsWith(EXTENSION);
+			}
+		});
+		if (files == null) return null;
+
+		File latest = null;
+		for (File file : files) {
+			if (latest == null || file.lastModified() > latest.lastModified()) latest = file;
+		}
+		return latest;
+	}
+}
@@ -0,0 +1,272 @@
+package com.github.ptitjes.jmh.report.checkpoint;
+
+import com.github.ptitjes.jmh.report.data.NoiseData;
+import com.github.ptitjes.jmh.report.data.RunResultData;
+import com.github.ptitjes.jmh.report.env.NoiseMonitor;
+import org.openjdk.jmh.infra.BenchmarkParams;
+import org.openjdk.jmh.infra.IterationParams;
+import org.openjdk.jmh.results.BenchmarkResult;
+import org.openjdk.jmh.results.IterationResult;
+import org.openjdk.jmh.results.Result;
+import org.openjdk.jmh.results.RunResult;
+import org.openjdk.jmh.runner.Defaults;
+import org.openjdk.jmh.runner.IterationType;
+import org.openjdk.jmh.runner.format.OutputFormat;
+import org.openjdk.jmh.runner.format.OutputFormatFactory;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.util.UnCloseablePrintStream;
+import org.openjdk.jmh.util.Utils;
+
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.PrintStream;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.SortedMap;
+import java.util.TreeMap;
+
+/**
+ * Forwards to the usual JMH console output and records every completed benchmark into a {@link Checkpoint}. The
+ * per-fork warmup and measurement scores, and those of the subgroups of {@code @Group} benchmarks, are collected from
+ * the iteration results, as JMH only reports the
+ * aggregated measurements at the end of a benchmark. When a {@link NoiseMonitor} is given, the system load sampled
+ * during each measurement iteration is recorded along its score.
+ *
+ * @author Didier Villevalois
+ */
+public class CheckpointingOutputFormat implements OutputFormat {
+
+	private final OutputFormat delegate;
+	private final Checkpoint checkpoint;
+	private final NoiseMonitor noiseMonitor;
+	private final String configuration;
+
+	private List<List<Double>> forkWarmups;
+	private List<List<Double>> forkMeasurements;
+	private List<List<double[]>> forkNoise;
+	private Map<String, List<List<Double>>> forkSubgroupMeasurements;
+	private long iterationStart;
+	private RunResultData lastResultData;
+
+	/**
+	 * @param checkpoint the checkpoint to record into, or {@code null} to only collect the results
+	 */
+	public CheckpointingOutputFormat(OutputFormat delegate, Checkpoint checkpoint) {
+		this(delegate, checkpoint, null);
+	}
+
+	/**
+	 * @param noiseMonitor the running monitor to correlate iterations with, or {@code null}
+	 */
+	public CheckpointingOutputFormat(OutputFormat delegate, Checkpoint checkpoint, NoiseMonitor noiseMonitor) {
+		this(delegate, checkpoint, noiseMonitor, null);
+	}
+
+	/**
+	 * @param configuration the name of the JVM configuration to tag the results with, or {@code null}
+	 */
+	public CheckpointingOutputFormat(OutputFormat delegate, Checkpoint checkpoint, NoiseMonitor noiseMonitor, String configuration) {
+		this.delegate = delegate;
+		this.checkpoint = checkpoint;
+		this.noiseMonitor = noiseMonitor;
+		this.configuration = configuration;
+	}
+
+	/**
+	 * Returns the result of the last completed benchmark, with its warmup scores.
+	 */
+	public RunResultData getLastResultData() {
+		return lastResultData;
+	}
+
+	/**
+	 * Creates the output JMH would have created for these options. Each runner closes its output, so a new one is
+	 * needed per run.
+	 */
+	public static OutputFormat create(Options options, Checkpoint checkpoint) throws IOException {
+		return create(options, checkpoint, null);
+	}
+
+	public static OutputFormat create(Options options, Checkpoint checkpoint, NoiseMonitor noiseMonitor) throws IOException {
+		return create(options, checkpoint, noiseMonitor, null);
+	}
+
+	public static OutputFormat create(Options options, Checkpoint checkpoint, NoiseMonitor noiseMonitor, String configuration) throws IOException {
+		return new CheckpointingOutputFormat(createConsole(options), checkpoint, noiseMonitor, configuration);
+	}
+
+	public static OutputFormat createConsole(Options options) throws IOException {
+		PrintStream out;
+		if (options.getOutput().hasValue()) {
+			out = new PrintStream(new FileOutputStream(options.getOutput().get(), true));
+		} else {
+			out = new UnCloseablePrintStream(System.out, Utils.guessConsoleEncoding());
+		}
+		return OutputFormatFactory.createFormatInstance(out, options.verbosity().orElse(Defaults.VERBOSITY));
+	}
+
+	@Override
+	public void startBenchmark(BenchmarkParams benchParams) {
+		forkWarmups = new ArrayList<>();
+		forkMeasurements = new ArrayList<>();
+		forkNoise = new ArrayList<>();
+		forkSubgroupMeasurements = new TreeMap<>();
+		delegate.startBenchmark(benchParams);
+	}
+
+	@Override
+	public void iteration(BenchmarkParams benchParams, IterationParams params, int iteration) {
+		iterationStart = System.currentTimeMillis();
+		delegate.iteration(benchParams, params, iteration);
+	}
+
+	@Override
+	public void iterationResult(BenchmarkParams benchParams, IterationParams params, int iteration, IterationResult data) {
+		if (forkMeasurements != null) {
+			List<List<Double>> forkScores = params.getType() == IterationType.WARMUP ? forkWarmups : forkMeasurements;
+			if (iteration == 1) forkScores.add(new ArrayList<Double>());
+			if (!forkScores.isEmpty()) forkScores.get(forkScores.size() - 1).add(data.getPrimaryResult().getScore());
+
+			if (params.getType() == IterationType.MEASUREMENT) {
+				for (String label : RunResultData.subgroupLabels(benchParams, data.getSecondaryResults().keySet())) {
+					List<List<Double>> subgroupScores = forkSubgroupMeasurements.get(label);
+					if (subgroupScores == null) {
+						subgroupScores = new ArrayList<>();
+						forkSubgroupMeasurements.put(label, subgroupScores);
+					}
+					if (iteration == 1) subgroupScores.add(new ArrayList<Double>());
+					if (!subgroupScores.isEmpty()) subgroupScores.get(subgroupScores.size() - 1).add(data.getSecondaryResults().get(label).getScore());
+				}
+			}
+
+			if (noiseMonitor != null && params.getType() == IterationType.MEASUREMENT) {
+				if (iteration == 1) forkNoise.add(new ArrayList<double[]>());
+				if (!forkNoise.isEmpty()) {
+					forkNoise.get(forkNoise.size() - 1).add(noiseMonitor.summarize(iterationStart, System.currentTimeMillis()));
+				}
+			}
+		}
+		delegate.iterationResult(benchParams, params, iteration, data);
+	}
+
+	@Override
+	public void endBenchmark(BenchmarkResult result) {
+		delegate.endBenchmark(result);
+
+		if (result != null && forkMeasurements != null) {
+			RunResultData resultData = makeResultData(result);
+			lastResultData = resultData;
+			if (resultData != null && checkpoint != null) {
+				try {
+					checkpoint.record(resultData);
+				} catch (IOException e) {
+					delegate.println("WARNING: Could not checkpoint " + result.getParams().getBenchmark() + ": " + e.getMessage());
+				}
+			}
+		}
+		forkWarmups = null;
+		forkMeasurements = null;
+		forkNoise = null;
+		forkSubgroupMeasurements = null;
+	}
+
+	private RunResultData makeResultData(BenchmarkResult result) {
+		BenchmarkParams params = result.getParams();
+		int forks = Math.max(params.getForks(), 1);
+		int iterations = params.getMeasurement().getCount();
+
+		double[][] rawData = toArray(forkMeasurements, forks, iterations);
+		if (rawData == null) return null;
+		double[][] warmupData = toArray(forkWarmups, forks, params.getWarmup().getCount());
+		// Like scores, the noise of warmup forks comes first
+		NoiseData noiseData = noiseMonitor == null || forkNoise.size() < forks ? null :
+				NoiseData.of(noiseMonitor.getCpus(), forkNoise.subList(forkNoise.size() - forks, forkNoise.size()));
+
+		SortedMap<String, RunResultData.Results> subgroupResults = null;
+		for (String label : result.getSecondaryResults().keySet()) {
+			List<List<Double>> subgroupScores = forkSubgroupMeasurements.get(label);
+			double[][] subgroupData = subgroupScores == null ? null : toArray(subgroupScores, forks, iterations);
+			if (subgroupData == null) continue;
+
+			if (subgroupResults == null) subgroupResults = new TreeMap<>();
+			subgroupResults.put(label, makeResults(result.getSecondaryResults().get(label), subgroupData));
+		}
+
+		return new RunResultData(params, makeResults(result.getPrimaryResult(), rawData), warmupData, noiseData, subgroupResults,
+				configuration, false);
+	}
+
+	private static RunResultData.Results makeResults(Result<?> result, double[][] rawData) {
+		return new RunResultData.Results(
+				result.getScore(),
+				result.getScoreError(),
+				result.getScoreConfidence()[0],
+				result.getScoreConfidence()[1],
+				result.getScoreUnit(),
+				rawData
+		);
+	}
+
+	private static double[][] toArray(List<List<Double>> forkScores, int forks, int iterations) {
+		// Warmup forks report their iterations too, they come first
+		if (forkScores.size() > forks) forkScores = forkScores.subList(forkScores.size() - forks, forkScores.size());
+		if (forkScores.size() != forks) return null;
+
+		double[][] data = new double[forks][];
+		for (int i = 0; i < forks; i++) {
+			List<Double> forkData = forkScores.get(i);
+			if (forkData.size() != iterations) return null;
+
+			data[i] = new double[iterations];
+			for (int j = 0; j < iterations; j++) data[i][j] = forkData.get(j);
+		}
+		return data;
+	}
+
+	@Override
+	public void startRun() {
+		delegate.startRun();
+	}
+
+	@Override
+	public void endRun(Collection<RunResult> result) {
+		delegate.endRun(result);
+	}
+
+	@Override
+	public void print(String s) {
+		delegate.print(s);
+	}
+
+	@Override
+	public void println(String s) {
+		delegate.println(s);
+	}
+
+	@Override
+	public void flush() {
+		delegate.flush();
+	}
+
+	@Override
+	public void close() {
+		delegate.close();
+	}
+
+	@Override
+	public void verbosePrintln(String s) {
+		delegate.verbosePrintln(s);
+	}
+
+	@Override
+	public void write(int b) {
+		delegate.write(b);
+	}
+
+	@Override
+	public void write(byte[] b) throws IOException {
+		delegate.write(b);
+	}
+}
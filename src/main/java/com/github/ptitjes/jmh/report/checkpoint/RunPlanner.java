@@ -0,0 +1,138 @@
+package com.github.ptitjes.jmh.report.checkpoint;
+
+import com.github.ptitjes.jmh.report.stats.LatinHypercubeSampler;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.runner.BenchmarkList;
+import org.openjdk.jmh.runner.BenchmarkListEntry;
+import org.openjdk.jmh.runner.format.OutputFormat;
+import org.openjdk.jmh.runner.options.ChainedOptionsBuilder;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.openjdk.jmh.util.Optional;
+
+import java.util.*;
+import java.util.regex.Pattern;
+
+/**
+ * Plans the runs of the combinations that are not completed in a checkpoint, optionally restricted to a sample of
+ * the param grid. JMH cannot skip single param combinations, so each benchmark with completed or unsampled
+ * combinations is run again for its pending combinations only, every other benchmark being excluded.
+ *
+ * @author Didier Villevalois
+ */
+public class RunPlanner {
+
+	private final Options options;
+	private final Checkpoint checkpoint;
+	private final LatinHypercubeSampler sampler;
+
+	public RunPlanner(Options options, Checkpoint checkpoint) {
+		this(options, checkpoint, null);
+	}
+
+	public RunPlanner(Options options, Checkpoint checkpoint, LatinHypercubeSampler sampler) {
+		this.options = options;
+		this.checkpoint = checkpoint;
+		this.sampler = sampler;
+	}
+
+	/**
+	 * @param splitCombinations whether each pending combination gets its own run, even when none is completed
+	 */
+	public List<PlannedRun> plan(OutputFormat out, boolean splitCombinations) {
+		List<String> includes = options.getIncludes();
+		if (includes.isEmpty()) includes = Collections.singletonList(".*");
+		SortedSet<BenchmarkListEntry> entries = BenchmarkList.defaultList().find(out, includes, options.getExcludes());
+
+		Set<String> benchmarkNames = new LinkedHashSet<>();
+		for (BenchmarkListEntry entry : entries) benchmarkNames.add(entry.getUsername());
+
+		List<PlannedRun> runs = new ArrayList<>();
+		for (BenchmarkListEntry entry : entries) {
+			String benchmarkName = entry.getUsername();
+			for (Mode mode : modesOf(entry)) {
+				List<Map<String, String>> combinations = sampler == null ?
+						LatinHypercubeSampler.cartesianProduct(paramValuesOf(entry)) :
+						sampler.sample(benchmarkName + " " + mode.shortLabel(), paramValuesOf(entry));
+				List<Map<String, String>> pending = new ArrayList<>();
+				for (Map<String, String> combination : combinations) {
+					if (!checkpoint.isCompleted(Checkpoint.keyOf(benchmarkName, mode, combination))) pending.add(combination);
+				}
+				if (pending.isEmpty()) continue;
+
+				if (pending.size() == combinations.size() && !splitCombinations && sampler == null) {
+					runs.add(new PlannedRun(benchmarkName, mode, null,
+							makeOptions(benchmarkNames, benchmarkName, mode, null)));
+				} else {
+					for (Map<String, String> combination : pending) {
+						runs.add(new PlannedRun(benchmarkName, mode, combination,
+								makeOptions(benchmarkNames, benchmarkName, mode, combination)));
+					}
+				}
+			}
+		}
+		return runs;
+	}
+
+	public static class PlannedRun {
+		public final String benchmarkName;
+		public final Mode mode;
+		/**
+		 * The param values of the run, or {@code null} if it runs all the combinations of the benchmark.
+		 */
+		public final Map<String, String> combination;
+		public final Options options;
+
+		public PlannedRun(String benchmarkName, Mode mode, Map<String, String> combination, Options options) {
+			this.benchmarkName = benchmarkName;
+			this.mode = mode;
+			this.combination = combination;
+			this.options = options;
+		}
+
+		@Override
+		public String toString() {
+			return Checkpoint.keyOf(benchmarkName, mode, combination == null ? Collections.<String, String>emptyMap() : combination);
+		}
+	}
+
+	private Options makeOptions(Set<String> benchmarkNames, String benchmarkName, Mode mode, Map<String, String> combination) {
+		// Includes of the parent options are merged, so others are excluded instead
+		ChainedOptionsBuilder builder = new OptionsBuilder().parent(options).mode(mode);
+		for (String otherName : benchmarkNames) {
+			if (!otherName.equals(benchmarkName)) builder.exclude("^" + Pattern.quote(otherName) + "$");
+		}
+		if (combination != null) {
+			for (Map.Entry<String, String> paramValue : combination.entrySet()) {
+				builder.param(paramValue.getKey(), paramValue.getValue());
+			}
+		}
+		return builder.build();
+	}
+
+	private Collection<Mode> modesOf(BenchmarkListEntry entry) {
+		Collection<Mode> modes = options.getBenchModes();
+		if (modes.isEmpty()) modes = Collections.singletonList(entry.getMode());
+		if (!modes.contains(Mode.All)) return modes;
+
+		List<Mode> allModes = new ArrayList<>();
+		for (Mode mode : Mode.values()) {
+			if (mode != Mode.All) allModes.add(mode);
+		}
+		return allModes;
+	}
+
+	private Map<String, List<String>> paramValuesOf(BenchmarkListEntry entry) {
+		Map<String, List<String>> paramValues = new LinkedHashMap<>();
+
+		Optional<Map<String, String[]>> params = entry.getParams();
+		if (!params.hasValue()) return paramValues;
+
+		for (Map.Entry<String, String[]> param : params.get().entrySet()) {
+			String paramKey = param.getKey();
+			Optional<Collection<String>> overridden = options.getParameter(paramKey);
+			paramValues.put(paramKey, new ArrayList<>(overridden.hasValue() ? overridden.get() : Arrays.asList(param.getValue())));
+		}
+		return paramValues;
+	}
+}
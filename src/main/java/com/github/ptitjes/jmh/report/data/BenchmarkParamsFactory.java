@@ -0,0 +1,73 @@
+package com.github.ptitjes.jmh.report.data;
+
+import org.openjdk.jmh.infra.BenchmarkParams;
+import org.openjdk.jmh.infra.IterationParams;
+import org.openjdk.jmh.runner.WorkloadParams;
+
+import java.util.Map;
+
+/**
+ * Copies {@link BenchmarkParams}, which are immutable, with some of their values changed.
+ *
+ * @author Didier Villevalois
+ */
+public final class BenchmarkParamsFactory {
+
+	private BenchmarkParamsFactory() {
+	}
+
+	public static BenchmarkParams withMeasurement(BenchmarkParams params, int forks, int iterations) {
+		IterationParams measurement = params.getMeasurement();
+		return copy(params, forks,
+				new IterationParams(measurement.getType(), iterations, measurement.getTime(), measurement.getBatchSize()),
+				copyOf(params));
+	}
+
+	public static BenchmarkParams withParamValues(BenchmarkParams params, Map<String, String> paramValues) {
+		WorkloadParams workloadParams = new WorkloadParams();
+		int order = 0;
+		for (Map.Entry<String, String> paramValue : paramValues.entrySet()) {
+			workloadParams.put(paramValue.getKey(), paramValue.getValue(), order++);
+		}
+		return copy(params, params.getForks(), params.getMeasurement(), workloadParams);
+	}
+
+	/**
+	 * Copies params with the name of their JVM configuration as an additional param.
+	 */
+	public static BenchmarkParams withConfiguration(BenchmarkParams params, String configuration) {
+		WorkloadParams workloadParams = copyOf(params);
+		workloadParams.put(RunResultData.CONFIGURATION_PARAM, configuration, params.getParamsKeys().size());
+		return copy(params, params.getForks(), params.getMeasurement(), workloadParams);
+	}
+
+	private static WorkloadParams copyOf(BenchmarkParams params) {
+		WorkloadParams workloadParams = new WorkloadParams();
+		int order = 0;
+		for (String paramKey : params.getParamsKeys()) {
+			workloadParams.put(paramKey, params.getParam(paramKey), order++);
+		}
+		return workloadParams;
+	}
+
+	private static BenchmarkParams copy(BenchmarkParams params, int forks, IterationParams measurement, WorkloadParams workloadParams) {
+		return new BenchmarkParams(
+				params.getBenchmark(),
+				params.generatedBenchmark(),
+				params.shouldSynchIterations(),
+				params.getThreads(),
+				params.getThreadGroups(),
+				forks,
+				params.getWarmupForks(),
+				params.getWarmup(),
+				measurement,
+				params.getMode(),
+				workloadParams,
+				params.getTimeUnit(),
+				params.getOpsPerInvocation(),
+				params.getJvm(),
+				params.getJvmArgs(),
+				params.getTimeout()
+		);
+	}
+}
@@ -1,9 +1,10 @@
 package com.github.ptitjes.jmh.report.data;
 
-import org.openjdk.jmh.infra.BenchmarkParams;
+import com.github.ptitjes.jmh.report.budget.BudgetViolation;
 
-import java.util.Map;
+import java.util.List;
 import java.util.Set;
+import java.util.SortedSet;
 
 /**
  * @author Didier Villevalois
@@ -13,6 +14,31 @@ public class BenchmarkResultData {
 	public String longName;
 	public Set<String> paramKeys;
 	public String timeUnit;
+	public SortedSet<Integer> threads;
 
-	public Map<BenchmarkParams, RunResultData> perParamsResults;
+	public List<RunResultData> perParamsResults;
+
+	/**
+	 * Estimated results of the combinations that a sampled run did not measure, or {@code null} if the run was not
+	 * sampled.
+	 */
+	public List<RunResultData> interpolatedResults;
+
+	/**
+	 * The JVM configurations the benchmark ran under, the first being the reference of the others, or {@code null}
+	 * if it did not run in a matrix. Their names are the values of {@link RunResultData#CONFIGURATION_PARAM}.
+	 */
+	public List<String> configurations;
+
+	public List<BudgetViolation> budgetViolations;
+
+	/**
+	 * Built on first use by {@link PartitionIndex#of(BenchmarkResultData)}.
+	 */
+	public PartitionIndex partitionIndex;
+
+	/**
+	 * Computed on first use by {@link com.github.ptitjes.jmh.report.stats.ConfigurationComparison#relativeDeltas(BenchmarkResultData)}.
+	 */
+	public double[] relativeDeltas;
 }
@@ -0,0 +1,222 @@
+package com.github.ptitjes.jmh.report.data;
+
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.infra.BenchmarkParams;
+import org.openjdk.jmh.infra.IterationParams;
+import org.openjdk.jmh.runner.IterationType;
+import org.openjdk.jmh.runner.WorkloadParams;
+import org.openjdk.jmh.runner.options.TimeValue;
+
+import java.io.*;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Reads JMH CSV and SCSV result files. These only hold the aggregated scores, so results have no raw data and
+ * benchmark parameters only know about threads, samples and mode.
+ * <p>
+ * Records are tokenized in a reused buffer, and repeated strings such as benchmark names, units and param values
+ * are shared between results.
+ *
+ * @author Didier Villevalois
+ */
+public class CSVResultParser implements ResultParser {
+
+	private static final String PARAM_PREFIX = "Param: ";
+	private static final double[][] NO_RAW_DATA = new double[0][];
+
+	private final char delimiter;
+
+	public CSVResultParser(char delimiter) {
+		this.delimiter = delimiter;
+	}
+
+	@Override
+	public List<RunResultData> parseFrom(File file) throws IOException {
+		Reader reader = new InputStreamReader(new FileInputStream(file), StandardCharsets.UTF_8);
+		try {
+			return parseFrom(reader);
+		} finally {
+			reader.close();
+		}
+	}
+
+	public List<RunResultData> parseFrom(Reader reader) throws IOException {
+		RecordReader records = new RecordReader(reader, delimiter);
+		List<RunResultData> runResults = new ArrayList<>();
+
+		List<String> header = new ArrayList<>();
+		if (!records.next(header)) return runResults;
+
+		int benchmarkColumn = header.indexOf("Benchmark");
+		int modeColumn = header.indexOf("Mode");
+		int threadsColumn = header.indexOf("Threads");
+		int samplesColumn = header.indexOf("Samples");
+		int scoreColumn = header.indexOf("Score");
+		int errorColumn = indexOfPrefix(header, "Score Error");
+		int unitColumn = header.indexOf("Unit");
+		if (benchmarkColumn < 0 || modeColumn < 0 || scoreColumn < 0 || unitColumn < 0) {
+			throw new IOException("Not a JMH result file, missing columns in header: " + header);
+		}
+
+		List<String> paramKeys = new ArrayList<>();
+		List<Integer> paramColumns = new ArrayList<>();
+		for (int i = 0; i < header.size(); i++) {
+			if (header.get(i).startsWith(PARAM_PREFIX)) {
+				paramKeys.add(header.get(i).substring(PARAM_PREFIX.length()));
+				paramColumns.add(i);
+			}
+		}
+
+		Map<String, String> strings = new HashMap<>();
+		List<String> fields = new ArrayList<>(header.size());
+		while (records.next(fields)) {
+			if (fields.size() < header.size()) continue;
+
+			// Secondary results are named after their primary benchmark, followed by a colon
+			String benchmark = fields.get(benchmarkColumn);
+			if (benchmark.indexOf(':') >= 0) continue;
+
+			WorkloadParams params = new WorkloadParams();
+			for (int i = 0; i < paramKeys.size(); i++) {
+				String value = fields.get(paramColumns.get(i));
+				if (!value.isEmpty()) params.put(paramKeys.get(i), dedup(strings, value), i);
+			}
+
+			int threads = threadsColumn < 0 ? 1 : Integer.parseInt(fields.get(threadsColumn));
+			int samples = samplesColumn < 0 ? 0 : Integer.parseInt(fields.get(samplesColumn));
+			BenchmarkParams benchmarkParams = makeBenchmarkParams(
+					dedup(strings, benchmark), Mode.deepValueOf(fields.get(modeColumn)), threads, samples, params);
+
+			double score = parseDouble(fields.get(scoreColumn));
+			double error = errorColumn < 0 ? Double.NaN : parseDouble(fields.get(errorColumn));
+			runResults.add(new RunResultData(benchmarkParams, new RunResultData.Results(
+					score, error, score - error, score + error,
+					dedup(strings, fields.get(unitColumn)), NO_RAW_DATA
+			), null, null, null, null, true));
+		}
+		return runResults;
+	}
+
+	private BenchmarkParams makeBenchmarkParams(String benchmark, Mode mode, int threads, int samples,
+	                                            WorkloadParams params) {
+		return new BenchmarkParams(
+				benchmark,
+				null,
+				true,
+				threads,
+				new int[]{threads},
+				0,
+				0,
+				new IterationParams(IterationType.WARMUP, 0, TimeValue.NONE, 1),
+				new IterationParams(IterationType.MEASUREMENT, samples, TimeValue.NONE, 1),
+				mode,
+				params,
+				null,
+				0,
+				null,
+				Collections.<String>emptyList(),
+				null
+		);
+	}
+
+	private double parseDouble(String value) {
+		if (value.isEmpty() || value.equals("NaN")) return Double.NaN;
+		// SCSV numbers are formatted with the default locale of the benchmarking JVM
+		if (delimiter != ',') value = value.replace(',', '.');
+		return Double.parseDouble(value);
+	}
+
+	private static String dedup(Map<String, String> strings, String value) {
+		String shared = strings.get(value);
+		if (shared != null) return shared;
+		strings.put(value, value);
+		return value;
+	}
+
+	private static int indexOfPrefix(List<String> header, String prefix) {
+		for (int i = 0; i < header.size(); i++) {
+			if (header.get(i).startsWith(prefix)) return i;
+		}
+		return -1;
+	}
+
+	private static class RecordReader {
+
+		private final Reader reader;
+		private final char delimiter;
+
+		private final char[] buffer = new char[64 * 1024];
+		private int position = 0;
+		private int limit = 0;
+
+		private final StringBuilder field = new StringBuilder();
+
+		RecordReader(Reader reader, char delimiter) {
+			this.reader = reader;
+			this.delimiter = delimiter;
+		}
+
+		/**
+		 * Reads the next non-empty record into {@code fields}, returning {@code false} at the end of input.
+		 */
+		boolean next(List<String> fields) throws IOException {
+			fields.clear();
+			field.setLength(0);
+
+			boolean quoted = false, inRecord = false;
+			while (true) {
+				if (position == limit) {
+					limit = reader.read(buffer, 0, buffer.length);
+					position = 0;
+					if (limit <= 0) {
+						limit = 0;
+						if (inRecord) fields.add(field.toString());
+						return inRecord;
+					}
+				}
+
+				char c = buffer[position++];
+				if (quoted) {
+					if (c == '"') {
+						if (peek() == '"') {
+							position++;
+							field.append('"');
+						} else quoted = false;
+					} else field.append(c);
+				} else if (c == '"') {
+					quoted = true;
+					inRecord = true;
+				} else if (c == delimiter) {
+					fields.add(field.toString());
+					field.setLength(0);
+					inRecord = true;
+				} else if (c == '\n' || c == '\r') {
+					if (inRecord) {
+						fields.add(field.toString());
+						return true;
+					}
+				} else {
+					field.append(c);
+					inRecord = true;
+				}
+			}
+		}
+
+		private int peek() throws IOException {
+			if (position == limit) {
+				limit = reader.read(buffer, 0, buffer.length);
+				position = 0;
+				if (limit <= 0) {
+					limit = 0;
+					return -1;
+				}
+			}
+			return buffer[position];
+		}
+	}
+}
@@ -0,0 +1,54 @@
+package com.github.ptitjes.jmh.report.data;
+
+import org.json.JSONException;
+import org.json.JSONObject;
+
+import java.io.BufferedReader;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Reads files holding one JMH JSON result object per line, as written by {@link JSONResultWriter}. A truncated last
+ * line, left by an interrupted write, is ignored, and so are the environment records of checkpoints.
+ *
+ * @author Didier Villevalois
+ */
+public class JSONLinesResultParser implements ResultParser {
+
+	/**
+	 * The key of the records that hold an environment fingerprint rather than a result.
+	 */
+	public static final String ENVIRONMENT_KEY = "environment";
+
+	private final JSONResultParser objectParser = new JSONResultParser();
+
+	@Override
+	public List<RunResultData> parseFrom(File file) throws IOException {
+		List<RunResultData> runResults = new ArrayList<>();
+
+		BufferedReader reader = new BufferedReader(new InputStreamReader(new FileInputStream(file), StandardCharsets.UTF_8));
+		try {
+			String line = reader.readLine();
+			while (line != null) {
+				String nextLine = reader.readLine();
+				if (!line.trim().isEmpty()) {
+					try {
+						JSONObject jsonObject = new JSONObject(line);
+						if (!jsonObject.has(ENVIRONMENT_KEY)) runResults.add(objectParser.readRunResultData(jsonObject));
+					} catch (JSONException e) {
+						if (nextLine != null) throw new IOException("Invalid result line in " + file, e);
+					}
+				}
+				line = nextLine;
+			}
+		} finally {
+			reader.close();
+		}
+		return runResults;
+	}
+}
@@ -11,24 +11,64 @@ import org.openjdk.jmh.runner.WorkloadParams;
 import org.openjdk.jmh.runner.options.TimeValue;
 
 import java.io.File;
-import java.io.FileInputStream;
 import java.io.IOException;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collections;
 import java.util.List;
+import java.util.SortedMap;
+import java.util.TreeMap;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
 
 /**
+ * Reads JMH JSON result files. Files are mapped in memory and their results are parsed in parallel on the common
+ * fork-join pool, then kept in their order in the file.
+ *
  * @author Didier Villevalois
  */
-public class JSONResultParser {
+public class JSONResultParser implements ResultParser {
 
+	/**
+	 * The count of results below which a range is parsed by a single task.
+	 */
+	private static final int SEQUENTIAL_THRESHOLD = 8;
+
+	@Override
 	public List<RunResultData> parseFrom(File file) throws IOException {
-		FileInputStream inputStream = new FileInputStream(file);
-		try {
-			JSONArray jsonArray = new JSONArray(new JSONTokener(inputStream));
-			return readJSONData(jsonArray);
-		} finally {
-			inputStream.close();
+		MappedJSONArray array = new MappedJSONArray(file);
+		RunResultData[] runResults = new RunResultData[array.size()];
+		ForkJoinPool.commonPool().invoke(new ParseTask(array, runResults, 0, runResults.length));
+		return new ArrayList<>(Arrays.asList(runResults));
+	}
+
+	private class ParseTask extends RecursiveAction {
+
+		private static final long serialVersionUID = 1L;
+
+		private final MappedJSONArray array;
+		private final RunResultData[] runResults;
+		private final int from;
+		private final int to;
+
+		ParseTask(MappedJSONArray array, RunResultData[] runResults, int from, int to) {
+			this.array = array;
+			this.runResults = runResults;
+			this.from = from;
+			this.to = to;
+		}
+
+		@Override
+		protected void compute() {
+			if (to - from <= SEQUENTIAL_THRESHOLD) {
+				for (int index = from; index < to; index++) {
+					runResults[index] = readRunResultData(new JSONObject(array.get(index)));
+				}
+				return;
+			}
+
+			int middle = (from + to) >>> 1;
+			invokeAll(new ParseTask(array, runResults, from, middle), new ParseTask(array, runResults, middle, to));
 		}
 	}
 
@@ -41,24 +81,63 @@ public class JSONResultParser {
 		List<RunResultData> runResults = new ArrayList<RunResultData>();
 
 		for (Object element : jsonArray) {
-			JSONObject jsonObject = (JSONObject) element;
-
-			BenchmarkParams benchmarkParams = readBenchmarkParams(jsonObject);
-			runResults.add(new RunResultData(
-					benchmarkParams,
-					readBenchmarkResults(jsonObject.getJSONObject("primaryMetric"), benchmarkParams)
-			));
+			runResults.add(readRunResultData((JSONObject) element));
 		}
 		return runResults;
 	}
 
+	RunResultData readRunResultData(JSONObject jsonObject) {
+		BenchmarkParams benchmarkParams = readBenchmarkParams(jsonObject);
+		JSONObject primaryMetric = jsonObject.getJSONObject("primaryMetric");
+		return new RunResultData(
+				benchmarkParams,
+				readBenchmarkResults(primaryMetric, benchmarkParams),
+				primaryMetric.has("rawWarmupData") ? readForkData(primaryMetric.getJSONArray("rawWarmupData")) : null,
+				jsonObject.has("noise") ? readNoiseData(jsonObject.getJSONObject("noise")) : null,
+				jsonObject.has("secondaryMetrics") ? readSubgroupResults(jsonObject.getJSONObject("secondaryMetrics"), benchmarkParams) : null,
+				jsonObject.has("configuration") ? jsonObject.getString("configuration") : null,
+				false
+		);
+	}
+
+	private SortedMap<String, RunResultData.Results> readSubgroupResults(JSONObject jsonObject, BenchmarkParams benchmarkParams) {
+		SortedMap<String, RunResultData.Results> subgroupResults = new TreeMap<>();
+		for (String label : RunResultData.subgroupLabels(benchmarkParams, jsonObject.keySet())) {
+			subgroupResults.put(label, readBenchmarkResults(jsonObject.getJSONObject(label), benchmarkParams));
+		}
+		return subgroupResults.isEmpty() ? null : subgroupResults;
+	}
+
+	private double[][] readForkData(JSONArray array) {
+		double[][] forkData = new double[array.length()][];
+		for (int i = 0; i < forkData.length; i++) {
+			JSONArray forkArray = array.getJSONArray(i);
+			forkData[i] = new double[forkArray.length()];
+			for (int j = 0; j < forkData[i].length; j++) {
+				forkData[i][j] = forkArray.getDouble(j);
+			}
+		}
+		return forkData;
+	}
+
+	private NoiseData readNoiseData(JSONObject jsonObject) {
+		NoiseData.Metric[] metrics = NoiseData.Metric.values();
+		double[][][] values = new double[metrics.length][][];
+		for (NoiseData.Metric metric : metrics) {
+			if (!jsonObject.has(metric.key)) return null;
+			values[metric.ordinal()] = readForkData(jsonObject.getJSONArray(metric.key));
+		}
+		return new NoiseData(jsonObject.getInt("cpus"), values);
+	}
+
 	private BenchmarkParams readBenchmarkParams(JSONObject jsonObject) {
+		int threads = jsonObject.getInt("threads");
 		return new BenchmarkParams(
 				jsonObject.getString("benchmark"),
 				null,
 				true,
-				jsonObject.getInt("threads"),
-				null,
+				threads,
+				jsonObject.has("threadGroups") ? readThreadGroups(jsonObject.getJSONArray("threadGroups")) : new int[]{threads},
 				jsonObject.getInt("forks"),
 				0,
 				readIterationParams(jsonObject, IterationType.WARMUP),
@@ -73,6 +152,12 @@ public class JSONResultParser {
 		);
 	}
 
+	private int[] readThreadGroups(JSONArray array) {
+		int[] threadGroups = new int[array.length()];
+		for (int i = 0; i < threadGroups.length; i++) threadGroups[i] = array.getInt(i);
+		return threadGroups;
+	}
+
 	private IterationParams readIterationParams(JSONObject jsonObject, IterationType type) {
 		String prefix = type.name().toLowerCase();
 		return new IterationParams(
@@ -0,0 +1,98 @@
+package com.github.ptitjes.jmh.report.data;
+
+import org.json.JSONArray;
+import org.json.JSONObject;
+import org.openjdk.jmh.infra.BenchmarkParams;
+import org.openjdk.jmh.infra.IterationParams;
+
+import java.util.Map;
+
+/**
+ * Writes results with the subset of the JMH JSON schema that {@link JSONResultParser} reads back.
+ *
+ * @author Didier Villevalois
+ */
+public class JSONResultWriter {
+
+	public JSONObject toJSON(RunResultData resultData) {
+		BenchmarkParams params = resultData.params;
+		RunResultData.Results results = resultData.primaryResults;
+
+		JSONObject jsonObject = new JSONObject();
+		jsonObject.put("benchmark", params.getBenchmark());
+		if (resultData.configuration != null) jsonObject.put("configuration", resultData.configuration);
+		jsonObject.put("mode", params.getMode().shortLabel());
+		jsonObject.put("threads", params.getThreads());
+		if (params.getThreadGroups() != null && params.getThreadGroups().length > 1) {
+			JSONArray threadGroups = new JSONArray();
+			for (int threads : params.getThreadGroups()) threadGroups.put(threads);
+			jsonObject.put("threadGroups", threadGroups);
+		}
+		jsonObject.put("forks", params.getForks());
+		putIterationParams(jsonObject, "warmup", params.getWarmup());
+		putIterationParams(jsonObject, "measurement", params.getMeasurement());
+
+		JSONObject jsonParams = new JSONObject();
+		for (String paramKey : params.getParamsKeys()) {
+			jsonParams.put(paramKey, params.getParam(paramKey));
+		}
+		jsonObject.put("params", jsonParams);
+
+		JSONObject primaryMetric = toJSON(results);
+		if (resultData.warmupData != null) primaryMetric.put("rawWarmupData", toJSON(resultData.warmupData));
+		jsonObject.put("primaryMetric", primaryMetric);
+
+		if (resultData.subgroupResults != null) {
+			JSONObject secondaryMetrics = new JSONObject();
+			for (Map.Entry<String, RunResultData.Results> subgroupResults : resultData.subgroupResults.entrySet()) {
+				secondaryMetrics.put(subgroupResults.getKey(), toJSON(subgroupResults.getValue()));
+			}
+			jsonObject.put("secondaryMetrics", secondaryMetrics);
+		}
+
+		if (resultData.noiseData != null) jsonObject.put("noise", toJSON(resultData.noiseData));
+		return jsonObject;
+	}
+
+	private static JSONObject toJSON(RunResultData.Results results) {
+		JSONObject metric = new JSONObject();
+		metric.put("score", toJSON(results.score));
+		metric.put("scoreError", toJSON(results.scoreError));
+		metric.put("scoreConfidence", new JSONArray()
+				.put(toJSON(results.scoreConfidenceMin))
+				.put(toJSON(results.scoreConfidenceMax)));
+		metric.put("scoreUnit", results.scoreUnit);
+		metric.put("rawData", toJSON(results.rawData));
+		return metric;
+	}
+
+	private static JSONObject toJSON(NoiseData noiseData) {
+		JSONObject jsonNoise = new JSONObject();
+		jsonNoise.put("cpus", noiseData.cpus);
+		for (NoiseData.Metric metric : NoiseData.Metric.values()) {
+			jsonNoise.put(metric.key, toJSON(noiseData.get(metric)));
+		}
+		return jsonNoise;
+	}
+
+	private static JSONArray toJSON(double[][] data) {
+		JSONArray jsonData = new JSONArray();
+		for (double[] forkData : data) {
+			JSONArray jsonForkData = new JSONArray();
+			for (double value : forkData) jsonForkData.put(toJSON(value));
+			jsonData.put(jsonForkData);
+		}
+		return jsonData;
+	}
+
+	private static void putIterationParams(JSONObject jsonObject, String prefix, IterationParams params) {
+		jsonObject.put(prefix + "Iterations", params.getCount());
+		jsonObject.put(prefix + "Time", params.getTime().toString());
+		jsonObject.put(prefix + "BatchSize", params.getBatchSize());
+	}
+
+	// Like JMH, non-finite values are written as strings
+	private static Object toJSON(double value) {
+		return Double.isNaN(value) || Double.isInfinite(value) ? (Object) Double.toString(value) : (Object) value;
+	}
+}
@@ -0,0 +1,148 @@
+package com.github.ptitjes.jmh.report.data;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+
+/**
+ * A JSON array file mapped in memory, whose top-level elements are located by a structural scan of the bytes, that
+ * only follows strings and nesting, so that they can be parsed independently and concurrently. Files are mapped in
+ * segments, as a single mapping cannot exceed 2GB.
+ *
+ * @author Didier Villevalois
+ */
+class MappedJSONArray {
+
+	private static final long SEGMENT_SIZE = 1L << 30;
+
+	private final File file;
+	private final MappedByteBuffer[] segments;
+	private long[] starts = new long[64];
+	private long[] ends = new long[64];
+	private int count;
+
+	MappedJSONArray(File file) throws IOException {
+		this.file = file;
+
+		RandomAccessFile randomAccessFile = new RandomAccessFile(file, "r");
+		try {
+			FileChannel channel = randomAccessFile.getChannel();
+			long size = channel.size();
+			segments = new MappedByteBuffer[(int) ((size + SEGMENT_SIZE - 1) / SEGMENT_SIZE)];
+			for (int i = 0; i < segments.length; i++) {
+				long position = i * SEGMENT_SIZE;
+				segments[i] = channel.map(FileChannel.MapMode.READ_ONLY, position, Math.min(SEGMENT_SIZE, size - position));
+			}
+		} finally {
+			// Mappings stay valid once the channel is closed
+			randomAccessFile.close();
+		}
+
+		scan();
+	}
+
+	int size() {
+		return count;
+	}
+
+	/**
+	 * Returns the text of an element.
+	 */
+	String get(int index) {
+		long start = starts[index], end = ends[index];
+		int segment = (int) (start / SEGMENT_SIZE);
+		int offset = (int) (start % SEGMENT_SIZE);
+
+		if (offset + (end - start) <= SEGMENT_SIZE) {
+			ByteBuffer bytes = segments[segment].duplicate();
+			bytes.limit((int) (offset + end - start)).position(offset);
+			return StandardCharsets.UTF_8.decode(bytes).toString();
+		}
+
+		// Elements spanning two segments are copied
+		byte[] bytes = new byte[(int) (end - start)];
+		for (int i = 0; i < bytes.length; i++) bytes[i] = byteAt(start + i);
+		return new String(bytes, StandardCharsets.UTF_8);
+	}
+
+	private byte byteAt(long position) {
+		return segments[(int) (position / SEGMENT_SIZE)].get((int) (position % SEGMENT_SIZE));
+	}
+
+	private void scan() throws IOException {
+		int depth = 0;
+		boolean inString = false, escaped = false;
+		long elementStart = -1, lastValue = -1;
+
+		long position = 0;
+		for (MappedByteBuffer segment : segments) {
+			int limit = segment.limit();
+			for (int i = 0; i < limit; i++, position++) {
+				byte b = segment.get(i);
+
+				if (inString) {
+					if (escaped) escaped = false;
+					else if (b == '\\') escaped = true;
+					else if (b == '"') inString = false;
+					lastValue = position;
+					continue;
+				}
+
+				switch (b) {
+					case ' ':
+					case '\t':
+					case '\n':
+					case '\r':
+						continue;
+					case '[':
+					case '{':
+						if (depth == 0 && b == '{') throw new IOException("Not a JSON array: " + file);
+						if (depth == 1 && elementStart < 0) elementStart = position;
+						depth++;
+						break;
+					case ']':
+					case '}':
+						depth--;
+						if (depth == 0) {
+							if (elementStart >= 0) add(elementStart, lastValue + 1);
+							return;
+						}
+						break;
+					case ',':
+						if (depth == 1) {
+							if (elementStart < 0) throw new IOException("Empty element in " + file);
+							add(elementStart, lastValue + 1);
+							elementStart = -1;
+							continue;
+						}
+						break;
+					case '"':
+						inString = true;
+						if (depth == 1 && elementStart < 0) elementStart = position;
+						break;
+					default:
+						if (depth == 0) throw new IOException("Not a JSON array: " + file);
+						if (depth == 1 && elementStart < 0) elementStart = position;
+						break;
+				}
+				lastValue = position;
+			}
+		}
+		throw new IOException("Truncated JSON array: " + file);
+	}
+
+	private void add(long start, long end) {
+		if (count == starts.length) {
+			starts = Arrays.copyOf(starts, count * 2);
+			ends = Arrays.copyOf(ends, count * 2);
+		}
+		starts[count] = start;
+		ends[count] = end;
+		count++;
+	}
+}
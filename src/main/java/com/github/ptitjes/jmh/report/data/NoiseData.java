@@ -0,0 +1,107 @@
+package com.github.ptitjes.jmh.report.data;
+
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * The system load sampled during each measurement iteration, per metric, parallel to the raw data of the primary
+ * metric. Values that could not be sampled on the host are {@code NaN}.
+ *
+ * @author Didier Villevalois
+ */
+public class NoiseData {
+
+	public enum Metric {
+		/**
+		 * Mean count of runnable threads, the sampler excluded.
+		 */
+		RUNNABLE("runnable"),
+		/**
+		 * The one minute load average.
+		 */
+		LOAD("load"),
+		/**
+		 * Fraction of the CPU time stolen by the hypervisor.
+		 */
+		STEAL("steal"),
+		/**
+		 * Fraction of the time some runnable thread was stalled waiting for a CPU.
+		 */
+		PRESSURE("pressure"),
+		/**
+		 * Mean CPU frequency, in MHz.
+		 */
+		FREQUENCY("frequency"),
+		/**
+		 * Context switches per second.
+		 */
+		CONTEXT_SWITCHES("contextSwitches");
+
+		public final String key;
+
+		Metric(String key) {
+			this.key = key;
+		}
+	}
+
+	/**
+	 * The count of online CPUs of the host.
+	 */
+	public final int cpus;
+	private final double[][][] values;
+
+	public NoiseData(int cpus, double[][][] values) {
+		this.cpus = cpus;
+		this.values = values;
+	}
+
+	/**
+	 * Returns the per-fork and per-iteration values of a metric.
+	 */
+	public double[][] get(Metric metric) {
+		return values[metric.ordinal()];
+	}
+
+	public int forkCount() {
+		return values[0].length;
+	}
+
+	/**
+	 * Makes the noise data of iterations given as per-fork lists of per-iteration samples, each sample holding the
+	 * values of all the metrics.
+	 */
+	public static NoiseData of(int cpus, List<List<double[]>> forkSamples) {
+		Metric[] metrics = Metric.values();
+		double[][][] values = new double[metrics.length][forkSamples.size()][];
+		for (int i = 0; i < forkSamples.size(); i++) {
+			List<double[]> samples = forkSamples.get(i);
+			for (Metric metric : metrics) {
+				double[] forkValues = new double[samples.size()];
+				for (int j = 0; j < forkValues.length; j++) forkValues[j] = samples.get(j)[metric.ordinal()];
+				values[metric.ordinal()][i] = forkValues;
+			}
+		}
+		return new NoiseData(cpus, values);
+	}
+
+	/**
+	 * Concatenates the forks of several runs of the same combination.
+	 */
+	public static NoiseData concat(List<NoiseData> noiseData) {
+		if (noiseData.isEmpty()) return null;
+
+		Metric[] metrics = Metric.values();
+		double[][][] values = new double[metrics.length][][];
+		for (Metric metric : metrics) {
+			double[][] forkValues = new double[0][];
+			for (NoiseData data : noiseData) {
+				double[][] more = data.get(metric);
+				int count = forkValues.length;
+				forkValues = Arrays.copyOf(forkValues, count + more.length);
+				System.arraycopy(more, 0, forkValues, count, more.length);
+			}
+			values[metric.ordinal()] = forkValues;
+		}
+		return new NoiseData(noiseData.get(0).cpus, values);
+	}
+}
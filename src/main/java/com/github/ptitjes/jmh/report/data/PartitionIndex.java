@@ -0,0 +1,230 @@
+package com.github.ptitjes.jmh.report.data;
+
+import org.openjdk.jmh.infra.BenchmarkParams;
+
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.regex.Pattern;
+
+/**
+ * Partitions the results of a benchmark by the values of each of its params, so that charts select their results
+ * without scanning all of them again. Filters are matched once per distinct param value, and their selections, as
+ * well as series keys and the numeric order of each param, are cached. Indexes are immutable once built and can be
+ * shared by concurrent chart builds.
+ *
+ * @author Didier Villevalois
+ */
+public class PartitionIndex {
+
+	private final List<RunResultData> results;
+	private final boolean splitThreads;
+
+	private final Map<String, Map<String, BitSet>> perKeyPartitions = new HashMap<>();
+	private final Set<String> numericKeys = new HashSet<>();
+
+	private final ConcurrentMap<String, BitSet> filterSelections = new ConcurrentHashMap<>();
+	private final ConcurrentMap<List<String>, String[]> seriesKeys = new ConcurrentHashMap<>();
+	private final ConcurrentMap<String, NumericOrder> numericOrders = new ConcurrentHashMap<>();
+
+	private PartitionIndex(List<RunResultData> results, Set<String> paramKeys, boolean splitThreads) {
+		this.results = Collections.unmodifiableList(new ArrayList<>(results));
+		this.splitThreads = splitThreads;
+
+		for (String paramKey : paramKeys) {
+			perKeyPartitions.put(paramKey, new LinkedHashMap<String, BitSet>());
+			numericKeys.add(paramKey);
+		}
+
+		for (int index = 0; index < this.results.size(); index++) {
+			BenchmarkParams params = this.results.get(index).params;
+			for (Map.Entry<String, Map<String, BitSet>> partitions : perKeyPartitions.entrySet()) {
+				String paramKey = partitions.getKey();
+				String value = params.getParam(paramKey);
+
+				BitSet partition = partitions.getValue().get(value);
+				if (partition == null) {
+					partition = new BitSet(this.results.size());
+					partitions.getValue().put(value, partition);
+				}
+				partition.set(index);
+
+				if (numericKeys.contains(paramKey) && !isNumber(value)) numericKeys.remove(paramKey);
+			}
+		}
+	}
+
+	/**
+	 * Returns the index of the results of a benchmark, building it on first use.
+	 */
+	public static PartitionIndex of(BenchmarkResultData benchmarkResult) {
+		synchronized (benchmarkResult) {
+			if (benchmarkResult.partitionIndex == null) {
+				benchmarkResult.partitionIndex = new PartitionIndex(benchmarkResult.perParamsResults,
+						benchmarkResult.paramKeys, benchmarkResult.threads.size() > 1);
+			}
+			return benchmarkResult.partitionIndex;
+		}
+	}
+
+	public List<RunResultData> getResults() {
+		return results;
+	}
+
+	/**
+	 * Returns the distinct values of a param, in order of appearance.
+	 */
+	public Set<String> valuesOf(String paramKey) {
+		Map<String, BitSet> partitions = perKeyPartitions.get(paramKey);
+		return partitions == null ? Collections.<String>emptySet() : Collections.unmodifiableSet(partitions.keySet());
+	}
+
+	public boolean isNumeric(String paramKey) {
+		return paramKey != null && perKeyPartitions.containsKey(paramKey) && numericKeys.contains(paramKey);
+	}
+
+	/**
+	 * Selects the results accepted by all the filters. A {@code null} pattern accepts every value.
+	 */
+	public BitSet select(Map<String, Pattern> paramFilters) {
+		return select(paramFilters, null, null);
+	}
+
+	/**
+	 * Selects the results accepted by all the filters, whose value of {@code partitionKey} is {@code partitionValue}.
+	 */
+	public BitSet select(Map<String, Pattern> paramFilters, String partitionKey, String partitionValue) {
+		BitSet selection = new BitSet(results.size());
+		selection.set(0, results.size());
+
+		for (Map.Entry<String, Pattern> filter : paramFilters.entrySet()) {
+			if (filter.getValue() == null || filter.getKey().equals(partitionKey)) continue;
+			selection.and(filterSelection(filter.getKey(), filter.getValue()));
+		}
+		if (partitionKey != null) selection.and(partition(partitionKey, partitionValue));
+		return selection;
+	}
+
+	private BitSet filterSelection(String paramKey, Pattern pattern) {
+		String key = paramKey + "=" + pattern.pattern() + "/" + pattern.flags();
+		BitSet selection = filterSelections.get(key);
+		if (selection != null) return selection;
+
+		selection = new BitSet(results.size());
+		Map<String, BitSet> partitions = perKeyPartitions.get(paramKey);
+		if (partitions != null) {
+			for (Map.Entry<String, BitSet> partition : partitions.entrySet()) {
+				String value = partition.getKey();
+				if (value != null && pattern.matcher(value).matches()) selection.or(partition.getValue());
+			}
+		}
+		BitSet existing = filterSelections.putIfAbsent(key, selection);
+		return existing != null ? existing : selection;
+	}
+
+	private BitSet partition(String paramKey, String value) {
+		Map<String, BitSet> partitions = perKeyPartitions.get(paramKey);
+		BitSet partition = partitions == null ? null : partitions.get(value);
+		return partition == null ? new BitSet() : partition;
+	}
+
+	/**
+	 * Returns the indices of the selected results, sorted by the value of a numeric param if it is one.
+	 */
+	public int[] order(BitSet selection, String axisParamKey) {
+		int[] order = new int[selection.cardinality()];
+		if (!isNumeric(axisParamKey)) {
+			int count = 0;
+			for (int index = selection.nextSetBit(0); index >= 0; index = selection.nextSetBit(index + 1)) {
+				order[count++] = index;
+			}
+			return order;
+		}
+
+		// Sorting the ranks of the selected results sorts them without going through the others
+		NumericOrder numericOrder = numericOrder(axisParamKey);
+		int count = 0;
+		for (int index = selection.nextSetBit(0); index >= 0; index = selection.nextSetBit(index + 1)) {
+			order[count++] = numericOrder.ranks[index];
+		}
+		Arrays.sort(order);
+		for (int i = 0; i < order.length; i++) order[i] = numericOrder.indices[order[i]];
+		return order;
+	}
+
+	private static class NumericOrder {
+		final int[] indices;
+		final int[] ranks;
+
+		NumericOrder(int[] indices) {
+			this.indices = indices;
+			this.ranks = new int[indices.length];
+			for (int rank = 0; rank < indices.length; rank++) ranks[indices[rank]] = rank;
+		}
+	}
+
+	private NumericOrder numericOrder(final String paramKey) {
+		NumericOrder order = numericOrders.get(paramKey);
+		if (order != null) return order;
+
+		final double[] values = new double[results.size()];
+		List<Integer> indices = new ArrayList<>(results.size());
+		for (int index = 0; index < values.length; index++) {
+			values[index] = Double.parseDouble(results.get(index).params.getParam(paramKey));
+			indices.add(index);
+		}
+		Collections.sort(indices, new Comparator<Integer>() {
+			@Override
+			public int compare(Integer i1, Integer i2) {
+				return Double.compare(values[i1], values[i2]);
+			}
+		});
+
+		int[] sortedIndices = new int[indices.size()];
+		for (int index = 0; index < sortedIndices.length; index++) sortedIndices[index] = indices.get(index);
+		order = new NumericOrder(sortedIndices);
+		NumericOrder existing = numericOrders.putIfAbsent(paramKey, order);
+		return existing != null ? existing : order;
+	}
+
+	/**
+	 * Returns the series key of each result, made of its values of the given params and of its thread count when
+	 * it varies.
+	 */
+	public String[] seriesKeys(List<String> seriesParamKeys) {
+		String[] keys = seriesKeys.get(seriesParamKeys);
+		if (keys != null) return keys;
+
+		keys = new String[results.size()];
+		for (int index = 0; index < keys.length; index++) {
+			keys[index] = makeSeriesKey(results.get(index).params, seriesParamKeys, splitThreads);
+		}
+		String[] existing = seriesKeys.putIfAbsent(new ArrayList<>(seriesParamKeys), keys);
+		return existing != null ? existing : keys;
+	}
+
+	public static String makeSeriesKey(BenchmarkParams params, List<String> seriesParamKeys, boolean splitThreads) {
+		StringBuilder seriesParams = new StringBuilder();
+		boolean first = true;
+		for (String seriesParamKey : seriesParamKeys) {
+			if (first) first = false;
+			else seriesParams.append(" - ");
+			seriesParams.append(params.getParam(seriesParamKey));
+		}
+		if (splitThreads) {
+			if (!first) seriesParams.append(" - ");
+			seriesParams.append(params.getThreads()).append("t");
+		}
+		return seriesParams.toString();
+	}
+
+	private static boolean isNumber(String value) {
+		if (value == null) return false;
+		try {
+			Double.parseDouble(value);
+			return true;
+		} catch (NumberFormatException e) {
+			return false;
+		}
+	}
+}
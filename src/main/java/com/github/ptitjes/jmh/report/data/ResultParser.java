@@ -0,0 +1,13 @@
+package com.github.ptitjes.jmh.report.data;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.List;
+
+/**
+ * @author Didier Villevalois
+ */
+public interface ResultParser {
+
+	List<RunResultData> parseFrom(File file) throws IOException;
+}
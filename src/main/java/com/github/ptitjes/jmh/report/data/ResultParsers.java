@@ -0,0 +1,27 @@
+package com.github.ptitjes.jmh.report.data;
+
+import java.io.File;
+
+/**
+ * @author Didier Villevalois
+ */
+public final class ResultParsers {
+
+	public static final String RESULT_FILE_PATTERN = ".*\\.(json|jsonl|csv|scsv)";
+
+	private ResultParsers() {
+	}
+
+	public static ResultParser forFile(File file) {
+		String name = file.getName();
+		if (name.endsWith(".csv")) return new CSVResultParser(',');
+		if (name.endsWith(".scsv")) return new CSVResultParser(';');
+		if (name.endsWith(".jsonl")) return new JSONLinesResultParser();
+		return new JSONResultParser();
+	}
+
+	public static String baseName(String filename) {
+		int index = filename.lastIndexOf('.');
+		return index < 0 ? filename : filename.substring(0, index);
+	}
+}
@@ -2,17 +2,100 @@ package com.github.ptitjes.jmh.report.data;
 
 import org.openjdk.jmh.infra.BenchmarkParams;
 
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.SortedMap;
+import java.util.regex.Pattern;
+
 /**
  * @author Didier Villevalois
  */
 public class RunResultData {
 
+	/**
+	 * The pseudo-param under which the JVM configuration of results is reported, so that configurations are told
+	 * apart like param values. Param names are Java identifiers, which this upper-case name is unlikely to be.
+	 */
+	public static final String CONFIGURATION_PARAM = "JVM";
+
+	// Profilers label their results with a leading '·' or with dots
+	private static final Pattern SUBGROUP_LABEL = Pattern.compile("\\p{javaJavaIdentifierStart}\\p{javaJavaIdentifierPart}*");
+
 	public final BenchmarkParams params;
 	public final Results primaryResults;
 
+	/**
+	 * Per-fork and per-iteration warmup scores of the primary metric, or {@code null} if they were not captured.
+	 */
+	public final double[][] warmupData;
+
+	/**
+	 * The system load sampled during each measurement iteration, or {@code null} if it was not monitored.
+	 */
+	public final NoiseData noiseData;
+
+	/**
+	 * Per-subgroup results of {@code @Group} benchmarks, keyed by method name, or {@code null} if the benchmark is not
+	 * a group. JMH orders subgroups by name, so the results are in the order of the thread groups of the params.
+	 */
+	public final SortedMap<String, Results> subgroupResults;
+
+	/**
+	 * The name of the JVM configuration of a matrix run the benchmark ran with, or {@code null} if it did not run in
+	 * a matrix.
+	 */
+	public final String configuration;
+
+	/**
+	 * Whether the params only know about threads, samples, mode and param values, as for results read from CSV
+	 * files, rather than about the whole run.
+	 */
+	public final boolean partialParams;
+
 	public RunResultData(BenchmarkParams params, Results primaryResults) {
+		this(params, primaryResults, null, null, null, null, false);
+	}
+
+	public RunResultData(BenchmarkParams params, Results primaryResults, double[][] warmupData, NoiseData noiseData,
+	                     SortedMap<String, Results> subgroupResults, String configuration, boolean partialParams) {
 		this.params = params;
 		this.primaryResults = primaryResults;
+		this.warmupData = warmupData;
+		this.noiseData = noiseData;
+		this.subgroupResults = subgroupResults;
+		this.configuration = configuration;
+		this.partialParams = partialParams;
+	}
+
+	/**
+	 * Returns the labels of the secondary results of JMH that are the results of subgroups, named after their methods,
+	 * or an empty list if the benchmark is not a group. {@code @AuxCounters} results are named after fields, so they
+	 * can only be told apart from subgroups when there are exactly as many labels as thread groups.
+	 */
+	public static List<String> subgroupLabels(BenchmarkParams params, Collection<String> labels) {
+		int[] threadGroups = params.getThreadGroups();
+		if (threadGroups == null || threadGroups.length <= 1) return Collections.emptyList();
+
+		List<String> subgroupLabels = new ArrayList<>();
+		for (String label : labels) {
+			if (SUBGROUP_LABEL.matcher(label).matches()) subgroupLabels.add(label);
+		}
+		return subgroupLabels.size() == threadGroups.length ? subgroupLabels : Collections.<String>emptyList();
+	}
+
+	/**
+	 * Returns the count of threads running a subgroup, or {@code 0} if the thread groups are not known.
+	 */
+	public int subgroupThreads(String label) {
+		int[] threadGroups = params.getThreadGroups();
+		if (subgroupResults == null || threadGroups == null || threadGroups.length != subgroupResults.size()) return 0;
+
+		int groupSize = 0;
+		for (int threads : threadGroups) groupSize += threads;
+		int groups = groupSize == 0 ? 0 : params.getThreads() / groupSize;
+		return threadGroups[subgroupResults.headMap(label).size()] * groups;
 	}
 
 	public static class Results {
@@ -23,13 +106,30 @@ public class RunResultData {
 		public final String scoreUnit;
 		public final double[][] rawData;
 
+		/**
+		 * Per-fork and per-iteration outlier marks, parallel to {@link #rawData}, or {@code null} if no outlier
+		 * analysis was made. When {@link #outliersExcluded} is set, the score and its confidence interval were
+		 * recomputed without the marked values.
+		 */
+		public final boolean[][] outliers;
+		public final int outlierCount;
+		public final boolean outliersExcluded;
+
 		public Results(double score, double scoreError, double scoreConfidenceMin, double scoreConfidenceMax, String scoreUnit, double[][] rawData) {
+			this(score, scoreError, scoreConfidenceMin, scoreConfidenceMax, scoreUnit, rawData, null, 0, false);
+		}
+
+		public Results(double score, double scoreError, double scoreConfidenceMin, double scoreConfidenceMax, String scoreUnit, double[][] rawData,
+		               boolean[][] outliers, int outlierCount, boolean outliersExcluded) {
 			this.score = score;
 			this.scoreError = scoreError;
 			this.scoreConfidenceMin = scoreConfidenceMin;
 			this.scoreConfidenceMax = scoreConfidenceMax;
 			this.scoreUnit = scoreUnit;
 			this.rawData = rawData;
+			this.outliers = outliers;
+			this.outlierCount = outlierCount;
+			this.outliersExcluded = outliersExcluded;
 		}
 	}
 }
@@ -0,0 +1,108 @@
+package com.github.ptitjes.jmh.report.env;
+
+import com.github.ptitjes.jmh.report.data.ResultParsers;
+
+import java.io.*;
+import java.nio.charset.StandardCharsets;
+import java.util.*;
+
+/**
+ * An environment fingerprint recorded next to a result file.
+ *
+ * @author Didier Villevalois
+ */
+public class Environment {
+
+	public static final String EXTENSION = ".env";
+
+	/**
+	 * The extension of the fingerprint of the environment an interrupted run was resumed in, when it differs from the
+	 * one the run was started in.
+	 */
+	public static final String RESUMED_EXTENSION = ".resumed.env";
+
+	public String label;
+	public final Map<String, String> properties = new LinkedHashMap<>();
+
+	public Environment(String label) {
+		this.label = label;
+	}
+
+	public void put(String key, String value) {
+		if (value == null) return;
+		value = value.replaceAll("\\s+", " ").trim();
+		if (!value.isEmpty()) properties.put(key, value);
+	}
+
+	public String get(String key) {
+		return properties.get(key);
+	}
+
+	public static File fileFor(String filename) {
+		return new File(ResultParsers.baseName(filename) + EXTENSION);
+	}
+
+	public static File resumedFileFor(String filename) {
+		return new File(ResultParsers.baseName(filename) + RESUMED_EXTENSION);
+	}
+
+	public static Environment readFor(String filename, String label) throws IOException {
+		File file = fileFor(filename);
+		return file.exists() ? readFrom(file, label) : null;
+	}
+
+	public static Environment readFrom(File file, String label) throws IOException {
+		Environment environment = new Environment(label);
+		BufferedReader reader = new BufferedReader(new InputStreamReader(new FileInputStream(file), StandardCharsets.UTF_8));
+		try {
+			String line;
+			while ((line = reader.readLine()) != null) {
+				if (line.isEmpty() || line.startsWith("#")) continue;
+
+				int index = line.indexOf('=');
+				if (index < 0) throw new IOException("Invalid environment line '" + line + "' in " + file);
+				environment.properties.put(line.substring(0, index).trim(), line.substring(index + 1).trim());
+			}
+		} finally {
+			reader.close();
+		}
+		return environment;
+	}
+
+	public void writeTo(File file) throws IOException {
+		file.getParentFile().mkdirs();
+
+		Writer writer = new OutputStreamWriter(new FileOutputStream(file), StandardCharsets.UTF_8);
+		try {
+			writer.write("# Environment fingerprint\n");
+			for (Map.Entry<String, String> property : properties.entrySet()) {
+				writer.write(property.getKey() + "=" + property.getValue() + "\n");
+			}
+		} finally {
+			writer.close();
+		}
+	}
+
+	/**
+	 * Returns the union of the keys of the given environments, in order of appearance.
+	 */
+	public static Set<String> allKeys(List<Environment> environments) {
+		Set<String> keys = new LinkedHashSet<>();
+		for (Environment environment : environments) keys.addAll(environment.properties.keySet());
+		return keys;
+	}
+
+	public static Set<String> differingKeys(List<Environment> environments) {
+		Set<String> keys = new LinkedHashSet<>();
+		for (String key : allKeys(environments)) {
+			String first = environments.get(0).get(key);
+			for (Environment environment : environments) {
+				if (!Objects.equals(first, environment.get(key))) {
+					keys.add(key);
+					break;
+				}
+			}
+		}
+		return keys;
+	}
+}
@@ -0,0 +1,233 @@
+package com.github.ptitjes.jmh.report.env;
+
+import org.openjdk.jmh.infra.BenchmarkParams;
+
+import java.io.BufferedReader;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.lang.management.GarbageCollectorMXBean;
+import java.lang.management.ManagementFactory;
+import java.net.InetAddress;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.*;
+import java.util.concurrent.TimeUnit;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Captures the fingerprint of the running host from system properties, management beans, /proc and /sys.
+ * Entries that are not available on the host are simply left out.
+ *
+ * @author Didier Villevalois
+ */
+public class EnvironmentProbe {
+
+	private static final Pattern SELECTED_VALUE = Pattern.compile("\\[(\\w+)\\]");
+	private static final String COLLECTORS = "(Serial|ParNew|Parallel|ParallelOld|ConcMarkSweep|G1|Z|Shenandoah|Epsilon)GC";
+	private static final Pattern GC_FLAG = Pattern.compile("-XX:\\+Use(" + COLLECTORS + ")");
+	private static final Pattern SELECTED_GC_FLAG = Pattern.compile("\\bbool\\s+Use(" + COLLECTORS + ")\\s*=\\s*true\\b");
+
+	private static final long FLAGS_TIMEOUT = 30;
+
+	private final File root;
+
+	public EnvironmentProbe() {
+		this(new File("/"));
+	}
+
+	public EnvironmentProbe(File root) {
+		this.root = root;
+	}
+
+	public Environment capture(String label) {
+		Environment environment = new Environment(label);
+		environment.put("host.name", hostName());
+
+		environment.put("jvm.vendor", System.getProperty("java.vm.vendor"));
+		environment.put("jvm.name", System.getProperty("java.vm.name"));
+		environment.put("jvm.version", System.getProperty("java.runtime.version"));
+		environment.put("jvm.flags", join(ManagementFactory.getRuntimeMXBean().getInputArguments(), " "));
+		List<String> collectors = new ArrayList<>();
+		for (GarbageCollectorMXBean bean : ManagementFactory.getGarbageCollectorMXBeans()) collectors.add(bean.getName());
+		// The collectors of the harness JVM, the forked one may select others
+		environment.put("harness.gc", join(collectors, ", "));
+
+		environment.put("os.name", System.getProperty("os.name") + " " + System.getProperty("os.arch"));
+		environment.put("os.kernel", read("proc/sys/kernel/osrelease"));
+
+		environment.put("cpu.model", cpuInfo("model name"));
+		environment.put("cpu.cores", "" + Runtime.getRuntime().availableProcessors());
+		environment.put("cpu.online", read("sys/devices/system/cpu/online"));
+		environment.put("cpu.governor", read("sys/devices/system/cpu/cpu0/cpufreq/scaling_governor"));
+		environment.put("cpu.maxFrequency", kiloHertzToMegaHertz(read("sys/devices/system/cpu/cpu0/cpufreq/cpuinfo_max_freq")));
+		environment.put("cpu.boost", read("sys/devices/system/cpu/cpufreq/boost"));
+
+		environment.put("memory.total", memInfo("MemTotal"));
+		environment.put("numa.nodes", numaNodes());
+		environment.put("thp.enabled", selectedValue(read("sys/kernel/mm/transparent_hugepage/enabled")));
+		environment.put("thp.defrag", selectedValue(read("sys/kernel/mm/transparent_hugepage/defrag")));
+
+		// cgroup v2 first, then v1
+		environment.put("cgroup.cpu", firstOf(read("sys/fs/cgroup/cpu.max"),
+				cpuQuotaV1(read("sys/fs/cgroup/cpu/cpu.cfs_quota_us"), read("sys/fs/cgroup/cpu/cpu.cfs_period_us"))));
+		environment.put("cgroup.cpuset", firstOf(read("sys/fs/cgroup/cpuset.cpus.effective"),
+				read("sys/fs/cgroup/cpuset/cpuset.effective_cpus")));
+		environment.put("cgroup.memory", firstOf(read("sys/fs/cgroup/memory.max"),
+				read("sys/fs/cgroup/memory/memory.limit_in_bytes")));
+		return environment;
+	}
+
+	/**
+	 * Records the JVM the benchmarks were forked in, which may differ from the one running the harness.
+	 */
+	public void addForkedJvm(Environment environment, BenchmarkParams params) {
+		addForkedJvm(environment, params, "fork");
+	}
+
+	/**
+	 * Records the JVM the benchmarks were forked in under the given prefix, to tell apart the JVM configurations of
+	 * a matrix run.
+	 */
+	public void addForkedJvm(Environment environment, BenchmarkParams params, String prefix) {
+		if (params.getJvm() != null) environment.put(prefix + ".jvm", params.getJvm());
+
+		Collection<String> jvmArgs = params.getJvmArgs();
+		if (jvmArgs == null) jvmArgs = Collections.emptyList();
+		environment.put(prefix + ".flags", join(jvmArgs, " "));
+
+		String collectors = params.getJvm() != null ? selectedCollectors(params.getJvm(), jvmArgs) : null;
+		if (collectors == null) {
+			// Falls back to the collector the flags select explicitly, if any
+			for (String jvmArg : jvmArgs) {
+				Matcher matcher = GC_FLAG.matcher(jvmArg);
+				if (matcher.matches()) collectors = matcher.group(1);
+			}
+		}
+		environment.put(prefix + ".gc", collectors);
+	}
+
+	/**
+	 * Returns the collectors a JVM selects with the given flags, as its ergonomics tell once the flags are applied,
+	 * or {@code null} if they could not be retrieved.
+	 */
+	private static String selectedCollectors(String jvm, Collection<String> jvmArgs) {
+		List<String> command = new ArrayList<>();
+		command.add(jvm);
+		command.addAll(jvmArgs);
+		command.add("-XX:+PrintFlagsFinal");
+		command.add("-version");
+
+		try {
+			Process process = new ProcessBuilder(command).redirectErrorStream(true).start();
+			List<String> collectors = new ArrayList<>();
+			BufferedReader reader = new BufferedReader(new InputStreamReader(process.getInputStream(), StandardCharsets.UTF_8));
+			try {
+				String line;
+				while ((line = reader.readLine()) != null) {
+					Matcher matcher = SELECTED_GC_FLAG.matcher(line);
+					if (matcher.find()) collectors.add(matcher.group(1));
+				}
+			} finally {
+				reader.close();
+			}
+
+			if (!process.waitFor(FLAGS_TIMEOUT, TimeUnit.SECONDS)) {
+				process.destroy();
+				return null;
+			}
+			return process.exitValue() == 0 && !collectors.isEmpty() ? join(collectors, ", ") : null;
+		} catch (IOException e) {
+			return null;
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			return null;
+		}
+	}
+
+	private static String hostName() {
+		try {
+			return InetAddress.getLocalHost().getHostName();
+		} catch (IOException e) {
+			return System.getenv("HOSTNAME");
+		}
+	}
+
+	private String read(String path) {
+		File file = new File(root, path);
+		if (!file.canRead()) return null;
+		try {
+			return new String(Files.readAllBytes(file.toPath()), StandardCharsets.UTF_8).trim();
+		} catch (IOException e) {
+			return null;
+		}
+	}
+
+	private String cpuInfo(String field) {
+		return firstField(read("proc/cpuinfo"), field, ':');
+	}
+
+	private String memInfo(String field) {
+		return firstField(read("proc/meminfo"), field, ':');
+	}
+
+	private static String firstField(String content, String field, char separator) {
+		if (content == null) return null;
+		for (String line : content.split("\n")) {
+			int index = line.indexOf(separator);
+			if (index > 0 && line.substring(0, index).trim().equals(field)) return line.substring(index + 1).trim();
+		}
+		return null;
+	}
+
+	private String numaNodes() {
+		File[] nodes = new File(root, "sys/devices/system/node").listFiles();
+		if (nodes == null) return null;
+
+		List<String> names = new ArrayList<>();
+		for (File node : nodes) {
+			if (node.getName().matches("node\\d+")) names.add(node.getName());
+		}
+		Collections.sort(names);
+
+		List<String> descriptions = new ArrayList<>();
+		for (String name : names) {
+			descriptions.add(name + ": " + read("sys/devices/system/node/" + name + "/cpulist"));
+		}
+		return descriptions.isEmpty() ? null : descriptions.size() + " (" + join(descriptions, "; ") + ")";
+	}
+
+	private static String selectedValue(String content) {
+		if (content == null) return null;
+		Matcher matcher = SELECTED_VALUE.matcher(content);
+		return matcher.find() ? matcher.group(1) : content;
+	}
+
+	private static String kiloHertzToMegaHertz(String content) {
+		if (content == null) return null;
+		try {
+			return Long.parseLong(content) / 1000 + " MHz";
+		} catch (NumberFormatException e) {
+			return content;
+		}
+	}
+
+	private static String cpuQuotaV1(String quota, String period) {
+		if (quota == null || period == null) return null;
+		return (quota.equals("-1") ? "max" : quota) + " " + period;
+	}
+
+	private static String firstOf(String first, String second) {
+		return first != null ? first : second;
+	}
+
+	private static String join(Collection<String> values, String separator) {
+		StringBuilder builder = new StringBuilder();
+		for (String value : values) {
+			if (builder.length() > 0) builder.append(separator);
+			builder.append(value);
+		}
+		return builder.toString();
+	}
+}
@@ -0,0 +1,329 @@
+package com.github.ptitjes.jmh.report.env;
+
+import com.github.ptitjes.jmh.report.data.NoiseData;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Samples the system load from /proc and /sys at a fixed interval while benchmarks run, so that iterations measured
+ * under abnormal load can be told apart. The files are kept open and read into a reused buffer, and the samples are
+ * stored in a preallocated ring, so that sampling does not allocate nor disturb the benchmarks more than needed.
+ * Metrics that are not available on the host are {@code NaN}.
+ *
+ * @author Didier Villevalois
+ */
+public class NoiseMonitor {
+
+	public static final long DEFAULT_INTERVAL = 100;
+	private static final int CAPACITY = 4096;
+
+	private final long interval;
+	private final int cpus = Runtime.getRuntime().availableProcessors();
+
+	private final RandomAccessFile stat;
+	private final RandomAccessFile loadAverage;
+	private final RandomAccessFile pressure;
+	private final RandomAccessFile[] frequencies;
+	private byte[] buffer = new byte[16 * 1024];
+
+	private final long[] times = new long[CAPACITY];
+	private final double[][] samples = new double[NoiseData.Metric.values().length][CAPACITY];
+	private long sampleCount;
+
+	private long lastTime;
+	private long lastTotalJiffies = -1, lastStealJiffies, lastContextSwitches, lastStallMicros = -1;
+
+	private Thread thread;
+	private volatile boolean running;
+
+	public NoiseMonitor() {
+		this(new File("/"), DEFAULT_INTERVAL);
+	}
+
+	public NoiseMonitor(File root, long interval) {
+		this.interval = interval;
+		stat = open(new File(root, "proc/stat"));
+		loadAverage = open(new File(root, "proc/loadavg"));
+		pressure = open(new File(root, "proc/pressure/cpu"));
+
+		List<RandomAccessFile> frequencies = new ArrayList<>();
+		File[] cpuDirectories = new File(root, "sys/devices/system/cpu").listFiles();
+		if (cpuDirectories != null) {
+			Arrays.sort(cpuDirectories);
+			for (File cpuDirectory : cpuDirectories) {
+				if (!cpuDirectory.getName().matches("cpu\\d+")) continue;
+				RandomAccessFile frequency = open(new File(cpuDirectory, "cpufreq/scaling_cur_freq"));
+				if (frequency != null) frequencies.add(frequency);
+			}
+		}
+		this.frequencies = frequencies.toArray(new RandomAccessFile[frequencies.size()]);
+	}
+
+	/**
+	 * Whether the host has any of the sampled files.
+	 */
+	public boolean isSupported() {
+		return stat != null || loadAverage != null || pressure != null || frequencies.length > 0;
+	}
+
+	public long getInterval() {
+		return interval;
+	}
+
+	public int getCpus() {
+		return cpus;
+	}
+
+	public synchronized void start() {
+		if (thread != null) return;
+
+		running = true;
+		thread = new Thread(new Runnable() {
+			@Override
+			public void run() {
+				while (running) {
+					sample();
+					try {
+						Thread.sleep(interval);
+					} catch (InterruptedException e) {
+						return;
+					}
+				}
+			}
+		}, "jmh-report-noise-monitor");
+		thread.setDaemon(true);
+		thread.setPriority(Thread.MAX_PRIORITY);
+		thread.start();
+	}
+
+	/**
+	 * Stops sampling and closes the sampled files, the monitor cannot be started again.
+	 */
+	public void stop() {
+		Thread thread;
+		synchronized (this) {
+			thread = this.thread;
+			this.thread = null;
+		}
+		if (thread == null) return;
+
+		running = false;
+		thread.interrupt();
+		try {
+			thread.join();
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+		}
+		close(stat);
+		close(loadAverage);
+		close(pressure);
+		for (RandomAccessFile frequency : frequencies) close(frequency);
+	}
+
+	/**
+	 * Averages the samples taken between two times, in milliseconds since the epoch. Windows shorter than the
+	 * sampling interval get the last sample taken before their end.
+	 *
+	 * @return the value of each metric, indexed by {@link NoiseData.Metric#ordinal()}
+	 */
+	public synchronized double[] summarize(long from, long to) {
+		NoiseData.Metric[] metrics = NoiseData.Metric.values();
+		double[] sums = new double[metrics.length];
+		int[] counts = new int[metrics.length];
+		int last = -1;
+
+		long oldest = Math.max(0, sampleCount - CAPACITY);
+		for (long index = sampleCount - 1; index >= oldest; index--) {
+			int slot = (int) (index % CAPACITY);
+			long time = times[slot];
+			if (time > to) continue;
+			if (last < 0) last = slot;
+			if (time < from) break;
+
+			for (int metric = 0; metric < metrics.length; metric++) {
+				double value = samples[metric][slot];
+				if (Double.isNaN(value)) continue;
+				sums[metric] += value;
+				counts[metric]++;
+			}
+		}
+
+		double[] summary = new double[metrics.length];
+		for (int metric = 0; metric < metrics.length; metric++) {
+			if (counts[metric] > 0) summary[metric] = sums[metric] / counts[metric];
+			else summary[metric] = last < 0 ? Double.NaN : samples[metric][last];
+		}
+		return summary;
+	}
+
+	private void sample() {
+		long now = System.currentTimeMillis();
+		double runnable = Double.NaN, steal = Double.NaN, contextSwitches = Double.NaN;
+		double load = Double.NaN, stall = Double.NaN, frequency = Double.NaN;
+
+		int length = read(stat);
+		if (length > 0) {
+			int cpuLine = lineStarting("cpu ", length);
+			if (cpuLine >= 0) {
+				// user nice system idle iowait irq softirq steal
+				long totalJiffies = 0, stealJiffies = 0;
+				int position = cpuLine + 4;
+				for (int field = 0; field < 8; field++) {
+					position = skipSpaces(position, length);
+					long value = parseLong(position, length);
+					position = skipDigits(position, length);
+					totalJiffies += value;
+					if (field == 7) stealJiffies = value;
+				}
+				if (lastTotalJiffies >= 0 && totalJiffies > lastTotalJiffies) {
+					steal = (double) (stealJiffies - lastStealJiffies) / (totalJiffies - lastTotalJiffies);
+				}
+				lastTotalJiffies = totalJiffies;
+				lastStealJiffies = stealJiffies;
+			}
+
+			int contextLine = lineStarting("ctxt ", length);
+			if (contextLine >= 0) {
+				long switches = parseLong(skipSpaces(contextLine + 5, length), length);
+				if (lastTime > 0 && now > lastTime) contextSwitches = (switches - lastContextSwitches) * 1000.0 / (now - lastTime);
+				lastContextSwitches = switches;
+			}
+
+			int runningLine = lineStarting("procs_running ", length);
+			// The sampler is running as it reads the count
+			if (runningLine >= 0) runnable = Math.max(0, parseLong(skipSpaces(runningLine + 14, length), length) - 1);
+		}
+
+		length = read(loadAverage);
+		if (length > 0) load = parseDecimal(0, length);
+
+		length = read(pressure);
+		if (length > 0) {
+			int someLine = lineStarting("some ", length);
+			int totalField = someLine < 0 ? -1 : indexOf("total=", someLine, length);
+			if (totalField >= 0) {
+				long stallMicros = parseLong(totalField + 6, length);
+				if (lastStallMicros >= 0 && now > lastTime) {
+					stall = Math.min(1, (stallMicros - lastStallMicros) / ((now - lastTime) * 1000.0));
+				}
+				lastStallMicros = stallMicros;
+			}
+		}
+
+		if (frequencies.length > 0) {
+			long sum = 0;
+			int count = 0;
+			for (RandomAccessFile file : frequencies) {
+				length = read(file);
+				if (length <= 0) continue;
+				sum += parseLong(0, length);
+				count++;
+			}
+			if (count > 0) frequency = sum / 1000.0 / count;
+		}
+		lastTime = now;
+
+		synchronized (this) {
+			int slot = (int) (sampleCount % CAPACITY);
+			times[slot] = now;
+			samples[NoiseData.Metric.RUNNABLE.ordinal()][slot] = runnable;
+			samples[NoiseData.Metric.LOAD.ordinal()][slot] = load;
+			samples[NoiseData.Metric.STEAL.ordinal()][slot] = steal;
+			samples[NoiseData.Metric.PRESSURE.ordinal()][slot] = stall;
+			samples[NoiseData.Metric.FREQUENCY.ordinal()][slot] = frequency;
+			samples[NoiseData.Metric.CONTEXT_SWITCHES.ordinal()][slot] = contextSwitches;
+			sampleCount++;
+		}
+	}
+
+	private int read(RandomAccessFile file) {
+		if (file == null) return -1;
+		try {
+			file.seek(0);
+			int length = 0;
+			while (true) {
+				int read = file.read(buffer, length, buffer.length - length);
+				if (read < 0) return length;
+				length += read;
+				if (length == buffer.length) buffer = Arrays.copyOf(buffer, buffer.length * 2);
+			}
+		} catch (IOException e) {
+			return -1;
+		}
+	}
+
+	private int lineStarting(String prefix, int length) {
+		int position = 0;
+		while (position < length) {
+			if (matches(prefix, position, length)) return position;
+			while (position < length && buffer[position] != '\n') position++;
+			position++;
+		}
+		return -1;
+	}
+
+	private int indexOf(String string, int position, int length) {
+		for (; position < length && buffer[position] != '\n'; position++) {
+			if (matches(string, position, length)) return position;
+		}
+		return -1;
+	}
+
+	private boolean matches(String string, int position, int length) {
+		if (position + string.length() > length) return false;
+		for (int i = 0; i < string.length(); i++) {
+			if (buffer[position + i] != string.charAt(i)) return false;
+		}
+		return true;
+	}
+
+	private int skipSpaces(int position, int length) {
+		while (position < length && buffer[position] == ' ') position++;
+		return position;
+	}
+
+	private int skipDigits(int position, int length) {
+		while (position < length && buffer[position] >= '0' && buffer[position] <= '9') position++;
+		return position;
+	}
+
+	private long parseLong(int position, int length) {
+		long value = 0;
+		for (; position < length && buffer[position] >= '0' && buffer[position] <= '9'; position++) {
+			value = value * 10 + (buffer[position] - '0');
+		}
+		return value;
+	}
+
+	private double parseDecimal(int position, int length) {
+		int end = skipDigits(position, length);
+		long value = parseLong(position, length);
+		if (end >= length || buffer[end] != '.') return value;
+
+		int fractionEnd = skipDigits(end + 1, length);
+		return value + parseLong(end + 1, length) / Math.pow(10, fractionEnd - end - 1);
+	}
+
+	private static RandomAccessFile open(File file) {
+		if (!file.canRead()) return null;
+		try {
+			return new RandomAccessFile(file, "r");
+		} catch (IOException e) {
+			return null;
+		}
+	}
+
+	private static void close(RandomAccessFile file) {
+		if (file == null) return;
+		try {
+			file.close();
+		} catch (IOException e) {
+			// Nothing to do
+		}
+	}
+}
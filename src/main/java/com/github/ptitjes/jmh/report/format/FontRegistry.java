@@ -0,0 +1,175 @@
+package com.github.ptitjes.jmh.report.format;
+
+import com.itextpdf.text.BaseColor;
+import com.itextpdf.text.DocumentException;
+import com.itextpdf.text.pdf.BaseFont;
+
+import java.awt.Font;
+import java.awt.FontFormatException;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * The bundled TrueType fonts, loaded once per JVM and shared by all charts and reports. Each style has its own file,
+ * named after the regular one, as {@code FreeSansBold.ttf} for {@code FreeSans.ttf}, and falls back to the regular
+ * file when it is missing. AWT and PDF fonts are derived once per style and size.
+ * <p>
+ * PDF fonts are embedded as subsets, and as all the PDF fonts of a style are the same {@link BaseFont}, a document
+ * embeds a single subset of each style it uses, whether by its text or by its charts.
+ *
+ * @author Didier Villevalois
+ */
+public final class FontRegistry {
+
+	private static final String[] STYLE_SUFFIXES = new String[]{"", "Bold", "Oblique", "BoldOblique"};
+
+	private static final ConcurrentMap<String, byte[]> FONT_FILES = new ConcurrentHashMap<>();
+	private static final ConcurrentMap<String, Font> AWT_STYLE_FONTS = new ConcurrentHashMap<>();
+	private static final ConcurrentMap<String, Font> AWT_FONTS = new ConcurrentHashMap<>();
+	private static final ConcurrentMap<String, BaseFont> BASE_FONTS = new ConcurrentHashMap<>();
+	private static final ConcurrentMap<String, com.itextpdf.text.Font> PDF_FONTS = new ConcurrentHashMap<>();
+
+	private FontRegistry() {
+	}
+
+	/**
+	 * Returns the AWT font of a style and size, or the font of the configured family if the file can not be loaded.
+	 *
+	 * @param style a combination of {@link Font#BOLD} and {@link Font#ITALIC}
+	 */
+	public static Font awtFont(RenderingConfiguration configuration, int style, float size) {
+		String key = configuration.fontPath + "/" + style + "/" + size;
+		Font font = AWT_FONTS.get(key);
+		if (font != null) return font;
+
+		Font styleFont = awtStyleFont(configuration, style);
+		font = styleFont != null ? styleFont.deriveFont(size) : new Font(configuration.font, style, Math.round(size));
+
+		Font existing = AWT_FONTS.putIfAbsent(key, font);
+		return existing != null ? existing : font;
+	}
+
+	private static Font awtStyleFont(RenderingConfiguration configuration, int style) {
+		String key = configuration.fontPath + "/" + style;
+		Font font = AWT_STYLE_FONTS.get(key);
+		if (font != null) return font;
+
+		byte[] file = fontFile(configuration.fontPath, style);
+		if (file == null) return null;
+
+		try {
+			font = Font.createFont(Font.TRUETYPE_FONT, new ByteArrayInputStream(file));
+		} catch (FontFormatException | IOException e) {
+			throw new IllegalStateException("Invalid font " + styleFilePath(configuration.fontPath, style), e);
+		}
+		if (isEmulated(configuration.fontPath, style)) font = font.deriveFont(style);
+
+		Font existing = AWT_STYLE_FONTS.putIfAbsent(key, font);
+		return existing != null ? existing : font;
+	}
+
+	/**
+	 * Returns the PDF base font of a style, which is embedded as a subset.
+	 *
+	 * @param style a combination of {@link Font#BOLD} and {@link Font#ITALIC}
+	 */
+	public static BaseFont baseFont(RenderingConfiguration configuration, int style) {
+		String key = configuration.fontPath + "/" + style;
+		BaseFont baseFont = BASE_FONTS.get(key);
+		if (baseFont != null) return baseFont;
+
+		// Emulated styles share the subset of the regular style
+		if (isEmulated(configuration.fontPath, style)) return baseFont(configuration, Font.PLAIN);
+
+		byte[] file = fontFile(configuration.fontPath, style);
+		if (file == null) throw new IllegalStateException("Missing font " + configuration.fontPath);
+
+		try {
+			baseFont = BaseFont.createFont(styleFilePath(configuration.fontPath, style), BaseFont.IDENTITY_H,
+					BaseFont.EMBEDDED, false, file, null);
+		} catch (DocumentException | IOException e) {
+			throw new IllegalStateException("Invalid font " + styleFilePath(configuration.fontPath, style), e);
+		}
+		baseFont.setSubset(true);
+
+		BaseFont existing = BASE_FONTS.putIfAbsent(key, baseFont);
+		return existing != null ? existing : baseFont;
+	}
+
+	/**
+	 * Returns the PDF font of a style, size and color. The returned fonts are shared and must not be modified.
+	 *
+	 * @param style a combination of {@link Font#BOLD} and {@link Font#ITALIC}
+	 */
+	public static com.itextpdf.text.Font pdfFont(RenderingConfiguration configuration, int style, float size, BaseColor color) {
+		String key = configuration.fontPath + "/" + style + "/" + size + "/" + color.getRGB();
+		com.itextpdf.text.Font font = PDF_FONTS.get(key);
+		if (font != null) return font;
+
+		int pdfStyle = com.itextpdf.text.Font.NORMAL;
+		if (isEmulated(configuration.fontPath, style)) {
+			if ((style & Font.BOLD) != 0) pdfStyle |= com.itextpdf.text.Font.BOLD;
+			if ((style & Font.ITALIC) != 0) pdfStyle |= com.itextpdf.text.Font.ITALIC;
+		}
+		font = new com.itextpdf.text.Font(baseFont(configuration, style), size, pdfStyle, color);
+
+		com.itextpdf.text.Font existing = PDF_FONTS.putIfAbsent(key, font);
+		return existing != null ? existing : font;
+	}
+
+	/**
+	 * Returns the content of the file of a style, the regular one if the style has none, or {@code null} if there is
+	 * none at all.
+	 */
+	private static byte[] fontFile(String fontPath, int style) {
+		String path = styleFilePath(fontPath, style);
+		byte[] file = FONT_FILES.get(path);
+		if (file != null) return file;
+
+		file = readResource(path);
+		if (file == null) {
+			if (style == Font.PLAIN) return null;
+			file = fontFile(fontPath, Font.PLAIN);
+			if (file == null) return null;
+		}
+
+		byte[] existing = FONT_FILES.putIfAbsent(path, file);
+		return existing != null ? existing : file;
+	}
+
+	/**
+	 * Whether a style has no file of its own, and is emulated from the regular one.
+	 */
+	private static boolean isEmulated(String fontPath, int style) {
+		return style != Font.PLAIN && fontFile(fontPath, style) == fontFile(fontPath, Font.PLAIN);
+	}
+
+	private static String styleFilePath(String fontPath, int style) {
+		int extensionIndex = fontPath.lastIndexOf('.');
+		if (extensionIndex < 0) extensionIndex = fontPath.length();
+		return fontPath.substring(0, extensionIndex) + STYLE_SUFFIXES[style & 3] + fontPath.substring(extensionIndex);
+	}
+
+	private static byte[] readResource(String path) {
+		InputStream inputStream = FontRegistry.class.getResourceAsStream(path);
+		if (inputStream == null) return null;
+
+		try {
+			try {
+				ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+				byte[] buffer = new byte[64 * 1024];
+				int read;
+				while ((read = inputStream.read(buffer)) >= 0) outputStream.write(buffer, 0, read);
+				return outputStream.toByteArray();
+			} finally {
+				inputStream.close();
+			}
+		} catch (IOException e) {
+			return null;
+		}
+	}
+}
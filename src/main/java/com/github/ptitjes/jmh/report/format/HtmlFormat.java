@@ -0,0 +1,316 @@
+package com.github.ptitjes.jmh.report.format;
+
+import com.github.ptitjes.jmh.report.model.*;
+
+import java.awt.Color;
+import java.io.*;
+import java.math.BigDecimal;
+import java.math.MathContext;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Writes a report as a single self-contained HTML file. Text and tables are written as HTML, while the data of the
+ * charts of each chapter is embedded as columnar JSON, parsed and drawn by the browser only when the chapter is
+ * opened. Charts can be zoomed, their series toggled and their points hovered, and tables can be filtered.
+ *
+ * @author Didier Villevalois
+ */
+public class HtmlFormat implements ReportFormat {
+
+	private static final String STYLE_RESOURCE = "/html/report.css";
+	private static final String SCRIPT_RESOURCE = "/html/report.js";
+
+	private static final MathContext SIGNIFICANT_DIGITS = new MathContext(6);
+
+	// The height of full page charts, in pixels
+	private static final float PAGE_HEIGHT = 600;
+
+	private final RenderingConfiguration renderingConfiguration;
+
+	public HtmlFormat(RenderingConfiguration renderingConfiguration) {
+		this.renderingConfiguration = renderingConfiguration;
+	}
+
+	@Override
+	public String getExtension() {
+		return "html";
+	}
+
+	@Override
+	public void writeReport(Report report, OutputStream outputStream) throws IOException {
+		Writer writer = new BufferedWriter(new OutputStreamWriter(outputStream, StandardCharsets.UTF_8));
+
+		writer.write("<!DOCTYPE html>\n<html>\n<head>\n<meta charset=\"utf-8\">\n<title>JMH report</title>\n<style>\n");
+		copyResource(STYLE_RESOURCE, writer);
+		writer.write("body { font-family: \"" + renderingConfiguration.font + "\", sans-serif; }\n");
+		writer.write("</style>\n</head>\n<body>\n<nav>\n");
+		for (int index = 0; index < report.chapters.size(); index++) {
+			writer.write("<a href=\"#chapter-" + index + "\">" + escape(report.chapters.get(index).title) + "</a>\n");
+		}
+		writer.write("</nav>\n<main>\n");
+
+		for (int index = 0; index < report.chapters.size(); index++) {
+			writeChapter(writer, report.chapters.get(index), index);
+		}
+
+		writer.write("</main>\n<script>\n");
+		copyResource(SCRIPT_RESOURCE, writer);
+		writer.write("</script>\n</body>\n</html>\n");
+		writer.flush();
+	}
+
+	private void writeChapter(Writer writer, Chapter chapter, int index) throws IOException {
+		writer.write("<section id=\"chapter-" + index + "\">\n<details data-chapter=\"" + index + "\"" + (index == 0 ? " open" : "") + ">\n");
+		writer.write("<summary><h2>" + escape(chapter.title) + "</h2></summary>\n");
+
+		int chartIndex = 0;
+		for (Block block : chapter.blocks) {
+			if (block instanceof TextBlock) {
+				writeText(writer, (TextBlock) block);
+			} else if (block instanceof TableBlock) {
+				writeTable(writer, (TableBlock) block);
+			} else if (block instanceof ChartBlock) {
+				ChartBlock chartBlock = (ChartBlock) block;
+
+				int height = Math.round(chartBlock.heightFor(PAGE_HEIGHT));
+				writer.write("<div class=\"chart\" data-chart=\"" + chartIndex++ + "\" data-height=\"" + height + "\">");
+				if (chartBlock.title != null) writer.write("<h3>" + escape(chartBlock.title) + "</h3>");
+				writer.write("</div>\n");
+			}
+		}
+		writer.write("</details>\n");
+
+		// Script contents are not parsed by the browser, so that closed chapters cost nothing
+		writer.write("<script type=\"application/json\" id=\"data-" + index + "\">{\"charts\":[");
+		boolean first = true;
+		for (Block block : chapter.blocks) {
+			if (!(block instanceof ChartBlock)) continue;
+			if (first) first = false;
+			else writer.write(',');
+			writeChartData(writer, ((ChartBlock) block).data);
+		}
+		writer.write("]}</script>\n</section>\n");
+	}
+
+	private void writeText(Writer writer, TextBlock block) throws IOException {
+		writer.write("<div class=\"text" + (block.isSpaced() ? " spaced" : "") + "\">\n");
+		for (TextBlock.Line line : block.lines) {
+			if (!line.header.isEmpty()) writer.write("<b>" + escape(line.header) + ":</b> ");
+			writer.write(escape(line.content));
+			writer.write("<br>\n");
+		}
+		writer.write("</div>\n");
+	}
+
+	private void writeTable(Writer writer, TableBlock block) throws IOException {
+		writer.write("<div class=\"table" + (block.isSpaced() ? " spaced" : "") + "\">\n");
+		if (block.rows.size() > 1) writer.write("<input type=\"search\" placeholder=\"Filter rows\">\n");
+		writer.write("<table>\n<colgroup>");
+		float totalWidth = 0;
+		for (float width : block.getWidths()) totalWidth += width;
+		for (float width : block.getWidths()) {
+			writer.write("<col style=\"width:" + String.format("%.1f", width * 100 / totalWidth).replace(',', '.') + "%\">");
+		}
+		writer.write("</colgroup>\n<thead><tr>");
+		for (TableBlock.Cell header : block.headers) {
+			writer.write("<th>" + escape(header.text) + "</th>");
+		}
+		writer.write("</tr></thead>\n<tbody>\n");
+		for (List<TableBlock.Cell> row : block.rows) {
+			writer.write("<tr>");
+			for (TableBlock.Cell cell : row) {
+				writer.write("<td class=\"" + cell.alignment.name().toLowerCase() + (cell.highlighted ? " highlighted" : "") + "\">" +
+						escape(cell.text) + "</td>");
+			}
+			writer.write("</tr>\n");
+		}
+		writer.write("</tbody>\n</table>\n");
+		if (!block.notes.isEmpty()) {
+			writer.write("<div class=\"notes\">");
+			for (String note : block.notes) writer.write(escape(note) + "<br>");
+			writer.write("</div>\n");
+		}
+		writer.write("</div>\n");
+	}
+
+	private void writeChartData(Writer writer, ChartData data) throws IOException {
+		writer.write("{\"kind\":");
+		writeString(writer, data.kind.name());
+		writer.write(",\"title\":");
+		writeString(writer, data.title);
+		writer.write(",\"xLabel\":");
+		writeString(writer, data.xLabel);
+		writer.write(",\"yLabel\":");
+		writeString(writer, data.yLabel);
+		writer.write(",\"categories\":");
+		writeStrings(writer, data.categories);
+		writer.write(",\"rows\":");
+		writeStrings(writer, data.rows);
+
+		writer.write(",\"series\":[");
+		boolean first = true;
+		for (ChartData.Series series : data.series) {
+			if (first) first = false;
+			else writer.write(',');
+			writer.write("{\"name\":");
+			writeString(writer, series.name);
+			writer.write(",\"x\":");
+			writeNumbers(writer, series.x);
+			writer.write(",\"y\":");
+			writeNumbers(writer, series.y);
+			writer.write(",\"low\":");
+			writeNumbers(writer, series.low);
+			writer.write(",\"high\":");
+			writeNumbers(writer, series.high);
+			if (series.z != null) {
+				writer.write(",\"z\":");
+				writeNumbers(writer, series.z);
+			}
+			if (series.labels != null) {
+				writer.write(",\"labels\":");
+				writeStrings(writer, Arrays.asList(series.labels));
+			}
+			writer.write(",\"lines\":" + series.lines);
+			writer.write(",\"shapes\":" + series.shapes);
+			writer.write(",\"color\":");
+			writeColor(writer, series.color);
+			writer.write(",\"dashed\":" + series.dashed);
+			writer.write('}');
+		}
+
+		writer.write("],\"logScale\":" + data.logScale);
+		writer.write(",\"horizontal\":" + data.horizontal);
+		writer.write(",\"legend\":" + data.legend);
+		writer.write(",\"integerDomain\":" + data.integerDomain);
+		writer.write(",\"domainIncludesZero\":" + data.domainIncludesZero);
+		writer.write(",\"rangeIncludesZero\":" + data.rangeIncludesZero);
+
+		writer.write(",\"markers\":[");
+		first = true;
+		for (ChartData.Marker marker : data.markers) {
+			if (first) first = false;
+			else writer.write(',');
+			writer.write("{\"value\":");
+			writeNumber(writer, marker.value);
+			writer.write(",\"label\":");
+			writeString(writer, marker.label);
+			writer.write(",\"color\":");
+			writeColor(writer, marker.color);
+			writer.write(",\"dashed\":" + marker.dashed);
+			writer.write('}');
+		}
+
+		writer.write("],\"description\":");
+		writeString(writer, data.description);
+		writer.write(",\"notes\":");
+		writeStrings(writer, data.notes);
+		writer.write(",\"minHeight\":" + data.minHeight);
+
+		writer.write(",\"scale\":");
+		if (data.scale == null) {
+			writer.write("null");
+		} else {
+			writer.write("{\"label\":");
+			writeString(writer, data.scale.label);
+			writer.write(",\"lowerBound\":");
+			writeNumber(writer, data.scale.lowerBound);
+			writer.write(",\"upperBound\":");
+			writeNumber(writer, data.scale.upperBound);
+			writer.write(",\"low\":");
+			writeColor(writer, data.scale.low);
+			writer.write(",\"middle\":");
+			writeColor(writer, data.scale.middle);
+			writer.write(",\"high\":");
+			writeColor(writer, data.scale.high);
+			writer.write('}');
+		}
+		writer.write('}');
+	}
+
+	private static void writeColor(Writer writer, Color color) throws IOException {
+		writeString(writer, color == null ? null : String.format("#%06x", color.getRGB() & 0xffffff));
+	}
+
+	private static void writeNumbers(Writer writer, double[] values) throws IOException {
+		writer.write('[');
+		for (int i = 0; i < values.length; i++) {
+			if (i > 0) writer.write(',');
+			writeNumber(writer, values[i]);
+		}
+		writer.write(']');
+	}
+
+	private static void writeNumber(Writer writer, double value) throws IOException {
+		// Six significant digits are more than the charts can show
+		if (Double.isNaN(value) || Double.isInfinite(value)) writer.write("null");
+		else if (value == Math.rint(value) && Math.abs(value) < 1e15) writer.write(Long.toString((long) value));
+		else writer.write(new BigDecimal(value).round(SIGNIFICANT_DIGITS).stripTrailingZeros().toString());
+	}
+
+	private static void writeStrings(Writer writer, List<String> values) throws IOException {
+		writer.write('[');
+		for (int i = 0; i < values.size(); i++) {
+			if (i > 0) writer.write(',');
+			writeString(writer, values.get(i));
+		}
+		writer.write(']');
+	}
+
+	private static void writeString(Writer writer, String value) throws IOException {
+		if (value == null) {
+			writer.write("null");
+			return;
+		}
+
+		writer.write('"');
+		for (int i = 0; i < value.length(); i++) {
+			char c = value.charAt(i);
+			// '<' is escaped so that no string can close the script element
+			if (c == '"' || c == '\\') writer.write("\\" + c);
+			else if (c < 0x20 || c == '<') writer.write(String.format("\\u%04x", (int) c));
+			else writer.write(c);
+		}
+		writer.write('"');
+	}
+
+	private static String escape(String text) {
+		if (text == null) return "";
+		StringBuilder escaped = new StringBuilder(text.length());
+		for (int i = 0; i < text.length(); i++) {
+			char c = text.charAt(i);
+			switch (c) {
+				case '<':
+					escaped.append("&lt;");
+					break;
+				case '>':
+					escaped.append("&gt;");
+					break;
+				case '&':
+					escaped.append("&amp;");
+					break;
+				case '"':
+					escaped.append("&quot;");
+					break;
+				default:
+					escaped.append(c);
+			}
+		}
+		return escaped.toString();
+	}
+
+	private static void copyResource(String name, Writer writer) throws IOException {
+		InputStream inputStream = HtmlFormat.class.getResourceAsStream(name);
+		if (inputStream == null) throw new FileNotFoundException(name);
+
+		Reader reader = new InputStreamReader(inputStream, StandardCharsets.UTF_8);
+		try {
+			char[] buffer = new char[8192];
+			int count;
+			while ((count = reader.read(buffer)) >= 0) writer.write(buffer, 0, count);
+		} finally {
+			reader.close();
+		}
+	}
+}
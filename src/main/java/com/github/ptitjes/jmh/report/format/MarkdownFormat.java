@@ -0,0 +1,102 @@
+package com.github.ptitjes.jmh.report.format;
+
+import com.github.ptitjes.jmh.report.model.Block;
+import com.github.ptitjes.jmh.report.model.Chapter;
+import com.github.ptitjes.jmh.report.model.Report;
+import com.github.ptitjes.jmh.report.model.TableBlock;
+import com.github.ptitjes.jmh.report.model.TextBlock;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.PrintWriter;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+
+/**
+ * Writes the text and tables of a report as GitHub flavored Markdown, to be pasted in pull request comments. Charts
+ * are left out.
+ *
+ * @author Didier Villevalois
+ */
+public class MarkdownFormat implements ReportFormat {
+
+	@Override
+	public String getExtension() {
+		return "md";
+	}
+
+	@Override
+	public void writeReport(Report report, OutputStream outputStream) throws IOException {
+		PrintWriter writer = new PrintWriter(new OutputStreamWriter(outputStream, StandardCharsets.UTF_8));
+		for (Chapter chapter : report.chapters) {
+			writer.println("## " + escape(chapter.title));
+			writer.println();
+
+			for (Block block : chapter.blocks) {
+				if (block instanceof TextBlock) {
+					writeText(writer, (TextBlock) block);
+				} else if (block instanceof TableBlock) {
+					writeTable(writer, (TableBlock) block);
+				}
+			}
+		}
+		writer.flush();
+	}
+
+	private void writeText(PrintWriter writer, TextBlock block) {
+		if (block.lines.isEmpty()) return;
+
+		for (TextBlock.Line line : block.lines) {
+			writer.print("- ");
+			if (!line.header.isEmpty()) writer.print("**" + escape(line.header) + ":** ");
+			writer.println(escape(line.content));
+		}
+		writer.println();
+	}
+
+	private void writeTable(PrintWriter writer, TableBlock block) {
+		writeRow(writer, block.headers);
+
+		// Columns are aligned as their content, headers are always centered
+		List<TableBlock.Cell> alignedCells = block.rows.isEmpty() ? block.headers : block.rows.get(0);
+		StringBuilder separator = new StringBuilder("|");
+		for (TableBlock.Cell cell : alignedCells) {
+			switch (cell.alignment) {
+				case CENTER:
+					separator.append(":---:|");
+					break;
+				case RIGHT:
+					separator.append("---:|");
+					break;
+				default:
+					separator.append("---|");
+			}
+		}
+		writer.println(separator);
+
+		for (List<TableBlock.Cell> row : block.rows) {
+			writeRow(writer, row);
+		}
+		writer.println();
+
+		for (String note : block.notes) {
+			writer.println("_" + escape(note) + "_  ");
+		}
+		if (!block.notes.isEmpty()) writer.println();
+	}
+
+	private void writeRow(PrintWriter writer, List<TableBlock.Cell> cells) {
+		StringBuilder row = new StringBuilder("|");
+		for (TableBlock.Cell cell : cells) {
+			String text = escape(cell.text).replace("|", "\\|");
+			row.append(' ').append(cell.highlighted && !text.isEmpty() ? "**" + text + "**" : text).append(" |");
+		}
+		writer.println(row);
+	}
+
+	private static String escape(String text) {
+		if (text == null) return "";
+		return text.replaceAll("([\\\\`*_<>\\[\\]~])", "\\\\$1");
+	}
+}
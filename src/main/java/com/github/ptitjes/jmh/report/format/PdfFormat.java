@@ -1,35 +1,28 @@
 package com.github.ptitjes.jmh.report.format;
 
-import com.github.ptitjes.jmh.report.annotations.Orientation;
-import com.github.ptitjes.jmh.report.annotations.PlotType;
-import com.github.ptitjes.jmh.report.chart.ChartGenerator;
-import com.github.ptitjes.jmh.report.chart.PlotConfiguration;
+import com.github.ptitjes.jmh.report.chart.ChartRenderer;
 import com.github.ptitjes.jmh.report.data.BenchmarkResultData;
-import com.github.ptitjes.jmh.report.data.RunResultData;
-import com.github.ptitjes.jmh.report.options.AnnotationReader;
+import com.github.ptitjes.jmh.report.env.Environment;
+import com.github.ptitjes.jmh.report.model.Block;
+import com.github.ptitjes.jmh.report.model.ChartBlock;
+import com.github.ptitjes.jmh.report.model.ChartData;
+import com.github.ptitjes.jmh.report.model.Report;
+import com.github.ptitjes.jmh.report.model.TableBlock;
+import com.github.ptitjes.jmh.report.model.TextBlock;
 import com.itextpdf.awt.FontMapper;
 import com.itextpdf.awt.PdfGraphics2D;
 import com.itextpdf.text.*;
 import com.itextpdf.text.pdf.*;
 import com.itextpdf.text.pdf.draw.LineSeparator;
-import org.jfree.chart.JFreeChart;
-import org.openjdk.jmh.annotations.Mode;
-import org.openjdk.jmh.infra.BenchmarkParams;
-import org.openjdk.jmh.infra.IterationParams;
-import org.openjdk.jmh.runner.options.TimeValue;
 
 import java.awt.Graphics2D;
-import java.awt.RenderingHints;
 import java.awt.geom.Rectangle2D;
 import java.io.File;
 import java.io.FileOutputStream;
 import java.io.IOException;
-import java.util.LinkedHashSet;
+import java.io.OutputStream;
+import java.util.Collections;
 import java.util.List;
-import java.util.Map;
-import java.util.Set;
-import java.util.concurrent.TimeUnit;
-import java.util.regex.Pattern;
 
 /**
  * @author Didier Villevalois
@@ -37,65 +30,76 @@ import java.util.regex.Pattern;
 public class PdfFormat implements ReportFormat {
 
 	private final RenderingConfiguration renderingConfiguration;
-	private final AnnotationReader annotationReader = new AnnotationReader();
+	private final ChartRenderer chartRenderer;
+	private final FontMapper fontMapper;
 
 	public PdfFormat(RenderingConfiguration renderingConfiguration) {
 		this.renderingConfiguration = renderingConfiguration;
+		this.chartRenderer = new ChartRenderer(renderingConfiguration);
+		this.fontMapper = makeFontMapper();
 	}
 
 	@Override
+	public String getExtension() {
+		return "pdf";
+	}
+
 	public void makeReport(String filename, List<BenchmarkResultData> benchmarkResults) throws IOException {
+		makeReport(filename, benchmarkResults, Collections.<Environment>emptyList());
+	}
+
+	public void makeReport(String filename, List<BenchmarkResultData> benchmarkResults,
+	                       List<Environment> environments) throws IOException {
 		File file = new File(filename);
 		file.getParentFile().mkdirs();
 
+		FileOutputStream outputStream = new FileOutputStream(file);
+		try {
+			makeReport(outputStream, benchmarkResults, environments);
+		} finally {
+			outputStream.close();
+		}
+	}
+
+	public void makeReport(OutputStream outputStream, List<BenchmarkResultData> benchmarkResults) throws IOException {
+		makeReport(outputStream, benchmarkResults, Collections.<Environment>emptyList());
+	}
+
+	public void makeReport(OutputStream outputStream, List<BenchmarkResultData> benchmarkResults,
+	                       List<Environment> environments) throws IOException {
+		writeReport(new ReportBuilder(renderingConfiguration).build(benchmarkResults, environments), outputStream);
+	}
+
+	@Override
+	public void writeReport(Report report, OutputStream outputStream) throws IOException {
 		Document document = new Document(PageSize.A4, 32, 32, 32, 32);
 		try {
-			PdfWriter writer = PdfWriter.getInstance(document, new FileOutputStream(file));
+			PdfWriter writer = PdfWriter.getInstance(document, outputStream);
+			writer.setFullCompression();
 			document.open();
 
 			int chapterNumber = 1;
-			for (BenchmarkResultData benchmarkResult : benchmarkResults) {
-				String longName = benchmarkResult.longName;
-				Set<String> paramKeys = benchmarkResult.paramKeys;
-				String timeUnit = benchmarkResult.timeUnit;
-				Map<BenchmarkParams, RunResultData> perParamsResults = benchmarkResult.perParamsResults;
-
-				Chapter chapter = makeChapter(longName, chapterNumber++);
-				chapter.add(makeParametersParagraph(perParamsResults));
-				chapter.add(makeTableParagraph(paramKeys, timeUnit, perParamsResults));
-
-				List<PlotConfiguration> configurations = annotationReader.makePlotConfigurationsFor(longName);
-				for (PlotConfiguration configuration : configurations) {
-					String perParam = configuration.perParam;
-					if (perParam != null) {
-						Set<String> values = collectParamValues(benchmarkResult, perParam);
-						for (String value : values) {
-							configuration.paramFilters.put(perParam, Pattern.compile(value));
-							chapter.add(makeChart(writer, document, benchmarkResult, configuration));
-						}
-						configuration.paramFilters.put(perParam, null);
-					} else {
-						chapter.add(makeChart(writer, document, benchmarkResult, configuration));
+			for (com.github.ptitjes.jmh.report.model.Chapter reportChapter : report.chapters) {
+				Chapter chapter = makeChapter(reportChapter.title, chapterNumber++);
+				for (Block block : reportChapter.blocks) {
+					if (block instanceof TextBlock) {
+						chapter.add(makeTextParagraph((TextBlock) block));
+					} else if (block instanceof TableBlock) {
+						chapter.add(makeTableParagraph((TableBlock) block));
+					} else if (block instanceof ChartBlock) {
+						chapter.add(drawChart(writer, document, (ChartBlock) block));
 					}
 				}
-
 				chapter.add(Chunk.NEXTPAGE);
 				document.add(chapter);
 			}
-		} catch (Exception e) {
-			e.printStackTrace();
+		} catch (DocumentException e) {
+			throw new IOException(e);
 		}
+		// Failed reports are left unclosed rather than written truncated
 		document.close();
 	}
 
-	private Set<String> collectParamValues(BenchmarkResultData benchmarkResult, String perParam) {
-		LinkedHashSet<String> values = new LinkedHashSet<>();
-		for (Map.Entry<BenchmarkParams, RunResultData> entry : benchmarkResult.perParamsResults.entrySet()) {
-			values.add(entry.getKey().getParam(perParam));
-		}
-		return values;
-	}
-
 	private Chapter makeChapter(String longName, int number) {
 		Paragraph titleParagraph = new Paragraph(new Chunk(longName, chapterFont()));
 		Chapter chapter = new Chapter(titleParagraph, number);
@@ -109,41 +113,59 @@ public class PdfFormat implements ReportFormat {
 		return chapter;
 	}
 
-	private Paragraph makeParametersParagraph(Map<BenchmarkParams, RunResultData> perParamsResults) {
-		Paragraph parametersParagraph = new Paragraph();
-		parametersParagraph.setLeading(0, .9f);
-		parametersParagraph.setIndentationLeft(12f);
+	private Paragraph makeTextParagraph(TextBlock block) {
+		Paragraph paragraph = new Paragraph();
+		paragraph.setLeading(0, .9f);
+		paragraph.setIndentationLeft(12f);
+		if (block.isSpaced()) paragraph.setSpacingBefore(6);
 
-		BenchmarkParams params = perParamsResults.entrySet().iterator().next().getKey();
-		if (params != null) {
-			addTextWithHeader(parametersParagraph, "", org.openjdk.jmh.util.Version.getVersion());
+		for (TextBlock.Line line : block.lines) {
+			addTextWithHeader(paragraph, line.header, line.content);
+		}
+		return paragraph;
+	}
 
-			addTextWithHeader(parametersParagraph, "Forks", "" + params.getForks() + " " + getForksString(params.getForks()));
+	private Paragraph makeTableParagraph(TableBlock block) throws DocumentException {
+		Paragraph paragraph = new Paragraph();
+		paragraph.setSpacingBefore(block.isSpaced() ? 6 : 1);
 
-			IterationParams warmup = params.getWarmup();
-			if (warmup.getCount() > 0) {
-				addTextWithHeader(parametersParagraph, "Warmup", "" + warmup.getCount() + " iterations, " + warmup.getTime() + " each" + (warmup.getBatchSize() <= 1 ? "" : ", " + warmup.getBatchSize() + " calls per op"));
-			} else {
-				addTextWithHeader(parametersParagraph, "Warmup", "<none>");
-			}
+		PdfPTable table = new PdfPTable(block.headers.size());
+		table.setWidthPercentage(100);
+		table.setWidths(block.getWidths());
 
-			IterationParams measurement = params.getMeasurement();
-			if (measurement.getCount() > 0) {
-				addTextWithHeader(parametersParagraph, "Measurement", "" + measurement.getCount() + " iterations, " + measurement.getTime() + " each" + (measurement.getBatchSize() <= 1 ? "" : ", " + measurement.getBatchSize() + " calls per op"));
-			} else {
-				addTextWithHeader(parametersParagraph, "Measurement", "<none>");
+		for (TableBlock.Cell header : block.headers) {
+			table.addCell(makeCell(header.text, alignmentOf(header), true));
+		}
+		for (List<TableBlock.Cell> row : block.rows) {
+			for (TableBlock.Cell cell : row) {
+				table.addCell(highlight(makeCell(cell.text, alignmentOf(cell), false), cell.highlighted));
 			}
+		}
+		paragraph.add(table);
 
-			TimeValue timeout = params.getTimeout();
-			if (timeout != null) {
-				boolean timeoutWarning = timeout.convertTo(TimeUnit.NANOSECONDS) <= measurement.getTime().convertTo(TimeUnit.NANOSECONDS) || timeout.convertTo(TimeUnit.NANOSECONDS) <= warmup.getTime().convertTo(TimeUnit.NANOSECONDS);
-				addTextWithHeader(parametersParagraph, "Timeout", "" + timeout + " per iteration" + (timeoutWarning ? ", ***WARNING: The timeout might be too low!***" : ""));
-			}
+		boolean first = true;
+		for (String note : block.notes) {
+			if (first) first = false;
+			else paragraph.add(Chunk.NEWLINE);
+			paragraph.add(new Chunk(note, normalFont()));
+		}
+		return paragraph;
+	}
 
-			addTextWithHeader(parametersParagraph, "Threads", "" + params.getThreads() + " " + getThreadsString(params.getThreads()) + (params.shouldSynchIterations() ? ", will synchronize iterations" : (params.getMode() == Mode.SingleShotTime ? "" : ", ***WARNING: Synchronize iterations are disabled!***")));
-			addTextWithHeader(parametersParagraph, "Benchmark mode", params.getMode().longLabel());
+	private static int alignmentOf(TableBlock.Cell cell) {
+		switch (cell.alignment) {
+			case CENTER:
+				return Element.ALIGN_CENTER;
+			case RIGHT:
+				return Element.ALIGN_RIGHT;
+			default:
+				return Element.ALIGN_LEFT;
 		}
-		return parametersParagraph;
+	}
+
+	private static PdfPCell highlight(PdfPCell cell, boolean highlighted) {
+		if (highlighted) cell.setBackgroundColor(new BaseColor(252, 233, 79));
+		return cell;
 	}
 
 	private void addTextWithHeader(Paragraph parametersParagraph, String name, String content) {
@@ -152,54 +174,6 @@ public class PdfFormat implements ReportFormat {
 		parametersParagraph.add(Chunk.NEWLINE);
 	}
 
-	private static String getForksString(int f) {
-		return f > 1 ? "forks" : "fork";
-	}
-
-	private static String getThreadsString(int t) {
-		return t > 1 ? "threads" : "thread";
-	}
-
-	private String[] HEADERS = new String[]{"Score", "Error (±)", "Unit"};
-
-	private Paragraph makeTableParagraph(Set<String> paramKeys, String timeUnit, Map<BenchmarkParams, RunResultData> perParamsResults) throws DocumentException {
-		Paragraph paragraph = new Paragraph();
-		paragraph.setSpacingBefore(1);
-		PdfPTable table = new PdfPTable(paramKeys.size() + HEADERS.length);
-		table.setWidthPercentage(100);
-		table.setWidths(new float[]{100, 100, 60, 60, 50});
-
-		// Output table headers
-		for (String paramKey : paramKeys) {
-			table.addCell(makeCell(paramKey, Element.ALIGN_CENTER, true));
-		}
-		for (int i = 0; i < HEADERS.length; i++) {
-			table.addCell(makeCell(HEADERS[i], Element.ALIGN_CENTER, true));
-		}
-
-		// Output table content
-		for (Map.Entry<BenchmarkParams, RunResultData> perParamsResult : perParamsResults.entrySet()) {
-			BenchmarkParams params = perParamsResult.getKey();
-			RunResultData.Results primaryResults = perParamsResult.getValue().primaryResults;
-
-//					Number javacMean = findMeanFor(column, "Javac", dataset);
-//					Number jlatoMean = findMeanFor(column, "JLaTo", dataset);
-
-			Number mean = primaryResults.score;
-			Number stdDev = primaryResults.scoreError;
-
-			for (String paramKey : paramKeys) {
-				table.addCell(makeCell(params.getParam(paramKey), Element.ALIGN_LEFT, false));
-			}
-
-			table.addCell(makeCell(String.format("%.3f", mean), Element.ALIGN_RIGHT, false));
-			table.addCell(makeCell(String.format("%.3f", stdDev), Element.ALIGN_RIGHT, false));
-			table.addCell(makeCell(timeUnit, Element.ALIGN_CENTER, false));
-		}
-		paragraph.add(table);
-		return paragraph;
-	}
-
 	private PdfPCell makeCell(String string, int alignment, boolean header) {
 		Phrase phrase = header ? new Phrase(string, tableHeaderFont()) : new Phrase(string, normalFont());
 
@@ -219,40 +193,16 @@ public class PdfFormat implements ReportFormat {
 		return cell;
 	}
 
-	private Image makeChart(PdfWriter writer, Document document, BenchmarkResultData benchmarkResult,
-	                        PlotConfiguration plotConfiguration) throws DocumentException {
-		JFreeChart chart = new ChartGenerator(renderingConfiguration, plotConfiguration)
-				.generateChart(null, benchmarkResult);
-
-		RenderingHints renderingHints = chart.getRenderingHints();
-		Integer minHeight = (Integer) renderingHints.get(ChartGenerator.MIN_HEIGHT);
-
+	private Image drawChart(PdfWriter writer, Document document, ChartBlock block) throws DocumentException {
 		PdfContentByte contentByte = writer.getDirectContent();
 
 		float width = document.right() - document.left();
-		float height = minHeight != null ? minHeight : document.top() - document.bottom() - 20;
-
-		FontMapper fontMapper = new FontMapper() {
-			public BaseFont awtToPdf(java.awt.Font font) {
-				try {
-					return BaseFont.createFont(renderingConfiguration.fontPath, BaseFont.IDENTITY_H, BaseFont.EMBEDDED);
-				} catch (DocumentException e) {
-					e.printStackTrace();
-				} catch (IOException e) {
-					e.printStackTrace();
-				}
-				return null;
-			}
-
-			public java.awt.Font pdfToAwt(BaseFont font, int size) {
-				return null;
-			}
-		};
+		float height = block.heightFor(document.top() - document.bottom());
 
 		PdfTemplate template = contentByte.createTemplate(width, height);
 		Graphics2D graphics2d = new PdfGraphics2D(template, width, height, fontMapper);
 		Rectangle2D rectangle2d = new Rectangle2D.Double(0, 0, width, height);
-		chart.draw(graphics2d, rectangle2d);
+		chartRenderer.render(block.data).draw(graphics2d, rectangle2d);
 		graphics2d.dispose();
 
 		Image image = Image.getInstance(template);
@@ -260,19 +210,47 @@ public class PdfFormat implements ReportFormat {
 		return image;
 	}
 
+	public void writeChart(OutputStream outputStream, ChartData chart, float width, float height) throws IOException {
+		Document document = new Document(new Rectangle(width, height), 0, 0, 0, 0);
+		try {
+			PdfWriter writer = PdfWriter.getInstance(document, outputStream);
+			document.open();
+
+			Graphics2D graphics2d = new PdfGraphics2D(writer.getDirectContent(), width, height, fontMapper);
+			chartRenderer.render(chart).draw(graphics2d, new Rectangle2D.Double(0, 0, width, height));
+			graphics2d.dispose();
+		} catch (DocumentException e) {
+			throw new IOException(e);
+		} finally {
+			document.close();
+		}
+	}
+
+	private FontMapper makeFontMapper() {
+		return new FontMapper() {
+			public BaseFont awtToPdf(java.awt.Font font) {
+				return FontRegistry.baseFont(renderingConfiguration, font.getStyle());
+			}
+
+			public java.awt.Font pdfToAwt(BaseFont font, int size) {
+				return FontRegistry.awtFont(renderingConfiguration, java.awt.Font.PLAIN, size);
+			}
+		};
+	}
+
 	private Font chapterFont() {
-		return FontFactory.getFont(renderingConfiguration.fontPath, renderingConfiguration.headerFontSize, Font.BOLD);
+		return FontRegistry.pdfFont(renderingConfiguration, java.awt.Font.BOLD, renderingConfiguration.headerFontSize, BaseColor.BLACK);
 	}
 
 	private Font normalFont() {
-		return FontFactory.getFont(renderingConfiguration.fontPath, renderingConfiguration.baseFontSize, Font.NORMAL);
+		return FontRegistry.pdfFont(renderingConfiguration, java.awt.Font.PLAIN, renderingConfiguration.baseFontSize, BaseColor.BLACK);
 	}
 
 	private Font boldFont() {
-		return FontFactory.getFont(renderingConfiguration.fontPath, renderingConfiguration.baseFontSize, Font.BOLD);
+		return FontRegistry.pdfFont(renderingConfiguration, java.awt.Font.BOLD, renderingConfiguration.baseFontSize, BaseColor.BLACK);
 	}
 
 	private Font tableHeaderFont() {
-		return FontFactory.getFont(renderingConfiguration.fontPath, renderingConfiguration.baseFontSize, Font.NORMAL, BaseColor.WHITE);
+		return FontRegistry.pdfFont(renderingConfiguration, java.awt.Font.PLAIN, renderingConfiguration.baseFontSize, BaseColor.WHITE);
 	}
 }
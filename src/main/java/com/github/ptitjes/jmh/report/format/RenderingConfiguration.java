@@ -11,4 +11,20 @@ public class RenderingConfiguration {
 
 	public String font = "FreeSans";
 	public String fontPath = "/fonts/FreeSans.ttf";
+
+	/**
+	 * The limits of a chart, beyond which its plot is split or reduced, see {@link com.github.ptitjes.jmh.report.annotations.Oversize}.
+	 */
+	public int maxChartSeries = 24;
+	public int maxChartCategories = 40;
+	public int maxChartCells = 240;
+	/**
+	 * The maximum count of charts a plot is split into.
+	 */
+	public int maxChartPages = 8;
+	/**
+	 * The maximum count of interpolated combinations listed in the results table, beyond which they are summarized per
+	 * param value.
+	 */
+	public int maxInterpolatedRows = 50;
 }
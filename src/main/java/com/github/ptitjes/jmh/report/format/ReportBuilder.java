@@ -0,0 +1,679 @@
+package com.github.ptitjes.jmh.report.format;
+
+import com.github.ptitjes.jmh.report.annotations.PlotType;
+import com.github.ptitjes.jmh.report.budget.BudgetViolation;
+import com.github.ptitjes.jmh.report.chart.ChartGenerator;
+import com.github.ptitjes.jmh.report.chart.PlotConfiguration;
+import com.github.ptitjes.jmh.report.chart.ScalingChartGenerator;
+import com.github.ptitjes.jmh.report.chart.ThreadGroupChartGenerator;
+import com.github.ptitjes.jmh.report.chart.WarmupChartGenerator;
+import com.github.ptitjes.jmh.report.data.BenchmarkResultData;
+import com.github.ptitjes.jmh.report.data.PartitionIndex;
+import com.github.ptitjes.jmh.report.data.RunResultData;
+import com.github.ptitjes.jmh.report.env.Environment;
+import com.github.ptitjes.jmh.report.model.*;
+import com.github.ptitjes.jmh.report.model.TableBlock.Alignment;
+import com.github.ptitjes.jmh.report.model.TableBlock.Cell;
+import com.github.ptitjes.jmh.report.model.TextBlock.Line;
+import com.github.ptitjes.jmh.report.options.AnnotationReader;
+import com.github.ptitjes.jmh.report.stats.ComplexityFit;
+import com.github.ptitjes.jmh.report.stats.ConfigurationComparison;
+import com.github.ptitjes.jmh.report.stats.NoiseDetector;
+import com.github.ptitjes.jmh.report.stats.ScalingAnalysis;
+import com.github.ptitjes.jmh.report.stats.Selection;
+import com.github.ptitjes.jmh.report.stats.SteadyStateDetector;
+import com.github.ptitjes.jmh.report.stats.ThreadGroupAnalysis;
+import com.github.ptitjes.jmh.report.stats.TierRanking;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.infra.BenchmarkParams;
+import org.openjdk.jmh.infra.IterationParams;
+import org.openjdk.jmh.runner.options.TimeValue;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Computes everything a report shows, so that formats only lay it out.
+ *
+ * @author Didier Villevalois
+ */
+public class ReportBuilder {
+
+	private final RenderingConfiguration renderingConfiguration;
+	private final AnnotationReader annotationReader = new AnnotationReader();
+	private final ScalingAnalysis scalingAnalysis = new ScalingAnalysis();
+	private final SteadyStateDetector steadyStateDetector = new SteadyStateDetector();
+	private final NoiseDetector noiseDetector = new NoiseDetector();
+	private final ThreadGroupAnalysis threadGroupAnalysis = new ThreadGroupAnalysis();
+	private final ConfigurationComparison configurationComparison = new ConfigurationComparison();
+
+	private static final int MAX_WARMUP_CHARTS = 6;
+	private static final int MAX_LISTED_ITERATIONS = 10;
+
+	public ReportBuilder(RenderingConfiguration renderingConfiguration) {
+		this.renderingConfiguration = renderingConfiguration;
+	}
+
+	public Report build(List<BenchmarkResultData> benchmarkResults) {
+		return build(benchmarkResults, Collections.<Environment>emptyList());
+	}
+
+	public Report build(List<BenchmarkResultData> benchmarkResults, List<Environment> environments) {
+		List<Chapter> chapters = new ArrayList<>();
+
+		List<BudgetViolation> violations = new ArrayList<>();
+		for (BenchmarkResultData benchmarkResult : benchmarkResults) {
+			if (benchmarkResult.budgetViolations != null) violations.addAll(benchmarkResult.budgetViolations);
+		}
+		if (!violations.isEmpty()) {
+			chapters.add(new Chapter("Budget violations",
+					Collections.<Block>singletonList(makeViolationsBlock(violations, true))));
+		}
+
+		if (!environments.isEmpty()) {
+			chapters.add(new Chapter("Environment", makeEnvironmentBlocks(environments)));
+		}
+
+		for (BenchmarkResultData benchmarkResult : benchmarkResults) {
+			chapters.add(makeBenchmarkChapter(benchmarkResult));
+		}
+		return new Report(chapters);
+	}
+
+	private Chapter makeBenchmarkChapter(BenchmarkResultData benchmarkResult) {
+		String longName = benchmarkResult.longName;
+		List<RunResultData> perParamsResults = benchmarkResult.perParamsResults;
+
+		List<Block> blocks = new ArrayList<>();
+		blocks.add(makeParametersBlock(perParamsResults));
+		if (benchmarkResult.budgetViolations != null && !benchmarkResult.budgetViolations.isEmpty()) {
+			blocks.add(makeViolationsBlock(benchmarkResult.budgetViolations, false));
+		}
+		double[] deltas = configurationComparison.relativeDeltas(benchmarkResult);
+		List<PlotConfiguration> configurations = annotationReader.makePlotConfigurationsFor(longName);
+		PlotConfiguration mainConfiguration = configurations.get(0);
+		blocks.add(makeResultsBlock(benchmarkResult.paramKeys, benchmarkResult.threads.size() > 1 || hasThreadDistributions(perParamsResults),
+				benchmarkResult.timeUnit, perParamsResults, benchmarkResult.interpolatedResults,
+				benchmarkResult.configurations, deltas, rankTiers(benchmarkResult, mainConfiguration),
+				mainConfiguration.tierSignificance));
+		if (summarizesInterpolatedResults(benchmarkResult.interpolatedResults)) {
+			blocks.add(makeInterpolationSummaryBlock(benchmarkResult.paramKeys, benchmarkResult.timeUnit,
+					benchmarkResult.interpolatedResults));
+		}
+
+		List<ConfigurationComparison.Summary> summaries = configurationComparison.summarize(benchmarkResult, deltas);
+		if (!summaries.isEmpty()) blocks.add(makeConfigurationsBlock(benchmarkResult.configurations.get(0), summaries));
+
+		List<ThreadGroupAnalysis.GroupRun> groupRuns = threadGroupAnalysis.analyze(benchmarkResult);
+		if (!groupRuns.isEmpty()) {
+			blocks.add(makeRolesBlock(groupRuns, benchmarkResult.timeUnit));
+
+			ThreadGroupChartGenerator chartGenerator = new ThreadGroupChartGenerator(renderingConfiguration);
+			blocks.add(new ChartBlock(chartGenerator.generateRolesChart("Thread roles", groupRuns, benchmarkResult.timeUnit),
+					"Thread roles", 1f / 2, 0));
+
+			Mode mode = perParamsResults.get(0).params.getMode();
+			for (ThreadGroupAnalysis.Contention contention : threadGroupAnalysis.contentions(groupRuns)) {
+				String title = "Contention" + (contention.label.isEmpty() ? "" : " of " + contention.label);
+				ChartData chart = chartGenerator.generateContentionChart(title, contention, mode, benchmarkResult.timeUnit);
+				blocks.add(new ChartBlock(chart, title, 1f / 2, 0));
+			}
+		}
+
+		for (PlotConfiguration configuration : configurations) {
+			String perParam = configuration.perParam;
+			if (perParam != null) {
+				for (String value : PartitionIndex.of(benchmarkResult).valuesOf(perParam)) {
+					addChart(blocks, benchmarkResult, configuration, value);
+				}
+			} else {
+				addChart(blocks, benchmarkResult, configuration, null);
+			}
+		}
+
+		List<ScalingAnalysis.Group> scalingGroups = scalingAnalysis.analyze(benchmarkResult);
+		if (!scalingGroups.isEmpty()) {
+			blocks.add(makeScalingBlock(scalingGroups));
+			blocks.add(makeScalingFitsBlock(scalingGroups));
+			for (ScalingAnalysis.Group group : scalingGroups) {
+				String title = "Scaling" + (group.label.isEmpty() ? "" : " of " + group.label);
+				ChartData chart = new ScalingChartGenerator(renderingConfiguration).generateChart(title, group);
+				blocks.add(new ChartBlock(chart, title, 1f / 2, 0));
+			}
+		}
+
+		List<SteadyStateDetector.SteadyState> steadyStates = steadyStateDetector.analyze(benchmarkResult);
+		if (!steadyStates.isEmpty()) {
+			blocks.add(makeWarmupBlock(benchmarkResult, steadyStates));
+
+			// Only unsettled benchmarks are worth a look, or a single one to show all is fine
+			List<SteadyStateDetector.SteadyState> charted = new ArrayList<>();
+			for (SteadyStateDetector.SteadyState steadyState : steadyStates) {
+				if (steadyState.stillWarming && charted.size() < MAX_WARMUP_CHARTS) charted.add(steadyState);
+			}
+			if (charted.isEmpty()) charted.add(steadyStates.get(0));
+
+			for (SteadyStateDetector.SteadyState steadyState : charted) {
+				String label = describeParams(benchmarkResult, steadyState.resultData.params);
+				String title = "Warmup" + (label.isEmpty() ? "" : " of " + label);
+				ChartData chart = new WarmupChartGenerator(renderingConfiguration).generateChart(title, steadyState);
+				blocks.add(new ChartBlock(chart, title, 1f / 3, 0));
+			}
+		}
+
+		List<NoiseDetector.NoisyRun> noisyRuns = noiseDetector.analyze(benchmarkResult);
+		if (!noisyRuns.isEmpty()) blocks.add(makeNoiseBlock(benchmarkResult, noisyRuns));
+
+		return new Chapter(longName, blocks);
+	}
+
+	private void addChart(List<Block> blocks, BenchmarkResultData benchmarkResult, PlotConfiguration plotConfiguration,
+	                      String partitionValue) {
+		List<ChartData> charts = new ChartGenerator(renderingConfiguration, plotConfiguration, partitionValue)
+				.generateCharts(null, benchmarkResult);
+		String title = plotConfiguration.perParam == null ? null : plotConfiguration.perParam + " = " + partitionValue;
+		for (ChartData chart : charts) {
+			String description = chart.description;
+			String chartTitle = description == null ? title : title == null ? description : title + ", " + description;
+			blocks.add(new ChartBlock(chart, chartTitle, 1, 20));
+
+			if (chart.kind == ChartData.Kind.XY) {
+				Mode mode = benchmarkResult.perParamsResults.get(0).params.getMode();
+				blocks.add(makeComplexityBlock(chart, mode, benchmarkResult.timeUnit));
+			}
+		}
+	}
+
+	private TextBlock makeParametersBlock(List<RunResultData> perParamsResults) {
+		List<Line> lines = new ArrayList<>();
+
+		BenchmarkParams params = perParamsResults.get(0).params;
+		if (params != null) {
+			lines.add(new Line("", org.openjdk.jmh.util.Version.getVersion()));
+
+			if (perParamsResults.get(0).partialParams) {
+				// Results read from CSV files only know about their sample count
+				lines.add(new Line("Samples", "" + params.getMeasurement().getCount()));
+				lines.add(new Line("Threads", "" + params.getThreads() + " " + getThreadsString(params.getThreads())));
+				lines.add(new Line("Benchmark mode", params.getMode().longLabel()));
+				return new TextBlock(lines, false);
+			}
+
+			int minForks = Integer.MAX_VALUE, maxForks = 0;
+			for (RunResultData resultData : perParamsResults) {
+				minForks = Math.min(minForks, resultData.params.getForks());
+				maxForks = Math.max(maxForks, resultData.params.getForks());
+			}
+			if (minForks == maxForks) {
+				lines.add(new Line("Forks", "" + params.getForks() + " " + getForksString(params.getForks())));
+			} else {
+				// Adaptive runs stop adding forks as soon as the score is precise enough
+				lines.add(new Line("Forks", "" + minForks + " to " + maxForks + " forks, see Samples"));
+			}
+
+			IterationParams warmup = params.getWarmup();
+			if (warmup.getCount() > 0) {
+				lines.add(new Line("Warmup", "" + warmup.getCount() + " iterations, " + warmup.getTime() + " each" + (warmup.getBatchSize() <= 1 ? "" : ", " + warmup.getBatchSize() + " calls per op")));
+			} else {
+				lines.add(new Line("Warmup", "<none>"));
+			}
+
+			IterationParams measurement = params.getMeasurement();
+			if (measurement.getCount() > 0) {
+				lines.add(new Line("Measurement", "" + measurement.getCount() + " iterations, " + measurement.getTime() + " each" + (measurement.getBatchSize() <= 1 ? "" : ", " + measurement.getBatchSize() + " calls per op")));
+			} else {
+				lines.add(new Line("Measurement", "<none>"));
+			}
+
+			TimeValue timeout = params.getTimeout();
+			if (timeout != null) {
+				boolean timeoutWarning = timeout.convertTo(TimeUnit.NANOSECONDS) <= measurement.getTime().convertTo(TimeUnit.NANOSECONDS) || timeout.convertTo(TimeUnit.NANOSECONDS) <= warmup.getTime().convertTo(TimeUnit.NANOSECONDS);
+				lines.add(new Line("Timeout", "" + timeout + " per iteration" + (timeoutWarning ? ", ***WARNING: The timeout might be too low!***" : "")));
+			}
+
+			lines.add(new Line("Threads", "" + params.getThreads() + " " + getThreadsString(params.getThreads()) + (params.shouldSynchIterations() ? ", will synchronize iterations" : (params.getMode() == Mode.SingleShotTime ? "" : ", ***WARNING: Synchronize iterations are disabled!***"))));
+			lines.add(new Line("Benchmark mode", params.getMode().longLabel()));
+		}
+		return new TextBlock(lines, false);
+	}
+
+	private TextBlock makeViolationsBlock(List<BudgetViolation> violations, boolean withBenchmarkNames) {
+		List<Line> lines = new ArrayList<>();
+		for (BudgetViolation violation : violations) {
+			String target = (withBenchmarkNames ? violation.resultData.params.getBenchmark() + " " : "") +
+					violation.describeParams();
+			lines.add(new Line("***VIOLATION*** " + target, violation.message));
+		}
+		return new TextBlock(lines, true);
+	}
+
+	private List<Block> makeEnvironmentBlocks(List<Environment> environments) {
+		Set<String> differingKeys = Environment.differingKeys(environments);
+
+		List<Block> blocks = new ArrayList<>();
+		if (environments.size() > 1) {
+			blocks.add(new TextBlock(Collections.singletonList(new Line("Differences", differingKeys.isEmpty() ? "<none>" :
+					differingKeys.size() + " of " + Environment.allKeys(environments).size() + " properties, highlighted below")), false));
+		}
+
+		float[] widths = new float[environments.size() + 1];
+		widths[0] = 80;
+		for (int i = 1; i < widths.length; i++) widths[i] = 300 / environments.size();
+
+		List<Cell> headers = new ArrayList<>();
+		headers.add(new Cell("Property", Alignment.CENTER));
+		for (Environment environment : environments) {
+			headers.add(new Cell(environment.label, Alignment.CENTER));
+		}
+
+		List<List<Cell>> rows = new ArrayList<>();
+		for (String key : Environment.allKeys(environments)) {
+			boolean differs = differingKeys.contains(key);
+			List<Cell> row = new ArrayList<>();
+			row.add(new Cell(key, Alignment.LEFT, differs));
+			for (Environment environment : environments) {
+				String value = environment.get(key);
+				row.add(new Cell(value == null ? "<unknown>" : value, Alignment.LEFT, differs));
+			}
+			rows.add(row);
+		}
+		blocks.add(new TableBlock(widths, headers, rows, Collections.<String>emptyList(), false));
+		return blocks;
+	}
+
+	private static String getForksString(int f) {
+		return f > 1 ? "forks" : "fork";
+	}
+
+	private static String getThreadsString(int t) {
+		return t > 1 ? "threads" : "thread";
+	}
+
+	private static final String[] ROLES_HEADERS = new String[]{"Parameters", "Role", "Threads", "Score", "Error (±)", "Unit", "Share"};
+	private static final float[] ROLES_WIDTHS = new float[]{120, 70, 50, 60, 60, 50, 50};
+
+	private static final String[] SCALING_HEADERS = new String[]{"Parameters", "Threads", "Speedup", "Efficiency"};
+	private static final float[] SCALING_WIDTHS = new float[]{200, 50, 60, 60};
+
+	private static final String[] HEADERS = new String[]{"Score", "Error (±)", "Unit"};
+	private static final float[] HEADER_WIDTHS = new float[]{60, 60, 50};
+	private static final String THREADS_HEADER = "Threads";
+	private static final float THREADS_WIDTH = 50;
+	private static final String SAMPLES_HEADER = "Samples";
+	private static final float SAMPLES_WIDTH = 50;
+	private static final String OUTLIERS_HEADER = "Outliers";
+	private static final float OUTLIERS_WIDTH = 60;
+	private static final String DELTA_HEADER = "vs ";
+	private static final float DELTA_WIDTH = 60;
+	private static final String TIER_HEADER = "Tier";
+	private static final float TIER_WIDTH = 30;
+
+	/**
+	 * Ranks the results into tiers as the charts of a plot do, or returns {@code null} if none has a tier.
+	 */
+	private int[] rankTiers(BenchmarkResultData benchmarkResult, PlotConfiguration plotConfiguration) {
+		if (plotConfiguration.type == PlotType.HEATMAP || plotConfiguration.tierSignificance <= 0) return null;
+
+		int[] tiers = new TierRanking(plotConfiguration.tierSignificance).rank(benchmarkResult.perParamsResults,
+				ChartGenerator.competitionKeys(benchmarkResult, plotConfiguration, null));
+		for (int tier : tiers) {
+			if (tier > 0) return tiers;
+		}
+		return null;
+	}
+
+	private TableBlock makeResultsBlock(Set<String> paramKeys, boolean showThreads, String timeUnit, List<RunResultData> perParamsResults,
+	                                    List<RunResultData> interpolatedResults, List<String> configurations, double[] deltas,
+	                                    int[] tiers, double tierSignificance) {
+		boolean showDeltas = configurations != null && configurations.size() > 1;
+		boolean showTiers = tiers != null;
+		boolean showOutliers = false, outliersExcluded = false, showSamples = false;
+		int firstSampleCount = sampleCount(perParamsResults.get(0).primaryResults);
+		for (RunResultData resultData : perParamsResults) {
+			if (sampleCount(resultData.primaryResults) != firstSampleCount) showSamples = true;
+			if (resultData.primaryResults.outliers != null) showOutliers = true;
+			if (resultData.primaryResults.outliersExcluded) outliersExcluded = true;
+		}
+
+		int paramColumnCount = paramKeys.size() + (showThreads ? 1 : 0);
+		int scoreColumnCount = HEADERS.length + (showDeltas ? 1 : 0) + (showTiers ? 1 : 0);
+		int columnCount = paramColumnCount + scoreColumnCount + (showSamples ? 1 : 0) + (showOutliers ? 1 : 0);
+		float[] widths = new float[columnCount];
+		for (int i = 0; i < paramKeys.size(); i++) widths[i] = 100;
+		if (showThreads) widths[paramKeys.size()] = THREADS_WIDTH;
+		System.arraycopy(HEADER_WIDTHS, 0, widths, paramColumnCount, HEADER_WIDTHS.length);
+		if (showDeltas) widths[paramColumnCount + HEADERS.length] = DELTA_WIDTH;
+		if (showTiers) widths[paramColumnCount + scoreColumnCount - 1] = TIER_WIDTH;
+		if (showSamples) widths[paramColumnCount + scoreColumnCount] = SAMPLES_WIDTH;
+		if (showOutliers) widths[columnCount - 1] = OUTLIERS_WIDTH;
+
+		List<Cell> headers = new ArrayList<>();
+		for (String paramKey : paramKeys) {
+			headers.add(new Cell(paramKey, Alignment.CENTER));
+		}
+		if (showThreads) headers.add(new Cell(THREADS_HEADER, Alignment.CENTER));
+		for (String header : HEADERS) {
+			headers.add(new Cell(header, Alignment.CENTER));
+		}
+		if (showDeltas) headers.add(new Cell(DELTA_HEADER + configurations.get(0), Alignment.CENTER));
+		if (showTiers) headers.add(new Cell(TIER_HEADER, Alignment.CENTER));
+		if (showSamples) headers.add(new Cell(SAMPLES_HEADER, Alignment.CENTER));
+		if (showOutliers) headers.add(new Cell(OUTLIERS_HEADER, Alignment.CENTER));
+
+		// Interpolated results of sampled runs come last, unless there are too many to be worth listing
+		List<RunResultData> allResults = new ArrayList<>(perParamsResults);
+		boolean listsInterpolatedResults = interpolatedResults != null && !interpolatedResults.isEmpty() &&
+				!summarizesInterpolatedResults(interpolatedResults);
+		if (listsInterpolatedResults) allResults.addAll(interpolatedResults);
+
+		List<List<Cell>> rows = new ArrayList<>();
+		for (int i = 0; i < allResults.size(); i++) {
+			RunResultData perParamsResult = allResults.get(i);
+			boolean interpolated = i >= perParamsResults.size();
+			BenchmarkParams params = perParamsResult.params;
+			RunResultData.Results primaryResults = perParamsResult.primaryResults;
+
+			List<Cell> row = new ArrayList<>();
+			for (String paramKey : paramKeys) {
+				row.add(new Cell(params.getParam(paramKey), Alignment.LEFT));
+			}
+			if (showThreads) row.add(new Cell(makeThreadsText(params), Alignment.RIGHT));
+
+			row.add(new Cell((interpolated ? "~ " : "") + String.format("%.3f", primaryResults.score) + (primaryResults.outliersExcluded ? " *" : ""), Alignment.RIGHT));
+			row.add(new Cell(String.format("%.3f", primaryResults.scoreError), Alignment.RIGHT));
+			row.add(new Cell(timeUnit, Alignment.CENTER));
+			if (showDeltas) {
+				boolean hasDelta = !interpolated && !Double.isNaN(deltas[i]);
+				row.add(new Cell(hasDelta ? String.format("%+.1f%%", deltas[i] * 100) : "", Alignment.RIGHT));
+			}
+			if (showTiers) row.add(new Cell(interpolated || tiers[i] == 0 ? "" : "" + tiers[i], Alignment.CENTER));
+			if (showSamples) row.add(new Cell(interpolated ? "" : makeSamplesText(primaryResults), Alignment.RIGHT));
+			if (showOutliers) row.add(new Cell(interpolated ? "" : makeOutliersText(primaryResults), Alignment.RIGHT));
+			rows.add(row);
+		}
+
+		List<String> notes = new ArrayList<>();
+		if (outliersExcluded) notes.add("* Score and error recomputed without outliers");
+		if (showTiers) {
+			notes.add("Tiers group the statistically tied results of each chart category, from 1 the best " +
+					"(pairwise Mann-Whitney U tests of fork means, or of iterations for single forks, " +
+					"Holm-corrected at significance " + tierSignificance + ")");
+		}
+		if (listsInterpolatedResults) {
+			notes.add(String.format("~ Interpolated from the nearest measured combinations, %d of %d combinations were measured",
+					perParamsResults.size(), allResults.size()));
+		} else if (summarizesInterpolatedResults(interpolatedResults)) {
+			notes.add(String.format("%d of %d combinations were measured, the others are summarized below",
+					perParamsResults.size(), perParamsResults.size() + interpolatedResults.size()));
+		}
+		return new TableBlock(widths, headers, rows, notes, false);
+	}
+
+	private boolean summarizesInterpolatedResults(List<RunResultData> interpolatedResults) {
+		return interpolatedResults != null && interpolatedResults.size() > renderingConfiguration.maxInterpolatedRows;
+	}
+
+	private static final String[] INTERPOLATION_HEADERS = new String[]{"Param", "Value", "Combinations", "Min", "Median", "Max", "Unit"};
+	private static final float[] INTERPOLATION_WIDTHS = new float[]{100, 100, 70, 60, 60, 60, 50};
+
+	/**
+	 * Summarizes the interpolated scores per value of each param, as listing them would expand the whole grid.
+	 */
+	private TableBlock makeInterpolationSummaryBlock(Set<String> paramKeys, String timeUnit, List<RunResultData> interpolatedResults) {
+		List<Cell> headers = new ArrayList<>();
+		for (String header : INTERPOLATION_HEADERS) {
+			headers.add(new Cell(header, Alignment.CENTER));
+		}
+
+		List<List<Cell>> rows = new ArrayList<>();
+		for (String paramKey : paramKeys) {
+			// Values come in the order of the interpolated grid
+			Map<String, List<Double>> perValueScores = new LinkedHashMap<>();
+			for (RunResultData resultData : interpolatedResults) {
+				String value = resultData.params.getParam(paramKey);
+				List<Double> scores = perValueScores.get(value);
+				if (scores == null) perValueScores.put(value, scores = new ArrayList<>());
+				scores.add(resultData.primaryResults.score);
+			}
+
+			for (Map.Entry<String, List<Double>> entry : perValueScores.entrySet()) {
+				List<Double> scores = entry.getValue();
+				double[] values = new double[scores.size()];
+				double min = Double.POSITIVE_INFINITY, max = Double.NEGATIVE_INFINITY;
+				for (int i = 0; i < values.length; i++) {
+					values[i] = scores.get(i);
+					min = Math.min(min, values[i]);
+					max = Math.max(max, values[i]);
+				}
+				rows.add(Arrays.asList(
+						new Cell(paramKey, Alignment.LEFT),
+						new Cell(entry.getKey(), Alignment.LEFT),
+						new Cell("" + values.length, Alignment.RIGHT),
+						new Cell(String.format("~ %.3f", min), Alignment.RIGHT),
+						new Cell(String.format("~ %.3f", Selection.median(values, values.length)), Alignment.RIGHT),
+						new Cell(String.format("~ %.3f", max), Alignment.RIGHT),
+						new Cell(timeUnit, Alignment.CENTER)
+				));
+			}
+		}
+		return new TableBlock(INTERPOLATION_WIDTHS, headers, rows, Collections.singletonList(
+				"~ Interpolated from the nearest measured combinations, over the " + interpolatedResults.size() +
+						" combinations that were not measured"), true);
+	}
+
+	private TextBlock makeConfigurationsBlock(String reference, List<ConfigurationComparison.Summary> summaries) {
+		List<Line> lines = new ArrayList<>();
+		for (ConfigurationComparison.Summary summary : summaries) {
+			lines.add(new Line(summary.configuration + " vs " + reference, summary.count > 1 ?
+					String.format("%+.1f%% on geometric mean over %d combinations, from %+.1f%% to %+.1f%%",
+							summary.meanDelta * 100, summary.count, summary.minDelta * 100, summary.maxDelta * 100) :
+					String.format("%+.1f%%", summary.meanDelta * 100)));
+		}
+		return new TextBlock(lines, false);
+	}
+
+	private TableBlock makeRolesBlock(List<ThreadGroupAnalysis.GroupRun> groupRuns, String timeUnit) {
+		List<Cell> headers = new ArrayList<>();
+		for (String header : ROLES_HEADERS) {
+			headers.add(new Cell(header, Alignment.CENTER));
+		}
+
+		List<List<Cell>> rows = new ArrayList<>();
+		boolean outliersExcluded = false;
+		for (ThreadGroupAnalysis.GroupRun groupRun : groupRuns) {
+			for (ThreadGroupAnalysis.Role role : groupRun.roles) {
+				if (role.results.outliersExcluded) outliersExcluded = true;
+				rows.add(Arrays.asList(
+						new Cell(groupRun.label, Alignment.LEFT),
+						new Cell(role.name, Alignment.LEFT),
+						new Cell(role.threads == 0 ? "?" : "" + role.threads, Alignment.RIGHT),
+						new Cell(String.format("%.3f", role.results.score) + (role.results.outliersExcluded ? " *" : ""), Alignment.RIGHT),
+						new Cell(String.format("%.3f", role.results.scoreError), Alignment.RIGHT),
+						new Cell(timeUnit, Alignment.CENTER),
+						new Cell(Double.isNaN(role.share) ? "" : String.format("%.1f%%", role.share * 100), Alignment.RIGHT)
+				));
+			}
+		}
+		List<String> notes = new ArrayList<>();
+		if (outliersExcluded) notes.add("* Score and error recomputed without outliers");
+		return new TableBlock(ROLES_WIDTHS, headers, rows, notes, true);
+	}
+
+	private static boolean hasThreadDistributions(List<RunResultData> perParamsResults) {
+		Set<String> distributions = new HashSet<>();
+		for (RunResultData resultData : perParamsResults) {
+			int[] threadGroups = resultData.params.getThreadGroups();
+			if (threadGroups != null && threadGroups.length > 1) distributions.add(Arrays.toString(threadGroups));
+		}
+		return distributions.size() > 1;
+	}
+
+	private static String makeThreadsText(BenchmarkParams params) {
+		String distribution = makeDistributionText(params);
+		return params.getThreads() + (distribution.isEmpty() ? "" : " (" + distribution + ")");
+	}
+
+	private static String makeDistributionText(BenchmarkParams params) {
+		int[] threadGroups = params.getThreadGroups();
+		if (threadGroups == null || threadGroups.length <= 1) return "";
+
+		StringBuilder distribution = new StringBuilder();
+		for (int threads : threadGroups) distribution.append(distribution.length() == 0 ? "" : ":").append(threads);
+		return distribution.toString();
+	}
+
+	private TableBlock makeScalingBlock(List<ScalingAnalysis.Group> groups) {
+		List<Cell> headers = new ArrayList<>();
+		for (String header : SCALING_HEADERS) {
+			headers.add(new Cell(header, Alignment.CENTER));
+		}
+
+		List<List<Cell>> rows = new ArrayList<>();
+		for (ScalingAnalysis.Group group : groups) {
+			for (int i = 0; i < group.threads.length; i++) {
+				rows.add(Arrays.asList(
+						new Cell(group.label, Alignment.LEFT),
+						new Cell("" + group.threads[i], Alignment.RIGHT),
+						new Cell(String.format("%.3f", group.speedups[i]), Alignment.RIGHT),
+						new Cell(String.format("%.1f%%", group.efficiency(i) * 100), Alignment.RIGHT)
+				));
+			}
+		}
+		return new TableBlock(SCALING_WIDTHS, headers, rows, Collections.<String>emptyList(), true);
+	}
+
+	private TextBlock makeScalingFitsBlock(List<ScalingAnalysis.Group> groups) {
+		List<Line> lines = new ArrayList<>();
+		for (ScalingAnalysis.Group group : groups) {
+			StringBuilder fits = new StringBuilder();
+			fits.append(String.format("Amdahl contention=%.4f (R²=%.3f)", group.amdahlSigma, group.amdahlRSquared));
+			if (!Double.isNaN(group.uslSigma)) {
+				fits.append(String.format(", USL contention=%.4f coherency=%.6f (R²=%.3f)", group.uslSigma, group.uslKappa, group.uslRSquared));
+				double peak = group.uslPeakThreads();
+				if (!Double.isNaN(peak)) fits.append(String.format(", peaks at %.1f threads", peak));
+			}
+			lines.add(new Line(group.label.isEmpty() ? "Scaling" : group.label, fits.toString()));
+		}
+		return new TextBlock(lines, false);
+	}
+
+	private static int sampleCount(RunResultData.Results results) {
+		int count = 0;
+		for (double[] forkData : results.rawData) count += forkData.length;
+		return count;
+	}
+
+	private String makeSamplesText(RunResultData.Results results) {
+		int forks = results.rawData.length;
+		return forks == 0 ? "0" : forks + " × " + results.rawData[0].length;
+	}
+
+	private TextBlock makeWarmupBlock(BenchmarkResultData benchmarkResult, List<SteadyStateDetector.SteadyState> steadyStates) {
+		List<Line> lines = new ArrayList<>();
+
+		int stillWarmingCount = 0;
+		for (SteadyStateDetector.SteadyState steadyState : steadyStates) {
+			if (!steadyState.stillWarming) continue;
+			stillWarmingCount++;
+
+			String label = describeParams(benchmarkResult, steadyState.resultData.params);
+			lines.add(new Line("***STILL WARMING***" + (label.isEmpty() ? "" : " " + label), String.format(
+					"steady after %d iterations but warmup was %d, score off by %+.1f%%, recommended warmup: %d iterations",
+					steadyState.steadyStart, steadyState.warmupIterations, steadyState.bias * 100, steadyState.recommendedWarmup)));
+		}
+
+		if (stillWarmingCount == 0) {
+			lines.add(new Line("Warmup", "steady state reached before measurement" +
+					(steadyStates.size() > 1 ? " for all " + steadyStates.size() + " combinations" : "")));
+		}
+		return new TextBlock(lines, true);
+	}
+
+	private TextBlock makeNoiseBlock(BenchmarkResultData benchmarkResult, List<NoiseDetector.NoisyRun> noisyRuns) {
+		List<Line> lines = new ArrayList<>();
+
+		for (NoiseDetector.NoisyRun noisyRun : noisyRuns) {
+			if (noisyRun.noisyCount == 0) continue;
+
+			String label = describeParams(benchmarkResult, noisyRun.resultData.params);
+			lines.add(new Line("***NOISY***" + (label.isEmpty() ? "" : " " + label), String.format(
+					"%d of %d iterations measured under abnormal system load%s: %s", noisyRun.noisyCount,
+					noisyRun.iterationCount, makeNoisyIterationsText(noisyRun), join(noisyRun.causes))));
+		}
+
+		if (lines.isEmpty()) {
+			lines.add(new Line("System noise", "no abnormal system load during measurement" +
+					(noisyRuns.size() > 1 ? " for all " + noisyRuns.size() + " combinations" : "")));
+		}
+		return new TextBlock(lines, true);
+	}
+
+	private static String makeNoisyIterationsText(NoiseDetector.NoisyRun noisyRun) {
+		if (noisyRun.noisyCount > MAX_LISTED_ITERATIONS) return "";
+
+		List<String> iterations = new ArrayList<>();
+		boolean[][] noisy = noisyRun.noisy;
+		for (int i = 0; i < noisy.length; i++) {
+			for (int j = 0; j < noisy[i].length; j++) {
+				if (noisy[i][j]) iterations.add(noisy.length > 1 ? (i + 1) + "." + (j + 1) : "" + (j + 1));
+			}
+		}
+		return " (" + (noisy.length > 1 ? "fork.iteration " : "iteration ") + join(iterations) + ")";
+	}
+
+	private static String join(List<String> values) {
+		StringBuilder builder = new StringBuilder();
+		for (String value : values) {
+			if (builder.length() > 0) builder.append(", ");
+			builder.append(value);
+		}
+		return builder.toString();
+	}
+
+	private static String describeParams(BenchmarkResultData benchmarkResult, BenchmarkParams params) {
+		String label = ScalingAnalysis.groupLabel(benchmarkResult.paramKeys, params);
+		if (hasThreadDistributions(benchmarkResult.perParamsResults)) {
+			return (label.isEmpty() ? "" : label + " - ") + params.getThreads() + "t (" + makeDistributionText(params) + ")";
+		}
+		if (benchmarkResult.threads.size() <= 1) return label;
+		return (label.isEmpty() ? "" : label + " - ") + params.getThreads() + "t";
+	}
+
+	private String makeOutliersText(RunResultData.Results results) {
+		if (results.outliers == null) return "";
+
+		int total = 0;
+		for (double[] forkData : results.rawData) total += forkData.length;
+		return results.outlierCount + " / " + total;
+	}
+
+	private TextBlock makeComplexityBlock(ChartData chart, Mode mode, String timeUnit) {
+		List<Line> lines = new ArrayList<>();
+
+		// Throughput is inverted so that all modes are fitted on a cost per operation
+		boolean inverse = mode == Mode.Throughput;
+		String costUnit = inverse ? "1 / (" + timeUnit + ")" : timeUnit;
+
+		for (ChartData.Series series : chart.series) {
+			int count = series.x.length;
+			double[] costs = new double[count];
+			for (int item = 0; item < count; item++) {
+				costs[item] = inverse ? 1 / series.y[item] : series.y[item];
+			}
+
+			ComplexityFit fit = ComplexityFit.bestFit(series.x, costs, count);
+			if (fit == null) continue;
+
+			String seriesName = series.name;
+			lines.add(new Line(seriesName.isEmpty() ? "Complexity" : seriesName, fit + " " + costUnit));
+		}
+		return new TextBlock(lines, false);
+	}
+}
@@ -1,14 +1,18 @@
 package com.github.ptitjes.jmh.report.format;
 
-import com.github.ptitjes.jmh.report.data.BenchmarkResultData;
+import com.github.ptitjes.jmh.report.model.Report;
 
 import java.io.IOException;
-import java.util.List;
+import java.io.OutputStream;
 
 /**
+ * Lays out a {@link Report}. Formats must not modify the report, so that several of them can write it concurrently.
+ *
  * @author Didier Villevalois
  */
 public interface ReportFormat {
 
-	void makeReport(String filename, List<BenchmarkResultData> perNameParamsResults) throws IOException;
+	String getExtension();
+
+	void writeReport(Report report, OutputStream outputStream) throws IOException;
 }
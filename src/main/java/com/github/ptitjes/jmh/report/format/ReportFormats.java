@@ -0,0 +1,40 @@
+package com.github.ptitjes.jmh.report.format;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * @author Didier Villevalois
+ */
+public final class ReportFormats {
+
+	public static final String DEFAULT_FORMATS = "pdf";
+
+	private ReportFormats() {
+	}
+
+	public static ReportFormat forName(String name, RenderingConfiguration renderingConfiguration) {
+		switch (name.trim().toLowerCase()) {
+			case "pdf":
+				return new PdfFormat(renderingConfiguration);
+			case "html":
+				return new HtmlFormat(renderingConfiguration);
+			case "md":
+			case "markdown":
+				return new MarkdownFormat();
+			default:
+				throw new IllegalArgumentException("Unknown report format: " + name);
+		}
+	}
+
+	/**
+	 * @param names comma separated format names
+	 */
+	public static List<ReportFormat> forNames(String names, RenderingConfiguration renderingConfiguration) {
+		List<ReportFormat> formats = new ArrayList<>();
+		for (String name : names.split(",")) {
+			if (!name.trim().isEmpty()) formats.add(forName(name, renderingConfiguration));
+		}
+		return formats;
+	}
+}
@@ -0,0 +1,68 @@
+package com.github.ptitjes.jmh.report.format;
+
+import com.github.ptitjes.jmh.report.model.Report;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.*;
+
+/**
+ * Writes a report in several formats at once, next to each other.
+ *
+ * @author Didier Villevalois
+ */
+public class ReportWriter {
+
+	private final List<ReportFormat> formats;
+
+	public ReportWriter(List<ReportFormat> formats) {
+		this.formats = formats;
+	}
+
+	/**
+	 * @param baseFilename the name of the report files, without extension
+	 */
+	public List<File> write(final Report report, String baseFilename) throws IOException {
+		List<File> files = new ArrayList<>();
+		List<Callable<Void>> tasks = new ArrayList<>();
+		for (final ReportFormat format : formats) {
+			final File file = new File(baseFilename + "." + format.getExtension());
+			if (file.getParentFile() != null) file.getParentFile().mkdirs();
+			files.add(file);
+
+			tasks.add(new Callable<Void>() {
+				@Override
+				public Void call() throws Exception {
+					OutputStream outputStream = new FileOutputStream(file);
+					try {
+						format.writeReport(report, outputStream);
+					} finally {
+						outputStream.close();
+					}
+					return null;
+				}
+			});
+		}
+		if (tasks.isEmpty()) return files;
+
+		ExecutorService executor = Executors.newFixedThreadPool(tasks.size());
+		try {
+			for (Future<Void> future : executor.invokeAll(tasks)) {
+				future.get();
+			}
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			throw new IOException(e);
+		} catch (ExecutionException e) {
+			if (e.getCause() instanceof IOException) throw (IOException) e.getCause();
+			throw new IOException(e.getCause());
+		} finally {
+			executor.shutdown();
+		}
+		return files;
+	}
+}
@@ -0,0 +1,14 @@
+package com.github.ptitjes.jmh.report.model;
+
+/**
+ * A part of a {@link Chapter}, either a {@link TextBlock}, a {@link TableBlock} or a {@link ChartBlock}.
+ *
+ * @author Didier Villevalois
+ */
+public interface Block {
+
+	/**
+	 * Whether the block is set apart from the previous one.
+	 */
+	boolean isSpaced();
+}
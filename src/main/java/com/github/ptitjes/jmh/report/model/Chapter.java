@@ -0,0 +1,19 @@
+package com.github.ptitjes.jmh.report.model;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * @author Didier Villevalois
+ */
+public class Chapter {
+
+	public final String title;
+	public final List<Block> blocks;
+
+	public Chapter(String title, List<Block> blocks) {
+		this.title = title;
+		this.blocks = Collections.unmodifiableList(new ArrayList<>(blocks));
+	}
+}
@@ -0,0 +1,36 @@
+package com.github.ptitjes.jmh.report.model;
+
+/**
+ * A chart, as its computed datasets that each format draws its own way.
+ *
+ * @author Didier Villevalois
+ */
+public class ChartBlock implements Block {
+
+	public final ChartData data;
+	public final String title;
+	/**
+	 * The fraction of the page height the chart takes when it has no minimum height.
+	 */
+	public final float pageFraction;
+	/**
+	 * The height kept free of the page before the fraction is taken.
+	 */
+	public final float pageMargin;
+
+	public ChartBlock(ChartData data, String title, float pageFraction, float pageMargin) {
+		this.data = data;
+		this.title = title;
+		this.pageFraction = pageFraction;
+		this.pageMargin = pageMargin;
+	}
+
+	public float heightFor(float pageHeight) {
+		return data.minHeight != null ? data.minHeight : (pageHeight - pageMargin) * pageFraction;
+	}
+
+	@Override
+	public boolean isSpaced() {
+		return false;
+	}
+}
@@ -0,0 +1,206 @@
+package com.github.ptitjes.jmh.report.model;
+
+import java.awt.Color;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * The datasets of a chart, as computed by the chart generators, and what formats need to draw it.
+ *
+ * @author Didier Villevalois
+ */
+public class ChartData {
+
+	public enum Kind {
+		/**
+		 * Series of values per category, with errors.
+		 */
+		BARS,
+		/**
+		 * Same as {@link #BARS}, with the values of a series joined.
+		 */
+		LINES,
+		/**
+		 * Series of numeric points, with error intervals.
+		 */
+		XY,
+		/**
+		 * Cells of a grid, one series whose x and y are indexes in the categories and rows, and z the cell values.
+		 */
+		HEATMAP
+	}
+
+	public final Kind kind;
+	public final String title;
+	public final String xLabel;
+	public final String yLabel;
+	/**
+	 * The categories of {@link Kind#BARS}, {@link Kind#LINES} and the columns of {@link Kind#HEATMAP}.
+	 */
+	public final List<String> categories;
+	/**
+	 * The rows of {@link Kind#HEATMAP}.
+	 */
+	public final List<String> rows;
+	public final List<Series> series;
+
+	public final boolean logScale;
+	public final boolean horizontal;
+	public final boolean legend;
+	public final boolean integerDomain;
+	public final boolean domainIncludesZero;
+	public final boolean rangeIncludesZero;
+	public final List<Marker> markers;
+	/**
+	 * What part of a plot the chart shows, or {@code null} if it shows all of it.
+	 */
+	public final String description;
+	public final List<String> notes;
+	/**
+	 * The height needed to draw the chart, or {@code null} if it can be given any height.
+	 */
+	public final Integer minHeight;
+	/**
+	 * The colour scale of {@link Kind#HEATMAP}, {@code null} otherwise.
+	 */
+	public final Scale scale;
+
+	public ChartData(Kind kind, String title, String xLabel, String yLabel, List<String> categories, List<String> rows,
+	                 List<Series> series, Options options) {
+		this.kind = kind;
+		this.title = title == null ? "" : title;
+		this.xLabel = xLabel == null ? "" : xLabel;
+		this.yLabel = yLabel == null ? "" : yLabel;
+		this.categories = Collections.unmodifiableList(new ArrayList<>(categories));
+		this.rows = Collections.unmodifiableList(new ArrayList<>(rows));
+		this.series = Collections.unmodifiableList(new ArrayList<>(series));
+
+		this.logScale = options.logScale;
+		this.horizontal = options.horizontal;
+		this.legend = options.legend;
+		this.integerDomain = options.integerDomain;
+		this.domainIncludesZero = options.domainIncludesZero;
+		this.rangeIncludesZero = options.rangeIncludesZero;
+		this.markers = Collections.unmodifiableList(new ArrayList<>(options.markers));
+		this.description = options.description;
+		this.notes = Collections.unmodifiableList(new ArrayList<>(options.notes));
+		this.minHeight = options.minHeight;
+		this.scale = options.scale;
+	}
+
+	/**
+	 * How a chart is drawn, besides its datasets.
+	 */
+	public static class Options {
+		/**
+		 * Whether the value axes are logarithmic.
+		 */
+		public boolean logScale = false;
+		public boolean horizontal = false;
+		public boolean legend = true;
+		/**
+		 * Whether the ticks of a numeric domain axis are integers.
+		 */
+		public boolean integerDomain = false;
+		public boolean domainIncludesZero = false;
+		public boolean rangeIncludesZero = true;
+		public List<Marker> markers = new ArrayList<>();
+		public String description = null;
+		public List<String> notes = new ArrayList<>();
+		public Integer minHeight = null;
+		public Scale scale = null;
+	}
+
+	public static class Series {
+		public final String name;
+		/**
+		 * Numeric x values, or category indexes. Missing values are {@code NaN}.
+		 */
+		public final double[] x;
+		public final double[] y;
+		/**
+		 * The bounds of the errors, the same as the values where there are none.
+		 */
+		public final double[] low;
+		public final double[] high;
+		/**
+		 * The cell values of {@link Kind#HEATMAP}, {@code null} otherwise.
+		 */
+		public final double[] z;
+		/**
+		 * The label of each item, or {@code null} if none has one. Items with no label have a {@code null} one.
+		 */
+		public final String[] labels;
+
+		public final boolean lines;
+		public final boolean shapes;
+		/**
+		 * The colour of the series, or {@code null} for the next one of the palette.
+		 */
+		public final Color color;
+		public final boolean dashed;
+
+		public Series(String name, double[] x, double[] y, double[] low, double[] high, String[] labels) {
+			this(name, x, y, low, high, null, labels, true, true, null, false);
+		}
+
+		public Series(String name, double[] x, double[] y, double[] low, double[] high, double[] z, String[] labels,
+		              boolean lines, boolean shapes, Color color, boolean dashed) {
+			this.name = name;
+			this.x = x;
+			this.y = y;
+			this.low = low;
+			this.high = high;
+			this.z = z;
+			this.labels = labels;
+			this.lines = lines;
+			this.shapes = shapes;
+			this.color = color;
+			this.dashed = dashed;
+		}
+
+		public boolean hasErrors() {
+			for (int i = 0; i < y.length; i++) {
+				if (Double.compare(low[i], y[i]) != 0 || Double.compare(high[i], y[i]) != 0) return true;
+			}
+			return false;
+		}
+	}
+
+	public static class Marker {
+		public final double value;
+		public final String label;
+		public final Color color;
+		public final boolean dashed;
+
+		public Marker(double value, String label, Color color, boolean dashed) {
+			this.value = value;
+			this.label = label;
+			this.color = color;
+			this.dashed = dashed;
+		}
+	}
+
+	/**
+	 * A colour gradient from {@code low} at the lower bound to {@code high} at the upper bound, through
+	 * {@code middle}.
+	 */
+	public static class Scale {
+		public final String label;
+		public final double lowerBound;
+		public final double upperBound;
+		public final Color low;
+		public final Color middle;
+		public final Color high;
+
+		public Scale(String label, double lowerBound, double upperBound, Color low, Color middle, Color high) {
+			this.label = label;
+			this.lowerBound = lowerBound;
+			this.upperBound = upperBound;
+			this.low = low;
+			this.middle = middle;
+			this.high = high;
+		}
+	}
+}
@@ -0,0 +1,20 @@
+package com.github.ptitjes.jmh.report.model;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * A format-neutral report, built once and rendered by any number of {@link com.github.ptitjes.jmh.report.format.ReportFormat}s,
+ * possibly concurrently.
+ *
+ * @author Didier Villevalois
+ */
+public class Report {
+
+	public final List<Chapter> chapters;
+
+	public Report(List<Chapter> chapters) {
+		this.chapters = Collections.unmodifiableList(new ArrayList<>(chapters));
+	}
+}
@@ -0,0 +1,59 @@
+package com.github.ptitjes.jmh.report.model;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * @author Didier Villevalois
+ */
+public class TableBlock implements Block {
+
+	public enum Alignment {
+		LEFT, CENTER, RIGHT
+	}
+
+	/**
+	 * Relative widths of the columns.
+	 */
+	private final float[] widths;
+	public final List<Cell> headers;
+	public final List<List<Cell>> rows;
+	public final List<String> notes;
+	private final boolean spaced;
+
+	public TableBlock(float[] widths, List<Cell> headers, List<List<Cell>> rows, List<String> notes, boolean spaced) {
+		this.widths = widths.clone();
+		this.headers = Collections.unmodifiableList(new ArrayList<>(headers));
+		List<List<Cell>> rowsCopy = new ArrayList<>();
+		for (List<Cell> row : rows) rowsCopy.add(Collections.unmodifiableList(new ArrayList<>(row)));
+		this.rows = Collections.unmodifiableList(rowsCopy);
+		this.notes = Collections.unmodifiableList(new ArrayList<>(notes));
+		this.spaced = spaced;
+	}
+
+	public float[] getWidths() {
+		return widths.clone();
+	}
+
+	@Override
+	public boolean isSpaced() {
+		return spaced;
+	}
+
+	public static class Cell {
+		public final String text;
+		public final Alignment alignment;
+		public final boolean highlighted;
+
+		public Cell(String text, Alignment alignment) {
+			this(text, alignment, false);
+		}
+
+		public Cell(String text, Alignment alignment, boolean highlighted) {
+			this.text = text;
+			this.alignment = alignment;
+			this.highlighted = highlighted;
+		}
+	}
+}
@@ -0,0 +1,39 @@
+package com.github.ptitjes.jmh.report.model;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Lines of text, each with an optional header.
+ *
+ * @author Didier Villevalois
+ */
+public class TextBlock implements Block {
+
+	public final List<Line> lines;
+	private final boolean spaced;
+
+	public TextBlock(List<Line> lines, boolean spaced) {
+		this.lines = Collections.unmodifiableList(new ArrayList<>(lines));
+		this.spaced = spaced;
+	}
+
+	@Override
+	public boolean isSpaced() {
+		return spaced;
+	}
+
+	public static class Line {
+		/**
+		 * The header of the line, empty if it has none.
+		 */
+		public final String header;
+		public final String content;
+
+		public Line(String header, String content) {
+			this.header = header;
+			this.content = content;
+		}
+	}
+}
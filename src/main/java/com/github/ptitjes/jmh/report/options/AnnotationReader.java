@@ -1,9 +1,14 @@
 package com.github.ptitjes.jmh.report.options;
 
+import com.github.ptitjes.jmh.report.annotations.Budget;
 import com.github.ptitjes.jmh.report.annotations.Filter;
+import com.github.ptitjes.jmh.report.annotations.Outliers;
 import com.github.ptitjes.jmh.report.annotations.Plot;
 import com.github.ptitjes.jmh.report.annotations.Report;
+import com.github.ptitjes.jmh.report.budget.BudgetConfiguration;
 import com.github.ptitjes.jmh.report.chart.PlotConfiguration;
+import com.github.ptitjes.jmh.report.stats.OutlierConfiguration;
+import org.openjdk.jmh.annotations.Group;
 
 import java.lang.reflect.Method;
 import java.util.ArrayList;
@@ -41,14 +46,82 @@ public class AnnotationReader {
 		return configurations;
 	}
 
+	public List<BudgetConfiguration> makeBudgetConfigurationsFor(String longMethodName) {
+		List<BudgetConfiguration> configurations = new ArrayList<>();
+
+		Report annotationForMethod = getAnnotationForMethod(longMethodName);
+		Report annotationForClass = getAnnotationForClass(classNameFor(longMethodName));
+
+		if (annotationForClass != null) {
+			for (Budget budget : annotationForClass.budgets()) {
+				configurations.add(buildBudgetConfiguration(budget));
+			}
+		}
+		if (annotationForMethod != null) {
+			for (Budget budget : annotationForMethod.budgets()) {
+				configurations.add(buildBudgetConfiguration(budget));
+			}
+		}
+		return configurations;
+	}
+
+	private BudgetConfiguration buildBudgetConfiguration(Budget budget) {
+		BudgetConfiguration configuration = new BudgetConfiguration();
+		configuration.paramFilters = buildPlotFilters(budget.filters());
+		configuration.max = budget.max();
+		configuration.min = budget.min();
+		configuration.maxRegression = budget.maxRegression();
+		configuration.confidence = budget.confidence();
+		return configuration;
+	}
+
+	public OutlierConfiguration makeOutlierConfigurationFor(String longMethodName) {
+		Report annotationForMethod = getAnnotationForMethod(longMethodName);
+		Report annotationForClass = getAnnotationForClass(classNameFor(longMethodName));
+
+		if (annotationForMethod != null && annotationForMethod.outliers().length > 0) {
+			return buildOutlierConfiguration(annotationForMethod.outliers());
+		}
+		if (annotationForClass != null && annotationForClass.outliers().length > 0) {
+			return buildOutlierConfiguration(annotationForClass.outliers());
+		}
+		return new OutlierConfiguration();
+	}
+
+	private OutlierConfiguration buildOutlierConfiguration(Outliers[] outliers) {
+		if (outliers.length > 1) throw new RuntimeException("At most one @Outliers is expected per @Report");
+		return buildOutlierConfiguration(outliers[0]);
+	}
+
+	private OutlierConfiguration buildOutlierConfiguration(Outliers outliers) {
+		OutlierConfiguration configuration = new OutlierConfiguration();
+		configuration.method = outliers.method();
+		configuration.threshold = outliers.threshold();
+		configuration.exclude = outliers.exclude();
+		return configuration;
+	}
+
 	private PlotConfiguration buildPlotConfigurations(Plot plot) {
 		PlotConfiguration configuration = new PlotConfiguration();
 		configuration.perParam = plot.perParam().isEmpty() ? null : plot.perParam();
 		configuration.paramFilters = buildPlotFilters(plot.filters());
 		configuration.axisParam = plot.axisParam().isEmpty() ? null : plot.axisParam();
+		configuration.yAxisParam = plot.yAxisParam().isEmpty() ? null : plot.yAxisParam();
+		if (!plot.baseline().isEmpty()) {
+			int index = plot.baseline().indexOf('=');
+			if (index < 0) throw new RuntimeException("Invalid baseline '" + plot.baseline() + "', expected 'param=value'");
+			configuration.baselineParam = plot.baseline().substring(0, index);
+			configuration.baselineValue = plot.baseline().substring(index + 1);
+		}
 		configuration.type = plot.type();
 		configuration.orientation = plot.orientation();
 		configuration.logScale = plot.logScale();
+		configuration.numericAxis = plot.numericAxis();
+		configuration.oversize = plot.oversize();
+		configuration.maxSeries = plot.maxSeries();
+		configuration.maxCategories = plot.maxCategories();
+		configuration.aggregateParam = plot.aggregateParam().isEmpty() ? null : plot.aggregateParam();
+		configuration.tierSignificance = plot.tierSignificance();
 		return configuration;
 	}
 
@@ -65,7 +138,7 @@ public class AnnotationReader {
 		return longMethodName.substring(0, index);
 	}
 
-	public static Report getAnnotationForClass(String className) {
+	public static synchronized Report getAnnotationForClass(String className) {
 		if (!perClassAnnotation.containsKey(className)) {
 			Report annotation = retrieveAnnotationForClass(className);
 			perClassAnnotation.put(className, annotation);
@@ -73,7 +146,7 @@ public class AnnotationReader {
 		return perClassAnnotation.get(className);
 	}
 
-	public static Report getAnnotationForMethod(String longMethodName) {
+	public static synchronized Report getAnnotationForMethod(String longMethodName) {
 		if (!perMethodAnnotation.containsKey(longMethodName)) {
 			Report annotation = retrieveAnnotationForMethod(longMethodName);
 			perMethodAnnotation.put(longMethodName, annotation);
@@ -102,6 +175,16 @@ public class AnnotationReader {
 					return declaredMethod.getAnnotation(Report.class);
 			}
 
+			// Asymmetric benchmarks are named after their group, any of its methods may hold the annotation
+			boolean isGroup = false;
+			for (Method declaredMethod : declaredMethods) {
+				Group group = declaredMethod.getAnnotation(Group.class);
+				if (group == null || !group.value().equals(methodName)) continue;
+				isGroup = true;
+				if (declaredMethod.getAnnotation(Report.class) != null) return declaredMethod.getAnnotation(Report.class);
+			}
+			if (isGroup) return null;
+
 			throw new RuntimeException("Can't retrieve method named '" + longMethodName + "'");
 		} catch (ClassNotFoundException e) {
 			throw new RuntimeException("Can't retrieve @Report annotation", e);
@@ -0,0 +1,89 @@
+package com.github.ptitjes.jmh.report.options;
+
+import com.github.ptitjes.jmh.report.budget.BudgetConfiguration;
+
+import java.io.BufferedReader;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.regex.Pattern;
+
+/**
+ * Reads budgets from a text file, one budget per line:
+ * <pre>
+ * # benchmark-regex [param=regex...] constraints...
+ * com\.acme\.ListBenchmark\.get  size=1000  &lt;= 120
+ * com\.acme\..*                  +5% @95%
+ * </pre>
+ * Constraints are {@code <= max}, {@code >= min}, {@code +regression%} and {@code @confidence%}.
+ *
+ * @author Didier Villevalois
+ */
+public class BudgetFileReader {
+
+	public List<BudgetConfiguration> readFrom(File file) throws IOException {
+		List<BudgetConfiguration> budgets = new ArrayList<>();
+
+		BufferedReader reader = new BufferedReader(new InputStreamReader(new FileInputStream(file), StandardCharsets.UTF_8));
+		try {
+			String line;
+			int lineNumber = 0;
+			while ((line = reader.readLine()) != null) {
+				lineNumber++;
+
+				int commentIndex = line.indexOf('#');
+				if (commentIndex >= 0) line = line.substring(0, commentIndex);
+				line = line.trim();
+				if (line.isEmpty()) continue;
+
+				try {
+					budgets.add(parseBudget(line.split("\\s+")));
+				} catch (IllegalArgumentException e) {
+					throw new IOException("Invalid budget at " + file + ":" + lineNumber + ": " + e.getMessage(), e);
+				}
+			}
+		} finally {
+			reader.close();
+		}
+		return budgets;
+	}
+
+	private BudgetConfiguration parseBudget(String[] tokens) {
+		BudgetConfiguration budget = new BudgetConfiguration();
+		budget.benchmarkPattern = Pattern.compile(tokens[0]);
+
+		boolean hasConstraint = false;
+		for (int i = 1; i < tokens.length; i++) {
+			String token = tokens[i];
+			if (token.startsWith("<=") || token.startsWith(">=")) {
+				String value = token.substring(2);
+				if (value.isEmpty()) {
+					if (i + 1 >= tokens.length) throw new IllegalArgumentException("missing value after '" + token + "'");
+					value = tokens[++i];
+				}
+				if (token.startsWith("<=")) budget.max = Double.parseDouble(value);
+				else budget.min = Double.parseDouble(value);
+				hasConstraint = true;
+			} else if (token.startsWith("+") && token.endsWith("%")) {
+				budget.maxRegression = Double.parseDouble(token.substring(1, token.length() - 1));
+				hasConstraint = true;
+			} else if (token.startsWith("@")) {
+				String value = token.substring(1);
+				budget.confidence = value.endsWith("%") ?
+						Double.parseDouble(value.substring(0, value.length() - 1)) / 100 : Double.parseDouble(value);
+			} else if (token.indexOf('=') > 0) {
+				int index = token.indexOf('=');
+				budget.paramFilters.put(token.substring(0, index), Pattern.compile(token.substring(index + 1)));
+			} else {
+				throw new IllegalArgumentException("unexpected '" + token + "'");
+			}
+		}
+
+		if (!hasConstraint) throw new IllegalArgumentException("no constraint");
+		return budget;
+	}
+}
@@ -0,0 +1,16 @@
+package com.github.ptitjes.jmh.report.options;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * A named set of JVM arguments appended to those of the forked JVMs, to run the same benchmarks under several
+ * configurations.
+ *
+ * @author Didier Villevalois
+ */
+public class JvmConfiguration {
+
+	public String name = null;
+	public List<String> jvmArgs = new ArrayList<>();
+}
@@ -0,0 +1,65 @@
+package com.github.ptitjes.jmh.report.options;
+
+import java.io.BufferedReader;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Reads JVM configurations from a text file, one configuration per line:
+ * <pre>
+ * # name  jvm-args...
+ * g1        -XX:+UseG1GC -Xmx2g
+ * parallel  -XX:+UseParallelGC -Xmx2g
+ * </pre>
+ * The first configuration is the reference that the others are compared to. Arguments are separated by spaces and
+ * cannot contain any.
+ *
+ * @author Didier Villevalois
+ */
+public class JvmConfigurationFileReader {
+
+	public List<JvmConfiguration> readFrom(File file) throws IOException {
+		List<JvmConfiguration> configurations = new ArrayList<>();
+		Set<String> names = new HashSet<>();
+
+		BufferedReader reader = new BufferedReader(new InputStreamReader(new FileInputStream(file), StandardCharsets.UTF_8));
+		try {
+			String line;
+			int lineNumber = 0;
+			while ((line = reader.readLine()) != null) {
+				lineNumber++;
+
+				int commentIndex = line.indexOf('#');
+				if (commentIndex >= 0) line = line.substring(0, commentIndex);
+				line = line.trim();
+				if (line.isEmpty()) continue;
+
+				String[] tokens = line.split("\\s+");
+				if (tokens[0].startsWith("-")) {
+					throw new IOException("Invalid JVM configuration at " + file + ":" + lineNumber + ": missing name");
+				}
+				if (!names.add(tokens[0])) {
+					throw new IOException("Invalid JVM configuration at " + file + ":" + lineNumber + ": duplicate name '" + tokens[0] + "'");
+				}
+
+				JvmConfiguration configuration = new JvmConfiguration();
+				configuration.name = tokens[0];
+				configuration.jvmArgs.addAll(Arrays.asList(tokens).subList(1, tokens.length));
+				configurations.add(configuration);
+			}
+		} finally {
+			reader.close();
+		}
+
+		if (configurations.isEmpty()) throw new IOException("No JVM configuration in " + file);
+		return configurations;
+	}
+}
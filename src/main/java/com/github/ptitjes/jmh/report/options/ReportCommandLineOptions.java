@@ -1,32 +1,165 @@
 package com.github.ptitjes.jmh.report.options;
 
+import com.github.ptitjes.jmh.report.data.ResultParsers;
 import joptsimple.OptionParser;
 import joptsimple.OptionSet;
 import joptsimple.OptionSpec;
-import joptsimple.ValueConverter;
 import joptsimple.util.RegexMatcher;
 import org.openjdk.jmh.util.Optional;
 
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
 /**
  * @author Didier Villevalois
  */
 public class ReportCommandLineOptions implements ReportOptions {
 
+	private static final Set<String> OPTION_NAMES = new HashSet<>(Arrays.asList(
+			"regenReport", "budgets", "baseline", "serve", "serveAddress", "serveCache", "resume",
+			"adaptive", "adaptiveBudget", "sample", "sampleSeed", "formats",
+			"noiseInterval", "threadGroups", "jvmConfigs"
+	));
+
+	// Options whose value can only be given as '-name=value'
+	private static final Set<String> OPTIONAL_VALUE_NAMES = new HashSet<>(Arrays.asList(
+			"resume"
+	));
+
 	private final OptionParser parser;
 	private final Optional<String> regenReport;
+	private final Optional<String> budgets;
+	private final Optional<String> baseline;
+	private final Optional<Integer> serve;
+	private final Optional<String> serveAddress;
+	private final Optional<Integer> serveCache;
+	private final Optional<String> resume;
+	private final Optional<Double> adaptive;
+	private final Optional<Integer> adaptiveBudget;
+	private final Optional<Integer> sample;
+	private final Optional<Long> sampleSeed;
+	private final Optional<String> formats;
+	private final Optional<Integer> noiseInterval;
+	private final Optional<List<int[]>> threadGroups;
+	private final Optional<String> jvmConfigs;
+	private final String[] jmhArgs;
 
 	public ReportCommandLineOptions(String[] args) {
 		parser = new OptionParser();
 
-		OptionSpec<String> regenReport = parser.accepts("regenReport", "Regenerate report from json result file.")
-				.withRequiredArg().withValuesConvertedBy(new RegexMatcher(".*\\.json", 0))
+		OptionSpec<String> regenReport = parser.accepts("regenReport", "Regenerate report from json, csv or scsv result file.")
+				.withRequiredArg().withValuesConvertedBy(new RegexMatcher(ResultParsers.RESULT_FILE_PATTERN, 0))
 				.describedAs("filename.json");
 
-		parser.allowsUnrecognizedOptions();
+		OptionSpec<String> budgets = parser.accepts("budgets", "Check results against the budgets declared in file.")
+				.withRequiredArg().describedAs("filename");
+
+		OptionSpec<String> baseline = parser.accepts("baseline", "Baseline result file for relative budgets.")
+				.withRequiredArg().withValuesConvertedBy(new RegexMatcher(ResultParsers.RESULT_FILE_PATTERN, 0))
+				.describedAs("filename.json");
+
+		OptionSpec<Integer> serve = parser.accepts("serve", "Serve reports of the results directory on port.")
+				.withRequiredArg().ofType(Integer.class)
+				.describedAs("port");
+
+		OptionSpec<String> serveAddress = parser.accepts("serveAddress", "Address the report server binds, instead of the loopback one.")
+				.withRequiredArg().describedAs("address");
+
+		OptionSpec<Integer> serveCache = parser.accepts("serveCache", "Size of the report server cache.")
+				.withRequiredArg().ofType(Integer.class)
+				.describedAs("megabytes");
+
+		OptionSpec<String> resume = parser.accepts("resume", "Resume an interrupted run from its checkpoint, the most recent one by default.")
+				.withOptionalArg().describedAs("filename.jsonl");
+
+		OptionSpec<Double> adaptive = parser.accepts("adaptive", "Add forks to each benchmark until the relative error of its score falls below target.")
+				.withRequiredArg().ofType(Double.class)
+				.describedAs("target");
+
+		OptionSpec<Integer> adaptiveBudget = parser.accepts("adaptiveBudget", "Maximum time spent on each benchmark in adaptive mode.")
+				.withRequiredArg().ofType(Integer.class)
+				.describedAs("seconds");
+
+		OptionSpec<Integer> sample = parser.accepts("sample", "Only run a Latin hypercube sample of the param combinations of each benchmark.")
+				.withRequiredArg().ofType(Integer.class)
+				.describedAs("count");
+
+		OptionSpec<Long> sampleSeed = parser.accepts("sampleSeed", "Seed of the param combination sample.")
+				.withRequiredArg().ofType(Long.class)
+				.describedAs("seed");
+
+		OptionSpec<String> formats = parser.accepts("formats", "Comma separated formats of the report, among pdf, html and md.")
+				.withRequiredArg().describedAs("pdf,html,md");
+
+		OptionSpec<Integer> noiseInterval = parser.accepts("noiseInterval", "Interval at which the system load is sampled during runs, 0 to disable.")
+				.withRequiredArg().ofType(Integer.class)
+				.describedAs("ms");
+
+		OptionSpec<String> threadGroups = parser.accepts("threadGroups", "Semicolon separated thread distributions to run asymmetric benchmarks with, one run each.")
+				.withRequiredArg().withValuesConvertedBy(new RegexMatcher("\\d+(,\\d+)*(;\\d+(,\\d+)*)*", 0))
+				.describedAs("1,7;4,4;7,1");
+
+		OptionSpec<String> jvmConfigs = parser.accepts("jvmConfigs", "Run the benchmarks under each of the named JVM configurations declared in file, and compare them.")
+				.withRequiredArg().describedAs("filename");
+
+		List<String> reportArgs = new ArrayList<>();
+		List<String> jmhArgs = new ArrayList<>();
+		splitArgs(args, reportArgs, jmhArgs);
 
-		OptionSet optionSet = parser.parse(args);
+		OptionSet optionSet = parser.parse(reportArgs.toArray(new String[reportArgs.size()]));
 
 		this.regenReport = toOptional(regenReport, optionSet);
+		this.budgets = toOptional(budgets, optionSet);
+		this.baseline = toOptional(baseline, optionSet);
+		this.serve = toOptional(serve, optionSet);
+		this.serveAddress = toOptional(serveAddress, optionSet);
+		this.serveCache = toOptional(serveCache, optionSet);
+		this.resume = optionSet.has(resume) ?
+				Optional.of(optionSet.hasArgument(resume) ? resume.value(optionSet) : "") : Optional.<String>none();
+		this.adaptive = toOptional(adaptive, optionSet);
+		this.adaptiveBudget = toOptional(adaptiveBudget, optionSet);
+		this.sample = toOptional(sample, optionSet);
+		this.sampleSeed = toOptional(sampleSeed, optionSet);
+		this.formats = toOptional(formats, optionSet);
+		this.noiseInterval = toOptional(noiseInterval, optionSet);
+		this.threadGroups = optionSet.has(threadGroups) ?
+				Optional.of(parseThreadGroups(threadGroups.value(optionSet))) : Optional.<List<int[]>>none();
+		this.jvmConfigs = toOptional(jvmConfigs, optionSet);
+		this.jmhArgs = jmhArgs.toArray(new String[jmhArgs.size()]);
+	}
+
+	/*
+	 * Only exact option names are recognized so that JMH options are never taken for abbreviations of ours
+	 * (for instance '-r' for '-regenReport').
+	 */
+	private static void splitArgs(String[] args, List<String> reportArgs, List<String> jmhArgs) {
+		for (int i = 0; i < args.length; i++) {
+			String arg = args[i];
+			String name = arg.replaceFirst("^--?", "");
+			int equalsIndex = name.indexOf('=');
+			if (equalsIndex >= 0) name = name.substring(0, equalsIndex);
+
+			if (arg.startsWith("-") && OPTION_NAMES.contains(name)) {
+				reportArgs.add(arg);
+				if (equalsIndex < 0 && i + 1 < args.length && !OPTIONAL_VALUE_NAMES.contains(name)) reportArgs.add(args[++i]);
+			} else {
+				jmhArgs.add(arg);
+			}
+		}
+	}
+
+	private static List<int[]> parseThreadGroups(String value) {
+		List<int[]> distributions = new ArrayList<>();
+		for (String distribution : value.split(";")) {
+			String[] counts = distribution.split(",");
+			int[] threadGroups = new int[counts.length];
+			for (int i = 0; i < counts.length; i++) threadGroups[i] = Integer.parseInt(counts[i]);
+			distributions.add(threadGroups);
+		}
+		return distributions;
 	}
 
 	private static <T> Optional<T> toOptional(OptionSpec<T> option, OptionSet set) {
@@ -40,4 +173,79 @@ public class ReportCommandLineOptions implements ReportOptions {
 	public Optional<String> getRegenReport() {
 		return regenReport;
 	}
+
+	@Override
+	public Optional<String> getBudgets() {
+		return budgets;
+	}
+
+	@Override
+	public Optional<String> getBaseline() {
+		return baseline;
+	}
+
+	@Override
+	public Optional<Integer> getServe() {
+		return serve;
+	}
+
+	@Override
+	public Optional<String> getServeAddress() {
+		return serveAddress;
+	}
+
+	@Override
+	public Optional<Integer> getServeCache() {
+		return serveCache;
+	}
+
+	@Override
+	public Optional<String> getResume() {
+		return resume;
+	}
+
+	@Override
+	public Optional<Double> getAdaptive() {
+		return adaptive;
+	}
+
+	@Override
+	public Optional<Integer> getAdaptiveBudget() {
+		return adaptiveBudget;
+	}
+
+	@Override
+	public Optional<Integer> getSample() {
+		return sample;
+	}
+
+	@Override
+	public Optional<Long> getSampleSeed() {
+		return sampleSeed;
+	}
+
+	@Override
+	public Optional<String> getFormats() {
+		return formats;
+	}
+
+	@Override
+	public Optional<Integer> getNoiseInterval() {
+		return noiseInterval;
+	}
+
+	@Override
+	public Optional<List<int[]>> getThreadGroups() {
+		return threadGroups;
+	}
+
+	@Override
+	public Optional<String> getJvmConfigs() {
+		return jvmConfigs;
+	}
+
+	@Override
+	public String[] getJmhArgs() {
+		return jmhArgs;
+	}
 }
@@ -2,10 +2,57 @@ package com.github.ptitjes.jmh.report.options;
 
 import org.openjdk.jmh.util.Optional;
 
+import java.util.List;
+
 /**
  * @author Didier Villevalois
  */
 public interface ReportOptions {
 
 	Optional<String> getRegenReport();
+
+	Optional<String> getBudgets();
+
+	Optional<String> getBaseline();
+
+	Optional<Integer> getServe();
+
+	/**
+	 * The address the report server binds, the loopback one by default.
+	 */
+	Optional<String> getServeAddress();
+
+	Optional<Integer> getServeCache();
+
+	/**
+	 * The checkpoint file to resume from, empty for the most recent one.
+	 */
+	Optional<String> getResume();
+
+	Optional<Double> getAdaptive();
+
+	Optional<Integer> getAdaptiveBudget();
+
+	Optional<Integer> getSample();
+
+	/**
+	 * The seed of the sample, which must be the same to resume a sampled run.
+	 */
+	Optional<Long> getSampleSeed();
+
+	Optional<String> getFormats();
+
+	Optional<Integer> getNoiseInterval();
+
+	/**
+	 * The thread distributions among the subgroups of {@code @Group} benchmarks, each of which gets its own run.
+	 */
+	Optional<List<int[]>> getThreadGroups();
+
+	/**
+	 * The file of the JVM configurations to run the benchmarks under, each of which gets its own run.
+	 */
+	Optional<String> getJvmConfigs();
+
+	String[] getJmhArgs();
 }
@@ -0,0 +1,104 @@
+package com.github.ptitjes.jmh.report.server;
+
+import java.io.IOException;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.FutureTask;
+
+/**
+ * A least-recently-used cache bounded by the estimated size of its values. Concurrent loads of the same key are
+ * done only once, other callers waiting for the loading one.
+ *
+ * @author Didier Villevalois
+ */
+public class ByteBudgetCache<K, V> {
+
+	public interface Weigher<V> {
+		long weigh(V value);
+	}
+
+	private final long budget;
+	private final Weigher<? super V> weigher;
+
+	private final LinkedHashMap<K, Entry<V>> entries = new LinkedHashMap<>(16, 0.75f, true);
+	private final Map<K, FutureTask<V>> loadings = new HashMap<>();
+	private long size = 0;
+
+	public ByteBudgetCache(long budget, Weigher<? super V> weigher) {
+		this.budget = budget;
+		this.weigher = weigher;
+	}
+
+	public V getOrLoad(K key, Callable<V> loader) throws IOException {
+		FutureTask<V> loading;
+		boolean loads = false;
+		synchronized (this) {
+			Entry<V> entry = entries.get(key);
+			if (entry != null) return entry.value;
+
+			loading = loadings.get(key);
+			if (loading == null) {
+				loading = new FutureTask<>(loader);
+				loadings.put(key, loading);
+				loads = true;
+			}
+		}
+
+		if (loads) loading.run();
+
+		try {
+			V value = loading.get();
+			if (loads) put(key, value);
+			return value;
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			throw new IOException(e);
+		} catch (ExecutionException e) {
+			Throwable cause = e.getCause();
+			if (cause instanceof IOException) throw (IOException) cause;
+			if (cause instanceof RuntimeException) throw (RuntimeException) cause;
+			throw new IOException(cause);
+		} finally {
+			if (loads) {
+				synchronized (this) {
+					loadings.remove(key);
+				}
+			}
+		}
+	}
+
+	private synchronized void put(K key, V value) {
+		long weight = weigher.weigh(value);
+		// Values bigger than the whole budget are served but not retained
+		if (weight > budget) return;
+
+		Entry<V> previous = entries.put(key, new Entry<>(value, weight));
+		if (previous != null) size -= previous.weight;
+		size += weight;
+
+		Iterator<Entry<V>> iterator = entries.values().iterator();
+		while (size > budget && iterator.hasNext()) {
+			Entry<V> eldest = iterator.next();
+			iterator.remove();
+			size -= eldest.weight;
+		}
+	}
+
+	public synchronized long size() {
+		return size;
+	}
+
+	private static class Entry<V> {
+		final V value;
+		final long weight;
+
+		Entry(V value, long weight) {
+			this.value = value;
+			this.weight = weight;
+		}
+	}
+}
@@ -0,0 +1,447 @@
+package com.github.ptitjes.jmh.report.server;
+
+import com.github.ptitjes.jmh.report.ReportGenerator;
+import com.github.ptitjes.jmh.report.chart.ChartGenerator;
+import com.github.ptitjes.jmh.report.chart.ChartRenderer;
+import com.github.ptitjes.jmh.report.chart.PlotConfiguration;
+import com.github.ptitjes.jmh.report.data.BenchmarkResultData;
+import com.github.ptitjes.jmh.report.data.PartitionIndex;
+import com.github.ptitjes.jmh.report.data.ResultParsers;
+import com.github.ptitjes.jmh.report.data.RunResultData;
+import com.github.ptitjes.jmh.report.env.Environment;
+import com.github.ptitjes.jmh.report.format.PdfFormat;
+import com.github.ptitjes.jmh.report.format.RenderingConfiguration;
+import com.github.ptitjes.jmh.report.model.ChartData;
+import com.github.ptitjes.jmh.report.options.AnnotationReader;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpHandler;
+import com.sun.net.httpserver.HttpServer;
+import org.jfree.chart.ChartUtilities;
+import org.jfree.graphics2d.svg.SVGGraphics2D;
+
+import java.awt.geom.Rectangle2D;
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.FileFilter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.URLDecoder;
+import java.net.URLEncoder;
+import java.nio.charset.StandardCharsets;
+import java.util.*;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Serves the result files of a directory, rendering reports, chapters and charts on demand. Parsed results and
+ * rendered documents are kept in a shared cache bounded by their estimated size in bytes.
+ *
+ * @author Didier Villevalois
+ */
+public class ReportServer {
+
+	public static final long DEFAULT_CACHE_SIZE = 256L * 1024 * 1024;
+
+	private static final int DEFAULT_WIDTH = 800;
+	private static final int DEFAULT_HEIGHT = 600;
+	/**
+	 * The largest width or height of charts, which bounds the memory their rasters take.
+	 */
+	private static final int MAX_SIZE = 4096;
+
+	private final File resultsDirectory;
+	private final RenderingConfiguration renderingConfiguration = new RenderingConfiguration();
+	private final AnnotationReader annotationReader = new AnnotationReader();
+	private final ByteBudgetCache<String, Object> cache;
+
+	private HttpServer server;
+	private ExecutorService executor;
+
+	public ReportServer(File resultsDirectory, long cacheSize) {
+		this.resultsDirectory = resultsDirectory;
+		this.cache = new ByteBudgetCache<>(cacheSize, new ByteBudgetCache.Weigher<Object>() {
+			@Override
+			public long weigh(Object value) {
+				return value instanceof byte[] ? ((byte[]) value).length : weighResults((List<?>) value);
+			}
+		});
+	}
+
+	/**
+	 * Starts the server on the loopback address, so that it is only reachable locally.
+	 */
+	public void start(int port) throws IOException {
+		start(InetAddress.getLoopbackAddress(), port);
+	}
+
+	public void start(InetAddress address, int port) throws IOException {
+		executor = Executors.newFixedThreadPool(Runtime.getRuntime().availableProcessors());
+
+		server = HttpServer.create(new InetSocketAddress(address, port), 0);
+		server.createContext("/", new Handler() {
+			@Override
+			protected void handle(HttpExchange exchange, Map<String, String> query) throws IOException {
+				if (!exchange.getRequestURI().getPath().equals("/")) {
+					sendError(exchange, 404, "Not found");
+					return;
+				}
+				sendHtml(exchange, makeIndexPage());
+			}
+		});
+		server.createContext("/results", new Handler() {
+			@Override
+			protected void handle(HttpExchange exchange, Map<String, String> query) throws IOException {
+				String filename = query.get("file");
+				sendHtml(exchange, makeResultsPage(filename, loadResults(filename)));
+			}
+		});
+		server.createContext("/report", new Handler() {
+			@Override
+			protected void handle(HttpExchange exchange, Map<String, String> query) throws IOException {
+				String filename = query.get("file");
+				sendBytes(exchange, "application/pdf", renderReport(filename, null));
+			}
+		});
+		server.createContext("/chapter", new Handler() {
+			@Override
+			protected void handle(HttpExchange exchange, Map<String, String> query) throws IOException {
+				String filename = query.get("file");
+				sendBytes(exchange, "application/pdf", renderReport(filename, required(query, "benchmark")));
+			}
+		});
+		server.createContext("/chart", new Handler() {
+			@Override
+			protected void handle(HttpExchange exchange, Map<String, String> query) throws IOException {
+				ChartRequest request = new ChartRequest(query);
+				sendBytes(exchange, request.format.contentType, renderChart(request));
+			}
+		});
+		server.setExecutor(executor);
+		server.start();
+	}
+
+	public void stop() {
+		server.stop(0);
+		executor.shutdown();
+	}
+
+	private List<BenchmarkResultData> loadResults(String filename) throws IOException {
+		final File file = resolveResultFile(filename);
+		String key = "results:" + fileKey(file);
+
+		@SuppressWarnings("unchecked")
+		List<BenchmarkResultData> results = (List<BenchmarkResultData>) cache.getOrLoad(key, new Callable<Object>() {
+			@Override
+			public Object call() throws Exception {
+				List<RunResultData> allRunResultData = ResultParsers.forFile(file).parseFrom(file);
+				ReportGenerator reportGenerator = new ReportGenerator();
+				List<BenchmarkResultData> benchmarkResults = reportGenerator.makeBenchmarkResults(allRunResultData);
+				if (ReportGenerator.isSampled(reportGenerator.readEnvironments(file.getPath()))) {
+					reportGenerator.interpolate(benchmarkResults);
+				}
+				return benchmarkResults;
+			}
+		});
+		return results;
+	}
+
+	private byte[] renderReport(final String filename, final String benchmark) throws IOException {
+		final List<BenchmarkResultData> results = loadResults(filename);
+		final File file = resolveResultFile(filename);
+		String key = "report:" + fileKey(file) + ":" + benchmark;
+
+		return (byte[]) cache.getOrLoad(key, new Callable<Object>() {
+			@Override
+			public Object call() throws Exception {
+				List<BenchmarkResultData> selected = results;
+				List<Environment> environments = new ReportGenerator().readEnvironments(file.getPath());
+				if (benchmark != null) {
+					selected = Collections.singletonList(findBenchmark(results, benchmark));
+					environments = Collections.emptyList();
+				}
+
+				ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+				new PdfFormat(renderingConfiguration).makeReport(outputStream, selected, environments);
+				return outputStream.toByteArray();
+			}
+		});
+	}
+
+	private byte[] renderChart(final ChartRequest request) throws IOException {
+		final List<BenchmarkResultData> results = loadResults(request.filename);
+		File file = resolveResultFile(request.filename);
+		String key = "chart:" + fileKey(file) + ":" + request;
+
+		return (byte[]) cache.getOrLoad(key, new Callable<Object>() {
+			@Override
+			public Object call() throws Exception {
+				BenchmarkResultData benchmarkResult = findBenchmark(results, request.benchmark);
+
+				List<PlotConfiguration> configurations = annotationReader.makePlotConfigurationsFor(request.benchmark);
+				if (request.plot < 0 || request.plot >= configurations.size()) {
+					throw new IllegalArgumentException("No plot " + request.plot + " for " + request.benchmark);
+				}
+				PlotConfiguration configuration = configurations.get(request.plot);
+				String partitionValue = configuration.perParam != null ? request.value : null;
+
+				List<ChartData> charts = new ChartGenerator(renderingConfiguration, configuration, partitionValue)
+						.generateCharts(request.value, benchmarkResult);
+				if (request.page < 0 || request.page >= charts.size()) {
+					throw new IllegalArgumentException("No page " + request.page + " of plot " + request.plot + " for " + request.benchmark);
+				}
+				ChartData chart = charts.get(request.page);
+
+				Integer minHeight = chart.minHeight;
+				int width = request.width;
+				int height = request.height > 0 ? request.height : minHeight != null ? Math.min(minHeight, MAX_SIZE) : DEFAULT_HEIGHT;
+
+				ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+				switch (request.format) {
+					case PNG:
+						ChartUtilities.writeChartAsPNG(outputStream, new ChartRenderer(renderingConfiguration).render(chart), width, height);
+						break;
+					case SVG:
+						SVGGraphics2D graphics2d = new SVGGraphics2D(width, height);
+						new ChartRenderer(renderingConfiguration).render(chart).draw(graphics2d, new Rectangle2D.Double(0, 0, width, height));
+						outputStream.write(graphics2d.getSVGDocument().getBytes(StandardCharsets.UTF_8));
+						break;
+					case PDF:
+						new PdfFormat(renderingConfiguration).writeChart(outputStream, chart, width, height);
+						break;
+				}
+				return outputStream.toByteArray();
+			}
+		});
+	}
+
+	/**
+	 * Identifies a version of a result file, which is rewritten in place while a run checkpoints it.
+	 */
+	private static String fileKey(File file) {
+		return file.getPath() + ":" + file.lastModified() + ":" + file.length();
+	}
+
+	private File resolveResultFile(String filename) throws IOException {
+		if (filename == null) throw new IllegalArgumentException("Missing result file name");
+
+		File directory = resultsDirectory.getCanonicalFile();
+		File file = new File(directory, filename).getCanonicalFile();
+		if (!directory.equals(file.getParentFile()) || !file.isFile()) {
+			throw new IllegalArgumentException("No such result file: " + filename);
+		}
+		return file;
+	}
+
+	private static BenchmarkResultData findBenchmark(List<BenchmarkResultData> results, String benchmark) {
+		for (BenchmarkResultData result : results) {
+			if (result.longName.equals(benchmark)) return result;
+		}
+		throw new IllegalArgumentException("No such benchmark: " + benchmark);
+	}
+
+	private static long weighResults(List<?> results) {
+		long weight = 0;
+		for (Object result : results) {
+			for (RunResultData resultData : ((BenchmarkResultData) result).perParamsResults) {
+				weight += 1024;
+				for (double[] forkData : resultData.primaryResults.rawData) weight += 16 + 9L * forkData.length;
+			}
+		}
+		return weight;
+	}
+
+	private String makeIndexPage() {
+		File[] files = resultsDirectory.listFiles(new FileFilter() {
+			@Override
+			public boolean accept(File file) {
+				return file.isFile() && file.getName().matches(ResultParsers.RESULT_FILE_PATTERN);
+			}
+		});
+		if (files == null) files = new File[0];
+		Arrays.sort(files, new Comparator<File>() {
+			@Override
+			public int compare(File f1, File f2) {
+				return f2.getName().compareTo(f1.getName());
+			}
+		});
+
+		StringBuilder page = new StringBuilder();
+		page.append("<h1>Results</h1>\n<ul>\n");
+		for (File file : files) {
+			String name = file.getName();
+			page.append("<li><a href=\"/results?file=").append(encode(name)).append("\">").append(escape(name))
+					.append("</a> (<a href=\"/report?file=").append(encode(name)).append("\">pdf</a>)</li>\n");
+		}
+		page.append("</ul>\n");
+		return page.toString();
+	}
+
+	private String makeResultsPage(String filename, List<BenchmarkResultData> results) {
+		StringBuilder page = new StringBuilder();
+		page.append("<h1>").append(escape(filename)).append("</h1>\n");
+
+		String fileQuery = "file=" + encode(filename);
+		for (BenchmarkResultData result : results) {
+			String benchmarkQuery = fileQuery + "&benchmark=" + encode(result.longName);
+			page.append("<h2>").append(escape(result.longName))
+					.append(" (<a href=\"/chapter?").append(benchmarkQuery).append("\">pdf</a>)</h2>\n");
+
+			List<PlotConfiguration> configurations = annotationReader.makePlotConfigurationsFor(result.longName);
+			for (int i = 0; i < configurations.size(); i++) {
+				PlotConfiguration configuration = configurations.get(i);
+				String plotQuery = benchmarkQuery + "&plot=" + i;
+				if (configuration.perParam != null) {
+					for (String value : PartitionIndex.of(result).valuesOf(configuration.perParam)) {
+						appendCharts(page, plotQuery + "&value=" + encode(value), result, configuration, value);
+					}
+				} else {
+					appendCharts(page, plotQuery, result, configuration, null);
+				}
+			}
+		}
+		return page.toString();
+	}
+
+	private void appendCharts(StringBuilder page, String plotQuery, BenchmarkResultData result,
+	                          PlotConfiguration configuration, String partitionValue) {
+		// Charts are only planned here, and drawn when requested
+		int pageCount = new ChartGenerator(renderingConfiguration, configuration, partitionValue)
+				.generateCharts(null, result).size();
+		for (int i = 0; i < pageCount; i++) {
+			appendChart(page, i == 0 ? plotQuery : plotQuery + "&page=" + i);
+		}
+	}
+
+	private static void appendChart(StringBuilder page, String chartQuery) {
+		page.append("<p><img src=\"/chart?").append(chartQuery).append("\"><br>")
+				.append("<a href=\"/chart?").append(chartQuery).append("&format=svg\">svg</a> ")
+				.append("<a href=\"/chart?").append(chartQuery).append("&format=pdf\">pdf</a></p>\n");
+	}
+
+	private static String required(Map<String, String> query, String name) {
+		String value = query.get(name);
+		if (value == null) throw new IllegalArgumentException("Missing parameter: " + name);
+		return value;
+	}
+
+	private static String encode(String value) {
+		try {
+			return URLEncoder.encode(value, "UTF-8");
+		} catch (IOException e) {
+			throw new IllegalStateException(e);
+		}
+	}
+
+	private static String escape(String value) {
+		return value.replace("&", "&amp;").replace("<", "&lt;").replace(">", "&gt;").replace("\"", "&quot;");
+	}
+
+	private enum ChartFormat {
+		PNG("image/png"),
+		SVG("image/svg+xml"),
+		PDF("application/pdf"),;
+
+		final String contentType;
+
+		ChartFormat(String contentType) {
+			this.contentType = contentType;
+		}
+	}
+
+	private static class ChartRequest {
+		final String filename;
+		final String benchmark;
+		final int plot;
+		final String value;
+		final int page;
+		final ChartFormat format;
+		final int width;
+		final int height;
+
+		ChartRequest(Map<String, String> query) {
+			filename = required(query, "file");
+			benchmark = required(query, "benchmark");
+			plot = query.containsKey("plot") ? Integer.parseInt(query.get("plot")) : 0;
+			value = query.get("value");
+			page = query.containsKey("page") ? Integer.parseInt(query.get("page")) : 0;
+			format = query.containsKey("format") ?
+					ChartFormat.valueOf(query.get("format").toUpperCase()) : ChartFormat.PNG;
+			width = query.containsKey("width") ? size(query, "width") : DEFAULT_WIDTH;
+			height = query.containsKey("height") ? size(query, "height") : 0;
+		}
+
+		private static int size(Map<String, String> query, String name) {
+			int size = Integer.parseInt(query.get(name));
+			if (size <= 0) throw new IllegalArgumentException("Invalid " + name + ": " + size);
+			return Math.min(size, MAX_SIZE);
+		}
+
+		@Override
+		public String toString() {
+			return benchmark + ":" + plot + ":" + value + ":" + page + ":" + format + ":" + width + "x" + height;
+		}
+	}
+
+	private static abstract class Handler implements HttpHandler {
+
+		@Override
+		public void handle(HttpExchange exchange) throws IOException {
+			try {
+				if (!exchange.getRequestMethod().equals("GET")) {
+					sendError(exchange, 405, "Method not allowed");
+					return;
+				}
+				handle(exchange, parseQuery(exchange.getRequestURI().getRawQuery()));
+			} catch (IllegalArgumentException e) {
+				sendError(exchange, 400, e.getMessage());
+			} catch (Exception e) {
+				e.printStackTrace();
+				sendError(exchange, 500, String.valueOf(e.getMessage()));
+			} finally {
+				exchange.close();
+			}
+		}
+
+		protected abstract void handle(HttpExchange exchange, Map<String, String> query) throws IOException;
+
+		private static Map<String, String> parseQuery(String rawQuery) throws IOException {
+			Map<String, String> query = new HashMap<>();
+			if (rawQuery == null) return query;
+
+			for (String pair : rawQuery.split("&")) {
+				if (pair.isEmpty()) continue;
+				int index = pair.indexOf('=');
+				String name = URLDecoder.decode(index < 0 ? pair : pair.substring(0, index), "UTF-8");
+				String value = index < 0 ? "" : URLDecoder.decode(pair.substring(index + 1), "UTF-8");
+				query.put(name, value);
+			}
+			return query;
+		}
+	}
+
+	private static void sendHtml(HttpExchange exchange, String body) throws IOException {
+		String page = "<!DOCTYPE html>\n<html><head><meta charset=\"utf-8\"><title>JMH Reports</title></head><body>\n" +
+				body + "</body></html>\n";
+		sendBytes(exchange, "text/html; charset=utf-8", page.getBytes(StandardCharsets.UTF_8));
+	}
+
+	private static void sendError(HttpExchange exchange, int code, String message) throws IOException {
+		byte[] bytes = message.getBytes(StandardCharsets.UTF_8);
+		exchange.getResponseHeaders().set("Content-Type", "text/plain; charset=utf-8");
+		exchange.sendResponseHeaders(code, bytes.length);
+		OutputStream body = exchange.getResponseBody();
+		body.write(bytes);
+		body.close();
+	}
+
+	private static void sendBytes(HttpExchange exchange, String contentType, byte[] bytes) throws IOException {
+		exchange.getResponseHeaders().set("Content-Type", contentType);
+		exchange.sendResponseHeaders(200, bytes.length);
+		OutputStream body = exchange.getResponseBody();
+		body.write(bytes);
+		body.close();
+	}
+}
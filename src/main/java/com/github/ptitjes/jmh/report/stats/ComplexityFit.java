@@ -0,0 +1,111 @@
+package com.github.ptitjes.jmh.report.stats;
+
+/**
+ * Fits {@code cost(n) = c * f(n)} for a few usual complexity classes and keeps the one with the lowest relative
+ * root-mean-square error. Relative errors are used so that large sizes don't dominate the fit.
+ *
+ * @author Didier Villevalois
+ */
+public class ComplexityFit {
+
+	public enum Model {
+		CONSTANT("O(1)", "") {
+			@Override
+			public double apply(double n) {
+				return 1;
+			}
+		},
+		LOGARITHMIC("O(log n)", "log n") {
+			@Override
+			public double apply(double n) {
+				return log2(n);
+			}
+		},
+		LINEAR("O(n)", "n") {
+			@Override
+			public double apply(double n) {
+				return n;
+			}
+		},
+		LINEARITHMIC("O(n log n)", "n log n") {
+			@Override
+			public double apply(double n) {
+				return n * log2(n);
+			}
+		},
+		QUADRATIC("O(n²)", "n²") {
+			@Override
+			public double apply(double n) {
+				return n * n;
+			}
+		},;
+
+		public final String label;
+		public final String term;
+
+		Model(String label, String term) {
+			this.label = label;
+			this.term = term;
+		}
+
+		public abstract double apply(double n);
+
+		// Sizes below 2 are clamped so that logarithmic terms stay positive
+		private static double log2(double n) {
+			return Math.log(Math.max(n, 2)) / Math.log(2);
+		}
+	}
+
+	public final Model model;
+	public final double coefficient;
+	public final double relativeError;
+
+	private ComplexityFit(Model model, double coefficient, double relativeError) {
+		this.model = model;
+		this.coefficient = coefficient;
+		this.relativeError = relativeError;
+	}
+
+	public static ComplexityFit fit(Model model, double[] sizes, double[] costs, int length) {
+		// Minimizes sum(((y - c f) / y)^2), that is c = sum(f / y) / sum((f / y)^2)
+		double sumRatio = 0, sumSquaredRatio = 0;
+		for (int i = 0; i < length; i++) {
+			double ratio = model.apply(sizes[i]) / costs[i];
+			sumRatio += ratio;
+			sumSquaredRatio += ratio * ratio;
+		}
+		double coefficient = sumRatio / sumSquaredRatio;
+
+		double sumSquaredError = 0;
+		for (int i = 0; i < length; i++) {
+			double error = 1 - coefficient * model.apply(sizes[i]) / costs[i];
+			sumSquaredError += error * error;
+		}
+		return new ComplexityFit(model, coefficient, Math.sqrt(sumSquaredError / length));
+	}
+
+	/**
+	 * Returns the best fitting model, or {@code null} if there are less than three points or some non-positive
+	 * costs.
+	 */
+	public static ComplexityFit bestFit(double[] sizes, double[] costs, int length) {
+		if (length < 3) return null;
+		for (int i = 0; i < length; i++) {
+			if (!(costs[i] > 0)) return null;
+		}
+
+		ComplexityFit best = null;
+		for (Model model : Model.values()) {
+			ComplexityFit fit = fit(model, sizes, costs, length);
+			if (best == null || fit.relativeError < best.relativeError) best = fit;
+		}
+		return best;
+	}
+
+	@Override
+	public String toString() {
+		String constant = String.format("%.4g", coefficient);
+		return model.label + " ~ " + (model.term.isEmpty() ? constant : constant + " · " + model.term) +
+				String.format(" (rms error %.1f%%)", relativeError * 100);
+	}
+}
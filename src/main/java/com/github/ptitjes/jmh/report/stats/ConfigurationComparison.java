@@ -0,0 +1,107 @@
+package com.github.ptitjes.jmh.report.stats;
+
+import com.github.ptitjes.jmh.report.data.BenchmarkResultData;
+import com.github.ptitjes.jmh.report.data.RunResultData;
+import org.openjdk.jmh.infra.BenchmarkParams;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Compares the scores of a benchmark run under several JVM configurations to those of the first configuration, the
+ * reference, for the same params and threads.
+ *
+ * @author Didier Villevalois
+ */
+public class ConfigurationComparison {
+
+	public static class Summary {
+		public final String configuration;
+		public final int count;
+		/**
+		 * The geometric mean of the score ratios to the reference, minus one.
+		 */
+		public final double meanDelta;
+		public final double minDelta;
+		public final double maxDelta;
+
+		public Summary(String configuration, int count, double meanDelta, double minDelta, double maxDelta) {
+			this.configuration = configuration;
+			this.count = count;
+			this.meanDelta = meanDelta;
+			this.minDelta = minDelta;
+			this.maxDelta = maxDelta;
+		}
+	}
+
+	/**
+	 * Returns the relative difference of each score to the score of the reference configuration, parallel to the
+	 * results of the benchmark. It is {@code NaN} for the reference itself and for results the reference has no
+	 * counterpart of. The deltas are computed once per benchmark and shared, so they must not be modified.
+	 */
+	public double[] relativeDeltas(BenchmarkResultData benchmarkResult) {
+		synchronized (benchmarkResult) {
+			if (benchmarkResult.relativeDeltas == null) benchmarkResult.relativeDeltas = computeRelativeDeltas(benchmarkResult);
+			return benchmarkResult.relativeDeltas;
+		}
+	}
+
+	private double[] computeRelativeDeltas(BenchmarkResultData benchmarkResult) {
+		List<RunResultData> results = benchmarkResult.perParamsResults;
+		double[] deltas = new double[results.size()];
+		Arrays.fill(deltas, Double.NaN);
+		if (benchmarkResult.configurations == null || benchmarkResult.configurations.size() < 2) return deltas;
+
+		String reference = benchmarkResult.configurations.get(0);
+		List<String> paramKeys = new ArrayList<>(benchmarkResult.paramKeys);
+		paramKeys.remove(RunResultData.CONFIGURATION_PARAM);
+
+		Map<String, Double> referenceScores = new HashMap<>();
+		for (RunResultData resultData : results) {
+			if (reference.equals(resultData.configuration)) {
+				referenceScores.put(keyOf(paramKeys, resultData.params), resultData.primaryResults.score);
+			}
+		}
+
+		for (int i = 0; i < deltas.length; i++) {
+			RunResultData resultData = results.get(i);
+			if (resultData.configuration == null || reference.equals(resultData.configuration)) continue;
+
+			Double referenceScore = referenceScores.get(keyOf(paramKeys, resultData.params));
+			if (referenceScore != null && referenceScore != 0) deltas[i] = resultData.primaryResults.score / referenceScore - 1;
+		}
+		return deltas;
+	}
+
+	/**
+	 * Summarizes the relative deltas of each configuration but the reference.
+	 */
+	public List<Summary> summarize(BenchmarkResultData benchmarkResult, double[] deltas) {
+		List<Summary> summaries = new ArrayList<>();
+		if (benchmarkResult.configurations == null) return summaries;
+
+		List<RunResultData> results = benchmarkResult.perParamsResults;
+		for (String configuration : benchmarkResult.configurations.subList(1, benchmarkResult.configurations.size())) {
+			int count = 0;
+			double logSum = 0, min = Double.NaN, max = Double.NaN;
+			for (int i = 0; i < deltas.length; i++) {
+				if (Double.isNaN(deltas[i]) || !configuration.equals(results.get(i).configuration)) continue;
+
+				count++;
+				logSum += Math.log1p(deltas[i]);
+				min = Double.isNaN(min) ? deltas[i] : Math.min(min, deltas[i]);
+				max = Double.isNaN(max) ? deltas[i] : Math.max(max, deltas[i]);
+			}
+			if (count > 0) summaries.add(new Summary(configuration, count, Math.expm1(logSum / count), min, max));
+		}
+		return summaries;
+	}
+
+	private static String keyOf(List<String> paramKeys, BenchmarkParams params) {
+		return ScalingAnalysis.groupLabel(paramKeys, params) + "/" + params.getThreads() + "/" +
+				Arrays.toString(params.getThreadGroups());
+	}
+}
@@ -0,0 +1,178 @@
+package com.github.ptitjes.jmh.report.stats;
+
+import com.github.ptitjes.jmh.report.data.BenchmarkParamsFactory;
+import com.github.ptitjes.jmh.report.data.RunResultData;
+import org.openjdk.jmh.infra.BenchmarkParams;
+
+import java.util.*;
+
+/**
+ * Estimates the scores of the param combinations that were not measured in a sampled run, by inverse distance
+ * weighting of the nearest measured combinations. Numeric params are compared by the rank of their values, other
+ * params are either equal or not.
+ *
+ * @author Didier Villevalois
+ */
+public class GridInterpolator {
+
+	public static final int NEIGHBOURS = 4;
+
+	/**
+	 * Returns an estimate, with no raw data, for each missing combination of the param values observed among the
+	 * results of a benchmark.
+	 */
+	public List<RunResultData> interpolate(List<RunResultData> results) {
+		Map<String, List<RunResultData>> groups = new LinkedHashMap<>();
+		for (RunResultData resultData : results) {
+			String groupKey = resultData.params.getMode() + " " + resultData.params.getThreads();
+			List<RunResultData> group = groups.get(groupKey);
+			if (group == null) {
+				group = new ArrayList<>();
+				groups.put(groupKey, group);
+			}
+			group.add(resultData);
+		}
+
+		List<RunResultData> interpolated = new ArrayList<>();
+		for (List<RunResultData> group : groups.values()) {
+			interpolated.addAll(interpolateGroup(group));
+		}
+		return interpolated;
+	}
+
+	private List<RunResultData> interpolateGroup(List<RunResultData> measured) {
+		Map<String, List<String>> paramValues = new LinkedHashMap<>();
+		Set<Map<String, String>> measuredCombinations = new HashSet<>();
+		for (RunResultData resultData : measured) {
+			Map<String, String> combination = combinationOf(resultData.params);
+			measuredCombinations.add(combination);
+			for (Map.Entry<String, String> paramValue : combination.entrySet()) {
+				List<String> values = paramValues.get(paramValue.getKey());
+				if (values == null) {
+					values = new ArrayList<>();
+					paramValues.put(paramValue.getKey(), values);
+				}
+				if (!values.contains(paramValue.getValue())) values.add(paramValue.getValue());
+			}
+		}
+
+		Set<String> numericKeys = new HashSet<>();
+		for (Map.Entry<String, List<String>> values : paramValues.entrySet()) {
+			if (sortNumerically(values.getValue())) numericKeys.add(values.getKey());
+		}
+
+		boolean logScale = true;
+		for (RunResultData resultData : measured) {
+			if (!(resultData.primaryResults.score > 0)) logScale = false;
+		}
+
+		List<RunResultData> interpolated = new ArrayList<>();
+		for (Map<String, String> combination : LatinHypercubeSampler.cartesianProduct(paramValues)) {
+			if (measuredCombinations.contains(combination)) continue;
+			interpolated.add(estimate(combination, measured, paramValues, numericKeys, logScale));
+		}
+		return interpolated;
+	}
+
+	private RunResultData estimate(Map<String, String> combination, List<RunResultData> measured,
+	                               Map<String, List<String>> paramValues, Set<String> numericKeys, boolean logScale) {
+		List<RunResultData> neighbours = new ArrayList<>(measured);
+		final Map<RunResultData, Double> distances = new HashMap<>();
+		for (RunResultData resultData : measured) {
+			distances.put(resultData, distance(combination, combinationOf(resultData.params), paramValues, numericKeys));
+		}
+		Collections.sort(neighbours, new Comparator<RunResultData>() {
+			@Override
+			public int compare(RunResultData o1, RunResultData o2) {
+				return Double.compare(distances.get(o1), distances.get(o2));
+			}
+		});
+		neighbours = neighbours.subList(0, Math.min(NEIGHBOURS, neighbours.size()));
+
+		double weightSum = 0;
+		double valueSum = 0;
+		double relativeErrorSum = 0;
+		double[] weights = new double[neighbours.size()];
+		double[] values = new double[neighbours.size()];
+		for (int i = 0; i < neighbours.size(); i++) {
+			RunResultData.Results results = neighbours.get(i).primaryResults;
+			double distance = distances.get(neighbours.get(i));
+			weights[i] = 1 / (distance * distance);
+			values[i] = logScale ? Math.log(results.score) : results.score;
+
+			weightSum += weights[i];
+			valueSum += weights[i] * values[i];
+			relativeErrorSum += weights[i] * relativeError(results);
+		}
+
+		double value = valueSum / weightSum;
+		double spread = 0;
+		for (int i = 0; i < neighbours.size(); i++) {
+			spread += weights[i] * (values[i] - value) * (values[i] - value);
+		}
+		spread = Math.sqrt(spread / weightSum);
+
+		double score = logScale ? Math.exp(value) : value;
+		double scoreError = Math.max(logScale ? score * (Math.exp(spread) - 1) : spread,
+				Math.abs(score) * relativeErrorSum / weightSum);
+
+		RunResultData.Results template = neighbours.get(0).primaryResults;
+		BenchmarkParams params = BenchmarkParamsFactory.withParamValues(neighbours.get(0).params, combination);
+		return new RunResultData(params, new RunResultData.Results(
+				score,
+				scoreError,
+				score - scoreError,
+				score + scoreError,
+				template.scoreUnit,
+				new double[0][]
+		), null, null, null, null, neighbours.get(0).partialParams);
+	}
+
+	private static double distance(Map<String, String> a, Map<String, String> b,
+	                               Map<String, List<String>> paramValues, Set<String> numericKeys) {
+		double squaredDistance = 0;
+		for (Map.Entry<String, List<String>> values : paramValues.entrySet()) {
+			String paramKey = values.getKey();
+			double delta;
+			if (numericKeys.contains(paramKey)) {
+				int size = values.getValue().size();
+				delta = size < 2 ? 0 :
+						(double) (values.getValue().indexOf(a.get(paramKey)) - values.getValue().indexOf(b.get(paramKey))) / (size - 1);
+			} else {
+				delta = a.get(paramKey).equals(b.get(paramKey)) ? 0 : 1;
+			}
+			squaredDistance += delta * delta;
+		}
+		return Math.sqrt(squaredDistance);
+	}
+
+	private static double relativeError(RunResultData.Results results) {
+		if (Double.isNaN(results.scoreError) || results.score == 0) return 0;
+		return Math.abs(results.scoreError / results.score);
+	}
+
+	private static Map<String, String> combinationOf(BenchmarkParams params) {
+		Map<String, String> combination = new LinkedHashMap<>();
+		for (String paramKey : params.getParamsKeys()) {
+			combination.put(paramKey, params.getParam(paramKey));
+		}
+		return combination;
+	}
+
+	private static boolean sortNumerically(List<String> values) {
+		for (String value : values) {
+			try {
+				Double.parseDouble(value);
+			} catch (NumberFormatException e) {
+				return false;
+			}
+		}
+		Collections.sort(values, new Comparator<String>() {
+			@Override
+			public int compare(String o1, String o2) {
+				return Double.compare(Double.parseDouble(o1), Double.parseDouble(o2));
+			}
+		});
+		return true;
+	}
+}
@@ -0,0 +1,93 @@
+package com.github.ptitjes.jmh.report.stats;
+
+import java.util.*;
+
+/**
+ * Picks a space-filling subset of a param grid. Each param is split in as many strata as there are samples and
+ * every stratum is used exactly once, so that each param value is covered as soon as there are at least as many
+ * samples as values.
+ *
+ * @author Didier Villevalois
+ */
+public class LatinHypercubeSampler {
+
+	private final int sampleSize;
+	private final long seed;
+
+	public LatinHypercubeSampler(int sampleSize, long seed) {
+		this.sampleSize = sampleSize;
+		this.seed = seed;
+	}
+
+	public int getSampleSize() {
+		return sampleSize;
+	}
+
+	public long getSeed() {
+		return seed;
+	}
+
+	/**
+	 * Returns at most {@code sampleSize} distinct combinations of the given param values, or all the combinations if
+	 * the grid is not larger than that.
+	 *
+	 * @param key distinguishes the samples of different grids drawn with the same seed
+	 */
+	public List<Map<String, String>> sample(String key, Map<String, List<String>> paramValues) {
+		long gridSize = 1;
+		for (List<String> values : paramValues.values()) gridSize *= Math.max(values.size(), 1);
+		if (gridSize <= sampleSize) return cartesianProduct(paramValues);
+
+		Random random = new Random(seed ^ key.hashCode());
+		List<String> paramKeys = new ArrayList<>(paramValues.keySet());
+
+		int[][] strata = new int[paramKeys.size()][sampleSize];
+		for (int i = 0; i < paramKeys.size(); i++) {
+			int valueCount = paramValues.get(paramKeys.get(i)).size();
+			for (int j = 0; j < sampleSize; j++) {
+				// Strata narrower than a value would otherwise leave values out at random
+				double offset = sampleSize >= valueCount ? 0 : random.nextDouble();
+				strata[i][j] = (int) ((j + offset) / sampleSize * valueCount);
+			}
+			shuffle(strata[i], random);
+		}
+
+		Set<Map<String, String>> samples = new LinkedHashSet<>();
+		for (int j = 0; j < sampleSize; j++) {
+			Map<String, String> combination = new LinkedHashMap<>();
+			for (int i = 0; i < paramKeys.size(); i++) {
+				String paramKey = paramKeys.get(i);
+				combination.put(paramKey, paramValues.get(paramKey).get(strata[i][j]));
+			}
+			samples.add(combination);
+		}
+		return new ArrayList<>(samples);
+	}
+
+	public static List<Map<String, String>> cartesianProduct(Map<String, List<String>> paramValues) {
+		List<Map<String, String>> combinations = new ArrayList<>();
+		combinations.add(new LinkedHashMap<String, String>());
+
+		for (Map.Entry<String, List<String>> param : paramValues.entrySet()) {
+			List<Map<String, String>> expanded = new ArrayList<>();
+			for (Map<String, String> combination : combinations) {
+				for (String value : param.getValue()) {
+					Map<String, String> copy = new LinkedHashMap<>(combination);
+					copy.put(param.getKey(), value);
+					expanded.add(copy);
+				}
+			}
+			combinations = expanded;
+		}
+		return combinations;
+	}
+
+	private static void shuffle(int[] values, Random random) {
+		for (int i = values.length - 1; i > 0; i--) {
+			int j = random.nextInt(i + 1);
+			int value = values[i];
+			values[i] = values[j];
+			values[j] = value;
+		}
+	}
+}
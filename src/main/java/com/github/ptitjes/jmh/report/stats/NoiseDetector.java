@@ -0,0 +1,170 @@
+package com.github.ptitjes.jmh.report.stats;
+
+import com.github.ptitjes.jmh.report.data.BenchmarkResultData;
+import com.github.ptitjes.jmh.report.data.NoiseData;
+import com.github.ptitjes.jmh.report.data.RunResultData;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Flags the measurement iterations that ran under abnormal system load: other threads competing for the CPUs,
+ * stolen CPU time, CPU frequency below the highest one seen for the benchmark, or bursts of context switches. The
+ * benchmark threads themselves are accounted for, so that only load from outside the benchmark is flagged.
+ *
+ * @author Didier Villevalois
+ */
+public class NoiseDetector {
+
+	private static final double MAX_STEAL = 0.02;
+	private static final double MAX_PRESSURE = 0.10;
+	private static final double MAX_LOAD_FACTOR = 1.5;
+	private static final double MIN_FREQUENCY_RATIO = 0.9;
+	private static final double MAX_CONTEXT_SWITCH_FACTOR = 5;
+	private static final double MIN_CONTEXT_SWITCHES = 1000;
+
+	/**
+	 * Runnable threads allowed besides the benchmark threads, for the harness and the kernel.
+	 */
+	private static final double RUNNABLE_SLACK = 1;
+
+	public static class NoisyRun {
+		public final RunResultData resultData;
+
+		/**
+		 * Per-fork and per-iteration noise marks, parallel to the raw data of the primary metric.
+		 */
+		public final boolean[][] noisy;
+		public final int noisyCount;
+		public final int iterationCount;
+
+		/**
+		 * The worst value of each cause of noise, in a readable form.
+		 */
+		public final List<String> causes;
+
+		public NoisyRun(RunResultData resultData, boolean[][] noisy, int noisyCount, int iterationCount, List<String> causes) {
+			this.resultData = resultData;
+			this.noisy = noisy;
+			this.noisyCount = noisyCount;
+			this.iterationCount = iterationCount;
+			this.causes = causes;
+		}
+	}
+
+	/**
+	 * Analyzes the results of a benchmark that have noise data, whether noisy or not.
+	 */
+	public List<NoisyRun> analyze(BenchmarkResultData benchmarkResult) {
+		double referenceFrequency = 0;
+		List<Double> contextSwitches = new ArrayList<>();
+		for (RunResultData resultData : benchmarkResult.perParamsResults) {
+			if (resultData.noiseData == null) continue;
+			for (double[] forkValues : resultData.noiseData.get(NoiseData.Metric.FREQUENCY)) {
+				for (double value : forkValues) if (!Double.isNaN(value)) referenceFrequency = Math.max(referenceFrequency, value);
+			}
+			for (double[] forkValues : resultData.noiseData.get(NoiseData.Metric.CONTEXT_SWITCHES)) {
+				for (double value : forkValues) if (!Double.isNaN(value)) contextSwitches.add(value);
+			}
+		}
+		double medianContextSwitches = median(contextSwitches);
+
+		List<NoisyRun> noisyRuns = new ArrayList<>();
+		for (RunResultData resultData : benchmarkResult.perParamsResults) {
+			if (resultData.noiseData == null) continue;
+			noisyRuns.add(analyze(resultData, referenceFrequency, medianContextSwitches));
+		}
+		return noisyRuns;
+	}
+
+	public NoisyRun analyze(RunResultData resultData, double referenceFrequency, double medianContextSwitches) {
+		NoiseData noiseData = resultData.noiseData;
+		double[][] runnable = noiseData.get(NoiseData.Metric.RUNNABLE);
+		double[][] load = noiseData.get(NoiseData.Metric.LOAD);
+		double[][] steal = noiseData.get(NoiseData.Metric.STEAL);
+		double[][] pressure = noiseData.get(NoiseData.Metric.PRESSURE);
+		double[][] frequency = noiseData.get(NoiseData.Metric.FREQUENCY);
+		double[][] contextSwitches = noiseData.get(NoiseData.Metric.CONTEXT_SWITCHES);
+
+		// Benchmarks with more threads than CPUs compete with themselves
+		int expectedRunnable = Math.max(noiseData.cpus, resultData.params.getThreads());
+		double maxRunnable = expectedRunnable + RUNNABLE_SLACK;
+		double maxLoad = expectedRunnable * MAX_LOAD_FACTOR;
+		double minFrequency = referenceFrequency * MIN_FREQUENCY_RATIO;
+		double maxContextSwitches = Math.max(MIN_CONTEXT_SWITCHES, medianContextSwitches * MAX_CONTEXT_SWITCH_FACTOR);
+
+		double worstRunnable = Double.NaN, worstLoad = Double.NaN, worstSteal = Double.NaN;
+		double worstPressure = Double.NaN, worstFrequency = Double.NaN, worstContextSwitches = Double.NaN;
+
+		int forks = noiseData.forkCount();
+		boolean[][] noisy = new boolean[forks][];
+		int noisyCount = 0, iterationCount = 0;
+		for (int i = 0; i < forks; i++) {
+			int iterations = runnable[i].length;
+			noisy[i] = new boolean[iterations];
+			for (int j = 0; j < iterations; j++) {
+				boolean noise = false;
+				if (runnable[i][j] > maxRunnable) {
+					worstRunnable = max(worstRunnable, runnable[i][j]);
+					noise = true;
+				}
+				if (load[i][j] > maxLoad) {
+					worstLoad = max(worstLoad, load[i][j]);
+					noise = true;
+				}
+				if (steal[i][j] > MAX_STEAL) {
+					worstSteal = max(worstSteal, steal[i][j]);
+					noise = true;
+				}
+				// Benchmarks using all the CPUs stall the harness anyway
+				if (pressure[i][j] > MAX_PRESSURE && resultData.params.getThreads() < noiseData.cpus) {
+					worstPressure = max(worstPressure, pressure[i][j]);
+					noise = true;
+				}
+				if (frequency[i][j] < minFrequency) {
+					worstFrequency = Double.isNaN(worstFrequency) ? frequency[i][j] : Math.min(worstFrequency, frequency[i][j]);
+					noise = true;
+				}
+				if (contextSwitches[i][j] > maxContextSwitches) {
+					worstContextSwitches = max(worstContextSwitches, contextSwitches[i][j]);
+					noise = true;
+				}
+
+				noisy[i][j] = noise;
+				if (noise) noisyCount++;
+				iterationCount++;
+			}
+		}
+
+		List<String> causes = new ArrayList<>();
+		if (!Double.isNaN(worstRunnable)) {
+			causes.add(String.format("up to %.1f runnable threads on %d %s", worstRunnable, noiseData.cpus,
+					noiseData.cpus > 1 ? "CPUs" : "CPU"));
+		}
+		if (!Double.isNaN(worstLoad)) causes.add(String.format("load average up to %.1f", worstLoad));
+		if (!Double.isNaN(worstSteal)) causes.add(String.format("steal time up to %.1f%%", worstSteal * 100));
+		if (!Double.isNaN(worstPressure)) causes.add(String.format("CPU pressure up to %.1f%%", worstPressure * 100));
+		if (!Double.isNaN(worstFrequency)) {
+			causes.add(String.format("CPU frequency down to %.0f MHz of %.0f MHz", worstFrequency, referenceFrequency));
+		}
+		if (!Double.isNaN(worstContextSwitches)) {
+			causes.add(String.format("up to %.0f context switches/s", worstContextSwitches) + (medianContextSwitches > 0 ?
+					String.format(", %.1fx the median", worstContextSwitches / medianContextSwitches) : ""));
+		}
+		return new NoisyRun(resultData, noisy, noisyCount, iterationCount, causes);
+	}
+
+	private static double max(double worst, double value) {
+		return Double.isNaN(worst) ? value : Math.max(worst, value);
+	}
+
+	private static double median(List<Double> values) {
+		if (values.isEmpty()) return Double.NaN;
+		double[] sorted = new double[values.size()];
+		for (int i = 0; i < sorted.length; i++) sorted[i] = values.get(i);
+		Arrays.sort(sorted);
+		int middle = sorted.length / 2;
+		return sorted.length % 2 == 1 ? sorted[middle] : (sorted[middle - 1] + sorted[middle]) / 2;
+	}
+}
@@ -0,0 +1,21 @@
+package com.github.ptitjes.jmh.report.stats;
+
+import com.github.ptitjes.jmh.report.annotations.OutlierMethod;
+
+/**
+ * @author Didier Villevalois
+ */
+public class OutlierConfiguration {
+
+	public static final double DEFAULT_TUKEY_THRESHOLD = 1.5;
+	public static final double DEFAULT_MAD_THRESHOLD = 3.5;
+
+	public OutlierMethod method = OutlierMethod.NONE;
+	public double threshold = 0;
+	public boolean exclude = false;
+
+	public double effectiveThreshold() {
+		if (threshold > 0) return threshold;
+		return method == OutlierMethod.TUKEY ? DEFAULT_TUKEY_THRESHOLD : DEFAULT_MAD_THRESHOLD;
+	}
+}
@@ -0,0 +1,104 @@
+package com.github.ptitjes.jmh.report.stats;
+
+import com.github.ptitjes.jmh.report.annotations.OutlierMethod;
+import com.github.ptitjes.jmh.report.data.RunResultData;
+import org.openjdk.jmh.util.ListStatistics;
+
+/**
+ * @author Didier Villevalois
+ */
+public class OutlierDetector {
+
+	// Same confidence level as JMH uses for its own score errors
+	public static final double CONFIDENCE = 0.999;
+
+	// Scales the MAD to be a consistent estimator of the standard deviation of a normal distribution
+	private static final double MAD_SCALE = 0.6745;
+	// Same purpose when falling back to the mean absolute deviation
+	private static final double MEAN_AD_SCALE = 0.7979;
+
+	private final OutlierConfiguration configuration;
+
+	public OutlierDetector(OutlierConfiguration configuration) {
+		this.configuration = configuration;
+	}
+
+	public RunResultData.Results analyze(RunResultData.Results results) {
+		if (configuration.method == OutlierMethod.NONE) return results;
+
+		double[][] rawData = results.rawData;
+		int count = 0;
+		for (double[] forkData : rawData) count += forkData.length;
+		if (count < 3) return results;
+
+		double[] scratch = new double[count];
+		flatten(rawData, scratch);
+
+		double lowerFence, upperFence;
+		if (configuration.method == OutlierMethod.TUKEY) {
+			double q1 = Selection.quantile(scratch, count, 0.25);
+			double q3 = Selection.quantile(scratch, count, 0.75);
+			double k = configuration.effectiveThreshold();
+			lowerFence = q1 - k * (q3 - q1);
+			upperFence = q3 + k * (q3 - q1);
+		} else {
+			double median = Selection.median(scratch, count);
+			double deviationSum = 0;
+			for (int i = 0; i < count; i++) {
+				scratch[i] = Math.abs(scratch[i] - median);
+				deviationSum += scratch[i];
+			}
+			double mad = Selection.median(scratch, count);
+
+			double spread;
+			if (mad > 0) spread = mad / MAD_SCALE;
+			else spread = deviationSum / count / MEAN_AD_SCALE;
+
+			double limit = configuration.effectiveThreshold() * spread;
+			lowerFence = median - limit;
+			upperFence = median + limit;
+		}
+
+		boolean[][] outliers = new boolean[rawData.length][];
+		int outlierCount = 0;
+		for (int i = 0; i < rawData.length; i++) {
+			double[] forkData = rawData[i];
+			outliers[i] = new boolean[forkData.length];
+			for (int j = 0; j < forkData.length; j++) {
+				double value = forkData[j];
+				if (value < lowerFence || value > upperFence) {
+					outliers[i][j] = true;
+					outlierCount++;
+				}
+			}
+		}
+
+		if (!configuration.exclude || outlierCount == 0 || count - outlierCount < 2) {
+			return new RunResultData.Results(results.score, results.scoreError,
+					results.scoreConfidenceMin, results.scoreConfidenceMax, results.scoreUnit,
+					rawData, outliers, outlierCount, false);
+		}
+
+		double[] kept = new double[count - outlierCount];
+		int index = 0;
+		for (int i = 0; i < rawData.length; i++) {
+			for (int j = 0; j < rawData[i].length; j++) {
+				if (!outliers[i][j]) kept[index++] = rawData[i][j];
+			}
+		}
+
+		ListStatistics statistics = new ListStatistics(kept);
+		double[] confidence = statistics.getConfidenceIntervalAt(CONFIDENCE);
+		return new RunResultData.Results(statistics.getMean(), statistics.getMeanErrorAt(CONFIDENCE),
+				confidence[0], confidence[1], results.scoreUnit,
+				rawData, outliers, outlierCount, true);
+	}
+
+	private static void flatten(double[][] rawData, double[] values) {
+		int index = 0;
+		for (double[] forkData : rawData) {
+			System.arraycopy(forkData, 0, values, index, forkData.length);
+			index += forkData.length;
+		}
+	}
+}
@@ -0,0 +1,207 @@
+package com.github.ptitjes.jmh.report.stats;
+
+import com.github.ptitjes.jmh.report.data.BenchmarkResultData;
+import com.github.ptitjes.jmh.report.data.RunResultData;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.infra.BenchmarkParams;
+
+import java.util.*;
+
+/**
+ * Groups the runs of a benchmark that only differ by their thread count and fits Amdahl's law and the Universal
+ * Scalability Law to their speedups. Runs of {@code @Group} benchmarks are also grouped by their thread distribution
+ * among subgroups, as given by {@code -threadGroups}.
+ * <p>
+ * Speedups are relative to the single-threaded run. When there is none, the smallest thread count is assumed to
+ * scale linearly from one thread.
+ *
+ * @author Didier Villevalois
+ */
+public class ScalingAnalysis {
+
+	public List<Group> analyze(BenchmarkResultData benchmarkResult) {
+		Set<String> distributions = new HashSet<>();
+		for (RunResultData resultData : benchmarkResult.perParamsResults) {
+			distributions.add(distributionOf(resultData.params));
+		}
+
+		// Runs of different thread distributions may have the same thread count, but do not scale the same
+		Map<String, SortedMap<Integer, RunResultData>> perGroupResults = new LinkedHashMap<>();
+		for (RunResultData resultData : benchmarkResult.perParamsResults) {
+			BenchmarkParams params = resultData.params;
+			String label = groupLabel(benchmarkResult.paramKeys, params);
+			if (distributions.size() > 1) {
+				label = (label.isEmpty() ? "" : label + " - ") + "threadGroups=" + distributionOf(params);
+			}
+
+			SortedMap<Integer, RunResultData> results = perGroupResults.get(label);
+			if (results == null) {
+				results = new TreeMap<>();
+				perGroupResults.put(label, results);
+			}
+			results.put(params.getThreads(), resultData);
+		}
+
+		List<Group> groups = new ArrayList<>();
+		for (Map.Entry<String, SortedMap<Integer, RunResultData>> entry : perGroupResults.entrySet()) {
+			SortedMap<Integer, RunResultData> results = entry.getValue();
+			if (results.size() < 2) continue;
+			groups.add(makeGroup(entry.getKey(), results));
+		}
+		return groups;
+	}
+
+	public static String groupLabel(Collection<String> paramKeys, BenchmarkParams params) {
+		StringBuilder label = new StringBuilder();
+		boolean first = true;
+		for (String paramKey : paramKeys) {
+			if (first) first = false;
+			else label.append(" - ");
+			label.append(params.getParam(paramKey));
+		}
+		return label.toString();
+	}
+
+	/**
+	 * Returns the thread distribution among the subgroups of a {@code @Group} benchmark, or {@code "1"} for other
+	 * benchmarks.
+	 */
+	private static String distributionOf(BenchmarkParams params) {
+		int[] threadGroups = params.getThreadGroups();
+		if (threadGroups == null || threadGroups.length <= 1) return "1";
+
+		StringBuilder distribution = new StringBuilder();
+		for (int threads : threadGroups) {
+			if (distribution.length() > 0) distribution.append(',');
+			distribution.append(threads);
+		}
+		return distribution.toString();
+	}
+
+	private Group makeGroup(String label, SortedMap<Integer, RunResultData> results) {
+		int size = results.size();
+		int[] threads = new int[size];
+		double[] throughputs = new double[size];
+
+		int index = 0;
+		for (Map.Entry<Integer, RunResultData> entry : results.entrySet()) {
+			RunResultData resultData = entry.getValue();
+			threads[index] = entry.getKey();
+			throughputs[index] = throughput(resultData.params, resultData.primaryResults.score);
+			index++;
+		}
+
+		double singleThroughput = throughputs[0] / threads[0];
+		double[] speedups = new double[size];
+		for (int i = 0; i < size; i++) {
+			speedups[i] = throughputs[i] / singleThroughput;
+		}
+
+		Group group = new Group(label, threads, throughputs, speedups);
+		group.fit();
+		return group;
+	}
+
+	private static double throughput(BenchmarkParams params, double score) {
+		// Time-based modes report a per-thread time per operation
+		if (params.getMode() == Mode.Throughput) return score;
+		return params.getThreads() / score;
+	}
+
+	public static class Group {
+		public final String label;
+		public final int[] threads;
+		public final double[] throughputs;
+		public final double[] speedups;
+
+		public double amdahlSigma = Double.NaN;
+		public double amdahlRSquared = Double.NaN;
+		public double uslSigma = Double.NaN;
+		public double uslKappa = Double.NaN;
+		public double uslRSquared = Double.NaN;
+
+		Group(String label, int[] threads, double[] throughputs, double[] speedups) {
+			this.label = label;
+			this.threads = threads;
+			this.throughputs = throughputs;
+			this.speedups = speedups;
+		}
+
+		public double efficiency(int index) {
+			return speedups[index] / threads[index];
+		}
+
+		public double amdahlSpeedup(double n) {
+			return n / (1 + amdahlSigma * (n - 1));
+		}
+
+		public double uslSpeedup(double n) {
+			return n / (1 + uslSigma * (n - 1) + uslKappa * n * (n - 1));
+		}
+
+		/**
+		 * Returns the thread count at which the fitted USL curve peaks, or {@code NaN} if it doesn't retrograde.
+		 */
+		public double uslPeakThreads() {
+			if (!(uslKappa > 0)) return Double.NaN;
+			return Math.sqrt((1 - uslSigma) / uslKappa);
+		}
+
+		/*
+		 * Both laws linearize as n/S(n) - 1 = sigma (n - 1) + kappa n (n - 1), which is fitted by least squares
+		 * without intercept.
+		 */
+		void fit() {
+			double sx1x1 = 0, sx1x2 = 0, sx2x2 = 0, sx1y = 0, sx2y = 0;
+			int count = 0;
+			for (int i = 0; i < threads.length; i++) {
+				double n = threads[i];
+				if (n <= 1) continue;
+
+				double x1 = n - 1;
+				double x2 = n * (n - 1);
+				double y = n / speedups[i] - 1;
+				sx1x1 += x1 * x1;
+				sx1x2 += x1 * x2;
+				sx2x2 += x2 * x2;
+				sx1y += x1 * y;
+				sx2y += x2 * y;
+				count++;
+			}
+			if (count < 1) return;
+
+			amdahlSigma = Math.max(0, sx1y / sx1x1);
+			amdahlRSquared = rSquared(false);
+
+			if (count < 2) return;
+
+			double determinant = sx1x1 * sx2x2 - sx1x2 * sx1x2;
+			double sigma = (sx1y * sx2x2 - sx2y * sx1x2) / determinant;
+			double kappa = (sx2y * sx1x1 - sx1y * sx1x2) / determinant;
+			if (determinant == 0 || kappa < 0) {
+				sigma = amdahlSigma;
+				kappa = 0;
+			} else if (sigma < 0) {
+				sigma = 0;
+				kappa = Math.max(0, sx2y / sx2x2);
+			}
+			uslSigma = sigma;
+			uslKappa = kappa;
+			uslRSquared = rSquared(true);
+		}
+
+		private double rSquared(boolean usl) {
+			double mean = 0;
+			for (double speedup : speedups) mean += speedup;
+			mean /= speedups.length;
+
+			double residuals = 0, total = 0;
+			for (int i = 0; i < threads.length; i++) {
+				double predicted = usl ? uslSpeedup(threads[i]) : amdahlSpeedup(threads[i]);
+				residuals += (speedups[i] - predicted) * (speedups[i] - predicted);
+				total += (speedups[i] - mean) * (speedups[i] - mean);
+			}
+			return total == 0 ? 1 : 1 - residuals / total;
+		}
+	}
+}
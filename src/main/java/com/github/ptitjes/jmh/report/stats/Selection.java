@@ -0,0 +1,75 @@
+package com.github.ptitjes.jmh.report.stats;
+
+/**
+ * Expected linear-time order statistics over primitive arrays.
+ *
+ * @author Didier Villevalois
+ */
+public final class Selection {
+
+	private Selection() {
+	}
+
+	/**
+	 * Returns the median of the first {@code length} values of {@code scratch}, reordering them in place.
+	 */
+	public static double median(double[] scratch, int length) {
+		return quantile(scratch, length, 0.5);
+	}
+
+	/**
+	 * Returns the linearly interpolated {@code p}-quantile of the first {@code length} values of
+	 * {@code scratch}, reordering them in place.
+	 */
+	public static double quantile(double[] scratch, int length, double p) {
+		if (length == 0) return Double.NaN;
+
+		double position = (length - 1) * p;
+		int k = (int) Math.floor(position);
+		double lower = select(scratch, 0, length - 1, k);
+		if (k + 1 >= length) return lower;
+
+		// After selection, the (k+1)-th value is the minimum of the right partition
+		double upper = scratch[k + 1];
+		for (int i = k + 2; i < length; i++) {
+			if (scratch[i] < upper) upper = scratch[i];
+		}
+		return lower + (position - k) * (upper - lower);
+	}
+
+	private static double select(double[] values, int left, int right, int k) {
+		while (right > left) {
+			double pivot = values[medianOfThree(values, left, (left + right) >>> 1, right)];
+
+			// Partitions in three ways so that runs of equal values, as of quantized timings, are settled at once
+			int lower = left, i = left, upper = right;
+			while (i <= upper) {
+				if (values[i] < pivot) swap(values, lower++, i++);
+				else if (values[i] > pivot) swap(values, i, upper--);
+				else i++;
+			}
+
+			if (k < lower) right = lower - 1;
+			else if (k > upper) left = upper + 1;
+			else return pivot;
+		}
+		return values[left];
+	}
+
+	private static int medianOfThree(double[] values, int a, int b, int c) {
+		double va = values[a], vb = values[b], vc = values[c];
+		if (va < vb) {
+			if (vb < vc) return b;
+			return va < vc ? c : a;
+		} else {
+			if (va < vc) return a;
+			return vb < vc ? c : b;
+		}
+	}
+
+	private static void swap(double[] values, int i, int j) {
+		double tmp = values[i];
+		values[i] = values[j];
+		values[j] = tmp;
+	}
+}
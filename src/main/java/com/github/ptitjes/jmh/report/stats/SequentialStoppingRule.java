@@ -0,0 +1,80 @@
+package com.github.ptitjes.jmh.report.stats;
+
+import org.openjdk.jmh.util.ListStatistics;
+
+import java.util.List;
+
+/**
+ * A fixed-width sequential stopping rule (Chow-Robbins) over fork means. After each new fork, sampling stops once the
+ * confidence interval half-width, inflated by a 1/n term that accounts for peeking at the data repeatedly, falls below
+ * the targeted fraction of the mean. As the rule is relative, the 1/n term is scaled by the squared target.
+ *
+ * @author Didier Villevalois
+ */
+public class SequentialStoppingRule {
+
+	public enum Decision {
+		CONTINUE("continue"),
+		PRECISION_REACHED("precision reached"),
+		TIME_BUDGET_EXHAUSTED("time budget exhausted"),
+		FORK_LIMIT_REACHED("fork limit reached");
+
+		public final String label;
+
+		Decision(String label) {
+			this.label = label;
+		}
+	}
+
+	private final double targetRelativeError;
+	private final double confidence;
+	private final long timeBudget;
+	private final int minForks;
+	private final int maxForks;
+
+	public SequentialStoppingRule(double targetRelativeError, double confidence, long timeBudget, int minForks, int maxForks) {
+		this.targetRelativeError = targetRelativeError;
+		this.confidence = confidence;
+		this.timeBudget = timeBudget;
+		this.minForks = minForks;
+		this.maxForks = maxForks;
+	}
+
+	public Decision decide(List<double[]> forkData, long elapsedMillis) {
+		if (forkData.size() >= minForks && relativeError(forkData) <= targetRelativeError) {
+			return Decision.PRECISION_REACHED;
+		}
+		if (elapsedMillis >= timeBudget) return Decision.TIME_BUDGET_EXHAUSTED;
+		if (forkData.size() >= maxForks) return Decision.FORK_LIMIT_REACHED;
+		return Decision.CONTINUE;
+	}
+
+	/**
+	 * Returns the inflated relative half-width, t * sqrt((s² / mean² + target² / n) / n), of the means of the n forks.
+	 * Iterations of the same fork are correlated, so they are not taken as independent samples.
+	 */
+	public double relativeError(List<double[]> forkData) {
+		ListStatistics statistics = new ListStatistics();
+		for (double[] values : forkData) {
+			double sum = 0;
+			int count = 0;
+			for (double value : values) {
+				if (Double.isNaN(value)) continue;
+				sum += value;
+				count++;
+			}
+			if (count > 0) statistics.addValue(sum / count);
+		}
+
+		long n = statistics.getN();
+		double mean = statistics.getMean();
+		double deviation = statistics.getStandardDeviation();
+		if (n < 2 || mean == 0 || Double.isNaN(deviation)) return Double.POSITIVE_INFINITY;
+		if (deviation == 0) return 0;
+
+		double t = statistics.getMeanErrorAt(confidence) * Math.sqrt(n) / deviation;
+		if (Double.isNaN(t)) return Double.POSITIVE_INFINITY;
+		double relativeDeviation = deviation / Math.abs(mean);
+		return t * Math.sqrt((relativeDeviation * relativeDeviation + targetRelativeError * targetRelativeError / n) / n);
+	}
+}
@@ -0,0 +1,145 @@
+package com.github.ptitjes.jmh.report.stats;
+
+import com.github.ptitjes.jmh.report.data.BenchmarkResultData;
+import com.github.ptitjes.jmh.report.data.RunResultData;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Detects where each fork reaches its steady state with the Marginal Standard Error Rule (MSER), applied to the
+ * warmup scores followed by the measurement scores. The truncation point minimizes the standard error of the mean
+ * of the remaining scores, so a point past the warmup means the measurements started before the benchmark settled.
+ *
+ * @author Didier Villevalois
+ */
+public class SteadyStateDetector {
+
+	/**
+	 * The relative change of the score that the transient must cause for a benchmark to be flagged.
+	 */
+	private final double threshold;
+
+	public SteadyStateDetector() {
+		this(0.01);
+	}
+
+	public SteadyStateDetector(double threshold) {
+		this.threshold = threshold;
+	}
+
+	public static class SteadyState {
+		public final RunResultData resultData;
+		public final int warmupIterations;
+
+		/**
+		 * Per-fork index of the first steady iteration, counting warmup iterations first.
+		 */
+		public final int[] steadyStarts;
+		public final int steadyStart;
+
+		/**
+		 * The relative change of the score when dropping the measurements preceding the steady state.
+		 */
+		public final double bias;
+		public final boolean stillWarming;
+		public final int recommendedWarmup;
+
+		public SteadyState(RunResultData resultData, int warmupIterations, int[] steadyStarts, int steadyStart,
+		                   double bias, boolean stillWarming, int recommendedWarmup) {
+			this.resultData = resultData;
+			this.warmupIterations = warmupIterations;
+			this.steadyStarts = steadyStarts;
+			this.steadyStart = steadyStart;
+			this.bias = bias;
+			this.stillWarming = stillWarming;
+			this.recommendedWarmup = recommendedWarmup;
+		}
+	}
+
+	public List<SteadyState> analyze(BenchmarkResultData benchmarkResult) {
+		List<SteadyState> steadyStates = new ArrayList<>();
+		for (RunResultData resultData : benchmarkResult.perParamsResults) {
+			SteadyState steadyState = analyze(resultData);
+			if (steadyState != null) steadyStates.add(steadyState);
+		}
+		return steadyStates;
+	}
+
+	public SteadyState analyze(RunResultData resultData) {
+		double[][] warmupData = resultData.warmupData;
+		double[][] rawData = resultData.primaryResults.rawData;
+		if (warmupData == null || warmupData.length == 0 || warmupData.length != rawData.length) return null;
+
+		int warmupIterations = warmupData[0].length;
+		int forks = rawData.length;
+		int[] steadyStarts = new int[forks];
+		double measuredSum = 0, steadySum = 0;
+		int measuredCount = 0, steadyCount = 0;
+		for (int i = 0; i < forks; i++) {
+			double[] series = concat(warmupData[i], rawData[i]);
+			steadyStarts[i] = truncationPoint(series);
+
+			for (int j = warmupData[i].length; j < series.length; j++) {
+				measuredSum += series[j];
+				measuredCount++;
+				if (j >= steadyStarts[i]) {
+					steadySum += series[j];
+					steadyCount++;
+				}
+			}
+		}
+
+		int[] sortedStarts = steadyStarts.clone();
+		Arrays.sort(sortedStarts);
+		int steadyStart = sortedStarts[(forks - 1) / 2];
+
+		double measuredMean = measuredSum / measuredCount;
+		double steadyMean = steadyCount == 0 ? measuredMean : steadySum / steadyCount;
+		double bias = steadyMean == 0 ? 0 : (measuredMean - steadyMean) / steadyMean;
+
+		boolean stillWarming = steadyStart > warmupIterations && Math.abs(bias) > threshold;
+		int recommendedWarmup = warmupIterations;
+		if (stillWarming) {
+			// Truncation is bounded to half the series, at the bound the transient may well go on
+			int latestStart = sortedStarts[forks - 1];
+			int bound = (warmupIterations + rawData[0].length) / 2;
+			recommendedWarmup = latestStart >= bound ? 2 * latestStart : latestStart;
+		}
+		return new SteadyState(resultData, warmupIterations, steadyStarts, steadyStart, bias, stillWarming, recommendedWarmup);
+	}
+
+	/**
+	 * Returns the MSER truncation point d in [0, n/2] minimizing sum((x[i] - mean(x[d..]))², i >= d) / (n - d)².
+	 */
+	static int truncationPoint(double[] series) {
+		int n = series.length;
+		if (n < 4) return 0;
+
+		// Suffix sums give the statistics of every truncated series in linear time
+		double sum = 0, sumOfSquares = 0;
+		double[] mserValues = new double[n / 2 + 1];
+		for (int d = n - 1; d >= 0; d--) {
+			sum += series[d];
+			sumOfSquares += series[d] * series[d];
+			if (d <= n / 2) {
+				int remaining = n - d;
+				double squaredDeviations = Math.max(0, sumOfSquares - sum * sum / remaining);
+				mserValues[d] = squaredDeviations / ((double) remaining * remaining);
+			}
+		}
+
+		int best = 0;
+		for (int d = 1; d < mserValues.length; d++) {
+			if (mserValues[d] < mserValues[best]) best = d;
+		}
+		return best;
+	}
+
+	private static double[] concat(double[] first, double[] second) {
+		double[] result = Arrays.copyOf(first, first.length + second.length);
+		System.arraycopy(second, 0, result, first.length, second.length);
+		return result;
+	}
+}
@@ -0,0 +1,148 @@
+package com.github.ptitjes.jmh.report.stats;
+
+import com.github.ptitjes.jmh.report.data.BenchmarkResultData;
+import com.github.ptitjes.jmh.report.data.RunResultData;
+import org.openjdk.jmh.annotations.Mode;
+
+import java.util.*;
+
+/**
+ * Splits the results of {@code @Group} benchmarks by thread role, that is by subgroup, and groups the runs that only
+ * differ by the distribution of their threads among roles, to show how each role suffers from the contention of the
+ * others.
+ *
+ * @author Didier Villevalois
+ */
+public class ThreadGroupAnalysis {
+
+	public static class Role {
+		public final String name;
+		/**
+		 * The count of threads running the role, or {@code 0} if it is not known.
+		 */
+		public final int threads;
+		public final RunResultData.Results results;
+		/**
+		 * The part of the group throughput done by the role, or {@code NaN} if the mode is not a throughput.
+		 */
+		public final double share;
+
+		public Role(String name, int threads, RunResultData.Results results, double share) {
+			this.name = name;
+			this.threads = threads;
+			this.results = results;
+			this.share = share;
+		}
+
+		/**
+		 * The score of a single thread of the role. Throughputs add up, whereas times are already per thread.
+		 */
+		public double perThreadScore(Mode mode) {
+			if (mode != Mode.Throughput || threads == 0) return results.score;
+			return results.score / threads;
+		}
+	}
+
+	public static class GroupRun {
+		public final RunResultData resultData;
+		public final String label;
+		/**
+		 * The thread counts of the roles, as in "1:7", or an empty string if they are not known.
+		 */
+		public final String distribution;
+		public final List<Role> roles;
+
+		public GroupRun(RunResultData resultData, String label, String distribution, List<Role> roles) {
+			this.resultData = resultData;
+			this.label = label;
+			this.distribution = distribution;
+			this.roles = roles;
+		}
+	}
+
+	/**
+	 * The runs of a param combination with different thread distributions, ordered by the share of threads of the
+	 * first role.
+	 */
+	public static class Contention {
+		public final String label;
+		public final List<String> roleNames;
+		public final List<GroupRun> runs;
+
+		public Contention(String label, List<String> roleNames, List<GroupRun> runs) {
+			this.label = label;
+			this.roleNames = roleNames;
+			this.runs = runs;
+		}
+	}
+
+	public List<GroupRun> analyze(BenchmarkResultData benchmarkResult) {
+		List<GroupRun> groupRuns = new ArrayList<>();
+		for (RunResultData resultData : benchmarkResult.perParamsResults) {
+			if (resultData.subgroupResults == null) continue;
+
+			boolean throughput = resultData.params.getMode() == Mode.Throughput;
+			double total = 0;
+			for (RunResultData.Results results : resultData.subgroupResults.values()) total += results.score;
+
+			List<Role> roles = new ArrayList<>();
+			StringBuilder distribution = new StringBuilder();
+			for (Map.Entry<String, RunResultData.Results> subgroupResults : resultData.subgroupResults.entrySet()) {
+				String name = subgroupResults.getKey();
+				RunResultData.Results results = subgroupResults.getValue();
+				int threads = resultData.subgroupThreads(name);
+				roles.add(new Role(name, threads, results, throughput && total > 0 ? results.score / total : Double.NaN));
+
+				distribution.append(distribution.length() == 0 ? "" : ":").append(threads);
+			}
+
+			String label = ScalingAnalysis.groupLabel(benchmarkResult.paramKeys, resultData.params);
+			groupRuns.add(new GroupRun(resultData, label, roles.get(0).threads == 0 ? "" : distribution.toString(), roles));
+		}
+		return groupRuns;
+	}
+
+	public List<Contention> contentions(List<GroupRun> groupRuns) {
+		Map<String, List<GroupRun>> perLabelRuns = new LinkedHashMap<>();
+		for (GroupRun groupRun : groupRuns) {
+			if (groupRun.distribution.isEmpty()) continue;
+
+			String key = groupRun.label + "/" + roleNames(groupRun);
+			List<GroupRun> runs = perLabelRuns.get(key);
+			if (runs == null) {
+				runs = new ArrayList<>();
+				perLabelRuns.put(key, runs);
+			}
+			runs.add(groupRun);
+		}
+
+		List<Contention> contentions = new ArrayList<>();
+		for (List<GroupRun> runs : perLabelRuns.values()) {
+			Set<String> distributions = new HashSet<>();
+			for (GroupRun run : runs) distributions.add(run.distribution);
+			if (distributions.size() < 2) continue;
+
+			List<GroupRun> sortedRuns = new ArrayList<>(runs);
+			Collections.sort(sortedRuns, new Comparator<GroupRun>() {
+				@Override
+				public int compare(GroupRun run1, GroupRun run2) {
+					return Double.compare(firstRoleShare(run2), firstRoleShare(run1));
+				}
+			});
+			contentions.add(new Contention(runs.get(0).label, roleNames(runs.get(0)), sortedRuns));
+		}
+		return contentions;
+	}
+
+	private static List<String> roleNames(GroupRun groupRun) {
+		List<String> names = new ArrayList<>();
+		for (Role role : groupRun.roles) names.add(role.name);
+		return names;
+	}
+
+	private static double firstRoleShare(GroupRun groupRun) {
+		int threads = 0;
+		for (Role role : groupRun.roles) threads += role.threads;
+		return (double) groupRun.roles.get(0).threads / threads;
+	}
+}
@@ -0,0 +1,357 @@
+package com.github.ptitjes.jmh.report.stats;
+
+import com.github.ptitjes.jmh.report.data.RunResultData;
+import org.openjdk.jmh.annotations.Mode;
+
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+/**
+ * Ranks competing results, as the series of a chart category, into tiers of results that are statistically tied.
+ * All the pairs of competitors are compared by a two-sided Mann-Whitney U test of their samples, whose p-values
+ * are corrected for multiple comparisons by the Holm method. Competitors are then taken from the best median to
+ * the worst, and a new tier starts with the first one that significantly differs from the best of the current tier.
+ * <p>
+ * Iterations of a fork are not independent, so the samples are the means of the forks when all the competitors
+ * have at least two, and the iterations otherwise.
+ * <p>
+ * The p-values are exact for small samples without ties, and from the normal approximation with tie and continuity
+ * corrections otherwise. Groups of competitors are ranked in parallel on the common fork-join pool.
+ *
+ * @author Didier Villevalois
+ */
+public class TierRanking {
+
+	public static final double DEFAULT_SIGNIFICANCE = 0.05;
+
+	/**
+	 * The count of groups below which a range is ranked by a single task.
+	 */
+	private static final int SEQUENTIAL_THRESHOLD = 16;
+
+	/**
+	 * The total sample count up to which exact p-values are computed, so that permutation counts fit in longs.
+	 */
+	private static final int MAX_EXACT_SAMPLES = 40;
+
+	private static final ConcurrentMap<Long, double[]> EXACT_DISTRIBUTIONS = new ConcurrentHashMap<>();
+
+	private final double significance;
+
+	public TierRanking(double significance) {
+		this.significance = significance;
+	}
+
+	/**
+	 * Returns the tier of each result among those with the same key, 1 being the best, parallel to the results. It
+	 * is {@code 0} for results with a {@code null} key, without raw samples, or without competitors, and for the
+	 * competitors of a group whose samples are too few for any of their differences to be significant.
+	 */
+	public int[] rank(List<RunResultData> results, String[] keys) {
+		int[] tiers = new int[results.size()];
+
+		Map<String, List<Integer>> perKeyMembers = new LinkedHashMap<>();
+		for (int index = 0; index < keys.length; index++) {
+			if (keys[index] == null || sampleCount(results.get(index).primaryResults) == 0) continue;
+
+			List<Integer> members = perKeyMembers.get(keys[index]);
+			if (members == null) {
+				members = new ArrayList<>();
+				perKeyMembers.put(keys[index], members);
+			}
+			members.add(index);
+		}
+
+		List<int[]> groups = new ArrayList<>();
+		for (List<Integer> members : perKeyMembers.values()) {
+			if (members.size() < 2) continue;
+
+			int[] group = new int[members.size()];
+			for (int i = 0; i < group.length; i++) group[i] = members.get(i);
+			groups.add(group);
+		}
+		if (groups.isEmpty()) return tiers;
+
+		ForkJoinPool.commonPool().invoke(new RankTask(results, groups, tiers, significance, 0, groups.size()));
+		return tiers;
+	}
+
+	private static class RankTask extends RecursiveAction {
+
+		private static final long serialVersionUID = 1L;
+
+		private final List<RunResultData> results;
+		private final List<int[]> groups;
+		private final int[] tiers;
+		private final double significance;
+		private final int from;
+		private final int to;
+
+		RankTask(List<RunResultData> results, List<int[]> groups, int[] tiers, double significance, int from, int to) {
+			this.results = results;
+			this.groups = groups;
+			this.tiers = tiers;
+			this.significance = significance;
+			this.from = from;
+			this.to = to;
+		}
+
+		@Override
+		protected void compute() {
+			if (to - from <= SEQUENTIAL_THRESHOLD) {
+				for (int i = from; i < to; i++) rankGroup(results, groups.get(i), tiers, significance);
+				return;
+			}
+
+			int middle = (from + to) >>> 1;
+			invokeAll(new RankTask(results, groups, tiers, significance, from, middle),
+					new RankTask(results, groups, tiers, significance, middle, to));
+		}
+	}
+
+	private static void rankGroup(List<RunResultData> results, int[] group, int[] tiers, double significance) {
+		int count = group.length;
+		boolean lessIsBetter = results.get(group[0]).params.getMode() != Mode.Throughput;
+
+		boolean forkMeans = true;
+		for (int index : group) forkMeans &= forkCount(results.get(index).primaryResults) >= 2;
+
+		double[][] samples = new double[count][];
+		final double[] medians = new double[count];
+		for (int i = 0; i < count; i++) {
+			samples[i] = sortedSamples(results.get(group[i]).primaryResults, forkMeans);
+			int length = samples[i].length;
+			medians[i] = (samples[i][(length - 1) / 2] + samples[i][length / 2]) / 2;
+			if (!lessIsBetter) medians[i] = -medians[i];
+		}
+
+		// Pairs are numbered row by row in the upper triangle
+		int pairCount = count * (count - 1) / 2;
+
+		// Otherwise all the competitors would be put in the first tier, as if they were measured to be tied
+		if (!canBeSignificant(samples, pairCount, significance)) return;
+
+		double[] pValues = new double[pairCount];
+		for (int i = 0, pair = 0; i < count; i++) {
+			for (int j = i + 1; j < count; j++, pair++) pValues[pair] = mannWhitneyPValue(samples[i], samples[j]);
+		}
+		boolean[] significant = holm(pValues, significance);
+
+		Integer[] order = new Integer[count];
+		for (int i = 0; i < count; i++) order[i] = i;
+		Arrays.sort(order, new Comparator<Integer>() {
+			@Override
+			public int compare(Integer i1, Integer i2) {
+				return Double.compare(medians[i1], medians[i2]);
+			}
+		});
+
+		int tier = 1, leader = order[0];
+		for (int i : order) {
+			if (i != leader && significant[pairIndex(count, leader, i)]) {
+				tier++;
+				leader = i;
+			}
+			tiers[group[i]] = tier;
+		}
+	}
+
+	/**
+	 * Returns whether the test of some pair of samples can reject the null hypothesis once corrected by the Holm
+	 * method, that is whether the smallest p-value it can give without ties is small enough.
+	 */
+	private static boolean canBeSignificant(double[][] samples, int pairCount, double significance) {
+		for (int i = 0; i < samples.length; i++) {
+			for (int j = i + 1; j < samples.length; j++) {
+				if (minimumPValue(samples[i].length, samples[j].length) * pairCount <= significance) return true;
+			}
+		}
+		return false;
+	}
+
+	/**
+	 * Returns the smallest two-sided p-value of the Mann-Whitney U test of samples of {@code n} and {@code m} values
+	 * without ties, when one sample is entirely below the other.
+	 */
+	static double minimumPValue(int n, int m) {
+		if (n + m <= MAX_EXACT_SAMPLES) return Math.min(1, 2 * exactDistribution(n, m)[0]);
+
+		double mean = n * (double) m / 2;
+		double variance = n * (double) m * (n + m + 1) / 12;
+		return Math.min(1, erfc((mean - 0.5) / Math.sqrt(variance) / Math.sqrt(2)));
+	}
+
+	private static int pairIndex(int count, int i, int j) {
+		int row = Math.min(i, j), column = Math.max(i, j);
+		return row * (2 * count - row - 1) / 2 + (column - row - 1);
+	}
+
+	/**
+	 * Returns which of the p-values are significant once corrected by the Holm step-down method. Equal p-values are
+	 * never told apart by the method, so the significant ones are those up to a threshold.
+	 */
+	static boolean[] holm(double[] pValues, double significance) {
+		int count = pValues.length;
+		double[] sorted = pValues.clone();
+		Arrays.sort(sorted);
+
+		double threshold = -1;
+		for (int rank = 0; rank < count && sorted[rank] * (count - rank) <= significance; rank++) {
+			threshold = sorted[rank];
+		}
+
+		boolean[] significant = new boolean[count];
+		for (int i = 0; i < count; i++) significant[i] = pValues[i] <= threshold;
+		return significant;
+	}
+
+	/**
+	 * Returns the two-sided p-value of the Mann-Whitney U test of two sorted samples.
+	 */
+	static double mannWhitneyPValue(double[] a, double[] b) {
+		int n = a.length, m = b.length, total = n + m;
+
+		// Merges the samples to sum the mid-ranks of the first one and the sizes of ties
+		double rankSum = 0, tieSum = 0;
+		int i = 0, j = 0;
+		while (i < n || j < m) {
+			double value = j == m || i < n && a[i] <= b[j] ? a[i] : b[j];
+			int fromA = 0, fromB = 0;
+			while (i < n && a[i] == value) {
+				i++;
+				fromA++;
+			}
+			while (j < m && b[j] == value) {
+				j++;
+				fromB++;
+			}
+			int tie = fromA + fromB, rank = i + j;
+			rankSum += fromA * (rank - (tie - 1) / 2.0);
+			if (tie > 1) tieSum += (double) tie * tie * tie - tie;
+		}
+
+		double u = rankSum - n * (n + 1) / 2.0;
+		double mean = n * (double) m / 2;
+
+		if (tieSum == 0 && total <= MAX_EXACT_SAMPLES) {
+			double[] distribution = exactDistribution(n, m);
+			int lower = (int) Math.round(Math.min(u, n * m - u));
+			return Math.min(1, 2 * distribution[lower]);
+		}
+
+		double variance = n * (double) m / 12 * ((total + 1) - tieSum / (total * (double) (total - 1)));
+		if (variance <= 0) return 1;
+
+		double z = Math.max(0, Math.abs(u - mean) - 0.5) / Math.sqrt(variance);
+		return Math.min(1, erfc(z / Math.sqrt(2)));
+	}
+
+	/**
+	 * Returns the cumulative distribution of the U statistic of samples of {@code n} and {@code m} values without
+	 * ties, from the coefficients of the Gaussian binomial of {@code n + m} over {@code n}.
+	 */
+	private static double[] exactDistribution(int n, int m) {
+		long key = (long) Math.min(n, m) << 32 | Math.max(n, m);
+		double[] distribution = EXACT_DISTRIBUTIONS.get(key);
+		if (distribution != null) return distribution;
+
+		int small = Math.min(n, m), large = Math.max(n, m);
+		long[] coefficients = new long[small * large + 1];
+		coefficients[0] = 1;
+		int degree = 0;
+		for (int k = 1; k <= small; k++) {
+			// Multiplies by (1 - q^(large + k)), then divides by (1 - q^k)
+			int shift = large + k;
+			degree += large;
+			for (int u = degree; u >= shift; u--) coefficients[u] -= coefficients[u - shift];
+			for (int u = k; u <= degree; u++) coefficients[u] += coefficients[u - k];
+		}
+
+		double total = 0;
+		for (long coefficient : coefficients) total += coefficient;
+		distribution = new double[coefficients.length];
+		double cumulated = 0;
+		for (int u = 0; u < coefficients.length; u++) {
+			cumulated += coefficients[u];
+			distribution[u] = cumulated / total;
+		}
+
+		double[] existing = EXACT_DISTRIBUTIONS.putIfAbsent(key, distribution);
+		return existing != null ? existing : distribution;
+	}
+
+	/**
+	 * Returns the complementary error function, with a fractional error below 1.2e-7.
+	 */
+	private static double erfc(double x) {
+		double z = Math.abs(x);
+		double t = 1 / (1 + 0.5 * z);
+		double r = t * Math.exp(-z * z - 1.26551223 + t * (1.00002368 + t * (0.37409196 + t * (0.09678418 +
+				t * (-0.18628806 + t * (0.27886807 + t * (-1.13520398 + t * (1.48851587 +
+						t * (-0.82215223 + t * 0.17087277)))))))));
+		return x >= 0 ? r : 2 - r;
+	}
+
+	/**
+	 * Returns the raw samples of results, or the means of their forks, without the outliers they were recomputed
+	 * without nor undefined ones, sorted.
+	 */
+	private static double[] sortedSamples(RunResultData.Results results, boolean forkMeans) {
+		double[] samples = new double[forkMeans ? forkCount(results) : sampleCount(results)];
+		int count = 0;
+		for (int fork = 0; fork < results.rawData.length; fork++) {
+			double sum = 0;
+			int forkSamples = 0;
+			for (int iteration = 0; iteration < results.rawData[fork].length; iteration++) {
+				if (isExcluded(results, fork, iteration)) continue;
+				if (forkMeans) {
+					sum += results.rawData[fork][iteration];
+					forkSamples++;
+				} else {
+					samples[count++] = results.rawData[fork][iteration];
+				}
+			}
+			if (forkMeans && forkSamples > 0) samples[count++] = sum / forkSamples;
+		}
+		Arrays.sort(samples);
+		return samples;
+	}
+
+	/**
+	 * Returns the count of forks of results with at least one sample.
+	 */
+	private static int forkCount(RunResultData.Results results) {
+		if (results.rawData == null) return 0;
+
+		int count = 0;
+		for (int fork = 0; fork < results.rawData.length; fork++) {
+			for (int iteration = 0; iteration < results.rawData[fork].length; iteration++) {
+				if (!isExcluded(results, fork, iteration)) {
+					count++;
+					break;
+				}
+			}
+		}
+		return count;
+	}
+
+	private static int sampleCount(RunResultData.Results results) {
+		if (results.rawData == null) return 0;
+
+		int count = 0;
+		for (int fork = 0; fork < results.rawData.length; fork++) {
+			for (int iteration = 0; iteration < results.rawData[fork].length; iteration++) {
+				if (!isExcluded(results, fork, iteration)) count++;
+			}
+		}
+		return count;
+	}
+
+	private static boolean isExcluded(RunResultData.Results results, int fork, int iteration) {
+		return Double.isNaN(results.rawData[fork][iteration]) ||
+				results.outliersExcluded && results.outliers != null && results.outliers[fork][iteration];
+	}
+}
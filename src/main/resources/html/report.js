@@ -0,0 +1,403 @@
+(function () {
+	var PAINTS = ["#c4a000", "#ce5c00", "#8f5902", "#4e9a06", "#204a87", "#5c3566", "#a40000", "#555753"];
+	var SVG = "http://www.w3.org/2000/svg";
+	var MARGIN = {left: 64, right: 16, top: 12, bottom: 40};
+
+	function svg(name, attributes, parent) {
+		var element = document.createElementNS(SVG, name);
+		for (var key in attributes) element.setAttribute(key, attributes[key]);
+		if (parent) parent.appendChild(element);
+		return element;
+	}
+
+	function tooltip(element, text) {
+		svg("title", {}, element).textContent = text;
+	}
+
+	function format(value) {
+		if (value === null || isNaN(value)) return "NaN";
+		var magnitude = Math.abs(value);
+		return magnitude !== 0 && (magnitude < 0.001 || magnitude >= 1e6) ? value.toExponential(3) : +value.toFixed(3) + "";
+	}
+
+	function linearScale(min, max, from, to) {
+		if (min === max) { min -= 1; max += 1; }
+		var scale = function (value) { return from + (value - min) / (max - min) * (to - from); };
+		scale.ticks = function () {
+			var step = Math.pow(10, Math.floor(Math.log(max - min) / Math.LN10));
+			if ((max - min) / step < 4) step /= 2;
+			if ((max - min) / step > 10) step *= 2;
+			var ticks = [];
+			for (var tick = Math.ceil(min / step) * step; tick <= max + step / 1e6; tick += step) ticks.push(tick);
+			return ticks;
+		};
+		scale.invert = function (position) { return min + (position - from) / (to - from) * (max - min); };
+		return scale;
+	}
+
+	function logScale(min, max, from, to) {
+		var scale = linearScale(Math.log(min) / Math.LN10, Math.log(max) / Math.LN10, from, to);
+		var logged = function (value) { return scale(Math.log(value) / Math.LN10); };
+		logged.ticks = function () {
+			var ticks = [];
+			for (var exponent = Math.floor(Math.log(min) / Math.LN10); Math.pow(10, exponent) <= max; exponent++) {
+				if (Math.pow(10, exponent) >= min) ticks.push(Math.pow(10, exponent));
+			}
+			return ticks.length > 1 ? ticks : [min, max];
+		};
+		logged.invert = function (position) { return Math.pow(10, scale.invert(position)); };
+		return logged;
+	}
+
+	function extent(values, includeZero, positiveOnly) {
+		var min = includeZero ? 0 : Infinity, max = includeZero ? 0 : -Infinity;
+		values.forEach(function (value) {
+			if (value === null || isNaN(value) || (positiveOnly && value <= 0)) return;
+			if (value < min) min = value;
+			if (value > max) max = value;
+		});
+		return min === Infinity ? [positiveOnly ? 1 : 0, positiveOnly ? 10 : 1] : [min, max];
+	}
+
+	function paintOf(series, index) {
+		return series.color || PAINTS[index % PAINTS.length];
+	}
+
+	function labelOf(series, item) {
+		return series.labels ? series.labels[item] : null;
+	}
+
+	function longest(values) {
+		var length = 0;
+		values.forEach(function (value) { if (value && value.length > length) length = value.length; });
+		return length;
+	}
+
+	function drawAxisLabels(root, left, width, height, bottomLabel, leftLabel) {
+		svg("text", {x: (left + width - MARGIN.right) / 2, y: height - 4, "text-anchor": "middle", "font-weight": "bold"}, root).textContent = bottomLabel;
+		svg("text", {x: 12, y: height / 2, transform: "rotate(-90 12 " + height / 2 + ")", "text-anchor": "middle", "font-weight": "bold"}, root).textContent = leftLabel;
+	}
+
+	function drawAxes(root, width, height, y, xLabel, yLabel) {
+		y.ticks().forEach(function (tick) {
+			svg("line", {x1: MARGIN.left, x2: width - MARGIN.right, y1: y(tick), y2: y(tick), stroke: "#fff"}, root);
+			svg("text", {x: MARGIN.left - 4, y: y(tick) + 4, "text-anchor": "end"}, root).textContent = format(tick);
+		});
+		drawAxisLabels(root, MARGIN.left, width, height, xLabel, yLabel);
+	}
+
+	// Horizontal charts have their categories on the left and their values along the bottom
+	function drawCategories(root, data, hidden, width, height) {
+		var horizontal = data.horizontal, bars = data.kind === "BARS";
+		var visible = data.series.filter(function (series, index) { return !hidden[index]; });
+		var values = [], labelled = false;
+		visible.forEach(function (series) {
+			values = values.concat(series.low, series.high);
+			labelled = labelled || !!series.labels;
+		});
+		var range = extent(values, data.rangeIncludesZero && !data.logScale, data.logScale);
+		var left = horizontal ? Math.min(width / 3, 16 + 6 * longest(data.categories)) : MARGIN.left;
+		var from = horizontal ? left : height - MARGIN.bottom, to = horizontal ? width - MARGIN.right : MARGIN.top;
+		var value = (data.logScale ? logScale : linearScale)(range[0], range[1] * (labelled ? 1.15 : 1.05), from, to);
+
+		if (horizontal) {
+			value.ticks().forEach(function (tick) {
+				svg("line", {x1: value(tick), x2: value(tick), y1: MARGIN.top, y2: height - MARGIN.bottom, stroke: "#fff"}, root);
+				svg("text", {x: value(tick), y: height - MARGIN.bottom + 14, "text-anchor": "middle"}, root).textContent = format(tick);
+			});
+			drawAxisLabels(root, left, width, height, data.yLabel, data.xLabel);
+		} else {
+			drawAxes(root, width, height, value, data.xLabel, data.yLabel);
+		}
+
+		var start = horizontal ? MARGIN.top : left;
+		var band = ((horizontal ? height - MARGIN.bottom : width - MARGIN.right) - start) / Math.max(data.categories.length, 1);
+		data.categories.forEach(function (category, column) {
+			var position = start + band * (column + .5);
+			if (horizontal) svg("text", {x: left - 4, y: position + 4, "text-anchor": "end"}, root).textContent = category;
+			else svg("text", {x: position, y: height - MARGIN.bottom + 14, "text-anchor": "middle"}, root).textContent = category;
+		});
+
+		// Maps a position along the categories and a value to the coordinates of the chart
+		function point(position, coordinate) {
+			return horizontal ? {x: coordinate, y: position} : {x: position, y: coordinate};
+		}
+
+		var barWidth = band * .8 / Math.max(visible.length, 1);
+		var base = data.logScale ? from : value(0);
+		data.series.forEach(function (series, index) {
+			if (hidden[index]) return;
+			var paint = paintOf(series, index);
+			var order = visible.indexOf(series);
+			var points = [];
+			series.y.forEach(function (score, column) {
+				if (score === null) return;
+				var position = bars ? start + band * (column + .1) + barWidth * (order + .5) : start + band * (column + .5);
+				var tip = (series.name ? series.name + ", " : "") + data.categories[column] + ": " + format(score) +
+						" ± " + format(series.high[column] - score);
+				var at = point(position, value(score)), mark;
+				if (bars) {
+					var end = point(position, base);
+					mark = svg("rect", {
+						x: horizontal ? Math.min(at.x, end.x) : position - barWidth / 2,
+						y: horizontal ? position - barWidth / 2 : Math.min(at.y, end.y),
+						width: horizontal ? Math.abs(at.x - end.x) : barWidth,
+						height: horizontal ? barWidth : Math.abs(at.y - end.y), fill: paint
+					}, root);
+				} else {
+					points.push(at.x + "," + at.y);
+					mark = svg("circle", {cx: at.x, cy: at.y, r: 3, fill: paint}, root);
+				}
+				var low = point(position, value(series.low[column])), high = point(position, value(series.high[column]));
+				svg("line", {x1: low.x, x2: high.x, y1: low.y, y2: high.y, stroke: "#2e3436"}, root);
+				tooltip(mark, tip);
+
+				var label = labelOf(series, column);
+				if (!label) return;
+				// Labels go past the end of the bar or of its error, whichever is further
+				var labelEnd = horizontal ? Math.max(value(score), value(series.high[column])) : Math.min(value(score), value(series.high[column]));
+				var outside = point(position, labelEnd);
+				if (horizontal) {
+					svg("text", {x: outside.x + 4, y: outside.y + 4, "class": "label"}, root).textContent = label;
+				} else if (bars) {
+					svg("text", {x: outside.x + 4, y: outside.y - 4, transform: "rotate(-90 " + (outside.x + 4) + " " + (outside.y - 4) + ")", "class": "label"}, root).textContent = label;
+				} else {
+					svg("text", {x: outside.x, y: outside.y - 6, "text-anchor": "middle", "class": "label"}, root).textContent = label;
+				}
+			});
+			if (points.length > 1 && series.lines) {
+				svg("polyline", {points: points.join(" "), fill: "none", stroke: paint, "stroke-dasharray": series.dashed ? "6 3" : "none"}, root);
+			}
+		});
+	}
+
+	function drawXY(root, data, hidden, width, height, domain) {
+		var xs = [], ys = [];
+		data.series.forEach(function (series, index) {
+			if (hidden[index]) return;
+			series.x.forEach(function (x, item) {
+				if (domain && (x < domain[0] || x > domain[1])) return;
+				xs.push(x);
+				ys.push(series.low[item], series.high[item]);
+			});
+		});
+		var xRange = domain || extent(xs, data.domainIncludesZero && !data.logScale, data.logScale);
+		var yRange = extent(ys, data.rangeIncludesZero && !data.logScale, data.logScale);
+		var scale = data.logScale ? logScale : linearScale;
+		var x = scale(xRange[0], xRange[1], MARGIN.left, width - MARGIN.right);
+		var y = scale(yRange[0], yRange[1], height - MARGIN.bottom, MARGIN.top);
+		drawAxes(root, width, height, y, data.xLabel, data.yLabel);
+		x.ticks().forEach(function (tick) {
+			if (data.integerDomain && tick !== Math.round(tick)) return;
+			svg("text", {x: x(tick), y: height - MARGIN.bottom + 14, "text-anchor": "middle"}, root).textContent = format(tick);
+		});
+
+		data.markers.forEach(function (marker) {
+			if (marker.value < xRange[0] || marker.value > xRange[1]) return;
+			var paint = marker.color || "#2e3436";
+			svg("line", {x1: x(marker.value), x2: x(marker.value), y1: MARGIN.top, y2: height - MARGIN.bottom, stroke: paint, "stroke-dasharray": marker.dashed ? "4 2" : "none"}, root);
+			svg("text", {x: x(marker.value) + 3, y: MARGIN.top + 10}, root).textContent = marker.label;
+		});
+
+		data.series.forEach(function (series, index) {
+			if (hidden[index]) return;
+			var paint = paintOf(series, index);
+			var points = [];
+			series.x.forEach(function (value, item) {
+				if (value < xRange[0] || value > xRange[1] || series.y[item] === null) return;
+				points.push(x(value) + "," + y(series.y[item]));
+				if (series.high[item] !== series.low[item]) {
+					svg("line", {x1: x(value), x2: x(value), y1: y(series.low[item]), y2: y(series.high[item]), stroke: paint}, root);
+				}
+				var tip = (series.name ? series.name + ", " : "") + data.xLabel + " " + format(value) + ": " +
+						format(series.y[item]) + (series.high[item] !== series.low[item] ? " ± " + format(series.high[item] - series.y[item]) : "");
+				// Points without shapes still get an invisible target for their tooltip
+				var point = svg("circle", {cx: x(value), cy: y(series.y[item]), r: 3, fill: series.shapes ? paint : "transparent"}, root);
+				tooltip(point, tip);
+				var label = labelOf(series, item);
+				if (label) svg("text", {x: x(value), y: y(series.high[item]) - 6, "text-anchor": "middle", "class": "label"}, root).textContent = label;
+			});
+			if (points.length > 1 && series.lines) {
+				svg("polyline", {points: points.join(" "), fill: "none", stroke: paint, "stroke-dasharray": series.dashed ? "6 3" : "none"}, root);
+			}
+		});
+		return x;
+	}
+
+	function parseColor(color) {
+		return [1, 3, 5].map(function (offset) { return parseInt(color.substring(offset, offset + 2), 16); });
+	}
+
+	// Same gradient as the PDF charts, from low to high through the middle colour
+	function scaleColor(scale, value) {
+		var ratio = (value - scale.lowerBound) / (scale.upperBound - scale.lowerBound || 1);
+		var position = Math.max(0, Math.min(1, ratio)) * 2, index = Math.min(Math.floor(position), 1), t = position - index;
+		var stops = [parseColor(scale.low), parseColor(scale.middle), parseColor(scale.high)];
+		var color = stops[index].map(function (channel, i) { return Math.round(channel + (stops[index + 1][i] - channel) * t); });
+		return "rgb(" + color.join(",") + ")";
+	}
+
+	function drawHeatmap(root, data, width, height) {
+		var series = data.series[0], scale = data.scale;
+		var left = Math.min(width / 3, 24 + 6 * longest(data.rows)), right = 72;
+		var cellWidth = (width - left - right) / Math.max(data.categories.length, 1);
+		var cellHeight = (height - MARGIN.top - MARGIN.bottom) / Math.max(data.rows.length, 1);
+		data.categories.forEach(function (category, column) {
+			svg("text", {x: left + cellWidth * (column + .5), y: height - MARGIN.bottom + 14, "text-anchor": "middle"}, root).textContent = category;
+		});
+		data.rows.forEach(function (row, index) {
+			svg("text", {x: left - 4, y: height - MARGIN.bottom - cellHeight * (index + .5) + 4, "text-anchor": "end"}, root).textContent = row;
+		});
+		series.z.forEach(function (value, item) {
+			var column = series.x[item], row = series.y[item];
+			var cellX = left + cellWidth * column, cellY = height - MARGIN.bottom - cellHeight * (row + 1);
+			var cell = svg("rect", {x: cellX, y: cellY, width: cellWidth, height: cellHeight, fill: scaleColor(scale, value)}, root);
+			var label = labelOf(series, item);
+			tooltip(cell, data.categories[column] + ", " + data.rows[row] + ": " + (label || format(value)));
+			if (label) {
+				svg("text", {x: cellX + cellWidth / 2, y: cellY + cellHeight / 2 + 4, "text-anchor": "middle", "class": "label"}, root).textContent = label;
+			}
+		});
+		svg("text", {x: (left + width - right) / 2, y: height - 4, "text-anchor": "middle", "font-weight": "bold"}, root).textContent = data.xLabel;
+		svg("text", {x: 12, y: height / 2, transform: "rotate(-90 12 " + height / 2 + ")", "text-anchor": "middle", "font-weight": "bold"}, root).textContent = data.yLabel;
+		drawScale(root, scale, width - right + 12, MARGIN.top, height - MARGIN.bottom);
+	}
+
+	function drawScale(root, scale, x, top, bottom) {
+		var id = "scale-" + Math.random().toString(36).substring(2);
+		var gradient = svg("linearGradient", {id: id, x1: 0, x2: 0, y1: 1, y2: 0}, svg("defs", {}, root));
+		[scale.low, scale.middle, scale.high].forEach(function (color, index) {
+			svg("stop", {offset: index / 2, "stop-color": color}, gradient);
+		});
+		svg("rect", {x: x, y: top, width: 12, height: bottom - top, fill: "url(#" + id + ")"}, root);
+		[scale.lowerBound, (scale.lowerBound + scale.upperBound) / 2, scale.upperBound].forEach(function (value, index) {
+			svg("text", {x: x + 16, y: bottom - (bottom - top) * index / 2 + 4}, root).textContent = format(value);
+		});
+		var middle = (top + bottom) / 2;
+		svg("text", {x: x + 54, y: middle, transform: "rotate(-90 " + (x + 54) + " " + middle + ")", "text-anchor": "middle"}, root).textContent = scale.label;
+	}
+
+	function drawChart(container, data) {
+		var hidden = {}, domain = null;
+		var legend = document.createElement("div");
+		legend.className = "legend";
+
+		function redraw() {
+			var old = container.querySelector("svg");
+			if (old) container.removeChild(old);
+			var width = container.clientWidth || 800, height = +container.getAttribute("data-height");
+			var root = svg("svg", {width: width, height: height});
+			container.insertBefore(root, legend);
+
+			if (data.kind === "HEATMAP") {
+				drawHeatmap(root, data, width, height);
+			} else if (data.kind === "XY") {
+				var x = drawXY(root, data, hidden, width, height, domain);
+				enableZoom(root, x, height, function (range) { domain = range; redraw(); });
+				root.addEventListener("dblclick", function () { domain = null; redraw(); });
+			} else {
+				drawCategories(root, data, hidden, width, height);
+			}
+		}
+
+		if (!container.querySelector("h3") && (data.title || data.description)) {
+			var title = document.createElement("h3");
+			title.textContent = [data.title, data.description].filter(function (text) { return text; }).join(", ");
+			container.appendChild(title);
+		}
+		if (data.kind !== "HEATMAP" && data.legend && data.series.length > 1) {
+			data.series.forEach(function (series, index) {
+				var entry = document.createElement("span");
+				entry.innerHTML = "<i style=\"background:" + paintOf(series, index) + "\"></i>";
+				entry.appendChild(document.createTextNode(series.name));
+				entry.addEventListener("click", function () {
+					hidden[index] = !hidden[index];
+					entry.className = hidden[index] ? "hidden" : "";
+					redraw();
+				});
+				legend.appendChild(entry);
+			});
+		}
+		container.appendChild(legend);
+		if (data.notes.length > 0) {
+			var notes = document.createElement("div");
+			notes.className = "notes";
+			data.notes.forEach(function (note) {
+				notes.appendChild(document.createTextNode(note));
+				notes.appendChild(document.createElement("br"));
+			});
+			container.appendChild(notes);
+		}
+		if (data.kind === "XY") {
+			var hint = document.createElement("div");
+			hint.className = "hint";
+			hint.textContent = "Drag to zoom, double-click to reset.";
+			container.appendChild(hint);
+		}
+		redraw();
+	}
+
+	function enableZoom(root, x, height, zoom) {
+		var start = null, band = null;
+		root.addEventListener("mousedown", function (event) {
+			start = event.offsetX;
+			band = svg("rect", {x: start, y: MARGIN.top, width: 0, height: height - MARGIN.top - MARGIN.bottom, fill: "rgba(32,74,135,.2)"}, root);
+		});
+		root.addEventListener("mousemove", function (event) {
+			if (start === null) return;
+			band.setAttribute("x", Math.min(start, event.offsetX));
+			band.setAttribute("width", Math.abs(event.offsetX - start));
+		});
+		root.addEventListener("mouseup", function (event) {
+			if (start === null) return;
+			var from = Math.min(start, event.offsetX), to = Math.max(start, event.offsetX);
+			start = null;
+			if (to - from > 4) zoom([x.invert(from), x.invert(to)]);
+			else root.removeChild(band);
+		});
+	}
+
+	function enableFilter(table) {
+		var input = table.parentNode.querySelector("input");
+		if (!input) return;
+		input.addEventListener("input", function () {
+			var terms = input.value.toLowerCase().split(/\s+/).filter(function (term) { return term; });
+			var rows = table.tBodies[0].rows;
+			for (var i = 0; i < rows.length; i++) {
+				var text = rows[i].textContent.toLowerCase();
+				rows[i].style.display = terms.every(function (term) { return text.indexOf(term) >= 0; }) ? "" : "none";
+			}
+		});
+	}
+
+	// Chapter data is only parsed and drawn when the chapter is opened
+	function loadChapter(details) {
+		if (details.getAttribute("data-loaded")) return;
+		details.setAttribute("data-loaded", "true");
+
+		var script = document.getElementById("data-" + details.getAttribute("data-chapter"));
+		var chapter = script ? JSON.parse(script.textContent) : {charts: []};
+		var containers = details.querySelectorAll(".chart");
+		for (var i = 0; i < containers.length; i++) {
+			var data = chapter.charts[+containers[i].getAttribute("data-chart")];
+			if (data) drawChart(containers[i], data);
+		}
+	}
+
+	var tables = document.querySelectorAll(".table table");
+	for (var i = 0; i < tables.length; i++) enableFilter(tables[i]);
+
+	var chapters = document.querySelectorAll("details[data-chapter]");
+	for (var j = 0; j < chapters.length; j++) {
+		(function (details) {
+			details.addEventListener("toggle", function () { if (details.open) loadChapter(details); });
+			if (details.open) loadChapter(details);
+		})(chapters[j]);
+	}
+	function openTarget() {
+		var target = location.hash && document.getElementById(location.hash.substring(1));
+		if (target && target.querySelector("details")) target.querySelector("details").open = true;
+	}
+	window.addEventListener("hashchange", openTarget);
+	openTarget();
+})();
@@ -0,0 +1,97 @@
+package com.github.ptitjes.jmh.report.data;
+
+import org.junit.Test;
+import org.openjdk.jmh.annotations.Mode;
+
+import java.io.IOException;
+import java.io.StringReader;
+import java.util.List;
+
+import static org.junit.Assert.*;
+
+/**
+ * @author Didier Villevalois
+ */
+public class CSVResultParserTest {
+
+	@Test
+	public void readsScores() throws IOException {
+		List<RunResultData> results = parse(',',
+				"\"Benchmark\",\"Mode\",\"Threads\",\"Samples\",\"Score\",\"Score Error (99.9%)\",\"Unit\",\"Param: size\"\n" +
+						"\"bench.Bench.add\",\"thrpt\",4,10,1234.5,12.5,\"ops/s\",10\n" +
+						"\"bench.Bench.add:·gc.alloc.rate\",\"thrpt\",4,10,42,1,\"MB/sec\",10\n" +
+						"\"bench.Bench.get\",\"avgt\",1,10,0.5,NaN,\"ns/op\",100\n");
+
+		assertEquals(2, results.size());
+
+		RunResultData add = results.get(0);
+		assertEquals("bench.Bench.add", add.params.getBenchmark());
+		assertEquals(Mode.Throughput, add.params.getMode());
+		assertEquals(4, add.params.getThreads());
+		assertEquals(10, add.params.getMeasurement().getCount());
+		assertEquals("10", add.params.getParam("size"));
+		assertEquals(1234.5, add.primaryResults.score, 0);
+		assertEquals(12.5, add.primaryResults.scoreError, 0);
+		assertEquals(1222, add.primaryResults.scoreConfidenceMin, 0);
+		assertEquals("ops/s", add.primaryResults.scoreUnit);
+		assertEquals(0, add.primaryResults.rawData.length);
+		assertTrue(add.partialParams);
+
+		RunResultData get = results.get(1);
+		assertEquals(Mode.AverageTime, get.params.getMode());
+		assertTrue(Double.isNaN(get.primaryResults.scoreError));
+	}
+
+	@Test
+	public void unquotesFields() throws IOException {
+		List<RunResultData> results = parse(',',
+				"Benchmark,Mode,Threads,Samples,Score,Score Error (99.9%),Unit,Param: name,Param: size\r\n" +
+						"bench.Bench.add,avgt,1,5,1.5,0.1,ns/op,\"a,\"\"b\"\"\nc\",\r\n" +
+						"\r\n" +
+						"bench.Bench.add,avgt,1,5,2.5,0.1,ns/op,d,3");
+
+		assertEquals(2, results.size());
+		assertEquals("a,\"b\"\nc", results.get(0).params.getParam("name"));
+		assertNull(results.get(0).params.getParam("size"));
+		assertEquals("d", results.get(1).params.getParam("name"));
+		assertEquals("3", results.get(1).params.getParam("size"));
+		assertEquals(2.5, results.get(1).primaryResults.score, 0);
+	}
+
+	@Test
+	public void readsLocalizedSemicolonSeparatedValues() throws IOException {
+		List<RunResultData> results = parse(';',
+				"\"Benchmark\";\"Mode\";\"Threads\";\"Samples\";\"Score\";\"Score Error (99.9%)\";\"Unit\";\"Param: ratio\"\n" +
+						"\"bench.Bench.add\";\"avgt\";1;5;\"1,250\";\"0,125\";\"ns/op\";\"0,5\"\n");
+
+		assertEquals(1, results.size());
+		assertEquals(1.25, results.get(0).primaryResults.score, 0);
+		assertEquals(0.125, results.get(0).primaryResults.scoreError, 0);
+		assertEquals("0,5", results.get(0).params.getParam("ratio"));
+	}
+
+	@Test
+	public void sharesRepeatedStrings() throws IOException {
+		List<RunResultData> results = parse(',',
+				"Benchmark,Mode,Threads,Samples,Score,Score Error (99.9%),Unit\n" +
+						"bench.Bench.add,avgt,1,5,1,0,ns/op\n" +
+						"bench.Bench.add,avgt,2,5,1,0,ns/op\n");
+
+		assertSame(results.get(0).params.getBenchmark(), results.get(1).params.getBenchmark());
+		assertSame(results.get(0).primaryResults.scoreUnit, results.get(1).primaryResults.scoreUnit);
+	}
+
+	@Test
+	public void readsEmptyFiles() throws IOException {
+		assertTrue(parse(',', "").isEmpty());
+	}
+
+	@Test(expected = IOException.class)
+	public void rejectsOtherFiles() throws IOException {
+		parse(',', "name,value\nfoo,1\n");
+	}
+
+	private static List<RunResultData> parse(char delimiter, String content) throws IOException {
+		return new CSVResultParser(delimiter).parseFrom(new StringReader(content));
+	}
+}
@@ -0,0 +1,112 @@
+package com.github.ptitjes.jmh.report.data;
+
+import org.json.JSONArray;
+import org.json.JSONObject;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+
+import static org.junit.Assert.*;
+
+/**
+ * @author Didier Villevalois
+ */
+public class JSONResultParserTest {
+
+	@Rule
+	public TemporaryFolder folder = new TemporaryFolder();
+
+	@Test
+	public void parallelParsingMatchesSequentialParsing() throws IOException {
+		// Enough results to be split among several tasks, with strings that look like JSON structure
+		JSONArray results = new JSONArray();
+		for (int i = 0; i < 100; i++) {
+			results.put(makeResult("bench.Bench.m" + i, i % 3 == 0 ? "a], {\"b\": [\\" : "été " + i, i));
+		}
+		String content = results.toString(2);
+
+		List<RunResultData> sequential = new JSONResultParser().parseFrom(content);
+		List<RunResultData> parallel = new JSONResultParser().parseFrom(write(content));
+
+		assertEquals(100, sequential.size());
+		assertEquals(sequential.size(), parallel.size());
+		for (int i = 0; i < sequential.size(); i++) {
+			assertSameResult(sequential.get(i), parallel.get(i));
+		}
+		assertEquals("bench.Bench.m42", parallel.get(42).params.getBenchmark());
+		assertEquals("a], {\"b\": [\\", parallel.get(99).params.getParam("name"));
+	}
+
+	@Test
+	public void parsesEmptyArrays() throws IOException {
+		assertTrue(new JSONResultParser().parseFrom(write(" [\n]\n")).isEmpty());
+	}
+
+	private File write(String content) throws IOException {
+		File file = folder.newFile("results.json");
+		OutputStream outputStream = new FileOutputStream(file);
+		try {
+			outputStream.write(content.getBytes(StandardCharsets.UTF_8));
+		} finally {
+			outputStream.close();
+		}
+		return file;
+	}
+
+	private static JSONObject makeResult(String benchmark, String name, int index) {
+		JSONArray rawData = new JSONArray();
+		for (int fork = 0; fork < 2; fork++) {
+			JSONArray forkData = new JSONArray();
+			for (int iteration = 0; iteration < 3; iteration++) forkData.put(index + fork * 0.5 + iteration * 0.125);
+			rawData.put(forkData);
+		}
+
+		return new JSONObject()
+				.put("benchmark", benchmark)
+				.put("mode", index % 2 == 0 ? "thrpt" : "avgt")
+				.put("threads", 1 + index % 4)
+				.put("forks", 2)
+				.put("warmupIterations", 1)
+				.put("warmupTime", "1 s")
+				.put("warmupBatchSize", 1)
+				.put("measurementIterations", 3)
+				.put("measurementTime", "1 s")
+				.put("measurementBatchSize", 1)
+				.put("params", new JSONObject().put("name", name).put("size", "" + index))
+				.put("primaryMetric", new JSONObject()
+						.put("score", index + 0.25)
+						.put("scoreError", 0.5)
+						.put("scoreConfidence", new JSONArray().put(index - 0.25).put(index + 0.75))
+						.put("scoreUnit", "ops/s")
+						.put("rawData", rawData));
+	}
+
+	private static void assertSameResult(RunResultData expected, RunResultData actual) {
+		assertEquals(expected.params.getBenchmark(), actual.params.getBenchmark());
+		assertEquals(expected.params.getMode(), actual.params.getMode());
+		assertEquals(expected.params.getThreads(), actual.params.getThreads());
+		assertEquals(expected.params.getForks(), actual.params.getForks());
+		assertEquals(expected.params.getParamsKeys(), actual.params.getParamsKeys());
+		for (String paramKey : expected.params.getParamsKeys()) {
+			assertEquals(expected.params.getParam(paramKey), actual.params.getParam(paramKey));
+		}
+
+		RunResultData.Results expectedResults = expected.primaryResults, actualResults = actual.primaryResults;
+		assertEquals(expectedResults.score, actualResults.score, 0);
+		assertEquals(expectedResults.scoreError, actualResults.scoreError, 0);
+		assertEquals(expectedResults.scoreConfidenceMin, actualResults.scoreConfidenceMin, 0);
+		assertEquals(expectedResults.scoreConfidenceMax, actualResults.scoreConfidenceMax, 0);
+		assertEquals(expectedResults.scoreUnit, actualResults.scoreUnit);
+		assertEquals(expectedResults.rawData.length, actualResults.rawData.length);
+		for (int fork = 0; fork < expectedResults.rawData.length; fork++) {
+			assertArrayEquals(expectedResults.rawData[fork], actualResults.rawData[fork], 0);
+		}
+	}
+}
@@ -0,0 +1,92 @@
+package com.github.ptitjes.jmh.report.stats;
+
+import com.github.ptitjes.jmh.report.annotations.OutlierMethod;
+import com.github.ptitjes.jmh.report.data.RunResultData;
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+/**
+ * @author Didier Villevalois
+ */
+public class OutlierDetectorTest {
+
+	private static final double[][] RAW_DATA = new double[][]{
+			{10, 11, 10, 12, 11},
+			{10, 11, 50, 10, 12},
+	};
+
+	@Test
+	public void noneLeavesResultsAlone() {
+		RunResultData.Results results = makeResults(RAW_DATA);
+		assertSame(results, new OutlierDetector(new OutlierConfiguration()).analyze(results));
+	}
+
+	@Test
+	public void tukeyMarksOutliers() {
+		RunResultData.Results analyzed = detector(OutlierMethod.TUKEY, false).analyze(makeResults(RAW_DATA));
+
+		assertEquals(1, analyzed.outlierCount);
+		assertTrue(analyzed.outliers[1][2]);
+		assertFalse(analyzed.outliers[0][0]);
+		assertFalse(analyzed.outliersExcluded);
+		assertEquals(14.7, analyzed.score, 0);
+	}
+
+	@Test
+	public void madExcludesOutliers() {
+		RunResultData.Results analyzed = detector(OutlierMethod.MAD, true).analyze(makeResults(RAW_DATA));
+
+		assertEquals(1, analyzed.outlierCount);
+		assertTrue(analyzed.outliers[1][2]);
+		assertTrue(analyzed.outliersExcluded);
+		assertEquals(97 / 9.0, analyzed.score, 1e-12);
+		assertTrue(analyzed.scoreConfidenceMin < analyzed.score && analyzed.score < analyzed.scoreConfidenceMax);
+		assertSame(RAW_DATA, analyzed.rawData);
+	}
+
+	@Test
+	public void madFallsBackToMeanDeviation() {
+		// More than half of the values are equal, so that the MAD is zero
+		double[][] rawData = new double[][]{{10, 10, 10, 10, 10, 10, 11, 30}};
+		RunResultData.Results analyzed = detector(OutlierMethod.MAD, false).analyze(makeResults(rawData));
+
+		assertEquals(1, analyzed.outlierCount);
+		assertTrue(analyzed.outliers[0][7]);
+	}
+
+	@Test
+	public void keepsTooFewValues() {
+		RunResultData.Results results = makeResults(new double[][]{{1, 100}});
+		assertSame(results, detector(OutlierMethod.TUKEY, true).analyze(results));
+	}
+
+	@Test
+	public void doesNotExcludeWithoutOutliers() {
+		RunResultData.Results analyzed = detector(OutlierMethod.TUKEY, true).analyze(makeResults(new double[][]{{1, 2, 3, 4}}));
+
+		assertEquals(0, analyzed.outlierCount);
+		assertFalse(analyzed.outliersExcluded);
+		assertEquals(2.5, analyzed.score, 0);
+	}
+
+	private static OutlierDetector detector(OutlierMethod method, boolean exclude) {
+		OutlierConfiguration configuration = new OutlierConfiguration();
+		configuration.method = method;
+		configuration.exclude = exclude;
+		return new OutlierDetector(configuration);
+	}
+
+	private static RunResultData.Results makeResults(double[][] rawData) {
+		double sum = 0;
+		int count = 0;
+		for (double[] forkData : rawData) {
+			for (double value : forkData) {
+				sum += value;
+				count++;
+			}
+		}
+		double mean = sum / count;
+		return new RunResultData.Results(mean, 1, mean - 1, mean + 1, "ns/op", rawData);
+	}
+}
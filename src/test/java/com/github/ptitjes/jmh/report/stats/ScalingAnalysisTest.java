@@ -0,0 +1,82 @@
+package com.github.ptitjes.jmh.report.stats;
+
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * @author Didier Villevalois
+ */
+public class ScalingAnalysisTest {
+
+	private static final int[] THREADS = new int[]{1, 2, 4, 8, 16};
+
+	@Test
+	public void fitsAmdahlSpeedups() {
+		ScalingAnalysis.Group group = fit(0.1, 0);
+
+		assertEquals(0.1, group.amdahlSigma, 1e-12);
+		assertEquals(1, group.amdahlRSquared, 1e-12);
+		assertEquals(0.1, group.uslSigma, 1e-9);
+		assertEquals(0, group.uslKappa, 1e-9);
+		assertTrue(Double.isNaN(group.uslPeakThreads()));
+	}
+
+	@Test
+	public void fitsRetrogradeSpeedups() {
+		ScalingAnalysis.Group group = fit(0.05, 0.01);
+
+		assertEquals(0.05, group.uslSigma, 1e-9);
+		assertEquals(0.01, group.uslKappa, 1e-9);
+		assertEquals(1, group.uslRSquared, 1e-9);
+		assertEquals(Math.sqrt(0.95 / 0.01), group.uslPeakThreads(), 1e-6);
+		assertTrue(group.amdahlRSquared < group.uslRSquared);
+	}
+
+	@Test
+	public void clampsSuperlinearSpeedups() {
+		ScalingAnalysis.Group group = makeGroup(THREADS, new double[]{1, 2.2, 4.5, 9, 18});
+		group.fit();
+
+		assertEquals(0, group.amdahlSigma, 0);
+		assertEquals(0, group.uslSigma, 0);
+		assertEquals(0, group.uslKappa, 0);
+	}
+
+	@Test
+	public void needsTwoThreadCountsForUsl() {
+		ScalingAnalysis.Group group = makeGroup(new int[]{1, 4}, new double[]{1, 4 / 1.3});
+		group.fit();
+
+		assertEquals(0.1, group.amdahlSigma, 1e-12);
+		assertTrue(Double.isNaN(group.uslSigma));
+		assertTrue(Double.isNaN(group.uslKappa));
+	}
+
+	@Test
+	public void doesNotFitASingleThreadCount() {
+		ScalingAnalysis.Group group = makeGroup(new int[]{1}, new double[]{1});
+		group.fit();
+
+		assertTrue(Double.isNaN(group.amdahlSigma));
+		assertTrue(Double.isNaN(group.uslSigma));
+	}
+
+	private static ScalingAnalysis.Group fit(double sigma, double kappa) {
+		double[] speedups = new double[THREADS.length];
+		for (int i = 0; i < THREADS.length; i++) {
+			double n = THREADS[i];
+			speedups[i] = n / (1 + sigma * (n - 1) + kappa * n * (n - 1));
+		}
+		ScalingAnalysis.Group group = makeGroup(THREADS, speedups);
+		group.fit();
+		return group;
+	}
+
+	private static ScalingAnalysis.Group makeGroup(int[] threads, double[] speedups) {
+		double[] throughputs = new double[threads.length];
+		for (int i = 0; i < threads.length; i++) throughputs[i] = 1000 * speedups[i];
+		return new ScalingAnalysis.Group("test", threads, throughputs, speedups);
+	}
+}
@@ -0,0 +1,62 @@
+package com.github.ptitjes.jmh.report.stats;
+
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.Random;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * @author Didier Villevalois
+ */
+public class SelectionTest {
+
+	@Test
+	public void medianOfOddCount() {
+		assertEquals(3, Selection.median(new double[]{5, 1, 4, 2, 3}, 5), 0);
+	}
+
+	@Test
+	public void medianOfEvenCountIsInterpolated() {
+		assertEquals(2.5, Selection.median(new double[]{4, 1, 3, 2}, 4), 0);
+	}
+
+	@Test
+	public void onlyConsidersLength() {
+		assertEquals(2, Selection.median(new double[]{3, 1, 2, 100, 100}, 3), 0);
+	}
+
+	@Test
+	public void emptyIsNaN() {
+		assertTrue(Double.isNaN(Selection.median(new double[0], 0)));
+	}
+
+	@Test
+	public void quantilesOfEqualValues() {
+		double[] values = new double[100];
+		Arrays.fill(values, 7);
+		assertEquals(7, Selection.quantile(values, values.length, 0.25), 0);
+		assertEquals(7, Selection.quantile(values, values.length, 1), 0);
+	}
+
+	@Test
+	public void matchesSortedQuantiles() {
+		Random random = new Random(42);
+		for (int length = 1; length < 200; length++) {
+			double[] values = new double[length];
+			// Few distinct values, as quantized timings have
+			for (int i = 0; i < length; i++) values[i] = random.nextInt(10);
+			double[] sorted = values.clone();
+			Arrays.sort(sorted);
+
+			for (double p : new double[]{0, 0.25, 0.5, 0.75, 1}) {
+				double position = (length - 1) * p;
+				int k = (int) Math.floor(position);
+				double expected = k + 1 < length ? sorted[k] + (position - k) * (sorted[k + 1] - sorted[k]) : sorted[k];
+				assertEquals(expected, Selection.quantile(values.clone(), length, p), 1e-12);
+			}
+		}
+	}
+}
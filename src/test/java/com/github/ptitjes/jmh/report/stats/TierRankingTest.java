@@ -0,0 +1,62 @@
+package com.github.ptitjes.jmh.report.stats;
+
+import org.junit.Test;
+
+import java.util.Arrays;
+
+import static org.junit.Assert.assertEquals;
+
+/**
+ * @author Didier Villevalois
+ */
+public class TierRankingTest {
+
+	@Test
+	public void exactPValueOfSeparatedSamples() {
+		assertEquals(2 / 70.0, TierRanking.mannWhitneyPValue(new double[]{1, 2, 3, 4}, new double[]{5, 6, 7, 8}), 1e-12);
+		assertEquals(2 / 70.0, TierRanking.mannWhitneyPValue(new double[]{5, 6, 7, 8}, new double[]{1, 2, 3, 4}), 1e-12);
+	}
+
+	@Test
+	public void exactPValueOfInterleavedSamples() {
+		assertEquals(4 / 70.0, TierRanking.mannWhitneyPValue(new double[]{1, 2, 3, 5}, new double[]{4, 6, 7, 8}), 1e-12);
+		assertEquals(1, TierRanking.mannWhitneyPValue(new double[]{1, 4, 5, 8}, new double[]{2, 3, 6, 7}), 0);
+	}
+
+	@Test
+	public void tiesUseTheCorrectedNormalApproximation() {
+		double pValue = TierRanking.mannWhitneyPValue(new double[]{1, 2, 2, 3}, new double[]{2, 3, 4, 5});
+		assertEquals(0.1366582, pValue, 1e-6);
+	}
+
+	@Test
+	public void identicalSamplesAreNotDifferent() {
+		assertEquals(1, TierRanking.mannWhitneyPValue(new double[]{3, 3, 3}, new double[]{3, 3, 3}), 0);
+	}
+
+	@Test
+	public void minimumPValue() {
+		assertEquals(0.1, TierRanking.minimumPValue(3, 3), 1e-12);
+		assertEquals(1, TierRanking.minimumPValue(1, 1), 0);
+		assertEquals(TierRanking.mannWhitneyPValue(range(0, 30), range(30, 60)), TierRanking.minimumPValue(30, 30), 0);
+		assertEquals(3.02e-11, TierRanking.minimumPValue(30, 30), 1e-13);
+	}
+
+	@Test
+	public void holmStepsDown() {
+		boolean[] significant = TierRanking.holm(new double[]{0.01, 0.04, 0.03, 0.005}, 0.05);
+		assertEquals("[true, false, false, true]", Arrays.toString(significant));
+	}
+
+	@Test
+	public void holmDoesNotSplitEqualPValues() {
+		assertEquals("[true, true]", Arrays.toString(TierRanking.holm(new double[]{0.02, 0.02}, 0.05)));
+		assertEquals("[false, false]", Arrays.toString(TierRanking.holm(new double[]{0.03, 0.03}, 0.05)));
+	}
+
+	private static double[] range(int from, int to) {
+		double[] values = new double[to - from];
+		for (int i = 0; i < values.length; i++) values[i] = from + i;
+		return values;
+	}
+}